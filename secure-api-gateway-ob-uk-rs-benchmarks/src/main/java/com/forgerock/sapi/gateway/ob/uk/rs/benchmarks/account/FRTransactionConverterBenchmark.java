@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.benchmarks.account;
+
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.testsupport.v4.account.FRTransactionDataTestDataFactory.aValidFRTransactionData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRTransactionData;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.account.FRTransactionConverter;
+
+/**
+ * Benchmarks {@link FRTransactionConverter#toOBTransaction6(FRTransactionData)} over a page of transactions, this
+ * conversion is done for every transaction returned by the v4 Transactions API and by the data export.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FRTransactionConverterBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int numberOfTransactions;
+
+    private List<FRTransactionData> transactions;
+
+    @Setup
+    public void setup() {
+        transactions = new ArrayList<>(numberOfTransactions);
+        for (int i = 0; i < numberOfTransactions; i++) {
+            transactions.add(aValidFRTransactionData("account-" + (i % 10)));
+        }
+    }
+
+    @Benchmark
+    public void toOBTransaction6(Blackhole blackhole) {
+        for (FRTransactionData transaction : transactions) {
+            blackhole.consume(FRTransactionConverter.toOBTransaction6(transaction));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.benchmarks.payment.file;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.forgerock.sapi.gateway.ob.uk.rs.benchmarks.payment.file.PaymentFileFixtures.GeneratedPaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.validation.v4.FilePaymentFileContentValidator;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.validation.v4.FilePaymentFileContentValidator.FilePaymentFileContentValidationContext;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.DefaultPaymentFileType;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.HashUtils;
+import com.forgerock.sapi.gateway.ob.uk.rs.validation.ValidationResult;
+
+import uk.org.openbanking.datamodel.v3.error.OBError1;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteFileConsent3;
+import uk.org.openbanking.testsupport.v4.payment.OBWriteFileConsentTestDataFactory;
+
+/**
+ * Benchmarks {@link FilePaymentFileContentValidator}, both on its own and combined with hashing the file content
+ * which is what the file upload endpoint has to do before it can validate the file against the consent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilePaymentFileContentValidatorBenchmark {
+
+    @Param({"UK_OBIE_PAIN_001", "UK_OBIE_PAYMENT_INITIATION_V3_1"})
+    private DefaultPaymentFileType fileType;
+
+    @Param({"10", "1000", "10000"})
+    private int numberOfTransactions;
+
+    private final FilePaymentFileContentValidator validator = new FilePaymentFileContentValidator();
+
+    private GeneratedPaymentFile paymentFile;
+    private PaymentFileSummary paymentFileSummary;
+    private OBWriteFileConsent3 fileConsent;
+
+    @Setup
+    public void setup() {
+        paymentFile = PaymentFileFixtures.generate(fileType, numberOfTransactions);
+        paymentFileSummary = new PaymentFileSummary(fileType.getPaymentFileType(), paymentFile.getNumberOfTransactions(),
+                paymentFile.getControlSum());
+        fileConsent = OBWriteFileConsentTestDataFactory.aValidOBWriteFileConsent3(fileType.getPaymentFileType().getFileType(),
+                paymentFile.getFileHash(), String.valueOf(paymentFile.getNumberOfTransactions()), paymentFile.getControlSum());
+    }
+
+    @Benchmark
+    public ValidationResult<OBError1> validate() {
+        return validator.validate(new FilePaymentFileContentValidationContext(paymentFile.getFileHash(), paymentFileSummary, fileConsent));
+    }
+
+    @Benchmark
+    public ValidationResult<OBError1> hashAndValidate() {
+        final String fileHash = HashUtils.computeSHA256FullHash(paymentFile.getContent());
+        return validator.validate(new FilePaymentFileContentValidationContext(fileHash, paymentFileSummary, fileConsent));
+    }
+}
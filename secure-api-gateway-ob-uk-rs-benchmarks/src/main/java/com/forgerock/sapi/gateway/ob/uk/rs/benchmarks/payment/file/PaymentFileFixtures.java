@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.benchmarks.payment.file;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.DefaultPaymentFileType;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.HashUtils;
+
+/**
+ * Generates payment files of a given size in each of the {@link DefaultPaymentFileType} formats.
+ *
+ * The files are generated deterministically so that results are comparable between runs and between releases.
+ */
+public final class PaymentFileFixtures {
+
+    private PaymentFileFixtures() {
+    }
+
+    /**
+     * A generated payment file along with the values a consent would need to declare for the file to be accepted.
+     */
+    public static final class GeneratedPaymentFile {
+        private final DefaultPaymentFileType fileType;
+        private final String content;
+        private final byte[] bytes;
+        private final int numberOfTransactions;
+        private final BigDecimal controlSum;
+        private final String fileHash;
+
+        private GeneratedPaymentFile(DefaultPaymentFileType fileType, String content, int numberOfTransactions,
+                                     BigDecimal controlSum) {
+            this.fileType = fileType;
+            this.content = content;
+            this.bytes = content.getBytes(StandardCharsets.UTF_8);
+            this.numberOfTransactions = numberOfTransactions;
+            this.controlSum = controlSum;
+            this.fileHash = HashUtils.computeSHA256FullHash(content);
+        }
+
+        public DefaultPaymentFileType getFileType() {
+            return fileType;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public int getNumberOfTransactions() {
+            return numberOfTransactions;
+        }
+
+        public BigDecimal getControlSum() {
+            return controlSum;
+        }
+
+        public String getFileHash() {
+            return fileHash;
+        }
+    }
+
+    public static GeneratedPaymentFile generate(DefaultPaymentFileType fileType, int numberOfTransactions) {
+        switch (fileType) {
+        case UK_OBIE_PAIN_001:
+            return generatePain001(numberOfTransactions);
+        case UK_OBIE_PAYMENT_INITIATION_V3_1:
+            return generatePaymentInitiation31(numberOfTransactions);
+        default:
+            throw new IllegalArgumentException("Unsupported payment file type: " + fileType);
+        }
+    }
+
+    public static GeneratedPaymentFile generatePain001(int numberOfTransactions) {
+        final BigDecimal controlSum = controlSum(numberOfTransactions);
+        final StringBuilder xml = new StringBuilder(512 * (numberOfTransactions + 1));
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n")
+           .append("<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pain.001.001.08\">\n")
+           .append("<CstmrCdtTrfInitn>\n")
+           .append("<GrpHdr>\n")
+           .append("<MsgId>BENCHMARK/CCT001</MsgId>\n")
+           .append("<CreDtTm>2024-01-01T09:00:00</CreDtTm>\n")
+           .append("<NbOfTxs>").append(numberOfTransactions).append("</NbOfTxs>\n")
+           .append("<CtrlSum>").append(controlSum.toPlainString()).append("</CtrlSum>\n")
+           .append("<InitgPty><Nm>Benchmark Corporation</Nm></InitgPty>\n")
+           .append("</GrpHdr>\n")
+           .append("<PmtInf>\n")
+           .append("<PmtInfId>BENCHMARK/001</PmtInfId>\n")
+           .append("<PmtMtd>TRF</PmtMtd>\n")
+           .append("<ReqdExctnDt><Dt>2024-01-02</Dt></ReqdExctnDt>\n")
+           .append("<Dbtr><Nm>Benchmark Corporation</Nm></Dbtr>\n")
+           .append("<DbtrAcct><Id><Othr><Id>00125574999</Id></Othr></Id></DbtrAcct>\n")
+           .append("<DbtrAgt><FinInstnId><BICFI>BBBBGB2L</BICFI></FinInstnId></DbtrAgt>\n");
+        for (int i = 0; i < numberOfTransactions; i++) {
+            xml.append("<CdtTrfTxInf>\n")
+               .append("<PmtId><InstrId>INSTR-").append(i).append("</InstrId><EndToEndId>E2E-").append(i).append("</EndToEndId></PmtId>\n")
+               .append("<Amt><InstdAmt Ccy=\"GBP\">").append(amount(i).toPlainString()).append("</InstdAmt></Amt>\n")
+               .append("<CdtrAgt><FinInstnId><BICFI>AAAAGB2L</BICFI></FinInstnId></CdtrAgt>\n")
+               .append("<Cdtr><Nm>Creditor ").append(i).append("</Nm></Cdtr>\n")
+               .append("<CdtrAcct><Id><Othr><Id>").append(accountNumber(i)).append("</Id></Othr></Id></CdtrAcct>\n")
+               .append("<RmtInf><Ustrd>Invoice ").append(i).append("</Ustrd></RmtInf>\n")
+               .append("</CdtTrfTxInf>\n");
+        }
+        xml.append("</PmtInf>\n")
+           .append("</CstmrCdtTrfInitn>\n")
+           .append("</Document>\n");
+        return new GeneratedPaymentFile(DefaultPaymentFileType.UK_OBIE_PAIN_001, xml.toString(), numberOfTransactions, controlSum);
+    }
+
+    public static GeneratedPaymentFile generatePaymentInitiation31(int numberOfTransactions) {
+        final StringBuilder json = new StringBuilder(384 * (numberOfTransactions + 1));
+        json.append("{\"Data\":{\"DomesticPayments\":[");
+        for (int i = 0; i < numberOfTransactions; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"InstructionIdentification\":\"INSTR-").append(i).append('"')
+                .append(",\"EndToEndIdentification\":\"E2E-").append(i).append('"')
+                .append(",\"LocalInstrument\":\"UK.OBIE.FPS\"")
+                .append(",\"InstructedAmount\":{\"Amount\":\"").append(amount(i).toPlainString()).append("\",\"Currency\":\"GBP\"}")
+                .append(",\"CreditorAccount\":{\"SchemeName\":\"UK.OBIE.SortCodeAccountNumber\",\"Identification\":\"")
+                .append(accountNumber(i)).append("\",\"Name\":\"Creditor ").append(i).append("\"}")
+                .append(",\"RemittanceInformation\":{\"Reference\":\"REF-").append(i).append("\",\"Unstructured\":\"Invoice ").append(i).append("\"}")
+                .append('}');
+        }
+        json.append("]}}");
+        return new GeneratedPaymentFile(DefaultPaymentFileType.UK_OBIE_PAYMENT_INITIATION_V3_1, json.toString(),
+                numberOfTransactions, controlSum(numberOfTransactions));
+    }
+
+    private static BigDecimal amount(int index) {
+        return BigDecimal.valueOf(100 + (index % 9_900), 2);
+    }
+
+    private static BigDecimal controlSum(int numberOfTransactions) {
+        BigDecimal controlSum = BigDecimal.ZERO;
+        for (int i = 0; i < numberOfTransactions; i++) {
+            controlSum = controlSum.add(amount(i));
+        }
+        return controlSum;
+    }
+
+    private static String accountNumber(int index) {
+        return String.format("080800%08d", index);
+    }
+}
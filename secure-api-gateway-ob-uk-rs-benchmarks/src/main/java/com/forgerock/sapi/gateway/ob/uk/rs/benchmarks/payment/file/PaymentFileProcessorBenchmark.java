@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.benchmarks.payment.file;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.rs.benchmarks.payment.file.PaymentFileFixtures.GeneratedPaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.DefaultPaymentFileType;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.PaymentFileProcessor;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.json.OBIEPaymentInitiation31FileProcessor;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.xml.OBIEPain001FileProcessor;
+
+/**
+ * Benchmarks parsing of payment files by {@link OBIEPain001FileProcessor} and
+ * {@link OBIEPaymentInitiation31FileProcessor}, both when the file is held in memory and when it is streamed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentFileProcessorBenchmark {
+
+    @Param({"UK_OBIE_PAIN_001", "UK_OBIE_PAYMENT_INITIATION_V3_1"})
+    private DefaultPaymentFileType fileType;
+
+    @Param({"10", "1000", "10000"})
+    private int numberOfTransactions;
+
+    private GeneratedPaymentFile paymentFile;
+
+    private PaymentFileProcessor processor;
+
+    @Setup
+    public void setup() {
+        paymentFile = PaymentFileFixtures.generate(fileType, numberOfTransactions);
+        processor = createProcessor(fileType);
+    }
+
+    @Benchmark
+    public PaymentFile processFile() throws OBErrorException {
+        return processor.processFile(paymentFile.getContent());
+    }
+
+    @Benchmark
+    public PaymentFileSummary processFileStreaming(Blackhole blackhole) throws OBErrorException {
+        return processor.processFile(new ByteArrayInputStream(paymentFile.getBytes()), blackhole::consume);
+    }
+
+    private static PaymentFileProcessor createProcessor(DefaultPaymentFileType fileType) {
+        switch (fileType) {
+        case UK_OBIE_PAIN_001:
+            return new OBIEPain001FileProcessor();
+        case UK_OBIE_PAYMENT_INITIATION_V3_1:
+            return new OBIEPaymentInitiation31FileProcessor();
+        default:
+            throw new IllegalArgumentException("Unsupported payment file type: " + fileType);
+        }
+    }
+}
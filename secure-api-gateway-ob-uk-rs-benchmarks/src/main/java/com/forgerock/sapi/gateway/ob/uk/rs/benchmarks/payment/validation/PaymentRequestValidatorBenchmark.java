@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.benchmarks.payment.validation;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.forgerock.sapi.gateway.ob.uk.rs.validation.ValidationResult;
+import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.v3.payment.CurrencyCodeValidator;
+import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.v4.payment.OBWriteDomestic2DataInitiationInstructedAmountValidator;
+import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.v4.payment.OBWriteDomestic2Validator;
+import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.v4.payment.OBWriteDomestic2Validator.OBWriteDomestic2ValidationContext;
+import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.v4.payment.OBWriteInternational3Validator;
+import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.v4.payment.OBWriteInternational3Validator.OBWriteInternational3ValidationContext;
+
+import uk.org.openbanking.datamodel.v3.error.OBError1;
+import uk.org.openbanking.datamodel.v4.common.OBRisk1;
+import uk.org.openbanking.datamodel.v4.common.OBRisk1PaymentContextCode;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteDomestic2;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteDomestic2Data;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteDomestic2DataInitiation;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteDomestic2DataInitiationInstructedAmount;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteDomesticConsent4;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteDomesticConsent4Data;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteInternational3;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteInternational3Data;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteInternational3DataInitiation;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteInternationalConsent5;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteInternationalConsent5Data;
+
+/**
+ * Benchmarks the v4 payment request validators which run on every payment submission.
+ *
+ * The payment request and consent are built separately so that the initiation and risk comparisons are done between
+ * equal, but not identical, objects - as is the case when the request has been deserialized from the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentRequestValidatorBenchmark {
+
+    private static final String AUTHORISED_STATUS = "Authorised";
+
+    /**
+     * Whether the payment request matches the consent, when it does not the error reporting path is exercised.
+     */
+    @Param({"true", "false"})
+    private boolean matchesConsent;
+
+    private final OBWriteDomestic2Validator domesticValidator = new OBWriteDomestic2Validator();
+    private final OBWriteInternational3Validator internationalValidator = new OBWriteInternational3Validator();
+    private final OBWriteDomestic2DataInitiationInstructedAmountValidator instructedAmountValidator =
+            new OBWriteDomestic2DataInitiationInstructedAmountValidator(new CurrencyCodeValidator(Set.of("GBP", "EUR", "USD")));
+
+    private OBWriteDomestic2ValidationContext domesticValidationContext;
+    private OBWriteInternational3ValidationContext internationalValidationContext;
+    private OBWriteDomestic2DataInitiationInstructedAmount instructedAmount;
+
+    @Setup
+    public void setup() {
+        final String paymentEndToEndId = matchesConsent ? "E2E-001" : "E2E-002";
+
+        final OBWriteDomesticConsent4 domesticConsent = new OBWriteDomesticConsent4()
+                .data(new OBWriteDomesticConsent4Data().initiation(createDomesticInitiation("E2E-001")))
+                .risk(createRisk());
+        final OBWriteDomestic2 domesticPayment = new OBWriteDomestic2()
+                .data(new OBWriteDomestic2Data().initiation(createDomesticInitiation(paymentEndToEndId)))
+                .risk(createRisk());
+        domesticValidationContext = new OBWriteDomestic2ValidationContext(domesticPayment, domesticConsent, AUTHORISED_STATUS);
+
+        final OBWriteInternationalConsent5 internationalConsent = new OBWriteInternationalConsent5()
+                .data(new OBWriteInternationalConsent5Data().initiation(createInternationalInitiation("E2E-001")))
+                .risk(createRisk());
+        final OBWriteInternational3 internationalPayment = new OBWriteInternational3()
+                .data(new OBWriteInternational3Data().initiation(createInternationalInitiation(paymentEndToEndId)))
+                .risk(createRisk());
+        internationalValidationContext = new OBWriteInternational3ValidationContext(internationalPayment, internationalConsent, AUTHORISED_STATUS);
+
+        instructedAmount = createInstructedAmount(matchesConsent ? "GBP" : "JPY");
+    }
+
+    @Benchmark
+    public ValidationResult<OBError1> validateDomesticPayment() {
+        return domesticValidator.validate(domesticValidationContext);
+    }
+
+    @Benchmark
+    public ValidationResult<OBError1> validateInternationalPayment() {
+        return internationalValidator.validate(internationalValidationContext);
+    }
+
+    @Benchmark
+    public ValidationResult<OBError1> validateInstructedAmount() {
+        return instructedAmountValidator.validate(instructedAmount);
+    }
+
+    private static OBRisk1 createRisk() {
+        return new OBRisk1().paymentContextCode(OBRisk1PaymentContextCode.BILLINGGOODSANDSERVICESINADVANCE);
+    }
+
+    private static OBWriteDomestic2DataInitiationInstructedAmount createInstructedAmount(String currency) {
+        return new OBWriteDomestic2DataInitiationInstructedAmount().amount("123.45").currency(currency);
+    }
+
+    private static OBWriteDomestic2DataInitiation createDomesticInitiation(String endToEndIdentification) {
+        return new OBWriteDomestic2DataInitiation().localInstrument("UK.OBIE.FPS")
+                .instructionIdentification("INSTR-001")
+                .endToEndIdentification(endToEndIdentification)
+                .instructedAmount(createInstructedAmount("GBP"));
+    }
+
+    private static OBWriteInternational3DataInitiation createInternationalInitiation(String endToEndIdentification) {
+        return new OBWriteInternational3DataInitiation().localInstrument("UK.OBIE.SWIFT")
+                .instructionIdentification("INSTR-001")
+                .endToEndIdentification(endToEndIdentification)
+                .currencyOfTransfer("EUR")
+                .instructedAmount(createInstructedAmount("GBP"));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.benchmarks.vrp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.vrp.FRDomesticVRPConsentConverters;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.migration.ConsentComparisonService;
+import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.vrp.v3_1_10.DomesticVRPConsent;
+
+import uk.org.openbanking.datamodel.v4.vrp.OBDomesticVRPConsentRequest;
+import uk.org.openbanking.testsupport.v4.vrp.OBDomesticVrpConsentRequestTestDataFactory;
+
+/**
+ * Benchmarks {@link ConsentComparisonService#doFieldsMatch(OBDomesticVRPConsentRequest, DomesticVRPConsent)} for a
+ * consent which matches the request, so that every field comparison is made.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsentComparisonServiceBenchmark {
+
+    private final ConsentComparisonService consentComparisonService = new ConsentComparisonService();
+
+    private OBDomesticVRPConsentRequest consentRequest;
+    private DomesticVRPConsent consent;
+
+    @Setup
+    public void setup() {
+        consentRequest = OBDomesticVrpConsentRequestTestDataFactory.aValidOBDomesticVRPConsentRequest();
+        consent = new DomesticVRPConsent();
+        consent.setRequestObj(FRDomesticVRPConsentConverters.toFRDomesticVRPConsent(consentRequest));
+    }
+
+    @Benchmark
+    public boolean doFieldsMatch() {
+        return consentComparisonService.doFieldsMatch(consentRequest, consent);
+    }
+}
@@ -19,12 +19,18 @@ import static java.util.Objects.requireNonNull;
 import static org.springframework.http.HttpMethod.GET;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -39,17 +45,47 @@ import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ExceptionClie
 import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.model.User;
 import com.forgerock.sapi.gateway.uk.common.shared.api.meta.obie.OBHeaders;
 import com.forgerock.sapi.gateway.uk.common.shared.fapi.FapiInteractionIdContext;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Specific service to retrieve the user data from the platform
+ *
+ * Lookups are held in a bounded, TTL based cache keyed by both userName and userId, a user fetched by one is also
+ * cached under the other. Users which are not found are cached for the shorter negativeTtl, so that repeated lookups
+ * of an unknown user do not each make a call to the platform. Users which are found but are not active are refused
+ * without being cached, so that a user is accepted as soon as their account is reactivated. Other failures, such as
+ * the platform being unavailable, are not cached.
+ *
+ * Concurrent lookups of a user which is not cached share a single call, made by the thread which started the lookup
+ * while the other threads wait for its result; no lock is held by the cache while the platform is called.
+ *
+ * Hit/miss/eviction metrics are published to the MeterRegistry, when one is available, under the cache name "users".
+ *
+ * Example config:
+ *   cloud:
+ *     client:
+ *       users:
+ *         cache:
+ *           ttl: PT60S
+ *           negativeTtl: PT10S
+ *           maxSize: 10000
  */
 @Service
 @Slf4j
 public class UserClientService {
+
+    static final String CACHE_NAME = "users";
+
     private final RestTemplate restTemplate;
 
+    private final AsyncCache<UserKey, UserLookup> userCache;
+
     /**
      * Template of the URI used to query for a user by username.
      * <p>
@@ -64,8 +100,18 @@ public class UserClientService {
      */
     private final UriComponents queryByUserIdUriTemplate;
 
-    public UserClientService(RestTemplate restTemplate, CloudClientConfiguration cloudClientConfiguration) {
+    public UserClientService(RestTemplate restTemplate, CloudClientConfiguration cloudClientConfiguration,
+                             @Value("${cloud.client.users.cache.ttl:PT60S}") Duration ttl,
+                             @Value("${cloud.client.users.cache.negativeTtl:PT10S}") Duration negativeTtl,
+                             @Value("${cloud.client.users.cache.maxSize:10000}") long maxSize,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
         this.restTemplate = restTemplate;
+        this.userCache = Caffeine.newBuilder()
+                                 .expireAfter(new UserLookupExpiry(ttl, negativeTtl))
+                                 .maximumSize(maxSize)
+                                 .recordStats()
+                                 .buildAsync();
+        meterRegistry.ifUnique(registry -> CaffeineCacheMetrics.monitor(registry, userCache.synchronous(), CACHE_NAME));
         this.queryByUsernameUriTemplate = UriComponentsBuilder.fromHttpUrl(cloudClientConfiguration.getBaseUri())
                                                               .path("/repo/users")
                                                               .queryParam("_queryFilter","userName+eq+\"{username}\"")
@@ -78,10 +124,68 @@ public class UserClientService {
 
     public User getUserByName(String userName) throws ExceptionClient {
         paramValidation(userName, "The parameter 'userName' cannot be null");
-        final URI uri = queryByUsernameUriTemplate.expand(Map.of("username", userName)).toUri();
-        return executeGetRequest(uri);
+        return getUser(UserKey.byName(userName));
     }
 
+    /**
+     * Removes all users from the cache
+     */
+    public void invalidateAll() {
+        userCache.synchronous().invalidateAll();
+    }
+
+    private User getUser(UserKey key) throws ExceptionClient {
+        final CompletableFuture<UserLookup> newLookup = new CompletableFuture<>();
+        final CompletableFuture<UserLookup> lookup = userCache.get(key, (k, executor) -> newLookup);
+        if (lookup == newLookup) {
+            // The lookup is loaded by this thread, which carries the x-fapi-interaction-id of the request, concurrent
+            // lookups of the key wait for its result. A lookup which fails is removed from the cache by Caffeine.
+            try {
+                newLookup.complete(loadUser(key));
+            } catch (Throwable t) {
+                newLookup.completeExceptionally(t);
+            }
+        }
+        final UserLookup userLookup = awaitLookup(lookup);
+        final User user = userLookup.getUser();
+        // Also cache the user under its other key
+        final UserKey otherKey = key.isUserId() ? UserKey.byName(user.getUserName()) : UserKey.byId(user.getId());
+        if (otherKey.getValue() != null) {
+            userCache.asMap().putIfAbsent(otherKey, lookup);
+        }
+        return user;
+    }
+
+    private static UserLookup awaitLookup(CompletableFuture<UserLookup> lookup) throws ExceptionClient {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedExceptionClient) {
+                throw ((UncheckedExceptionClient) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    private UserLookup loadUser(UserKey key) {
+        final URI uri = key.isUserId() ? queryByUserIdUriTemplate.expand(Map.of("userId", key.getValue())).toUri()
+                                       : queryByUsernameUriTemplate.expand(Map.of("username", key.getValue())).toUri();
+        try {
+            final User user = executeGetRequest(uri);
+            if (!"active".equals(user.getAccountStatus())) {
+                return UserLookup.notActive(userNotFound(uri));
+            }
+            return UserLookup.found(user);
+        } catch (ExceptionClient e) {
+            return UserLookup.notFound(e);
+        }
+    }
+
+    /**
+     * @return the user, which may not be active
+     * @throws ExceptionClient if the user is not found
+     * @throws UncheckedExceptionClient for other client errors, which must not be cached
+     */
     private User executeGetRequest(URI uri) throws ExceptionClient {
         log.debug("(UserServiceClient#request) request the user details from platform: {}", uri);
         try {
@@ -91,30 +195,39 @@ public class UserClientService {
                                                                         User.class);
 
             final User user = responseEntity.getBody();
-            if (Objects.isNull(user) || !user.getAccountStatus().equals("active")) {
-                String message = String.format("User not found for query: %s", uri);
-                log.error(message);
-                throw new ExceptionClient(
-                        ErrorClient.builder()
-                                .errorType(ErrorType.NOT_FOUND)
-                                .reason(message)
-                                .build(),
-                        message
-                );
+            if (Objects.isNull(user)) {
+                throw userNotFound(uri);
             }
 
             return user;
         } catch (HttpClientErrorException exception) {
-            throw new ExceptionClient(
+            final ExceptionClient exceptionClient = new ExceptionClient(
                     ErrorClient.builder()
                             .errorType(ErrorType.NOT_FOUND)
                             .reason(exception.getMessage())
                             .build(),
                     exception.getMessage()
             );
+            if (exception.getStatusCode().value() != HttpStatus.NOT_FOUND.value()) {
+                // Not a lookup of an unknown user, e.g. the RS is not authorised, so the failure must not be cached
+                throw new UncheckedExceptionClient(exceptionClient);
+            }
+            throw exceptionClient;
         }
     }
 
+    private static ExceptionClient userNotFound(URI uri) {
+        String message = String.format("User not found for query: %s", uri);
+        log.error(message);
+        return new ExceptionClient(
+                ErrorClient.builder()
+                        .errorType(ErrorType.NOT_FOUND)
+                        .reason(message)
+                        .build(),
+                message
+        );
+    }
+
     private void paramValidation(String parameter, String message) throws ExceptionClient {
         try {
             requireNonNull(parameter, message);
@@ -139,7 +252,152 @@ public class UserClientService {
     public User getUserById(String userId) throws ExceptionClient {
         paramValidation(userId, "The parameter userId must be supplied");
         log.debug("Requesting user details from the platform for userId: {}", userId);
-        final URI uri = queryByUserIdUriTemplate.expand(Map.of("userId", userId)).toUri();
-        return executeGetRequest(uri);
+        return getUser(UserKey.byId(userId));
+    }
+
+    /**
+     * Result of looking up a user, either the user or the ExceptionClient raised because the user was not found or is
+     * not active
+     */
+    private static class UserLookup {
+
+        private final User user;
+
+        private final boolean notActive;
+
+        private final ErrorClient notFoundError;
+
+        private final String notFoundReason;
+
+        private UserLookup(User user, boolean notActive, ErrorClient notFoundError, String notFoundReason) {
+            this.user = user;
+            this.notActive = notActive;
+            this.notFoundError = notFoundError;
+            this.notFoundReason = notFoundReason;
+        }
+
+        static UserLookup found(User user) {
+            return new UserLookup(user, false, null, null);
+        }
+
+        static UserLookup notFound(ExceptionClient notFoundException) {
+            return new UserLookup(null, false, notFoundException.getErrorClient(), notFoundException.getMessage());
+        }
+
+        static UserLookup notActive(ExceptionClient notFoundException) {
+            return new UserLookup(null, true, notFoundException.getErrorClient(), notFoundException.getMessage());
+        }
+
+        boolean isFound() {
+            return user != null;
+        }
+
+        boolean isNotActive() {
+            return notActive;
+        }
+
+        /**
+         * @throws ExceptionClient a new exception for each call, so that cached lookups don't share exception state
+         */
+        User getUser() throws ExceptionClient {
+            if (!isFound()) {
+                throw new ExceptionClient(notFoundError, notFoundReason);
+            }
+            return user;
+        }
+    }
+
+    private static class UserLookupExpiry implements Expiry<UserKey, UserLookup> {
+
+        private final long ttlNanos;
+
+        private final long negativeTtlNanos;
+
+        private UserLookupExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        /**
+         * Lookups of users which are not active expire immediately, they are only shared by the lookups waiting for
+         * the call to the platform
+         */
+        @Override
+        public long expireAfterCreate(UserKey key, UserLookup userLookup, long currentTime) {
+            if (userLookup.isNotActive()) {
+                return 0;
+            }
+            return userLookup.isFound() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(UserKey key, UserLookup userLookup, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, userLookup, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UserKey key, UserLookup userLookup, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static class UserKey {
+
+        private final boolean userId;
+
+        private final String value;
+
+        private UserKey(boolean userId, String value) {
+            this.userId = userId;
+            this.value = value;
+        }
+
+        static UserKey byName(String userName) {
+            return new UserKey(false, userName);
+        }
+
+        static UserKey byId(String userId) {
+            return new UserKey(true, userId);
+        }
+
+        boolean isUserId() {
+            return userId;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final UserKey that = (UserKey) o;
+            return userId == that.userId && value.equals(that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, value);
+        }
+    }
+
+    /**
+     * Carries an ExceptionClient out of the cached lookup, which cannot complete with a checked exception
+     */
+    private static class UncheckedExceptionClient extends RuntimeException {
+
+        private UncheckedExceptionClient(ExceptionClient cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized ExceptionClient getCause() {
+            return (ExceptionClient) super.getCause();
+        }
     }
 }
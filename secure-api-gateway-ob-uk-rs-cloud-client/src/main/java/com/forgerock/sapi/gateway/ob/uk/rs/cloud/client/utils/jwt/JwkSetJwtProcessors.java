@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.utils.jwt;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds one JWT processor per JWKS URI so that the JWK set is downloaded once per key rotation rather than once per
+ * validation.
+ *
+ * The JWK source for each URI:
+ * <ul>
+ *     <li>caches the JWK set for {@link #JWK_SET_CACHE_TTL_MS}</li>
+ *     <li>refreshes the cached JWK set ahead of expiry, so that requests do not block on the download</li>
+ *     <li>refetches the JWK set when a token references an unknown kid, rate limited to one refetch per
+ *     {@link #JWK_SET_MIN_REFETCH_INTERVAL_MS}</li>
+ * </ul>
+ *
+ * The processors are thread safe and are shared by all callers. The JWKS URIs are supplied by callers, so the number of
+ * processors held is bounded to {@link #MAX_PROCESSORS} and processors which have not been used for
+ * {@link #PROCESSOR_EXPIRE_AFTER_ACCESS} are discarded along with their cached JWK set.
+ */
+@Slf4j
+class JwkSetJwtProcessors {
+
+    static final long JWK_SET_CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(15);
+    static final long JWK_SET_REFRESH_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(15);
+    static final long JWK_SET_REFRESH_AHEAD_MS = TimeUnit.SECONDS.toMillis(30);
+    static final long JWK_SET_MIN_REFETCH_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+
+    static final long MAX_PROCESSORS = 1000;
+    static final Duration PROCESSOR_EXPIRE_AFTER_ACCESS = Duration.ofHours(1);
+
+    private static final Cache<String, ConfigurableJWTProcessor<SecurityContext>> PROCESSORS = Caffeine.newBuilder()
+            .maximumSize(MAX_PROCESSORS)
+            .expireAfterAccess(PROCESSOR_EXPIRE_AFTER_ACCESS)
+            .build();
+
+    private JwkSetJwtProcessors() {
+    }
+
+    static ConfigurableJWTProcessor<SecurityContext> getProcessor(String jwkUri) throws MalformedURLException {
+        final ConfigurableJWTProcessor<SecurityContext> processor = PROCESSORS.getIfPresent(jwkUri);
+        if (processor != null) {
+            return processor;
+        }
+        // Validate the URI before computing the entry so the checked exception can be surfaced to the caller
+        final URL jwkSetUrl = new URL(jwkUri);
+        return PROCESSORS.get(jwkUri, uri -> createProcessor(jwkSetUrl));
+    }
+
+    private static ConfigurableJWTProcessor<SecurityContext> createProcessor(URL jwkSetUrl) {
+        log.debug("(JwkSetJwtProcessors#createProcessor) Creating JWT processor for jwks_uri [{}]", jwkSetUrl);
+        final JWKSource<SecurityContext> keySource = JWKSourceBuilder.<SecurityContext>create(jwkSetUrl)
+                .cache(JWK_SET_CACHE_TTL_MS, JWK_SET_REFRESH_TIMEOUT_MS)
+                .refreshAheadCache(JWK_SET_REFRESH_AHEAD_MS, false)
+                .rateLimited(JWK_SET_MIN_REFETCH_INTERVAL_MS)
+                .build();
+
+        final ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        // The key selector accepts any asymmetric signing alg, the key is then selected by the token's alg and kid
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.Family.SIGNATURE, keySource));
+        jwtProcessor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>());
+        return jwtProcessor;
+    }
+
+    static void clear() {
+        PROCESSORS.invalidateAll();
+    }
+}
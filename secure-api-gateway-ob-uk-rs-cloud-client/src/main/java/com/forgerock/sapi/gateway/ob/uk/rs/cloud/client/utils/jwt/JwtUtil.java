@@ -20,23 +20,14 @@ import com.forgerock.sapi.gateway.uk.common.shared.claim.JwsClaimsUtils;
 import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ErrorClient;
 import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ExceptionClient;
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.jwk.source.RemoteJWKSet;
 import com.nimbusds.jose.proc.BadJOSEException;
-import com.nimbusds.jose.proc.JWSKeySelector;
-import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.JWTParser;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
-import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
-import com.nimbusds.jwt.proc.DefaultJWTProcessor;
-import com.nimbusds.jwt.proc.JWTClaimsSetVerifier;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.MalformedURLException;
-import java.net.URL;
 import java.text.ParseException;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +36,9 @@ import static com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ErrorT
 
 /**
  * Utility to handling the JWT's and JWS's and {@link ParseException}
+ *
+ * The claim helpers read a single claim through a {@link ParsedJwt}, callers reading several claims from the same token
+ * should hold on to a {@link ParsedJwt} themselves to avoid re-parsing the token.
  */
 @Slf4j
 public class JwtUtil {
@@ -82,38 +76,16 @@ public class JwtUtil {
     }
 
     public static final List<String> getAudiences(String jwt) throws ExceptionClient {
-        try {
-            log.debug("(JwtRcsUtil#getAudience) Getting the audience from:\n'{}'\n", jwt);
-            List<String> audiences = getSignedJWT(jwt).getJWTClaimsSet().getAudience();
-            if(audiences.isEmpty()){
-                String message = String.format("Could not get the audience (aud) from the JWT %s", jwt);
-                log.error("(JwtRcsUtil#getAudiences) {}", message);
-                throw new ExceptionClient(
-                        ErrorClient.builder()
-                                .errorType(JWT_INVALID)
-                                .build(),
-                        String.format(JWT_INVALID.getDescription(), message)
-                );
-            }
-            return audiences;
-        }catch (ParseException exception){
-            log.error("(JwtRcsUtil#getAudience) Could not parse the JWT to retrieve the audience", exception);
-            throw new ExceptionClient(
-                    ErrorClient.builder()
-                            .errorType(JWT_INVALID)
-                            .build(),
-                    String.format(JWT_INVALID.getDescription(), exception.getMessage()),
-                    exception
-            );
-        }
+        log.debug("(JwtRcsUtil#getAudience) Getting the audience from:\n'{}'\n", jwt);
+        return ParsedJwt.parse(jwt).getAudiences();
     }
 
     public static final String getIdTokenClaim(String jwt, String idTokenClaim) throws ExceptionClient {
-        return getClaims(getSignedJWT(jwt)).getIdTokenClaims().get(idTokenClaim).getValue();
+        return ParsedJwt.parse(jwt).getIdTokenClaim(idTokenClaim);
     }
 
     public static final String getIdTokenClaim(SignedJWT signedJWT, String idTokenClaim) throws ExceptionClient {
-        return getClaims(signedJWT).getIdTokenClaims().get(idTokenClaim).getValue();
+        return ParsedJwt.of(signedJWT).getIdTokenClaim(idTokenClaim);
     }
 
     public static final String getIdTokenClaim(Claims claims, String idTokenClaim) {
@@ -121,55 +93,22 @@ public class JwtUtil {
     }
 
     public static final String getClaimValue(String jwt, String claim) throws ExceptionClient {
-        try {
-            log.debug("(JwtRcsUtil#getClaimValue) Parsing the jws [{}] to retrieve the claim '{}' value", jwt, claim);
-            return getSignedJWT(jwt).getJWTClaimsSet().getStringClaim(claim);
-        } catch (ParseException exception) {
-            log.error("(JwtRcsUtil#getClaimValue) Could not parse the JWT to retrieve the claim '{}' value", claim, exception);
-            throw new ExceptionClient(
-                    ErrorClient.builder()
-                            .errorType(JWT_INVALID)
-                            .build(),
-                    String.format(JWT_INVALID.getDescription(), exception.getMessage()),
-                    exception
-            );
-        }
+        log.debug("(JwtRcsUtil#getClaimValue) Parsing the jws [{}] to retrieve the claim '{}' value", jwt, claim);
+        return ParsedJwt.parse(jwt).getClaimValue(claim);
     }
 
     public static final Map<String, Object> getClaimValueMap(SignedJWT signedJWT, String claim) throws ExceptionClient {
-        try {
-            log.debug("(JwtRcsUtil#getClaimValue) Parsing the jws [{}] to retrieve the map from json claim '{}' value",
-                    signedJWT.getParsedString(),
-                    claim);
-            return signedJWT.getJWTClaimsSet().getJSONObjectClaim(claim);
-        } catch (ParseException exception) {
-            log.error("(JwtRcsUtil#getClaimValue) Could not parse the JWT to retrieve the claim '{}' value", claim, exception);
-            throw new ExceptionClient(
-                    ErrorClient.builder()
-                            .errorType(JWT_INVALID)
-                            .build(),
-                    String.format(JWT_INVALID.getDescription(), exception.getMessage()),
-                    exception
-            );
-        }
+        log.debug("(JwtRcsUtil#getClaimValue) Parsing the jws [{}] to retrieve the map from json claim '{}' value",
+                signedJWT.getParsedString(),
+                claim);
+        return ParsedJwt.of(signedJWT).getClaimValueMap(claim);
     }
 
     public static final String getClaimValue(SignedJWT signedJWT, String claim) throws ExceptionClient {
-        try {
-            log.debug("(JwtRcsUtil#getClaimValue) Parsing the jws [{}] to retrieve the string claim '{}' value",
-                    signedJWT.getParsedString(),
-                    claim);
-            return signedJWT.getJWTClaimsSet().getStringClaim(claim);
-        } catch (ParseException exception) {
-            log.error("(JwtRcsUtil#getClaimValue) Could not parse the JWT to retrieve the claim '{}' value", claim, exception);
-            throw new ExceptionClient(
-                    ErrorClient.builder()
-                            .errorType(JWT_INVALID)
-                            .build(),
-                    String.format(JWT_INVALID.getDescription(), exception.getMessage()),
-                    exception
-            );
-        }
+        log.debug("(JwtRcsUtil#getClaimValue) Parsing the jws [{}] to retrieve the string claim '{}' value",
+                signedJWT.getParsedString(),
+                claim);
+        return ParsedJwt.of(signedJWT).getClaimValue(claim);
     }
 
     public static final boolean validateJWT(String jwt, String jwkUri) throws ExceptionClient {
@@ -181,15 +120,8 @@ public class JwtUtil {
         log.debug("(JwtRcsUtil#validateJWT(signedJWT)) Validating the jwt [{}]", signedJWT.getParsedString());
         try {
             if (signedJWT.getHeader().getAlgorithm() != null && jwkUri != null) {
-                JWSAlgorithm expectedJWSAlg = JWSAlgorithm.parse(signedJWT.getHeader().getAlgorithm().getName());
-                JWKSource<SecurityContext> keySource = new RemoteJWKSet<>(new URL(jwkUri));
-                JWSKeySelector<SecurityContext> keySelector = new JWSVerificationKeySelector<>(expectedJWSAlg, keySource);
-
-                // Create a JWT processor
-                ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
-                jwtProcessor.setJWSKeySelector(keySelector);
-                JWTClaimsSetVerifier<SecurityContext> claimsVerifier = new DefaultJWTClaimsVerifier<>();
-                jwtProcessor.setJWTClaimsSetVerifier(claimsVerifier);
+                // Processors are cached per jwkUri, the JWK set is only downloaded on expiry, rotation or unknown kid
+                final ConfigurableJWTProcessor<SecurityContext> jwtProcessor = JwkSetJwtProcessors.getProcessor(jwkUri);
 
                 // Process the JWT
                 jwtProcessor.process(signedJWT, null);
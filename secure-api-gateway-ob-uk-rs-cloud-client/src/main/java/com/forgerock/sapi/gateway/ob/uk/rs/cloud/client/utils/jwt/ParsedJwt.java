@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.utils.jwt;
+
+import static com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ErrorType.JWT_INVALID;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+
+import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ErrorClient;
+import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ExceptionClient;
+import com.forgerock.sapi.gateway.uk.common.shared.claim.Claims;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * A JWT which has been parsed once, the claims set and OIDC claims are parsed on first use and then reused for all
+ * subsequent claim reads.
+ *
+ * Instances are not thread safe, they are intended to be used for the lifetime of a single request.
+ */
+public class ParsedJwt {
+
+    private final SignedJWT signedJWT;
+
+    private JWTClaimsSet claimsSet;
+
+    private Claims claims;
+
+    private ParsedJwt(SignedJWT signedJWT) {
+        this.signedJWT = signedJWT;
+    }
+
+    public static ParsedJwt parse(String jwt) throws ExceptionClient {
+        return new ParsedJwt(JwtUtil.getSignedJWT(jwt));
+    }
+
+    public static ParsedJwt of(SignedJWT signedJWT) {
+        return new ParsedJwt(signedJWT);
+    }
+
+    public SignedJWT getSignedJWT() {
+        return signedJWT;
+    }
+
+    public JWTClaimsSet getJWTClaimsSet() throws ExceptionClient {
+        if (claimsSet == null) {
+            try {
+                claimsSet = signedJWT.getJWTClaimsSet();
+            } catch (ParseException exception) {
+                throw new ExceptionClient(
+                        ErrorClient.builder()
+                                .errorType(JWT_INVALID)
+                                .build(),
+                        String.format(JWT_INVALID.getDescription(), exception.getMessage()),
+                        exception
+                );
+            }
+        }
+        return claimsSet;
+    }
+
+    public Claims getClaims() throws ExceptionClient {
+        if (claims == null) {
+            claims = JwtUtil.getClaims(signedJWT);
+        }
+        return claims;
+    }
+
+    public List<String> getAudiences() throws ExceptionClient {
+        final List<String> audiences = getJWTClaimsSet().getAudience();
+        if (audiences.isEmpty()) {
+            throw new ExceptionClient(
+                    ErrorClient.builder()
+                            .errorType(JWT_INVALID)
+                            .build(),
+                    String.format(JWT_INVALID.getDescription(), "Could not get the audience (aud) from the JWT")
+            );
+        }
+        return audiences;
+    }
+
+    public String getClaimValue(String claim) throws ExceptionClient {
+        try {
+            return getJWTClaimsSet().getStringClaim(claim);
+        } catch (ParseException exception) {
+            throw new ExceptionClient(
+                    ErrorClient.builder()
+                            .errorType(JWT_INVALID)
+                            .build(),
+                    String.format(JWT_INVALID.getDescription(), exception.getMessage()),
+                    exception
+            );
+        }
+    }
+
+    public Map<String, Object> getClaimValueMap(String claim) throws ExceptionClient {
+        try {
+            return getJWTClaimsSet().getJSONObjectClaim(claim);
+        } catch (ParseException exception) {
+            throw new ExceptionClient(
+                    ErrorClient.builder()
+                            .errorType(JWT_INVALID)
+                            .build(),
+                    String.format(JWT_INVALID.getDescription(), exception.getMessage()),
+                    exception
+            );
+        }
+    }
+
+    public String getIdTokenClaim(String idTokenClaim) throws ExceptionClient {
+        return JwtUtil.getIdTokenClaim(getClaims(), idTokenClaim);
+    }
+
+    public boolean validate(String jwkUri) throws ExceptionClient {
+        return JwtUtil.validateJWT(signedJWT, jwkUri);
+    }
+}
@@ -18,15 +18,25 @@ package com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.services;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
 import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureWebClient;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -39,6 +49,9 @@ import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ExceptionClient;
 import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.model.User;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * Unit test for {@link UserClientService}
  */
@@ -48,9 +61,20 @@ import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.model.User;
 @Import(CloudClientConfiguration.class)
 public class UserClientServiceTest {
 
+    @TestConfiguration
+    static class MeterRegistryConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
     @Autowired
     private UserClientService userClientService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -59,6 +83,13 @@ public class UserClientServiceTest {
 
     private final static String USER_NAME = "psu4test";
     private final static String ACCOUNT_ACTIVE_STATUS = "active";
+    private final static String QUERY_BY_USER_NAME_URI = "http://ig:80/repo/users?_queryFilter=userName+eq+%22psu4test%22";
+
+    @AfterEach
+    public void clearCache() {
+        // Tests lookup the same users, start each one with an empty cache
+        userClientService.invalidateAll();
+    }
 
     @Test
     public void shouldGetUserByUsername() throws Exception {
@@ -162,4 +193,136 @@ public class UserClientServiceTest {
         assertThat(userResponse.getId()).isEqualTo(user.getId());
     }
 
+    @Test
+    public void shouldServeUserFromCacheByNameAndId() throws Exception {
+        // Given
+        User user = User.builder()
+                .id(UUID.randomUUID().toString())
+                .userName(USER_NAME)
+                .accountStatus(ACCOUNT_ACTIVE_STATUS)
+                .build();
+        mockServer.expect(once(), requestTo(QUERY_BY_USER_NAME_URI))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(objectMapper.writeValueAsString(user)));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThat(userClientService.getUserByName(USER_NAME).getId()).isEqualTo(user.getId());
+        }
+        User userById = userClientService.getUserById(user.getId());
+
+        // Then
+        mockServer.verify();
+        assertThat(userById.getUserName()).isEqualTo(USER_NAME);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", UserClientService.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldCacheUserNotFound() {
+        // Given
+        mockServer.expect(once(), requestTo(QUERY_BY_USER_NAME_URI))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            ExceptionClient exception = catchThrowableOfType(() ->
+                            userClientService.getUserByName(USER_NAME)
+                    , ExceptionClient.class
+            );
+            assertThat(exception.getErrorClient().getErrorType()).isEqualTo(ErrorType.NOT_FOUND);
+        }
+
+        // Then
+        mockServer.verify();
+    }
+
+    @Test
+    public void shouldNotCacheUserWhichIsNotActive() throws Exception {
+        // Given
+        User inactiveUser = User.builder()
+                .id(UUID.randomUUID().toString())
+                .userName(USER_NAME)
+                .accountStatus("inactive")
+                .build();
+        User reactivatedUser = User.builder()
+                .id(inactiveUser.getId())
+                .userName(USER_NAME)
+                .accountStatus(ACCOUNT_ACTIVE_STATUS)
+                .build();
+        mockServer.expect(times(2), requestTo(QUERY_BY_USER_NAME_URI))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(objectMapper.writeValueAsString(inactiveUser)));
+        mockServer.expect(once(), requestTo(QUERY_BY_USER_NAME_URI))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(objectMapper.writeValueAsString(reactivatedUser)));
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            ExceptionClient exception = catchThrowableOfType(() ->
+                            userClientService.getUserByName(USER_NAME)
+                    , ExceptionClient.class
+            );
+            assertThat(exception.getErrorClient().getErrorType()).isEqualTo(ErrorType.NOT_FOUND);
+        }
+        User userResponse = userClientService.getUserByName(USER_NAME);
+
+        // Then
+        mockServer.verify();
+        assertThat(userResponse.getAccountStatus()).isEqualTo(ACCOUNT_ACTIVE_STATUS);
+    }
+
+    @Test
+    public void shouldNotCacheOtherClientErrors() {
+        // Given
+        mockServer.expect(times(2), requestTo(QUERY_BY_USER_NAME_URI))
+                .andRespond(withStatus(HttpStatus.UNAUTHORIZED));
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            ExceptionClient exception = catchThrowableOfType(() ->
+                            userClientService.getUserByName(USER_NAME)
+                    , ExceptionClient.class
+            );
+            assertThat(exception.getErrorClient().getErrorType()).isEqualTo(ErrorType.NOT_FOUND);
+        }
+
+        // Then
+        mockServer.verify();
+    }
+
+    @Test
+    public void shouldLoadUserOnceForConcurrentLookups() throws Exception {
+        // Given
+        User user = User.builder()
+                .id(UUID.randomUUID().toString())
+                .userName(USER_NAME)
+                .accountStatus(ACCOUNT_ACTIVE_STATUS)
+                .build();
+        mockServer.expect(once(), requestTo(QUERY_BY_USER_NAME_URI))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(objectMapper.writeValueAsString(user)));
+
+        // When
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<User>> lookups = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                lookups.add(() -> userClientService.getUserByName(USER_NAME));
+            }
+            for (Future<User> result : executorService.invokeAll(lookups)) {
+                assertThat(result.get().getId()).isEqualTo(user.getId());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Then
+        mockServer.verify();
+    }
+
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.utils.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ExceptionClient;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Unit test for {@link JwkSetJwtProcessors}, the jwks_uri is served by a local HTTP server which counts the downloads
+ * of the JWK set.
+ */
+public class JwkSetJwtProcessorsTest {
+
+    private static RSAKey signingKey1;
+    private static RSAKey signingKey2;
+
+    private final AtomicInteger jwkSetDownloads = new AtomicInteger();
+    private final AtomicReference<JWKSet> servedJwkSet = new AtomicReference<>();
+
+    private HttpServer jwksServer;
+    private String jwkUri;
+
+    @BeforeAll
+    static void generateSigningKeys() throws JOSEException {
+        signingKey1 = new RSAKeyGenerator(2048).keyID("kid-1").generate();
+        signingKey2 = new RSAKeyGenerator(2048).keyID("kid-2").generate();
+    }
+
+    @BeforeEach
+    void startJwksServer() throws IOException {
+        jwksServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        jwksServer.createContext("/jwks", this::serveJwkSet);
+        jwksServer.start();
+        jwkUri = "http://localhost:" + jwksServer.getAddress().getPort() + "/jwks";
+        JwkSetJwtProcessors.clear();
+    }
+
+    @AfterEach
+    void stopJwksServer() {
+        jwksServer.stop(0);
+        JwkSetJwtProcessors.clear();
+    }
+
+    private void serveJwkSet(HttpExchange exchange) throws IOException {
+        jwkSetDownloads.incrementAndGet();
+        final byte[] body = servedJwkSet.get().toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    public void shouldDownloadJwkSetOnceAcrossVerifications() throws Exception {
+        // Given
+        servedJwkSet.set(new JWKSet(signingKey1.toPublicJWK()));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThat(JwtUtil.validateJWT(signedJwt(signingKey1), jwkUri)).isTrue();
+        }
+
+        // Then
+        assertThat(jwkSetDownloads).hasValue(1);
+    }
+
+    @Test
+    public void shouldRefetchJwkSetGivenUnknownKid() throws Exception {
+        // Given
+        servedJwkSet.set(new JWKSet(signingKey1.toPublicJWK()));
+        assertThat(JwtUtil.validateJWT(signedJwt(signingKey1), jwkUri)).isTrue();
+
+        // When the keys are rotated
+        servedJwkSet.set(new JWKSet(List.<JWK>of(signingKey1.toPublicJWK(), signingKey2.toPublicJWK())));
+
+        // Then
+        assertThat(JwtUtil.validateJWT(signedJwt(signingKey2), jwkUri)).isTrue();
+        assertThat(jwkSetDownloads).hasValue(2);
+        assertThat(JwtUtil.validateJWT(signedJwt(signingKey2), jwkUri)).isTrue();
+        assertThat(JwtUtil.validateJWT(signedJwt(signingKey1), jwkUri)).isTrue();
+        assertThat(jwkSetDownloads).hasValue(2);
+    }
+
+    @Test
+    public void shouldRateLimitRefetchesGivenUnknownKid() throws Exception {
+        // Given
+        servedJwkSet.set(new JWKSet(signingKey1.toPublicJWK()));
+        assertThat(JwtUtil.validateJWT(signedJwt(signingKey1), jwkUri)).isTrue();
+
+        // When tokens keep referencing a kid which is not in the JWK set
+        assertThrows(ExceptionClient.class, () -> JwtUtil.validateJWT(signedJwt(signingKey2), jwkUri));
+        final int downloadsAfterFirstRefetch = jwkSetDownloads.get();
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ExceptionClient.class, () -> JwtUtil.validateJWT(signedJwt(signingKey2), jwkUri));
+        }
+
+        // Then only one refetch is made within the minimum refetch interval
+        assertThat(downloadsAfterFirstRefetch).isEqualTo(2);
+        assertThat(jwkSetDownloads).hasValue(downloadsAfterFirstRefetch);
+        assertThat(JwtUtil.validateJWT(signedJwt(signingKey1), jwkUri)).isTrue();
+    }
+
+    private static SignedJWT signedJwt(RSAKey signingKey) throws JOSEException {
+        final SignedJWT signedJWT = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.PS256).keyID(signingKey.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .subject("client-123")
+                        .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+                        .build());
+        signedJWT.sign(new RSASSASigner(signingKey));
+        return signedJWT;
+    }
+}
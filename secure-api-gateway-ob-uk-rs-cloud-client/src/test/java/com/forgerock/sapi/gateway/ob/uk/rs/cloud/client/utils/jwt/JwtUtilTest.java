@@ -19,10 +19,12 @@ import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ExceptionClient;
 import org.junit.jupiter.api.Test;
 
+import java.net.MalformedURLException;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class JwtUtilTest {
 
@@ -54,6 +56,13 @@ public class JwtUtilTest {
         assertThat(audiences).isNotEmpty().containsExactly(AUD_JWT);
     }
 
+    @Test
+    public void shouldGetClaimValue() throws ExceptionClient {
+        assertThat(JwtUtil.getClaimValue(JWT, "grant_type")).isEqualTo("authorization_code");
+        assertThat(JwtUtil.getClaimValue(JwtUtil.getSignedJWT(JWT), "grant_type")).isEqualTo("authorization_code");
+        assertThat(JwtUtil.getClaimValueMap(JwtUtil.getSignedJWT(JWT), "cnf")).containsKey("x5t#S256");
+    }
+
     @Test
     public void shouldGetAParseException() {
         // When
@@ -66,4 +75,26 @@ public class JwtUtilTest {
         assertThat(exception.getErrorClient().getErrorType().getInternalCode()).isEqualTo(ErrorType.JWT_INVALID.getInternalCode());
     }
 
+    @Test
+    public void shouldReuseParsedJwtForClaimReads() throws ExceptionClient {
+        // Given
+        ParsedJwt parsedJwt = ParsedJwt.parse(JWT);
+        // Then
+        assertThat(parsedJwt.getAudiences()).containsExactly(AUD_JWT);
+        assertThat(parsedJwt.getClaimValue("grant_type")).isEqualTo("authorization_code");
+        assertThat(parsedJwt.getJWTClaimsSet()).isSameAs(parsedJwt.getJWTClaimsSet());
+    }
+
+    @Test
+    public void shouldReuseJwtProcessorPerJwkUri() throws MalformedURLException {
+        String jwkUri = "https://as.example.com/jwks";
+        assertThat(JwkSetJwtProcessors.getProcessor(jwkUri)).isSameAs(JwkSetJwtProcessors.getProcessor(jwkUri));
+        assertThat(JwkSetJwtProcessors.getProcessor(jwkUri)).isNotSameAs(JwkSetJwtProcessors.getProcessor("https://as2.example.com/jwks"));
+    }
+
+    @Test
+    public void shouldFailToCreateJwtProcessorForInvalidJwkUri() {
+        assertThrows(MalformedURLException.class, () -> JwkSetJwtProcessors.getProcessor("not-a-url"));
+    }
+
 }
@@ -27,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -59,7 +60,8 @@ public interface AggregatedPollingApi {
      * @param xFapiCustomerIpAddress The PSU&#39;s IP address if the PSU is currently logged in with the TPP. (optional)
      * @param xFapiInteractionId     An RFC4122 UID used as a correlation id. (optional)
      * @param xCustomerUserAgent     Indicates the user-agent that the PSU is using. (optional)
-     * @return Read awaiting events (status code 200)
+     * @return Read awaiting events (status code 200), when returnImmediately is false the response is held until events
+     * are available or the configured maximum wait has passed
      * or Events Created (status code 201)
      * or Bad request (status code 400)
      * or Unauthorized (status code 401)
@@ -113,7 +115,7 @@ public interface AggregatedPollingApi {
             produces = {"application/json; charset=utf-8", "application/jose+jwe"},
             consumes = {"application/json; charset=utf-8", "application/jose+jwe"}
     )
-    ResponseEntity<OBEventPollingResponse1> createEvents(
+    DeferredResult<ResponseEntity<OBEventPollingResponse1>> createEvents(
             @NotNull @Parameter(name = "Authorization", description = "An Authorisation Token as per https://tools.ietf.org/html/rfc6750", required = true, in = ParameterIn.HEADER) @RequestHeader(value = "Authorization", required = true) String authorization,
             @Parameter(name = "OBEventPolling1", description = "Default", required = true) @Valid @RequestBody OBEventPolling1 obEventPolling1,
             @Pattern(regexp = "^(Mon|Tue|Wed|Thu|Fri|Sat|Sun), \\d{2} (Jan|Feb|Mar|Apr|May|Jun|Jul|Aug|Sep|Oct|Nov|Dec) \\d{4} \\d{2}:\\d{2}:\\d{2} (GMT|UTC)$") @Parameter(name = "x-fapi-auth-date", description = "The time when the PSU last logged in with the TPP.  All dates in the HTTP headers are represented as RFC 7231 Full Dates. An example is below:  Sun, 10 Sep 2017 19:43:31 UTC", in = ParameterIn.HEADER) @RequestHeader(value = "x-fapi-auth-date", required = false) String xFapiAuthDate,
@@ -42,7 +42,6 @@ import uk.org.openbanking.datamodel.v3.payment.OBWriteFileResponse3;
 import uk.org.openbanking.datamodel.v3.payment.OBWritePaymentDetailsResponse1;
 
 import org.joda.time.DateTime;
-import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -50,6 +49,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @jakarta.annotation.Generated(value = "io.swagger.codegen.languages.SpringCodegen")
 
@@ -225,7 +225,7 @@ public interface FilePaymentsApi {
     @RequestMapping(value = "/file-payments/{FilePaymentId}/report-file",
             produces = {"*/*"},
             method = RequestMethod.GET)
-    ResponseEntity<Resource> getFilePaymentsFilePaymentIdReportFile(
+    ResponseEntity<StreamingResponseBody> getFilePaymentsFilePaymentIdReportFile(
             @ApiParam(value = "FilePaymentId", required = true)
             @PathVariable("FilePaymentId") String filePaymentId,
 
@@ -48,6 +48,8 @@ import uk.org.openbanking.datamodel.v4.error.OBErrorResponse1;
 import uk.org.openbanking.datamodel.v4.payment.OBWriteFileConsent3;
 import uk.org.openbanking.datamodel.v4.payment.OBWriteFileConsentResponse4;
 
+import java.io.InputStream;
+
 @Generated(value = "org.openapitools.codegen.languages.SpringCodegen")
 @Validated
 @Tag(name = "File Payments", description = "the File Payments API")
@@ -146,7 +148,7 @@ public interface FilePaymentConsentsApi {
      * @param authorization An Authorisation Token as per https://tools.ietf.org/html/rfc6750 (required)
      * @param xIdempotencyKey Every request will be processed only once per x-idempotency-key.  The Idempotency Key will be valid for 24 hours.  (required)
      * @param xJwsSignature A detached JWS signature of the body of the payload. (required)
-     * @param body Default (required)
+     * @param body the raw payment file content (required)
      * @param xFapiAuthDate The time when the PSU last logged in with the TPP.  All dates in the HTTP headers are represented as RFC 7231 Full Dates. An example is below:  Sun, 10 Sep 2017 19:43:31 UTC (optional)
      * @param xFapiCustomerIpAddress The PSU&#39;s IP address if the PSU is currently logged in with the TPP. (optional)
      * @param xFapiInteractionId An RFC4122 UID used as a correlation id. (optional)
@@ -213,7 +215,7 @@ public interface FilePaymentConsentsApi {
         @NotNull @Parameter(name = "Authorization", description = "An Authorisation Token as per https://tools.ietf.org/html/rfc6750", required = true, in = ParameterIn.HEADER) @RequestHeader(value = "Authorization", required = true) String authorization,
         @NotNull @Pattern(regexp = "^(?!\\s)(.*)(\\S)$") @Size(max = 40) @Parameter(name = "x-idempotency-key", description = "Every request will be processed only once per x-idempotency-key.  The Idempotency Key will be valid for 24 hours. ", required = true, in = ParameterIn.HEADER) @RequestHeader(value = "x-idempotency-key", required = true) String xIdempotencyKey,
         @NotNull @Parameter(name = "x-jws-signature", description = "A detached JWS signature of the body of the payload.", required = true, in = ParameterIn.HEADER) @RequestHeader(value = "x-jws-signature", required = true) String xJwsSignature,
-        @Parameter(name = "body", description = "Default", required = true) @Valid @RequestBody String body,
+        @Parameter(name = "body", description = "Default", required = true) InputStream body,
         @Pattern(regexp = "^(Mon|Tue|Wed|Thu|Fri|Sat|Sun), \\d{2} (Jan|Feb|Mar|Apr|May|Jun|Jul|Aug|Sep|Oct|Nov|Dec) \\d{4} \\d{2}:\\d{2}:\\d{2} (GMT|UTC)$") @Parameter(name = "x-fapi-auth-date", description = "The time when the PSU last logged in with the TPP.  All dates in the HTTP headers are represented as RFC 7231 Full Dates. An example is below:  Sun, 10 Sep 2017 19:43:31 UTC", in = ParameterIn.HEADER) @RequestHeader(value = "x-fapi-auth-date", required = false) String xFapiAuthDate,
         @Parameter(name = "x-fapi-customer-ip-address", description = "The PSU's IP address if the PSU is currently logged in with the TPP.", in = ParameterIn.HEADER) @RequestHeader(value = "x-fapi-customer-ip-address", required = false) String xFapiCustomerIpAddress,
         @Parameter(name = "x-fapi-interaction-id", description = "An RFC4122 UID used as a correlation id.", in = ParameterIn.HEADER) @RequestHeader(value = "x-fapi-interaction-id", required = false) String xFapiInteractionId,
@@ -304,6 +306,7 @@ public interface FilePaymentConsentsApi {
      * @param xCustomerUserAgent Indicates the user-agent that the PSU is using. (optional)
      * @param apiClientId OAuth2.0 client_id of the ApiClient making the request
      * @return File Payment Consents Read (status code 200)
+     *         or File is being processed (status code 202)
      *         or Bad request (status code 400)
      *         or Unauthorized (status code 401)
      *         or Forbidden (status code 403)
@@ -321,6 +324,7 @@ public interface FilePaymentConsentsApi {
             @ApiResponse(responseCode = "200", description = "File Payment Consents Read", content = {
                 @Content(mediaType = "*/*", schema = @Schema(implementation = OBWriteFileConsentResponse4.class))
             }),
+            @ApiResponse(responseCode = "202", description = "File is being processed"),
             @ApiResponse(responseCode = "400", description = "Bad request", content = {
                 @Content(mediaType = "application/json; charset=utf-8", schema = @Schema(implementation = OBErrorResponse1.class)),
                 @Content(mediaType = "application/json", schema = @Schema(implementation = OBErrorResponse1.class)),
@@ -360,6 +364,6 @@ public interface FilePaymentConsentsApi {
         @Parameter(name = "x-fapi-interaction-id", description = "An RFC4122 UID used as a correlation id.", in = ParameterIn.HEADER) @RequestHeader(value = "x-fapi-interaction-id", required = false) String xFapiInteractionId,
         @Parameter(name = "x-customer-user-agent", description = "Indicates the user-agent that the PSU is using.", in = ParameterIn.HEADER) @RequestHeader(value = "x-customer-user-agent", required = false) String xCustomerUserAgent,
         @Parameter(name = "x-api-client-id", description = "OAuth2.0 client_id of the ApiClient making the request", in = ParameterIn.HEADER) @RequestHeader(value = "x-api-client-id") String apiClientId
-    ) throws OBErrorException;
+    ) throws OBErrorException, OBErrorResponseException;
 
 }
@@ -30,6 +30,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -224,6 +226,9 @@ public interface FilePaymentsApi {
      * @param xFapiInteractionId An RFC4122 UID used as a correlation id. (optional)
      * @param xCustomerUserAgent Indicates the user-agent that the PSU is using. (optional)
      * @param apiClientId OAuth2.0 client_id of the ApiClient making the request
+     * @param status Only return the payments with this status, one of Pending, Completed or Rejected (optional)
+     * @param instructionIdentification Only return the payments with this InstructionIdentification (optional)
+     * @param cursor Opaque cursor identifying the page to fetch, as returned in the Links.Next of the previous page (optional)
      * @return Payment Details Read (status code 200)
      *         or Bad request (status code 400)
      *         or Unauthorized (status code 401)
@@ -282,8 +287,11 @@ public interface FilePaymentsApi {
         @Parameter(name = "x-fapi-customer-ip-address", description = "The PSU's IP address if the PSU is currently logged in with the TPP.", in = ParameterIn.HEADER) @RequestHeader(value = "x-fapi-customer-ip-address", required = false) String xFapiCustomerIpAddress,
         @Parameter(name = "x-fapi-interaction-id", description = "An RFC4122 UID used as a correlation id.", in = ParameterIn.HEADER) @RequestHeader(value = "x-fapi-interaction-id", required = false) String xFapiInteractionId,
         @Parameter(name = "x-customer-user-agent", description = "Indicates the user-agent that the PSU is using.", in = ParameterIn.HEADER) @RequestHeader(value = "x-customer-user-agent", required = false) String xCustomerUserAgent,
-        @Parameter(name = "x-api-client-id", description = "OAuth2.0 client_id of the ApiClient making the request", in = ParameterIn.HEADER) @RequestHeader(value = "x-api-client-id") String apiClientId
-    );
+        @Parameter(name = "x-api-client-id", description = "OAuth2.0 client_id of the ApiClient making the request", in = ParameterIn.HEADER) @RequestHeader(value = "x-api-client-id") String apiClientId,
+        @Parameter(name = "status", description = "Only return the payments with this status, one of Pending, Completed or Rejected.", in = ParameterIn.QUERY) @RequestParam(value = "status", required = false) String status,
+        @Parameter(name = "instructionIdentification", description = "Only return the payments with this InstructionIdentification.", in = ParameterIn.QUERY) @RequestParam(value = "instructionIdentification", required = false) String instructionIdentification,
+        @Parameter(name = "cursor", description = "Opaque cursor identifying the page to fetch, as returned in the Links.Next of the previous page.", in = ParameterIn.QUERY) @RequestParam(value = "cursor", required = false) String cursor
+    ) throws OBErrorResponseException, OBErrorException;
 
 
     /**
@@ -347,7 +355,7 @@ public interface FilePaymentsApi {
         produces = { "application/json; charset=utf-8", "application/json", "application/jose+jwe" }
     )
     
-    ResponseEntity<Object> getFilePaymentsFilePaymentIdReportFile(
+    ResponseEntity<StreamingResponseBody> getFilePaymentsFilePaymentIdReportFile(
         @Parameter(name = "FilePaymentId", description = "FilePaymentId", required = true, in = ParameterIn.PATH) @PathVariable("FilePaymentId") String filePaymentId,
         @NotNull @Parameter(name = "Authorization", description = "An Authorisation Token as per https://tools.ietf.org/html/rfc6750", required = true, in = ParameterIn.HEADER) @RequestHeader(value = "Authorization", required = true) String authorization,
         @Pattern(regexp = "^(Mon|Tue|Wed|Thu|Fri|Sat|Sun), \\d{2} (Jan|Feb|Mar|Apr|May|Jun|Jul|Aug|Sep|Oct|Nov|Dec) \\d{4} \\d{2}:\\d{2}:\\d{2} (GMT|UTC)$") @Parameter(name = "x-fapi-auth-date", description = "The time when the PSU last logged in with the TPP.  All dates in the HTTP headers are represented as RFC 7231 Full Dates. An example is below:  Sun, 10 Sep 2017 19:43:31 UTC", in = ParameterIn.HEADER) @RequestHeader(value = "x-fapi-auth-date", required = false) String xFapiAuthDate,
@@ -355,6 +363,6 @@ public interface FilePaymentsApi {
         @Parameter(name = "x-fapi-interaction-id", description = "An RFC4122 UID used as a correlation id.", in = ParameterIn.HEADER) @RequestHeader(value = "x-fapi-interaction-id", required = false) String xFapiInteractionId,
         @Parameter(name = "x-customer-user-agent", description = "Indicates the user-agent that the PSU is using.", in = ParameterIn.HEADER) @RequestHeader(value = "x-customer-user-agent", required = false) String xCustomerUserAgent,
         @Parameter(name = "x-api-client-id", description = "OAuth2.0 client_id of the ApiClient making the request", in = ParameterIn.HEADER) @RequestHeader(value = "x-api-client-id") String apiClientId
-    );
+    ) throws OBErrorResponseException;
 
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.api.admin.export;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Value;
+
+/**
+ * A single line of a streamed data export, wraps an OB data model object with what it is and which account it
+ * belongs to so that lines for different accounts and data types can be interleaved.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExportRecord {
+    /**
+     * The kind of data, for example "account", "transaction" or "balance"
+     */
+    String type;
+    /**
+     * The account the data belongs to, null for user level data
+     */
+    String accountId;
+    Object data;
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.api.admin.export;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes {@link ExportRecord}s as newline delimited JSON (NDJSON).
+ * <p>
+ * Several sources, typically one Mongo cursor per collection, are read in parallel on at most
+ * {@code rs.data.export.stream.parallelism} threads. Each record is converted to a line of JSON on the thread that read
+ * it and handed to the writing thread through a queue holding at most {@code rs.data.export.stream.bufferSize} lines.
+ * A source that gets ahead of the response blocks until there is room, so memory use is bounded by the buffer
+ * rather than by the amount of data being exported.
+ * <p>
+ * The reader threads belong to the export, rather than to a pool shared between exports, so a client that stops
+ * reading its response only holds up its own readers and cannot starve other exports of threads.
+ */
+@Component
+@Slf4j
+public class NdjsonExportWriter {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final byte NEWLINE = '\n';
+
+    /**
+     * Queued by a source when it has no more records
+     */
+    private static final Object END_OF_SOURCE = new Object();
+
+    private final ObjectMapper objectMapper;
+    private final int parallelism;
+    private final int bufferSize;
+    private final ThreadFactory threadFactory;
+
+    public NdjsonExportWriter(ObjectMapper objectMapper,
+                              @Value("${rs.data.export.stream.parallelism:4}") int parallelism,
+                              @Value("${rs.data.export.stream.bufferSize:500}") int bufferSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("rs.data.export.stream.parallelism must be at least 1, was: " + parallelism);
+        }
+        this.objectMapper = objectMapper;
+        this.parallelism = parallelism;
+        this.bufferSize = bufferSize;
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable, "ndjson-export-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Writes a single record.
+     */
+    public void write(ExportRecord record, OutputStream out) throws IOException {
+        out.write(toLine(record));
+    }
+
+    /**
+     * Reads the sources in parallel and writes their records as they arrive, returns once every source has been
+     * written. The order of records from a single source is preserved, records from different sources are interleaved.
+     *
+     * @param sources suppliers of the streams of records to write, each is opened on a reader thread of this export
+     *                and closed once it has been read
+     * @param out     the stream to write to, it is flushed whenever the writer has caught up with the sources
+     * @throws IOException if writing fails, or a source failed, the remaining sources are cancelled
+     */
+    public void write(List<Supplier<Stream<ExportRecord>>> sources, OutputStream out) throws IOException {
+        if (sources.isEmpty()) {
+            out.flush();
+            return;
+        }
+        final BlockingQueue<Object> lines = new ArrayBlockingQueue<>(bufferSize);
+        final ExecutorService readers = Executors.newFixedThreadPool(Math.min(parallelism, sources.size()), threadFactory);
+        try {
+            for (Supplier<Stream<ExportRecord>> source : sources) {
+                readers.execute(() -> read(source, lines));
+            }
+            int remaining = sources.size();
+            while (remaining > 0) {
+                Object line = lines.poll();
+                if (line == null) {
+                    // Caught up with the sources, send what has been written so far before waiting for more
+                    out.flush();
+                    line = lines.take();
+                }
+                if (line == END_OF_SOURCE) {
+                    remaining--;
+                } else if (line instanceof SourceFailure) {
+                    throw new IOException("Failed to read data to export", ((SourceFailure) line).cause);
+                } else {
+                    out.write((byte[]) line);
+                }
+            }
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted whilst exporting data");
+        } finally {
+            // Stops any readers still running, e.g. when the client has gone away, and any not yet started
+            readers.shutdownNow();
+        }
+    }
+
+    private void read(Supplier<Stream<ExportRecord>> source, BlockingQueue<Object> lines) {
+        try {
+            try (Stream<ExportRecord> records = source.get()) {
+                final Iterator<ExportRecord> iterator = records.iterator();
+                while (iterator.hasNext()) {
+                    lines.put(toLine(iterator.next()));
+                }
+            } catch (RuntimeException | IOException e) {
+                log.error("Failed to read data to export", e);
+                lines.put(new SourceFailure(e));
+                return;
+            }
+            lines.put(END_OF_SOURCE);
+        } catch (InterruptedException e) {
+            // The writer has been cancelled and is no longer taking lines
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] toLine(ExportRecord record) throws JsonProcessingException {
+        final byte[] json = objectMapper.writeValueAsBytes(record);
+        final byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = NEWLINE;
+        return line;
+    }
+
+    private static class SourceFailure {
+        private final Exception cause;
+
+        private SourceFailure(Exception cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.forgerock.sapi.gateway.rs.resource.store.api.admin.v3;
 
 import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ExceptionClient;
+import com.forgerock.sapi.gateway.rs.resource.store.api.admin.export.NdjsonExportWriter;
 import com.forgerock.sapi.gateway.rs.resource.store.datamodel.account.v3.FRAccountData;
 import com.forgerock.sapi.gateway.rs.resource.store.datamodel.user.v3.FRUserData;
 import io.swagger.annotations.*;
@@ -27,6 +28,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Api(tags = "Data API", description = "the internal Data API")
 @RequestMapping("/admin/data")
@@ -87,6 +89,25 @@ public interface DataApi {
             @RequestParam("userId") String userId
     );
 
+    @ApiOperation(value = "Stream User data", nickname = "streamUserData",
+            notes = "Streams all data for a user as newline delimited JSON, one record per line")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Streams the data for a User"),
+            @ApiResponse(code = 400, message = "Bad request"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 404, message = "Not found"),
+            @ApiResponse(code = 405, message = "Method Not Allowed"),
+            @ApiResponse(code = 406, message = "Not Acceptable"),
+            @ApiResponse(code = 429, message = "Too Many Requests"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    @RequestMapping(value = "/user/export",
+            produces = {NdjsonExportWriter.APPLICATION_NDJSON_VALUE},
+            method = RequestMethod.GET)
+    ResponseEntity<StreamingResponseBody> streamUserData(
+            @ApiParam(value = "UserId", required = true)
+            @RequestParam("userId") String userId
+    );
+
     @ApiOperation(value = "Update User data", nickname = "updateUserData",
             notes = "Updates a user's data", response = FRUserData.class)
     @ApiResponses(value = {
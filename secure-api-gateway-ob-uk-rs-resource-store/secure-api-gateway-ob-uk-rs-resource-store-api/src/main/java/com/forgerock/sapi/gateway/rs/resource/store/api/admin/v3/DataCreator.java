@@ -29,7 +29,11 @@ import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.pay
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -68,9 +72,13 @@ import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.schedule
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.standingorders.FRStandingOrderRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.statements.FRStatementRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions.FRTransactionRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk.BulkDocumentWriter;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk.BulkWriteReport;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.customerinfo.FRCustomerInfoRepository;
 
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import uk.org.openbanking.datamodel.v3.account.OBBeneficiary5;
 import uk.org.openbanking.datamodel.v3.account.OBReadBalance1DataBalanceInner;
 import uk.org.openbanking.datamodel.v3.account.OBReadDirectDebit2DataDirectDebitInner;
@@ -83,8 +91,25 @@ import uk.org.openbanking.datamodel.v3.account.OBTransaction6;
 
 @Service("V3.1.10DataCreator")
 @NoArgsConstructor
+@Slf4j
 public class DataCreator {
 
+    /**
+     * The document types limited to {@code rs.data.upload.limit.documents} per user, with the name used in errors
+     */
+    private static final Map<Class<?>, String> LIMITED_DOCUMENTS = new LinkedHashMap<>();
+
+    static {
+        LIMITED_DOCUMENTS.put(FRBalance.class, "balance");
+        LIMITED_DOCUMENTS.put(FRBeneficiary.class, "beneficiaries");
+        LIMITED_DOCUMENTS.put(FRDirectDebit.class, "direct debits");
+        LIMITED_DOCUMENTS.put(FRStandingOrder.class, "standing orders");
+        LIMITED_DOCUMENTS.put(FRTransaction.class, "transactions");
+        LIMITED_DOCUMENTS.put(FRStatement.class, "statements");
+        LIMITED_DOCUMENTS.put(FRScheduledPayment.class, "scheduled payments");
+        LIMITED_DOCUMENTS.put(FROffer.class, "offers");
+    }
+
     private FRAccountRepository accountsRepository;
     private FRBalanceRepository balanceRepository;
     private FRBeneficiaryRepository beneficiaryRepository;
@@ -97,6 +122,7 @@ public class DataCreator {
     private FRPartyRepository partyRepository;
     private FROfferRepository offerRepository;
     private FRCustomerInfoRepository customerInfoRepository;
+    private BulkDocumentWriter bulkDocumentWriter;
 
     private int documentLimit;
     private int accountLimit;
@@ -108,7 +134,7 @@ public class DataCreator {
                        FRTransactionRepository transactionRepository, FRStatementRepository statementRepository,
                        FRScheduledPaymentRepository scheduledPaymentRepository, FRPartyRepository partyRepository,
                        FROfferRepository offerRepository,
-                       FRCustomerInfoRepository customerInfoRepository,
+                       FRCustomerInfoRepository customerInfoRepository, BulkDocumentWriter bulkDocumentWriter,
                        @Value("${rs.data.upload.limit.documents}") Integer documentLimit,
                        @Value("${rs.data.upload.limit.accounts}") Integer accountLimit) {
         this.accountsRepository = accountsRepository;
@@ -123,11 +149,172 @@ public class DataCreator {
         this.partyRepository = partyRepository;
         this.offerRepository = offerRepository;
         this.customerInfoRepository = customerInfoRepository;
+        this.bulkDocumentWriter = bulkDocumentWriter;
         this.documentLimit = documentLimit;
         this.accountLimit = accountLimit;
     }
 
     List<FROffer> createOffers(FRAccountData accountData, Set<String> accountIds) {
+        List<FROffer> offers = buildOffers(accountData, accountIds);
+        checkDocumentLimit(offerRepository.countByAccountIdIn(accountIds), offers.size(), "offers");
+        return offerRepository.saveAll(offers);
+    }
+
+    List<FRScheduledPayment> createScheduledPayments(FRAccountData accountData, Set<String> accountIds) {
+        List<FRScheduledPayment> scheduledPayments = buildScheduledPayments(accountData, accountIds);
+        checkDocumentLimit(scheduledPaymentRepository.countByAccountIdIn(accountIds), scheduledPayments.size(), "scheduled payments");
+        return scheduledPaymentRepository.saveAll(scheduledPayments);
+    }
+
+    List<FRStatement> createStatements(FRAccountData accountData, Set<String> accountIds) {
+        List<FRStatement> statements = buildStatements(accountData, accountIds);
+        checkDocumentLimit(statementRepository.countByAccountIdIn(accountIds), statements.size(), "statements");
+        return statementRepository.saveAll(statements);
+    }
+
+    List<FRTransaction> createTransactions(FRAccountData accountData, Set<String> accountIds) {
+        List<FRTransaction> transactions = buildTransactions(accountData, accountIds);
+        checkDocumentLimit(transactionRepository.countByAccountIdIn(accountIds), transactions.size(), "transactions");
+        return transactionRepository.saveAll(transactions);
+    }
+
+    List<FRStandingOrder> createStandingOrders(FRAccountData accountData, Set<String> accountIds) {
+        List<FRStandingOrder> standingOrders = buildStandingOrders(accountData, accountIds);
+        checkDocumentLimit(standingOrderRepository.countByAccountIdIn(accountIds), standingOrders.size(), "standing orders");
+        return standingOrderRepository.saveAll(standingOrders);
+    }
+
+    List<FRDirectDebit> createDirectDebits(FRAccountData accountData, Set<String> accountIds) {
+        List<FRDirectDebit> directDebits = buildDirectDebits(accountData, accountIds);
+        checkDocumentLimit(directDebitRepository.countByAccountIdIn(accountIds), directDebits.size(), "direct debits");
+        return directDebitRepository.saveAll(directDebits);
+    }
+
+    List<FRBeneficiary> createBeneficiaries(FRAccountData accountData, Set<String> accountIds) {
+        List<FRBeneficiary> beneficiaries = buildBeneficiaries(accountData, accountIds);
+        checkDocumentLimit(beneficiaryRepository.countByAccountIdIn(accountIds), beneficiaries.size(), "beneficiaries");
+        return beneficiaryRepository.saveAll(beneficiaries);
+    }
+
+    Optional<FRPartyData> createParty(FRAccountData accountData) {
+        return buildParty(accountData).map(party -> partyRepository.save(party).getParty());
+    }
+
+    Optional<OBReadProduct2DataProductInner> createProducts(FRAccountData accountData, Set<String> accountIds) {
+        return buildProduct(accountData, accountIds).map(product -> productRepository.save(product).getProduct());
+    }
+
+    List<FRBalance> createBalances(FRAccountData accountData, Set<String> accountIds) {
+        List<FRBalance> balances = buildBalances(accountData, accountIds);
+        checkDocumentLimit(balanceRepository.countByAccountIdIn(accountIds), balances.size(), "balance");
+        return balanceRepository.saveAll(balances);
+    }
+
+    FRAccount createAccount(FRAccountData accountData, String userId) {
+        FRAccount account = accountsRepository.save(buildAccount(accountData, userId));
+        Example<FRAccount> example = Example.of(FRAccount.builder().userID(userId).build());
+        if (accountsRepository.count(example) > accountLimit) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    String.format("Cannot add account as it has exceeded maximum limit of %s", documentLimit));
+        }
+        return account;
+    }
+
+    FRCustomerInfoEntity createCustomerInfo(FRCustomerInfo customerInfo, String userId) {
+        customerInfo.setUserID(userId);
+        FRCustomerInfoEntity customerInfoEntity = FRCustomerInfoConverter.dtoToEntity(customerInfo);
+        FRCustomerInfoEntity existingCustomerInfo = customerInfoRepository.findByUserID(userId);
+        if (existingCustomerInfo != null) {
+            customerInfoEntity.setId(existingCustomerInfo.getId());
+        }
+        return customerInfoRepository.save(customerInfoEntity);
+    }
+
+    /**
+     * Creates the data for every account in an import using bulk writes.
+     * <p>
+     * All the documents are built and validated first, then the account and document limits are checked once for the
+     * whole import, so an import which would exceed a limit is rejected before anything has been written. The
+     * documents are then saved in batches across all the data types, replacing any existing documents with the same ids
+     * as the repositories' saveAll did, so that re-importing data updates it.
+     *
+     * @param accountDatas the accounts and their data to import
+     * @param userId       the user that owns the accounts
+     * @param accountIds   the ids of the user's existing accounts, the ids of the imported accounts are added to it
+     * @return the created data, in the same order as {@code accountDatas}
+     */
+    List<CreatedAccountData> importAccountData(List<FRAccountData> accountDatas, String userId, Set<String> accountIds) {
+        List<CreatedAccountData> created = new ArrayList<>(accountDatas.size());
+        Set<String> importedBalanceTypes = new HashSet<>();
+        for (FRAccountData accountData : accountDatas) {
+            CreatedAccountData createdAccountData = new CreatedAccountData();
+            if (accountData.getAccount() != null) {
+                createdAccountData.account = buildAccount(accountData, userId);
+                accountIds.add(createdAccountData.account.getId());
+            }
+            createdAccountData.product = buildProduct(accountData, accountIds).orElse(null);
+            createdAccountData.party = buildParty(accountData).orElse(null);
+            createdAccountData.balances = buildBalances(accountData, accountIds);
+            for (FRBalance balance : createdAccountData.balances) {
+                if (!importedBalanceTypes.add(balance.getAccountId() + ":" + balance.getBalance().getType())) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            String.format("A Balance with this Balance Type '%s' already exists for this Account Id:%s",
+                                    balance.getBalance().getType(), balance.getAccountId()));
+                }
+            }
+            createdAccountData.beneficiaries = buildBeneficiaries(accountData, accountIds);
+            createdAccountData.directDebits = buildDirectDebits(accountData, accountIds);
+            createdAccountData.standingOrders = buildStandingOrders(accountData, accountIds);
+            createdAccountData.transactions = buildTransactions(accountData, accountIds);
+            createdAccountData.statements = buildStatements(accountData, accountIds);
+            createdAccountData.scheduledPayments = buildScheduledPayments(accountData, accountIds);
+            createdAccountData.offers = buildOffers(accountData, accountIds);
+            created.add(createdAccountData);
+        }
+
+        List<Object> documents = new ArrayList<>();
+        created.forEach(createdAccountData -> createdAccountData.addDocumentsTo(documents));
+        checkImportLimits(userId, accountIds, documents);
+
+        BulkWriteReport report = bulkDocumentWriter.save(documents);
+        log.debug("Imported {} documents for user {} in {} batches", report.getWritten(), userId,
+                report.getBatches().size());
+        if (report.hasErrors()) {
+            report.getFailedBatches().forEach(batch -> log.error("Failed to import {} of {} documents into {} batch {}: {}",
+                    batch.getSubmitted() - batch.getWritten(), batch.getSubmitted(), batch.getCollection(),
+                    batch.getBatch(), batch.getErrors()));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    String.format("Failed to import %s of %s documents", documents.size() - report.getWritten(),
+                            documents.size()));
+        }
+        return created;
+    }
+
+    private void checkImportLimits(String userId, Set<String> accountIds, List<Object> documents) {
+        Map<Class<?>, Integer> adding = new HashMap<>();
+        documents.forEach(document -> adding.merge(document.getClass(), 1, Integer::sum));
+
+        int addingAccounts = adding.getOrDefault(FRAccount.class, 0);
+        if (addingAccounts > 0) {
+            Example<FRAccount> example = Example.of(FRAccount.builder().userID(userId).build());
+            if (accountsRepository.count(example) + addingAccounts > accountLimit) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        String.format("Cannot add account as it has exceeded maximum limit of %s", accountLimit));
+            }
+        }
+        Map<Class<?>, Long> existing = bulkDocumentWriter.countByAccountIdIn(LIMITED_DOCUMENTS.keySet(), accountIds);
+        LIMITED_DOCUMENTS.forEach((type, name) ->
+                checkDocumentLimit(existing.getOrDefault(type, 0L), adding.getOrDefault(type, 0), name));
+    }
+
+    private void checkDocumentLimit(long existing, int adding, String documents) {
+        if (existing + adding > documentLimit) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    String.format("Cannot add %s as it has exceeded maximum limit of %s", documents, documentLimit));
+        }
+    }
+
+    private List<FROffer> buildOffers(FRAccountData accountData, Set<String> accountIds) {
         List<FROffer> offers = new ArrayList<>();
         for (OBReadOffer1DataOfferInner obOffer : accountData.getOffers()) {
             String accountId = obOffer.getAccountId() != null ? obOffer.getAccountId() : accountData.getAccount().getAccountId();
@@ -142,14 +329,10 @@ public class DataCreator {
             offer.setId(obOffer.getOfferId());
             offers.add(offer);
         }
-        if (offerRepository.countByAccountIdIn(accountIds) + offers.size() > documentLimit) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
-                    String.format("Cannot add offers as it has exceeded maximum limit of %s", documentLimit));
-        }
-        return offerRepository.saveAll(offers);
+        return offers;
     }
 
-    List<FRScheduledPayment> createScheduledPayments(FRAccountData accountData, Set<String> accountIds) {
+    private List<FRScheduledPayment> buildScheduledPayments(FRAccountData accountData, Set<String> accountIds) {
         List<FRScheduledPayment> scheduledPayments = new ArrayList<>();
         for (OBScheduledPayment3 obScheduledPayment : accountData.getScheduledPayments()) {
             String accountId = obScheduledPayment.getAccountId() != null ? obScheduledPayment.getAccountId() : accountData.getAccount().getAccountId();
@@ -165,14 +348,10 @@ public class DataCreator {
             scheduledPayment.setStatus(FRScheduledPayment.ScheduledPaymentStatus.PENDING);
             scheduledPayments.add(scheduledPayment);
         }
-        if (scheduledPaymentRepository.countByAccountIdIn(accountIds) + scheduledPayments.size() > documentLimit) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
-                    String.format("Cannot add scheduled payments as it has exceeded maximum limit of %s", documentLimit));
-        }
-        return scheduledPaymentRepository.saveAll(scheduledPayments);
+        return scheduledPayments;
     }
 
-    List<FRStatement> createStatements(FRAccountData accountData, Set<String> accountIds) {
+    private List<FRStatement> buildStatements(FRAccountData accountData, Set<String> accountIds) {
         List<FRStatement> statements = new ArrayList<>();
         for (OBStatement2 obStatement : accountData.getStatements()) {
             String accountId = obStatement.getAccountId() != null ? obStatement.getAccountId() : accountData.getAccount().getAccountId();
@@ -189,14 +368,10 @@ public class DataCreator {
             statement.setId(obStatement.getStatementId());
             statements.add(statement);
         }
-        if (statementRepository.countByAccountIdIn(accountIds) + statements.size() > documentLimit) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
-                    String.format("Cannot add statements as it has exceeded maximum limit of %s", documentLimit));
-        }
-        return statementRepository.saveAll(statements);
+        return statements;
     }
 
-    List<FRTransaction> createTransactions(FRAccountData accountData, Set<String> accountIds) {
+    private List<FRTransaction> buildTransactions(FRAccountData accountData, Set<String> accountIds) {
         List<FRTransaction> transactions = new ArrayList<>();
         for (OBTransaction6 obTransaction : accountData.getTransactions()) {
             String accountId = obTransaction.getAccountId() != null ? obTransaction.getAccountId() : accountData.getAccount().getAccountId();
@@ -212,14 +387,10 @@ public class DataCreator {
             transaction.setId(obTransaction.getTransactionId());
             transactions.add(transaction);
         }
-        if (transactionRepository.countByAccountIdIn(accountIds) + transactions.size() > documentLimit) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
-                    String.format("Cannot add transactions as it has exceeded maximum limit of %s", documentLimit));
-        }
-        return transactionRepository.saveAll(transactions);
+        return transactions;
     }
 
-    List<FRStandingOrder> createStandingOrders(FRAccountData accountData, Set<String> accountIds) {
+    private List<FRStandingOrder> buildStandingOrders(FRAccountData accountData, Set<String> accountIds) {
         List<FRStandingOrder> standingOrders = new ArrayList<>();
         for (OBStandingOrder6 obStandingOrder : accountData.getStandingOrders()) {
             String accountId = obStandingOrder.getAccountId() != null ? obStandingOrder.getAccountId() : accountData.getAccount().getAccountId();
@@ -235,14 +406,10 @@ public class DataCreator {
             standingOrder.setStatus(FRStandingOrder.StandingOrderStatus.PENDING);
             standingOrders.add(standingOrder);
         }
-        if (standingOrderRepository.countByAccountIdIn(accountIds) + standingOrders.size() > documentLimit) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
-                    String.format("Cannot add standing orders as it has exceeded maximum limit of %s", documentLimit));
-        }
-        return standingOrderRepository.saveAll(standingOrders);
+        return standingOrders;
     }
 
-    List<FRDirectDebit> createDirectDebits(FRAccountData accountData, Set<String> accountIds) {
+    private List<FRDirectDebit> buildDirectDebits(FRAccountData accountData, Set<String> accountIds) {
         List<FRDirectDebit> directDebits = new ArrayList<>();
         for (OBReadDirectDebit2DataDirectDebitInner obDirectDebit : accountData.getDirectDebits()) {
             String accountId = obDirectDebit.getAccountId() != null ? obDirectDebit.getAccountId() : accountData.getAccount().getAccountId();
@@ -257,14 +424,10 @@ public class DataCreator {
             directDebit.setId(obDirectDebit.getDirectDebitId());
             directDebits.add(directDebit);
         }
-        if (directDebitRepository.countByAccountIdIn(accountIds) + directDebits.size() > documentLimit) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
-                    String.format("Cannot add direct debits as it has exceeded maximum limit of %s", documentLimit));
-        }
-        return directDebitRepository.saveAll(directDebits);
+        return directDebits;
     }
 
-    List<FRBeneficiary> createBeneficiaries(FRAccountData accountData, Set<String> accountIds) {
+    private List<FRBeneficiary> buildBeneficiaries(FRAccountData accountData, Set<String> accountIds) {
         List<FRBeneficiary> beneficiaries = new ArrayList<>();
         for (OBBeneficiary5 obBeneficiary : accountData.getBeneficiaries()) {
             String accountId = obBeneficiary.getAccountId() != null ? obBeneficiary.getAccountId() : accountData.getAccount().getAccountId();
@@ -279,14 +442,10 @@ public class DataCreator {
             beneficiary.setId(obBeneficiary.getBeneficiaryId());
             beneficiaries.add(beneficiary);
         }
-        if (beneficiaryRepository.countByAccountIdIn(accountIds) + beneficiaries.size() > documentLimit) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
-                    String.format("Cannot add beneficiaries as it has exceeded maximum limit of %s", documentLimit));
-        }
-        return beneficiaryRepository.saveAll(beneficiaries);
+        return beneficiaries;
     }
 
-    Optional<FRPartyData> createParty(FRAccountData accountData) {
+    private Optional<FRParty> buildParty(FRAccountData accountData) {
         if (accountData.getParty() == null) {
             return Optional.empty();
         }
@@ -295,10 +454,10 @@ public class DataCreator {
         party.setAccountId(accountData.getAccount().getAccountId());
         party.setId(accountData.getParty().getPartyId());
         party.setParty(toFRPartyData(accountData.getParty()));
-        return Optional.of(partyRepository.save(party).getParty());
+        return Optional.of(party);
     }
 
-    Optional<OBReadProduct2DataProductInner> createProducts(FRAccountData accountData, Set<String> accountIds) {
+    private Optional<FRProduct> buildProduct(FRAccountData accountData, Set<String> accountIds) {
         OBReadProduct2DataProductInner obProduct = accountData.getProduct();
         if (obProduct == null) {
             return Optional.empty();
@@ -313,10 +472,10 @@ public class DataCreator {
         product.setAccountId(accountId);
         product.setId(obProduct.getProductId());
         product.setProduct(obProduct);
-        return Optional.of(productRepository.save(product).getProduct());
+        return Optional.of(product);
     }
 
-    List<FRBalance> createBalances(FRAccountData accountData, Set<String> accountIds) {
+    private List<FRBalance> buildBalances(FRAccountData accountData, Set<String> accountIds) {
         List<FRBalance> balances = new ArrayList<>();
         for (OBReadBalance1DataBalanceInner obCashBalance : accountData.getBalances()) {
             String accountId = obCashBalance.getAccountId() != null ? obCashBalance.getAccountId() : accountData.getAccount().getAccountId();
@@ -336,36 +495,54 @@ public class DataCreator {
             balance.setBalance(toFRCashBalance(obCashBalance));
             balances.add(balance);
         }
-        if (balanceRepository.countByAccountIdIn(accountIds) + balances.size() > documentLimit) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
-                    String.format("Cannot add balance as it has exceeded maximum limit of %s", documentLimit));
-        }
-        return balanceRepository.saveAll(balances);
+        return balances;
     }
 
-    FRAccount createAccount(FRAccountData accountData, String userId) {
+    private FRAccount buildAccount(FRAccountData accountData, String userId) {
         FRAccount account = new FRAccount();
         account.setCreated(new Date());
         account.setId(UUID.randomUUID().toString());
         account.setUserID(userId);
         accountData.getAccount().setAccountId(account.getId());
         account.setAccount(toFRFinancialAccount(accountData.getAccount()));
-        account = accountsRepository.save(account);
-        Example<FRAccount> example = Example.of(FRAccount.builder().userID(userId).build());
-        if (accountsRepository.count(example) > accountLimit) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
-                    String.format("Cannot add account as it has exceeded maximum limit of %s", documentLimit));
-        }
         return account;
     }
 
-    FRCustomerInfoEntity createCustomerInfo(FRCustomerInfo customerInfo, String userId) {
-        customerInfo.setUserID(userId);
-        FRCustomerInfoEntity customerInfoEntity = FRCustomerInfoConverter.dtoToEntity(customerInfo);
-        FRCustomerInfoEntity existingCustomerInfo = customerInfoRepository.findByUserID(userId);
-        if (existingCustomerInfo != null) {
-            customerInfoEntity.setId(existingCustomerInfo.getId());
+    /**
+     * The documents created for one of the accounts in an import.
+     */
+    @Getter
+    static class CreatedAccountData {
+        private FRAccount account;
+        private FRProduct product;
+        private FRParty party;
+        private List<FRBalance> balances;
+        private List<FRBeneficiary> beneficiaries;
+        private List<FRDirectDebit> directDebits;
+        private List<FRStandingOrder> standingOrders;
+        private List<FRTransaction> transactions;
+        private List<FRStatement> statements;
+        private List<FRScheduledPayment> scheduledPayments;
+        private List<FROffer> offers;
+
+        private void addDocumentsTo(List<Object> documents) {
+            if (account != null) {
+                documents.add(account);
+            }
+            if (product != null) {
+                documents.add(product);
+            }
+            if (party != null) {
+                documents.add(party);
+            }
+            documents.addAll(balances);
+            documents.addAll(beneficiaries);
+            documents.addAll(directDebits);
+            documents.addAll(standingOrders);
+            documents.addAll(transactions);
+            documents.addAll(statements);
+            documents.addAll(scheduledPayments);
+            documents.addAll(offers);
         }
-        return customerInfoRepository.save(customerInfoEntity);
     }
 }
@@ -26,11 +26,16 @@ import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.acc
 import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.payment.FRScheduledPaymentConverter.toOBScheduledPayment3;
 import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.payment.FRStandingOrderConverter.toOBStandingOrder6;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -39,7 +44,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.forgerock.sapi.gateway.rs.resource.store.api.admin.export.ExportRecord;
+import com.forgerock.sapi.gateway.rs.resource.store.api.admin.export.NdjsonExportWriter;
 import com.forgerock.sapi.gateway.rs.resource.store.datamodel.account.v3.FRAccountData;
+import com.forgerock.sapi.gateway.rs.resource.store.datamodel.user.v3.FRUserData;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRAccount;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRParty;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRProduct;
@@ -104,6 +112,7 @@ public class DataExporter {
     private final FRScheduledPaymentRepository scheduledPaymentRepository;
     private final FRPartyRepository partyRepository;
     private final FROfferRepository offerRepository;
+    private final NdjsonExportWriter ndjsonExportWriter;
 
     private final int dataPageSize;
 
@@ -118,6 +127,7 @@ public class DataExporter {
                         FRScheduledPaymentRepository scheduledPaymentRepository,
                         FRPartyRepository partyRepository,
                         FROfferRepository offerRepository,
+                        NdjsonExportWriter ndjsonExportWriter,
                         @Value("${rs.data.export.page.size:500}") int dataPageSize
     ) {
         this.balanceRepository = balanceRepository;
@@ -130,6 +140,7 @@ public class DataExporter {
         this.scheduledPaymentRepository = scheduledPaymentRepository;
         this.partyRepository = partyRepository;
         this.offerRepository = offerRepository;
+        this.ndjsonExportWriter = ndjsonExportWriter;
         this.dataPageSize = dataPageSize;
     }
 
@@ -152,6 +163,72 @@ public class DataExporter {
         return accountData;
     }
 
+    /**
+     * Streams the user's data as newline delimited JSON, a "user" record holding the user level data followed by the
+     * records for each of the accounts in turn.
+     *
+     * @param userData the user level data, any account data it holds is ignored
+     * @param accounts the user's accounts, read one at a time
+     * @param out      the stream to write to
+     */
+    void streamUserData(FRUserData userData, Stream<FRAccount> accounts, OutputStream out) throws IOException {
+        ndjsonExportWriter.write(new ExportRecord("user", null, userData), out);
+        final Iterator<FRAccount> iterator = accounts.iterator();
+        while (iterator.hasNext()) {
+            streamAccountData(iterator.next(), out);
+        }
+    }
+
+    /**
+     * Streams the account and all of its data as {@link ExportRecord}s, see {@link NdjsonExportWriter}.
+     * <p>
+     * Unlike {@link #exportAccountData(FRAccount)}, which pages each type of data into memory in turn, every type of
+     * data is read from its own cursor in parallel and written as it is read.
+     */
+    void streamAccountData(FRAccount account, OutputStream out) throws IOException {
+        final String accountId = account.getId();
+        ndjsonExportWriter.write(new ExportRecord("account", accountId, toOBAccount6(account.getAccount())), out);
+        final List<Supplier<Stream<ExportRecord>>> sources = List.of(
+                () -> Stream.ofNullable(getProduct(accountId)).map(product -> new ExportRecord("product", accountId, product)),
+                () -> Stream.ofNullable(getParty(accountId)).map(party -> new ExportRecord("party", accountId, party)),
+                cursorSource("transaction", accountId, transactionRepository::streamByAccountId,
+                        frTransaction -> toOBTransaction6(frTransaction.getTransaction())),
+                cursorSource("balance", accountId, balanceRepository::streamByAccountId,
+                        frBalance -> toOBReadBalance1DataBalance(frBalance.getBalance())),
+                cursorSource("beneficiary", accountId, beneficiaryRepository::streamByAccountId,
+                        frBeneficiary -> toOBBeneficiary5(frBeneficiary.getBeneficiary())),
+                cursorSource("directDebit", accountId, directDebitRepository::streamByAccountId,
+                        frDirectDebit -> toOBReadDirectDebit2DataDirectDebit(frDirectDebit.getDirectDebit())),
+                cursorSource("standingOrder", accountId, standingOrderRepository::streamByAccountId,
+                        REMOVE_CORRUPT_STANDING_ORDERS_FILTER,
+                        frStandingOrder -> toOBStandingOrder6(frStandingOrder.getStandingOrder())),
+                cursorSource("statement", accountId, statementRepository::streamByAccountId,
+                        frStatement -> toOBStatement2(frStatement.getStatement())),
+                cursorSource("scheduledPayment", accountId, scheduledPaymentRepository::streamByAccountId,
+                        REMOVE_CORRUPT_SCHEDULED_PAYMENTS_FILTER,
+                        frScheduledPayment -> toOBScheduledPayment3(frScheduledPayment.getScheduledPayment())),
+                cursorSource("offer", accountId, offerRepository::streamByAccountId,
+                        frOffer -> toOBReadOffer1DataOffer(frOffer.getOffer()))
+        );
+        ndjsonExportWriter.write(sources, out);
+    }
+
+    private static <F> Supplier<Stream<ExportRecord>> cursorSource(String type, String accountId,
+                                                                   Function<String, Stream<F>> streamByAccountId,
+                                                                   Function<F, Object> obDataModelConverter) {
+        return cursorSource(type, accountId, streamByAccountId, frItem -> true, obDataModelConverter);
+    }
+
+    private static <F> Supplier<Stream<ExportRecord>> cursorSource(String type, String accountId,
+                                                                   Function<String, Stream<F>> streamByAccountId,
+                                                                   Predicate<F> dataFilter,
+                                                                   Function<F, Object> obDataModelConverter) {
+        // Closing the mapped stream closes the cursor it was read from
+        return () -> streamByAccountId.apply(accountId)
+                                      .filter(dataFilter)
+                                      .map(frItem -> new ExportRecord(type, accountId, obDataModelConverter.apply(frItem)));
+    }
+
     private OBParty2 getParty(String accountId) {
         final FRParty party = partyRepository.findByAccountId(accountId);
         if (party != null) {
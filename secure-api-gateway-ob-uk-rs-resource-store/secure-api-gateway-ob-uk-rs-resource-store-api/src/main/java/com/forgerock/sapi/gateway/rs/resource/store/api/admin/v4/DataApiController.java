@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
@@ -40,17 +41,20 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRFinancialAccount;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRPartyData;
 import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.exceptions.ExceptionClient;
 import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.model.User;
 import com.forgerock.sapi.gateway.ob.uk.rs.cloud.client.services.UserClientService;
 import com.forgerock.sapi.gateway.rs.resource.store.api.admin.exceptions.DataApiException;
+import com.forgerock.sapi.gateway.rs.resource.store.api.admin.export.NdjsonExportWriter;
+import com.forgerock.sapi.gateway.rs.resource.store.api.admin.v4.DataCreator.CreatedAccountData;
 import com.forgerock.sapi.gateway.rs.resource.store.datamodel.account.v4.FRAccountData;
 import com.forgerock.sapi.gateway.rs.resource.store.datamodel.user.v4.FRUserData;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRAccount;
@@ -152,8 +156,8 @@ public class DataApiController implements DataApi {
 
             FRUserData userData = new FRUserData(userId);
             userData.setUserName(user.getUserName());
-            for (FRAccount account : accountsRepository.findByUserID(userId)) {
-                userData.addAccountData(dataExporter.exportAccountData(account));
+            try (Stream<FRAccount> accounts = accountsRepository.streamByUserID(userId)) {
+                accounts.forEach(account -> userData.addAccountData(dataExporter.exportAccountData(account)));
             }
 
             userData.setCustomerInfo(
@@ -177,6 +181,43 @@ public class DataApiController implements DataApi {
         }
     }
 
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamUserData(
+            @RequestParam("userId") String userId
+    ) {
+        try {
+            final User user = userClientService.getUserById(userId);
+
+            final FRUserData userData = new FRUserData(userId);
+            userData.setUserName(user.getUserName());
+            userData.setCustomerInfo(
+                    FRCustomerInfoConverter.entityToDto(
+                            customerInfoRepository.findByUserID(userId)
+                    )
+            );
+            final FRParty byUserId = partyRepository.findByUserId(userId);
+            if (byUserId != null) {
+                userData.setParty(toOBParty2(byUserId.getParty()));
+            }
+
+            final StreamingResponseBody body = out -> {
+                try (Stream<FRAccount> accounts = accountsRepository.streamByUserID(userId)) {
+                    dataExporter.streamUserData(userData, accounts, out);
+                }
+            };
+            return ResponseEntity.ok()
+                                 .contentType(MediaType.parseMediaType(NdjsonExportWriter.APPLICATION_NDJSON_VALUE))
+                                 .body(body);
+        } catch (ExceptionClient e) {
+            log.error(
+                    "Status: {}, reason: {}",
+                    e.getErrorClient().getErrorType().getHttpStatus(),
+                    e.getReason()
+            );
+            throw new DataApiException(e);
+        }
+    }
+
     @Override
     public ResponseEntity updateUserData(
             @RequestBody FRUserData userData
@@ -297,35 +338,37 @@ public class DataApiController implements DataApi {
                     .map(FRAccount::getId)
                     .collect(Collectors.toSet());
 
-            for (FRAccountData accountData : userData.getAccountDatas()) {
+            for (CreatedAccountData created : dataCreator.importAccountData(userData.getAccountDatas(), userId, existingAccountIds)) {
                 FRAccountData accountDataResponse = new FRAccountData();
 
                 //Account
-                if (accountData.getAccount() != null) {
-                    FRFinancialAccount frAccount = dataCreator.createAccount(accountData, userId).getAccount();
-                    accountDataResponse.setAccount(toOBAccount6(frAccount));
-                    existingAccountIds.add(accountDataResponse.getAccount().getAccountId());
+                if (created.getAccount() != null) {
+                    accountDataResponse.setAccount(toOBAccount6(created.getAccount().getAccount()));
                 }
                 //Product
-                dataCreator.createProducts(accountData, existingAccountIds).ifPresent(accountDataResponse::setProduct);
+                if (created.getProduct() != null) {
+                    accountDataResponse.setProduct(created.getProduct().getProduct());
+                }
                 //Party
-                dataCreator.createParty(accountData).ifPresent(p -> accountDataResponse.setParty(toOBParty2(p)));
+                if (created.getParty() != null) {
+                    accountDataResponse.setParty(toOBParty2(created.getParty().getParty()));
+                }
                 //Balance
-                dataCreator.createBalances(accountData, existingAccountIds).forEach(b -> accountDataResponse.addBalance(toOBReadBalance1DataBalanceInner(b.getBalance())));
+                created.getBalances().forEach(b -> accountDataResponse.addBalance(toOBReadBalance1DataBalanceInner(b.getBalance())));
                 //Beneficiaries
-                dataCreator.createBeneficiaries(accountData, existingAccountIds).forEach(b -> accountDataResponse.addBeneficiary(toOBBeneficiary5(b.getBeneficiary())));
+                created.getBeneficiaries().forEach(b -> accountDataResponse.addBeneficiary(toOBBeneficiary5(b.getBeneficiary())));
                 //Direct debits
-                dataCreator.createDirectDebits(accountData, existingAccountIds).forEach(d -> accountDataResponse.addDirectDebit(toOBReadDirectDebit2DataDirectDebit(d.getDirectDebit())));
+                created.getDirectDebits().forEach(d -> accountDataResponse.addDirectDebit(toOBReadDirectDebit2DataDirectDebit(d.getDirectDebit())));
                 //Standing orders
-                dataCreator.createStandingOrders(accountData, existingAccountIds).forEach(d -> accountDataResponse.addStandingOrder(toOBStandingOrder6(d.getStandingOrder())));
+                created.getStandingOrders().forEach(d -> accountDataResponse.addStandingOrder(toOBStandingOrder6(d.getStandingOrder())));
                 //Transactions
-                dataCreator.createTransactions(accountData, existingAccountIds).forEach(d -> accountDataResponse.addTransaction(toOBTransaction6(d.getTransaction())));
+                created.getTransactions().forEach(d -> accountDataResponse.addTransaction(toOBTransaction6(d.getTransaction())));
                 //Statements
-                dataCreator.createStatements(accountData, existingAccountIds).forEach(d -> accountDataResponse.addStatement(toOBStatement2(d.getStatement())));
+                created.getStatements().forEach(d -> accountDataResponse.addStatement(toOBStatement2(d.getStatement())));
                 //Scheduled payments
-                dataCreator.createScheduledPayments(accountData, existingAccountIds).forEach(d -> accountDataResponse.addScheduledPayment(toOBScheduledPayment3(d.getScheduledPayment())));
+                created.getScheduledPayments().forEach(d -> accountDataResponse.addScheduledPayment(toOBScheduledPayment3(d.getScheduledPayment())));
                 //offers
-                dataCreator.createOffers(accountData, existingAccountIds).forEach(d -> accountDataResponse.addOffer(toOBReadOffer1DataOffer(d.getOffer())));
+                created.getOffers().forEach(d -> accountDataResponse.addOffer(toOBReadOffer1DataOffer(d.getOffer())));
 
                 userDataResponse.addAccountData(accountDataResponse);
             }
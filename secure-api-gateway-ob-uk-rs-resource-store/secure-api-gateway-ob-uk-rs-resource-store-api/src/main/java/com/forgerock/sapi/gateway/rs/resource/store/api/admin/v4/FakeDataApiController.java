@@ -86,6 +86,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
@@ -104,16 +105,9 @@ import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRStandi
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRStatement;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.accounts.FRAccountRepository;
-import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.balances.FRBalanceRepository;
-import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.beneficiaries.FRBeneficiaryRepository;
-import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.directdebits.FRDirectDebitRepository;
-import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.offers.FROfferRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.party.FRPartyRepository;
-import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.products.FRProductRepository;
-import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.scheduledpayments.FRScheduledPaymentRepository;
-import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.standingorders.FRStandingOrderRepository;
-import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.statements.FRStatementRepository;
-import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions.FRTransactionRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk.BulkDocumentWriter;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk.BulkWriteReport;
 
 import uk.org.openbanking.datamodel.v3.account.OBExternalStatementAmountType1Code;
 import uk.org.openbanking.datamodel.v3.account.OBExternalStatementType1Code;
@@ -138,16 +132,8 @@ public class FakeDataApiController implements FakeDataApi {
     private final static NumberFormat FORMAT_AMOUNT = new DecimalFormat("#0.00");
 
     private final FRAccountRepository accountsRepository;
-    private final FRBalanceRepository balanceRepository;
-    private final FRBeneficiaryRepository beneficiaryRepository;
-    private final FRDirectDebitRepository directDebitRepository;
-    private final FRProductRepository productRepository;
-    private final FRStandingOrderRepository standingOrderRepository;
-    private final FRTransactionRepository transactionRepository;
-    private final FRStatementRepository statementRepository;
-    private final FRScheduledPaymentRepository scheduledPaymentRepository;
     private final FRPartyRepository partyRepository;
-    private final FROfferRepository offerRepository;
+    private final BulkDocumentWriter bulkDocumentWriter;
     private final DataApiController dataController;
     private final ObjectMapper mapper;
     private final DataConfigurationProperties dataConfig;
@@ -157,26 +143,14 @@ public class FakeDataApiController implements FakeDataApi {
     private List<String> names;
 
     public FakeDataApiController(
-            FRAccountRepository accountsRepository, FRBalanceRepository balanceRepository,
-            FRBeneficiaryRepository beneficiaryRepository, FRDirectDebitRepository directDebitRepository,
-            FRProductRepository productRepository, FRStandingOrderRepository standingOrderRepository,
-            FRTransactionRepository transactionRepository, FRStatementRepository statementRepository,
-            FRScheduledPaymentRepository scheduledPaymentRepository, FRPartyRepository partyRepository,
-            FROfferRepository offerRepository, DataApiController dataController,
+            FRAccountRepository accountsRepository, FRPartyRepository partyRepository,
+            BulkDocumentWriter bulkDocumentWriter, DataApiController dataController,
             ObjectMapper mapper, DataConfigurationProperties dataConfig,
             TestUserAccountIds testUserAccountIds
     ) throws IOException {
         this.accountsRepository = accountsRepository;
-        this.balanceRepository = balanceRepository;
-        this.beneficiaryRepository = beneficiaryRepository;
-        this.directDebitRepository = directDebitRepository;
-        this.productRepository = productRepository;
-        this.standingOrderRepository = standingOrderRepository;
-        this.transactionRepository = transactionRepository;
-        this.statementRepository = statementRepository;
-        this.scheduledPaymentRepository = scheduledPaymentRepository;
         this.partyRepository = partyRepository;
-        this.offerRepository = offerRepository;
+        this.bulkDocumentWriter = bulkDocumentWriter;
         this.dataController = dataController;
         this.mapper = mapper;
         this.dataConfig = dataConfig;
@@ -225,6 +199,7 @@ public class FakeDataApiController implements FakeDataApi {
         }
 
         final Supplier<String> accountIdSupplier = createAccountIdSupplier(username);
+        final List<Object> documents = new ArrayList<>();
         {
 
             String accountId = accountIdSupplier.get();
@@ -278,11 +253,10 @@ public class FakeDataApiController implements FakeDataApi {
             );
 
             LOGGER.debug("Account '{}' generated for user '{}'", accountPremierBank, userId);
-            accountsRepository.save(accountPremierBank);
-            generateAccountData(accountPremierBank);
-            generateParty(accountPremierBank, username);
-            generateOfferLimitIncrease(accountPremierBank);
-            generateOfferBalanceTransfer(accountPremierBank);
+            generateAccountData(accountPremierBank, documents);
+            documents.add(generateParty(accountPremierBank, username));
+            documents.add(generateOfferLimitIncrease(accountPremierBank));
+            documents.add(generateOfferBalanceTransfer(accountPremierBank));
         }
         {
 
@@ -335,11 +309,10 @@ public class FakeDataApiController implements FakeDataApi {
             );
 
             LOGGER.debug("Account '{}' generated for user '{}'", accountPremierBank, userId);
-            accountsRepository.save(accountPremierBank);
-            generateAccountData(accountPremierBank);
-            generateParty(accountPremierBank, username);
-            generateOfferLimitIncrease(accountPremierBank);
-            generateOfferBalanceTransfer(accountPremierBank);
+            generateAccountData(accountPremierBank, documents);
+            documents.add(generateParty(accountPremierBank, username));
+            documents.add(generateOfferLimitIncrease(accountPremierBank));
+            documents.add(generateOfferBalanceTransfer(accountPremierBank));
         }
         {
 
@@ -391,13 +364,24 @@ public class FakeDataApiController implements FakeDataApi {
                     .build()
             );
             LOGGER.debug("Account '{}' generated for user '{}'", accountPremierCard, userId);
-            accountsRepository.save(accountPremierCard);
-            generateAccountData(accountPremierCard);
-            generateParty(accountPremierCard, username);
-            generateOfferLimitIncrease(accountPremierCard);
+            generateAccountData(accountPremierCard, documents);
+            documents.add(generateParty(accountPremierCard, username));
+            documents.add(generateOfferLimitIncrease(accountPremierCard));
         }
 
-        generateGlobalParty(userId, username);
+        documents.add(generateGlobalParty(userId, username));
+
+        final BulkWriteReport report = bulkDocumentWriter.save(documents);
+        LOGGER.debug("Saved {} documents generated for user '{}' in {} batches", report.getWritten(), userId,
+                report.getBatches().size());
+        if (report.hasErrors()) {
+            report.getFailedBatches().forEach(batch -> LOGGER.error("Failed to save {} of {} documents into {} batch {}: {}",
+                    batch.getSubmitted() - batch.getWritten(), batch.getSubmitted(), batch.getCollection(),
+                    batch.getBatch(), batch.getErrors()));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    String.format("Failed to save %s of %s generated documents", documents.size() - report.getWritten(),
+                            documents.size()));
+        }
 
         return dataController.exportUserData(userId).getBody();
     }
@@ -432,7 +416,7 @@ public class FakeDataApiController implements FakeDataApi {
         return new StringBuilder().append(sortCode).append(accountNumber).toString();
     }
 
-    private void generateAccountData(com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRAccount account) {
+    private void generateAccountData(com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRAccount account, List<Object> documents) {
         final List<FRBalance> balances = generateBalances(account, FRCreditDebitIndicator.DEBIT, null);
         final FRBalance balance = balances.get(0);
 
@@ -482,16 +466,16 @@ public class FakeDataApiController implements FakeDataApi {
             scheduledPayments.add(generateScheduledPayment(account));
         }
 
-        beneficiaryRepository.saveAll(beneficiarys);
-        directDebitRepository.saveAll(directDebit1s);
-        scheduledPaymentRepository.saveAll(scheduledPayments);
-        standingOrderRepository.saveAll(standingOrder3s);
-        statementRepository.saveAll(statements);
-        transactionRepository.saveAll(transactions);
-        productRepository.save(product2);
-        balanceRepository.saveAll(balances);
+        documents.addAll(beneficiarys);
+        documents.addAll(directDebit1s);
+        documents.addAll(scheduledPayments);
+        documents.addAll(standingOrder3s);
+        documents.addAll(statements);
+        documents.addAll(transactions);
+        documents.add(product2);
+        documents.addAll(balances);
 
-        accountsRepository.save(account);
+        documents.add(account);
     }
 
     private List<FRBalance> generateBalances(com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRAccount account, FRCreditDebitIndicator creditDebitCode, List<FRCreditLine> creditLine) {
@@ -622,7 +606,6 @@ public class FakeDataApiController implements FakeDataApi {
         );
         product.setId(product.getProduct().getProductId());
         LOGGER.debug("FRProduct1 '{}' generated", product);
-        productRepository.save(product);
         return product;
     }
 
@@ -906,7 +889,6 @@ public class FakeDataApiController implements FakeDataApi {
                 .name(username)
                 .build()
         );
-        partyRepository.save(party);
         return party;
     }
 
@@ -922,7 +904,6 @@ public class FakeDataApiController implements FakeDataApi {
                 .name(username)
                 .build()
         );
-        partyRepository.save(party);
         return party;
     }
 
@@ -947,7 +928,6 @@ public class FakeDataApiController implements FakeDataApi {
                 .build()
         );
 
-        offerRepository.save(offer1);
         return offer1;
     }
 
@@ -972,7 +952,6 @@ public class FakeDataApiController implements FakeDataApi {
                 .build()
         );
 
-        offerRepository.save(offer1);
         return offer1;
     }
 
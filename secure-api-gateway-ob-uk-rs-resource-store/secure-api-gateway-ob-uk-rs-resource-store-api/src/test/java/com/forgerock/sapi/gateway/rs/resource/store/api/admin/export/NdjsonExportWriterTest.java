@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.api.admin.export;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit test for {@link NdjsonExportWriter}.
+ */
+public class NdjsonExportWriterTest {
+
+    @Test
+    public void shouldWriteRecordsOfEverySourceInOrder() throws Exception {
+        // Given
+        final NdjsonExportWriter writer = new NdjsonExportWriter(new ObjectMapper(), 2, 1);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        writer.write(List.of(records("transaction", 100), records("balance", 10), records("statement", 5)), out);
+
+        // Then
+        final List<String> lines = out.toString(UTF_8).lines().toList();
+        assertThat(lines).hasSize(115);
+        assertThat(lines.stream().filter(line -> line.contains("\"transaction\"")))
+                .containsExactlyElementsOf(IntStream.range(0, 100).mapToObj(i -> line("transaction", i)).toList());
+    }
+
+    @Test
+    public void shouldFailWhenSourceFails() {
+        // Given
+        final NdjsonExportWriter writer = new NdjsonExportWriter(new ObjectMapper(), 2, 10);
+        final Supplier<Stream<ExportRecord>> failingSource = () -> {
+            throw new IllegalStateException("cursor failed");
+        };
+
+        // When
+        assertThatThrownBy(() -> writer.write(List.of(records("transaction", 100), failingSource), new ByteArrayOutputStream()))
+                // Then
+                .isInstanceOf(IOException.class)
+                .hasRootCauseMessage("cursor failed");
+    }
+
+    @Test
+    public void shouldNotHoldUpExportsWhenAnotherClientStopsReading() throws Exception {
+        // Given
+        final NdjsonExportWriter writer = new NdjsonExportWriter(new ObjectMapper(), 1, 1);
+        final CountDownLatch stalledClientReads = new CountDownLatch(1);
+        final OutputStream stalledClient = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                try {
+                    stalledClientReads.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> stalledExport = executor.submit(() -> {
+                writer.write(List.of(records("transaction", 100)), stalledClient);
+                return null;
+            });
+
+            // When
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final Future<?> export = executor.submit(() -> {
+                writer.write(List.of(records("balance", 10)), out);
+                return null;
+            });
+
+            // Then
+            export.get(10, TimeUnit.SECONDS);
+            assertThat(out.toString(UTF_8).lines()).hasSize(10);
+            stalledClientReads.countDown();
+            stalledExport.get(10, TimeUnit.SECONDS);
+        } finally {
+            stalledClientReads.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static Supplier<Stream<ExportRecord>> records(String type, int count) {
+        return () -> IntStream.range(0, count).mapToObj(i -> new ExportRecord(type, "account-" + i, null));
+    }
+
+    private static String line(String type, int i) {
+        return "{\"type\":\"" + type + "\",\"accountId\":\"account-" + i + "\"}";
+    }
+}
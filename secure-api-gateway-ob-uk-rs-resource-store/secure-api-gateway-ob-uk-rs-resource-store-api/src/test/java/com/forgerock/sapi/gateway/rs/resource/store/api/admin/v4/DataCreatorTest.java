@@ -32,6 +32,9 @@ import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.schedule
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.standingorders.FRStandingOrderRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.statements.FRStatementRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions.FRTransactionRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk.BulkDocumentWriter;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk.BulkWriteReport;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk.BulkWriteReport.BatchResult;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.customerinfo.FRCustomerInfoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -45,8 +48,11 @@ import org.springframework.web.server.ResponseStatusException;
 import uk.org.openbanking.datamodel.v4.account.*;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.account.FRCashBalanceConverter.toFRCashBalance;
 import static com.forgerock.sapi.gateway.rs.resource.store.api.testsupport.FRCustomerInfoTestHelper.aValidFRCustomerInfo;
@@ -54,6 +60,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -87,13 +94,15 @@ public class DataCreatorTest {
     private FROfferRepository offerRepository;
     @Mock
     private FRCustomerInfoRepository customerInfoRepository;
+    @Mock
+    private BulkDocumentWriter bulkDocumentWriter;
 
     @BeforeEach
     public void setUp() {
         dataCreator = new DataCreator(accountsRepository, balanceRepository, beneficiaryRepository,
                 directDebitRepository, productRepository, standingOrderRepository, transactionRepository,
                 statementRepository, scheduledPaymentRepository, partyRepository, offerRepository,
-                customerInfoRepository, 1000, 1000);
+                customerInfoRepository, bulkDocumentWriter, 1000, 1000);
     }
 
     @Test
@@ -432,6 +441,92 @@ public class DataCreatorTest {
         verify(customerInfoRepository).findByUserID(customerInfoEntity.getUserID());
     }
 
+    @Test
+    public void importAccountData_savesAllDocumentsWithOneBulkWrite() {
+        // Given
+        FRAccountData accountData = new FRAccountData()
+                .addBalance(new OBReadBalance1DataBalanceInner().type(OBBalanceType1Code.ITAV))
+                .addTransaction(new OBTransaction6())
+                .addTransaction(new OBTransaction6());
+        accountData.setAccount(new OBAccount6());
+        given(accountsRepository.count(any())).willReturn(0L);
+        given(balanceRepository.findByAccountIdAndBalanceType(any(), any())).willReturn(Optional.empty());
+        given(bulkDocumentWriter.countByAccountIdIn(any(), any())).willReturn(Map.of(FRTransaction.class, 998L));
+        given(bulkDocumentWriter.save(any())).willReturn(new BulkWriteReport(List.of(
+                new BatchResult("accounts", 0, 4, 4, List.of()))));
+        Set<String> accountIds = new HashSet<>();
+
+        // When
+        List<DataCreator.CreatedAccountData> created = dataCreator.importAccountData(List.of(accountData), "user", accountIds);
+
+        // Then
+        assertThat(created).hasSize(1);
+        String accountId = created.get(0).getAccount().getId();
+        assertThat(accountIds).containsExactly(accountId);
+        assertThat(created.get(0).getTransactions()).hasSize(2).allMatch(t -> t.getAccountId().equals(accountId));
+        ArgumentCaptor<List<Object>> argumentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(bulkDocumentWriter).save(argumentCaptor.capture());
+        assertThat(argumentCaptor.getValue()).hasSize(4).first().isInstanceOf(FRAccount.class);
+        verify(accountsRepository, never()).save(any());
+        verify(transactionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void importAccountData_exceedingLimitRejectedBeforeWriting() {
+        // Given
+        FRAccountData accountData = new FRAccountData()
+                .addTransaction(new OBTransaction6())
+                .addTransaction(new OBTransaction6());
+        accountData.setAccount(new OBAccount6());
+        given(accountsRepository.count(any())).willReturn(0L);
+        given(bulkDocumentWriter.countByAccountIdIn(any(), any())).willReturn(Map.of(FRTransaction.class, 999L));
+
+        assertThatThrownBy(
+                // When
+                () -> dataCreator.importAccountData(List.of(accountData), "user", new HashSet<>())
+        )
+                // Then
+                .satisfies(t -> assertThat(((ResponseStatusException) t).getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+        verify(bulkDocumentWriter, never()).save(any());
+    }
+
+    @Test
+    public void importAccountData_duplicateBalanceTypeInImportRejected() {
+        // Given
+        FRAccountData accountData = new FRAccountData()
+                .addBalance(new OBReadBalance1DataBalanceInner().type(OBBalanceType1Code.ITAV))
+                .addBalance(new OBReadBalance1DataBalanceInner().type(OBBalanceType1Code.ITAV));
+        accountData.setAccount(new OBAccount6());
+        given(balanceRepository.findByAccountIdAndBalanceType(any(), any())).willReturn(Optional.empty());
+
+        assertThatThrownBy(
+                // When
+                () -> dataCreator.importAccountData(List.of(accountData), "user", new HashSet<>())
+        )
+                // Then
+                .satisfies(t -> assertThat(((ResponseStatusException) t).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verify(bulkDocumentWriter, never()).save(any());
+    }
+
+    @Test
+    public void importAccountData_failedBatchReported() {
+        // Given
+        FRAccountData accountData = new FRAccountData().addTransaction(new OBTransaction6());
+        accountData.setAccount(new OBAccount6());
+        given(accountsRepository.count(any())).willReturn(0L);
+        given(bulkDocumentWriter.countByAccountIdIn(any(), any())).willReturn(Map.of());
+        given(bulkDocumentWriter.save(any())).willReturn(new BulkWriteReport(List.of(
+                new BatchResult("FRAccount", 0, 1, 1, List.of()),
+                new BatchResult("FRTransaction", 0, 1, 0, List.of("document 0: Document failed validation")))));
+
+        assertThatThrownBy(
+                // When
+                () -> dataCreator.importAccountData(List.of(accountData), "user", new HashSet<>())
+        )
+                // Then
+                .satisfies(t -> assertThat(((ResponseStatusException) t).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
     private FRAccountData accountDataWithBalance(OBReadBalance1DataBalanceInner balance) {
         FRAccountData accountData = new FRAccountData();
         accountData.setAccount(new OBAccount6().accountId(balance.getAccountId()));
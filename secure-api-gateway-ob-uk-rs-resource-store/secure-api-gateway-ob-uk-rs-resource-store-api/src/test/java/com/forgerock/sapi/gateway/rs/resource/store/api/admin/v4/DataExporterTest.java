@@ -18,9 +18,13 @@ package com.forgerock.sapi.gateway.rs.resource.store.api.admin.v4;
 import static org.assertj.core.api.Assertions.assertThat;
 import static uk.org.openbanking.datamodel.v4.account.ExternalMandateStatus1Code.ACTV;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +33,8 @@ import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureWebCl
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRFinancialAccount;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRTransactionData;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.account.FRAccountBeneficiaryConverter;
@@ -92,6 +98,8 @@ class DataExporterTest {
     private FRStandingOrderRepository standingOrderRepository;
     @Autowired
     private FRBalanceRepository balanceRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     private String accountId;
 
@@ -459,4 +467,60 @@ class DataExporterTest {
         validateBalances(accountData, balances);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testStreamingAccountWithAllData() throws Exception {
+        generateTransactions(2017);
+        generateBalances(15);
+        generateOffers(1);
+        generateDirectDebitData(128);
+        generateBeneficiaries(9);
+        generatePartyData();
+        generateProductData();
+        generateScheduledPayments(501);
+        generateStandingOrders(12);
+        generateStatements(128);
+        // Corrupt standing orders are filtered out of the stream in the same way as the paged export
+        standingOrderRepository.save(FRStandingOrder.builder().id(UUID.randomUUID().toString())
+                .accountId(accountId)
+                .standingOrder(FRStandingOrderConverter.toFRStandingOrderData(
+                        new OBStandingOrder6().accountId(accountId).standingOrderId("Corrupt Standing Order")))
+                .build());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dataExporter.streamAccountData(createAccount(), out);
+
+        final List<JsonNode> records = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            records.add(objectMapper.readTree(line));
+        }
+        assertThat(records.get(0).get("type").asText()).isEqualTo("account");
+        assertThat(records.get(0).get("data").get("AccountId").asText()).isEqualTo(accountId);
+        assertThat(records).allSatisfy(record -> assertThat(record.get("accountId").asText()).isEqualTo(accountId));
+
+        final Map<String, Long> countsByType = records.stream()
+                .collect(Collectors.groupingBy(record -> record.get("type").asText(), Collectors.counting()));
+        assertThat(countsByType).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "account", 1L,
+                "transaction", 2017L,
+                "balance", 15L,
+                "offer", 1L,
+                "directDebit", 128L,
+                "beneficiary", 9L,
+                "party", 1L,
+                "product", 1L,
+                "scheduledPayment", 501L,
+                "standingOrder", 12L,
+                "statement", 128L));
+    }
+
+    @Test
+    public void testStreamingAccountWithNoData() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dataExporter.streamAccountData(createAccount(), out);
+
+        final String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(1);
+        assertThat(objectMapper.readTree(lines[0]).get("type").asText()).isEqualTo("account");
+    }
+
+}
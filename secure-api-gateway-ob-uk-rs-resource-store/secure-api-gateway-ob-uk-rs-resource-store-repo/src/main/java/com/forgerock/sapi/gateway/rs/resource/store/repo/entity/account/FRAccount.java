@@ -26,6 +26,7 @@ import org.joda.time.DateTime;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -37,12 +38,12 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+@CompoundIndex(name = "userID_id", def = "{'userID': 1, '_id': 1}")
 public class FRAccount implements Account {
 
     @Id
     @Indexed
     private String id;
-    @Indexed
     private String userID;
     private FRFinancialAccount account;
     @Indexed
@@ -33,6 +33,7 @@ import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -53,6 +54,10 @@ public class FRBalance {
     private String accountId;
     private FRCashBalance balance;
     private FRTotalValue totalValue;
+    /**
+     * Ids of the most recent debits made by payment settlement, so that a debit which is retried is only applied once
+     */
+    private List<String> debitIds;
     @CreatedDate
     private Date created;
     @LastModifiedDate
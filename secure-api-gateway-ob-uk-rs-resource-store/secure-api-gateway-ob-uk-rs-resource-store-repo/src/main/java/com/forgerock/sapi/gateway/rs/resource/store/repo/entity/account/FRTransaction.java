@@ -26,6 +26,7 @@ import org.joda.time.DateTime;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import uk.org.openbanking.jackson.DateTimeDeserializer;
@@ -40,6 +41,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+@CompoundIndex(name = "accountId_bookingDateTime_id", def = "{'accountId': 1, 'bookingDateTime': 1, '_id': 1}")
 public class FRTransaction {
 
     @Id
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.entity.idempotency;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Records that an idempotencyKey has been claimed by an API Client, and the resource that was created by the request.
+ * <p>
+ * The (apiClientId, idempotencyKey) pair is unique, inserting a record therefore acts as an atomic claim on the key:
+ * only one of a number of concurrent requests using the same key is able to insert the record. Records are removed by
+ * Mongo once expiresAt has passed.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+@CompoundIndex(name = "apiClientId_idempotencyKey", def = "{'apiClientId': 1, 'idempotencyKey': 1}", unique = true)
+public class FRIdempotencyRecord {
+
+    @Id
+    private String id;
+
+    private String apiClientId;
+
+    private String idempotencyKey;
+
+    /**
+     * Fingerprint of the request body, used to detect the idempotencyKey being reused with a different request.
+     */
+    private String requestFingerprint;
+
+    /**
+     * Id of the resource created by the request which claimed the idempotencyKey
+     */
+    private String resourceId;
+
+    /**
+     * When the idempotencyKey was claimed, the claiming request is given a limited time from this point to create the
+     * resource before its claim is treated as abandoned.
+     */
+    private Date created;
+
+    @Indexed(name = "expiresAt", expireAfterSeconds = 0)
+    private Date expiresAt;
+
+}
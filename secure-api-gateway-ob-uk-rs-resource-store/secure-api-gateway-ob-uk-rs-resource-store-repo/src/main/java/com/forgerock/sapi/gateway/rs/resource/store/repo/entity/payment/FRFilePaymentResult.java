@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one of the transactions in the file of a file payment, there is one per transaction in the file.
+ * <p>
+ * Results are recorded as the file is processed when it is uploaded, so that the report of a file payment can be
+ * produced without parsing the file again. The id is the id of the file payment followed by the position of the
+ * transaction in the file, which makes recording the results of a file again idempotent.
+ * <p>
+ * Results also back the payment details of a file payment. The (filePaymentId, status, index) index serves the pages
+ * of the payments with a status in file order, and the (filePaymentId, status, instructionIdentification) index lets
+ * the details of individual payments be looked up without reading the rest of the file.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+@CompoundIndexes({
+        // Only the results of an upload which the consent store has accepted have a filePaymentId
+        @CompoundIndex(name = "filePaymentId_index", def = "{'filePaymentId': 1, 'index': 1}", unique = true,
+                partialFilter = "{'filePaymentId': {$exists: true}}"),
+        @CompoundIndex(name = "filePaymentId_status_index", def = "{'filePaymentId': 1, 'status': 1, 'index': 1}"),
+        @CompoundIndex(name = "filePaymentId_status_instructionIdentification",
+                def = "{'filePaymentId': 1, 'status': 1, 'instructionIdentification': 1, 'index': 1}")
+})
+public class FRFilePaymentResult {
+
+    @Id
+    private String id;
+
+    /**
+     * Id of the upload of the file which recorded the result. Each upload of a file records its results under a new
+     * uploadId, so the results of an upload which is rejected can be removed without touching those of any other upload.
+     */
+    @Indexed(name = "uploadId")
+    private String uploadId;
+
+    /**
+     * Id of the file payment, which is the id of the file payment consent the file was uploaded to. It is only set once
+     * the consent store has accepted the upload which recorded the result.
+     */
+    private String filePaymentId;
+
+    /**
+     * Position of the transaction in the file, starting at 0
+     */
+    private int index;
+
+    private String instructionIdentification;
+
+    private String endToEndIdentification;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal amount;
+
+    private String currency;
+
+    private Status status;
+
+    private Date statusUpdateDateTime;
+
+    /**
+     * @param id    the id of an upload, or of a file payment for the PaymentTransactionId of one of its payments
+     * @param index the position of the payment in the file
+     * @return the id of the result of the payment at the given position of the file
+     */
+    public static String id(String id, int index) {
+        return id + ":" + index;
+    }
+
+    public enum Status {
+        PENDING,
+        COMPLETED,
+        REJECTED
+    }
+}
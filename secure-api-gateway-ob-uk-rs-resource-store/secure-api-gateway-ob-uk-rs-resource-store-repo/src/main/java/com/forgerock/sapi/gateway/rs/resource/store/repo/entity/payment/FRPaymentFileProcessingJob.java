@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Processing of a file uploaded to a file payment consent, when files are processed asynchronously there is one per
+ * file which has been uploaded.
+ * <p>
+ * The id is the id of the consent, so a consent can only have one job at a time. Jobs are claimed by a worker for the
+ * duration of a lease in the same way as {@link FRPaymentSettlement} items; a job whose lease expired without being
+ * finished is claimed again. Finished jobs are kept, without the file, so that the outcome can be reported.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+@CompoundIndexes({
+        @CompoundIndex(name = "status_created", def = "{'status': 1, 'created': 1}"),
+        @CompoundIndex(name = "status_leaseExpiresAt", def = "{'status': 1, 'leaseExpiresAt': 1}")
+})
+public class FRPaymentFileProcessingJob {
+
+    /**
+     * Id of the file payment consent the file was uploaded to
+     */
+    @Id
+    private String id;
+
+    private String apiClientId;
+
+    private String fileUploadIdempotencyKey;
+
+    /**
+     * The uploaded file, removed once the job has finished
+     */
+    private byte[] fileContents;
+
+    private Status status;
+
+    private Date leaseExpiresAt;
+
+    private int attempts;
+
+    /**
+     * The reasons the file was rejected, when the status is FAILED
+     */
+    private List<ProcessingError> errors;
+
+    private Date created;
+
+    private Date updated;
+
+    public enum Status {
+        QUEUED,
+        IN_PROCESS,
+        COMPLETED,
+        FAILED
+    }
+
+    @Builder
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProcessingError {
+        private String errorCode;
+        private String message;
+        private String path;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Work item on the settlement queue, there is one per payment that is waiting to be settled.
+ * <p>
+ * The id identifies the payment, so a payment can only be queued once. It is the id of the payment submission, other
+ * than for standing orders where each payment made by the standing order is queued separately. Items are claimed by a
+ * settlement worker for the duration of a lease; an item whose lease expired without being completed is claimed again
+ * by the next worker. Completed items are removed from the queue.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+@CompoundIndexes({
+        @CompoundIndex(name = "status_dueAt", def = "{'status': 1, 'dueAt': 1}"),
+        @CompoundIndex(name = "status_leaseExpiresAt", def = "{'status': 1, 'leaseExpiresAt': 1}")
+})
+public class FRPaymentSettlement {
+
+    @Id
+    private String id;
+
+    /**
+     * Id of the payment submission whose status is updated by the settlement
+     */
+    private String paymentId;
+
+    private PaymentType paymentType;
+
+    private String debtorAccountId;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal amount;
+
+    /**
+     * Currency of the amount, when null the amount is in the currency of the debtor account
+     */
+    private String currency;
+
+    private String creditorName;
+
+    private String reference;
+
+    private Status status;
+
+    /**
+     * Time from which the payment may be settled, e.g. the requested execution date of a scheduled payment
+     */
+    private Date dueAt;
+
+    private Date leaseExpiresAt;
+
+    private int attempts;
+
+    @CreatedDate
+    private Date created;
+
+    public enum Status {
+        QUEUED,
+        IN_PROCESS
+    }
+
+    /**
+     * The types of payment that can be settled, along with the entity in which the submission is stored.
+     */
+    public enum PaymentType {
+        DOMESTIC(FRDomesticPaymentSubmission.class),
+        DOMESTIC_SCHEDULED(FRDomesticScheduledPaymentSubmission.class),
+        DOMESTIC_STANDING_ORDER(FRDomesticStandingOrderPaymentSubmission.class),
+        DOMESTIC_VRP(FRDomesticVrpPaymentSubmission.class),
+        INTERNATIONAL(FRInternationalPaymentSubmission.class),
+        INTERNATIONAL_SCHEDULED(FRInternationalScheduledPaymentSubmission.class),
+        INTERNATIONAL_STANDING_ORDER(FRInternationalStandingOrderPaymentSubmission.class),
+        FILE(FRFilePaymentSubmission.class);
+
+        private final Class<? extends PaymentSubmission<?>> submissionClass;
+
+        PaymentType(Class<? extends PaymentSubmission<?>> submissionClass) {
+            this.submissionClass = submissionClass;
+        }
+
+        public Class<? extends PaymentSubmission<?>> getSubmissionClass() {
+            return submissionClass;
+        }
+    }
+}
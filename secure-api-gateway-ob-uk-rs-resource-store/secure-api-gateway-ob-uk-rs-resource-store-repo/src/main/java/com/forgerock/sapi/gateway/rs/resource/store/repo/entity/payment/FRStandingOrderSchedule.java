@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.PaymentType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Execution schedule of a standing order submission, holding the date on which its next payment is due.
+ * <p>
+ * The id is the id of the standing order submission. Schedules which are due are claimed by an execution worker for
+ * the duration of a lease, the worker queues the payment for settlement and then advances the schedule to the next
+ * payment date. Once the final payment has been made the next execution date is removed.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class FRStandingOrderSchedule {
+
+    @Id
+    private String id;
+
+    private PaymentType paymentType;
+
+    private String debtorAccountId;
+
+    /**
+     * The frequency expression of the standing order, e.g. "IntrvlMnthDay:01:15"
+     */
+    private String frequency;
+
+    private FRAmount firstPaymentAmount;
+
+    private FRAmount recurringPaymentAmount;
+
+    private FRAmount finalPaymentAmount;
+
+    private Date finalPaymentDateTime;
+
+    private Integer numberOfPayments;
+
+    private int paymentsMade;
+
+    private String creditorName;
+
+    private String reference;
+
+    @Indexed(name = "nextExecutionDateTime", sparse = true)
+    private Date nextExecutionDateTime;
+
+    private Date leaseExpiresAt;
+
+    @CreatedDate
+    private Date created;
+
+}
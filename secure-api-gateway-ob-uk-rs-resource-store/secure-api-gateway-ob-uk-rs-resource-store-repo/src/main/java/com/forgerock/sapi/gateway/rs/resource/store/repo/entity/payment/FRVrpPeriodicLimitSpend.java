@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-aggregated spend against one of the PeriodicLimits of a VRP consent.
+ * <p>
+ * There is a document per (consentId, periodType, periodAlignment, currency) bucket and period, identified by the
+ * start of the period. The spent amount is only ever updated with $inc, so concurrent payments against the same
+ * consent cannot lose updates. Documents are removed by Mongo once the period has ended.
+ * <p>
+ * The ids of the payments whose amounts are included in the spend are held with it, so that the amount of a payment
+ * which is not made is released from every bucket it was added to exactly once.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+@CompoundIndex(name = "consentId_periodType_periodAlignment_currency_periodStart",
+        def = "{'consentId': 1, 'periodType': 1, 'periodAlignment': 1, 'currency': 1, 'periodStart': 1}", unique = true)
+public class FRVrpPeriodicLimitSpend {
+
+    @Id
+    private String id;
+
+    private String consentId;
+
+    private String periodType;
+
+    private String periodAlignment;
+
+    private String currency;
+
+    private Date periodStart;
+
+    /**
+     * Total amount of the payments made in the period, stored as a Decimal128 so that it can be incremented by Mongo
+     */
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal spent;
+
+    @Indexed(name = "paymentIds")
+    private List<String> paymentIds;
+
+    @Indexed(name = "expiresAt", expireAfterSeconds = 0)
+    private Date expiresAt;
+
+}
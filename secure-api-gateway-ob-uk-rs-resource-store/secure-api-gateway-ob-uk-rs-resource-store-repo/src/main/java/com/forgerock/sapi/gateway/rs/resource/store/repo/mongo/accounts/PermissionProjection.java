@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode;
+
+/**
+ * Compiles the permissions of an account access consent into a projection of the fields of a resource which the
+ * consent allows to be read, so that the fields it does not allow are never read from the database.
+ * <p>
+ * A projection is defined by rules which exclude fields when a permission is granted, optionally unless another
+ * permission is also granted. The fields excluded for a set of permissions are compiled once and shared by subsequent
+ * reads with the same permissions. Masking the values of fields which are read, e.g. PANs, remains with the caller.
+ */
+public final class PermissionProjection {
+
+    private final List<Rule> rules;
+    private final Map<Set<FRExternalPermissionsCode>, String[]> excludedFields = new ConcurrentHashMap<>();
+
+    private PermissionProjection(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Limits the fields returned by the query to those allowed by the permissions.
+     *
+     * @return the query
+     */
+    public Query apply(Query query, Collection<FRExternalPermissionsCode> permissions) {
+        final String[] fields = excludedFields(permissions);
+        if (fields.length > 0) {
+            query.fields().exclude(fields);
+        }
+        return query;
+    }
+
+    /**
+     * @return the paths of the fields which the permissions do not allow to be read
+     */
+    public String[] excludedFields(Collection<FRExternalPermissionsCode> permissions) {
+        final Set<FRExternalPermissionsCode> permissionSet = EnumSet.noneOf(FRExternalPermissionsCode.class);
+        permissionSet.addAll(permissions);
+        return excludedFields.computeIfAbsent(permissionSet, this::compile).clone();
+    }
+
+    private String[] compile(Set<FRExternalPermissionsCode> permissions) {
+        final Set<String> fields = new LinkedHashSet<>();
+        for (Rule rule : rules) {
+            if (permissions.contains(rule.granted) && (rule.unless == null || !permissions.contains(rule.unless))) {
+                fields.addAll(rule.fields);
+            }
+        }
+        return fields.toArray(new String[0]);
+    }
+
+    private static final class Rule {
+        private final FRExternalPermissionsCode granted;
+        private final FRExternalPermissionsCode unless;
+        private final List<String> fields;
+
+        private Rule(FRExternalPermissionsCode granted, FRExternalPermissionsCode unless, List<String> fields) {
+            this.granted = granted;
+            this.unless = unless;
+            this.fields = fields;
+        }
+    }
+
+    public static final class Builder {
+        private final List<Rule> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Excludes the fields when the permission is granted.
+         */
+        public Builder excludeWhen(FRExternalPermissionsCode granted, String... fields) {
+            return excludeWhen(granted, null, fields);
+        }
+
+        /**
+         * Excludes the fields when the permission is granted, unless the overriding permission is also granted.
+         */
+        public Builder excludeWhen(FRExternalPermissionsCode granted, FRExternalPermissionsCode unless, String... fields) {
+            rules.add(new Rule(granted, unless, List.of(fields)));
+            return this;
+        }
+
+        public PermissionProjection build() {
+            return new PermissionProjection(rules);
+        }
+    }
+}
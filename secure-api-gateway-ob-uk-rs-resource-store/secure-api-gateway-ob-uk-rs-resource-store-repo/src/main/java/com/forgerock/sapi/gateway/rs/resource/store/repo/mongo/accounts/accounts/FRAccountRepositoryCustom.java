@@ -18,19 +18,29 @@ package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.account
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRAccount;
 import org.joda.time.DateTime;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
 
-import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface FRAccountRepositoryCustom {
 
-    Collection<FRAccount> byUserIDWithPermissions(
+    /**
+     * Reads a page of the accounts of a user, sorted by the requested sort and then by account id.
+     */
+    Page<FRAccount> byUserIDWithPermissions(
             @Param("userID") String userID,
             @Param("permissions") List<FRExternalPermissionsCode> permissions,
             Pageable pageable);
 
+    /**
+     * Streams the accounts of a user, in account id order, without loading them all into memory. The stream holds a
+     * database cursor and must be closed by the caller.
+     */
+    Stream<FRAccount> streamByUserID(@Param("userID") String userID);
+
     FRAccount byAccountId(
             @Param("accountId") String accountId,
             @Param("permissions") List<FRExternalPermissionsCode> permissions);
@@ -18,6 +18,7 @@ package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.account
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAccountIdentifier;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRAccount;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.PermissionProjection;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -26,26 +27,39 @@ import uk.org.openbanking.datamodel.v3.common.OBExternalAccountIdentification4Co
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.CollectionUtils;
 
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
 import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 @Repository
 public class FRAccountRepositoryImpl implements FRAccountRepositoryCustom {
+    /**
+     * Basic account permissions do not allow the account identifiers and servicer of the account to be read.
+     */
+    static final PermissionProjection ACCOUNT_PROJECTION = PermissionProjection.builder()
+            .excludeWhen(FRExternalPermissionsCode.READACCOUNTSBASIC, FRExternalPermissionsCode.READACCOUNTSDETAIL,
+                    "account.accounts",
+                    "account.servicer")
+            .build();
+
     @Autowired
     @Lazy
     private FRAccountRepository accountsRepository;
@@ -57,32 +71,31 @@ public class FRAccountRepositoryImpl implements FRAccountRepositoryCustom {
     }
 
     @Override
-    public Collection<FRAccount> byUserIDWithPermissions(String userID, List<FRExternalPermissionsCode> permissions, Pageable
+    public Page<FRAccount> byUserIDWithPermissions(String userID, List<FRExternalPermissionsCode> permissions, Pageable
             pageable) {
-        Collection<FRAccount> accounts = accountsRepository.findByUserID(userID);
-        try {
-            for (FRAccount account : accounts) {
-                filterAccount(account, permissions);
-            }
-            return accounts;
-        } catch (IllegalArgumentException e) {
-            return Collections.emptyList();
-        }
+        final Criteria criteria = where("userID").is(userID);
+        // The account id breaks ties so that pages are stable, the (userID, _id) index serves the default order
+        final Query query = query(criteria).with(pageable).with(Sort.by(Sort.Direction.ASC, "_id"));
+        final List<FRAccount> accounts = mongoTemplate.find(ACCOUNT_PROJECTION.apply(query, permissions), FRAccount.class);
+        return PageableExecutionUtils.getPage(mask(accounts, permissions), pageable,
+                () -> mongoTemplate.count(query(criteria), FRAccount.class));
+    }
+
+    @Override
+    public Stream<FRAccount> streamByUserID(String userID) {
+        return mongoTemplate.stream(query(where("userID").is(userID)).with(Sort.by(Sort.Direction.ASC, "_id")),
+                FRAccount.class);
     }
 
     @Override
     public FRAccount byAccountId(String accountId, List<FRExternalPermissionsCode> permissions) {
-        Optional<FRAccount> isAccount = accountsRepository.findById(accountId);
-        if (!isAccount.isPresent()) {
-            return null;
-        }
-        FRAccount account = isAccount.get();
-        try {
-            filterAccount(account, permissions);
-            return account;
-        } catch (IllegalArgumentException e) {
+        final Query query = ACCOUNT_PROJECTION.apply(query(where("_id").is(accountId)), permissions);
+        final FRAccount account = mongoTemplate.findOne(query, FRAccount.class);
+        if (account == null) {
             return null;
         }
+        mask(account, permissions);
+        return account;
     }
 
     @Override
@@ -96,30 +109,31 @@ public class FRAccountRepositoryImpl implements FRAccountRepositoryCustom {
 
     @Override
     public List<FRAccount> byAccountIds(List<String> accountIds, List<FRExternalPermissionsCode> permissions) {
-        Iterable<FRAccount> accounts = accountsRepository.findAllById(accountIds);
-        try {
-            for (FRAccount account : accounts) {
-                filterAccount(account, permissions);
-            }
-            return StreamSupport.stream(accounts.spliterator(), false).collect(Collectors.toList());
-        } catch (IllegalArgumentException e) {
-            return Collections.emptyList();
+        final Query query = ACCOUNT_PROJECTION.apply(query(where("_id").in(accountIds)), permissions);
+        return mask(mongoTemplate.find(query, FRAccount.class), permissions);
+    }
+
+    private List<FRAccount> mask(List<FRAccount> accounts, List<FRExternalPermissionsCode> permissions) {
+        for (FRAccount account : accounts) {
+            mask(account, permissions);
         }
+        return accounts;
     }
 
-    private void filterAccount(FRAccount account, List<FRExternalPermissionsCode> permissions) {
-        if(permissions.contains(FRExternalPermissionsCode.READACCOUNTSDETAIL)){
-            if (!CollectionUtils.isEmpty(account.getAccount().getAccounts())) {
-                for (FRAccountIdentifier subAccount : account.getAccount().getAccounts()) {
-                    if (!permissions.contains(FRExternalPermissionsCode.READPAN)
-                            && OBExternalAccountIdentification4Code.PAN.toString().equals(subAccount.getSchemeName())) {
-                        subAccount.setIdentification("xxx");
-                    }
-                }
+    /**
+     * Masks the PANs of the sub accounts when the permissions do not allow them to be read. The fields which basic
+     * permissions do not allow are not read, see {@link #ACCOUNT_PROJECTION}.
+     */
+    private void mask(FRAccount account, List<FRExternalPermissionsCode> permissions) {
+        if (permissions.contains(FRExternalPermissionsCode.READPAN)
+                || account.getAccount() == null
+                || CollectionUtils.isEmpty(account.getAccount().getAccounts())) {
+            return;
+        }
+        for (FRAccountIdentifier subAccount : account.getAccount().getAccounts()) {
+            if (OBExternalAccountIdentification4Code.PAN.toString().equals(subAccount.getSchemeName())) {
+                subAccount.setIdentification("xxx");
             }
-        } else if (permissions.contains(FRExternalPermissionsCode.READACCOUNTSBASIC)){
-            account.getAccount().setAccounts(null);
-            account.getAccount().setServicer(null);
         }
     }
 
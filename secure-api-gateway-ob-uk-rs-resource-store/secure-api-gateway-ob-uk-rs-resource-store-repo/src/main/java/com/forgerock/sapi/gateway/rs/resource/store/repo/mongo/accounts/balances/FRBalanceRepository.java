@@ -26,11 +26,17 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface FRBalanceRepository extends MongoRepository<FRBalance, String>, FRBalanceRepositoryCustom {
 
     Page<FRBalance> findByAccountId(@Param("accountId") String accountId, Pageable pageable);
 
+    /**
+     * Streams all of the account's balances from a cursor, the caller is responsible for closing the stream.
+     */
+    Stream<FRBalance> streamByAccountId(@Param("accountId") String accountId);
+
     Collection<FRBalance> findByAccountId(@Param("accountId") String accountId);
 
     Page<FRBalance> findByAccountIdIn(@Param("accountIds") List<String> accountIds, Pageable pageable);
@@ -15,13 +15,16 @@
  */
 package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.balances;
 
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRBalance;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 public interface FRBalanceRepositoryCustom {
 
@@ -34,4 +37,25 @@ public interface FRBalanceRepositoryCustom {
             @Param("accountIds") List<String> accountIds,
             @Param("permissions") List<FRExternalPermissionsCode> permissions,
             Pageable pageable);
+
+    /**
+     * Atomically subtracts an amount from an account's balance of the given type. The amount is stored as a string, so
+     * the update is a compare-and-set against the amount that was read, which is retried if the balance was changed
+     * concurrently.
+     * <p>
+     * The debitId is recorded on the balance in the same update, and a debit whose id has already been recorded is not
+     * applied again, so a debit that is retried (e.g. by a settlement worker which re-claims a payment) is applied
+     * once. Only the most recent 100 debitIds are kept for each balance.
+     *
+     * @param accountId      the account to debit
+     * @param balanceType    the type of balance to debit
+     * @param amount         the amount to subtract, in the currency of the balance
+     * @param allowOverdraft whether the balance may become a debit balance, when false the balance is not changed if
+     *                       it does not cover the amount
+     * @param debitId        identifies the debit, e.g. the id of the payment being settled
+     * @return the updated balance, or empty if the account has no balance of the type or the funds are insufficient.
+     * If the debit had already been applied then the current balance is returned.
+     */
+    Optional<FRBalance> debit(String accountId, FRBalanceType balanceType, BigDecimal amount, boolean allowOverdraft,
+                              String debitId);
 }
@@ -15,26 +15,46 @@
  */
 package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.balances;
 
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRCreditDebitIndicator;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRBalance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @Repository
 public class FRBalanceRepositoryImpl implements FRBalanceRepositoryCustom {
     private static final Logger LOGGER = LoggerFactory.getLogger(FRBalanceRepositoryImpl.class);
+    private static final int MAX_DEBIT_ATTEMPTS = 10;
+    /**
+     * Number of the most recent debitIds kept on each balance
+     */
+    private static final int MAX_DEBIT_IDS = 100;
 
     @Autowired
     @Lazy
     private FRBalanceRepository balanceRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Override
     public Page<FRBalance> byAccountIdWithPermissions(String accountId, List<FRExternalPermissionsCode> permissions,
                                                       Pageable pageable) {
@@ -47,6 +67,49 @@ public class FRBalanceRepositoryImpl implements FRBalanceRepositoryCustom {
         return filter(balanceRepository.findByAccountIdIn(accountIds, pageable), permissions);
     }
 
+    @Override
+    public Optional<FRBalance> debit(String accountId, FRBalanceType balanceType, BigDecimal amount, boolean allowOverdraft,
+                                     String debitId) {
+        final Query balanceQuery = new Query(where("accountId").is(accountId).and("balance.type").is(balanceType));
+        for (int attempt = 1; attempt <= MAX_DEBIT_ATTEMPTS; attempt++) {
+            final FRBalance balance = mongoTemplate.findOne(balanceQuery, FRBalance.class);
+            if (balance == null) {
+                return Optional.empty();
+            }
+            if (balance.getDebitIds() != null && balance.getDebitIds().contains(debitId)) {
+                LOGGER.debug("Debit {} has already been applied to balance {} of account {}", debitId, balanceType, accountId);
+                return Optional.of(balance);
+            }
+            final BigDecimal current = balance.getCreditDebitIndicator() == FRCreditDebitIndicator.DEBIT
+                    ? balance.getAmount().negate() : balance.getAmount();
+            final BigDecimal remaining = current.subtract(amount);
+            if (!allowOverdraft && remaining.signum() < 0) {
+                return Optional.empty();
+            }
+            final FRCreditDebitIndicator remainingIndicator = remaining.signum() < 0
+                    ? FRCreditDebitIndicator.DEBIT : FRCreditDebitIndicator.CREDIT;
+            final String remainingAmount = remaining.abs().setScale(2, RoundingMode.HALF_EVEN).toPlainString();
+
+            // The debitId is recorded in the same update as the amount, so the debit cannot be applied twice
+            final Query unchanged = new Query(where("_id").is(balance.getId())
+                    .and("balance.amount.amount").is(balance.getBalance().getAmount().getAmount())
+                    .and("balance.creditDebitIndicator").is(balance.getCreditDebitIndicator())
+                    .and("debitIds").ne(debitId));
+            final Update update = new Update().set("balance.amount.amount", remainingAmount)
+                                              .set("balance.creditDebitIndicator", remainingIndicator)
+                                              .set("updated", new Date());
+            update.push("debitIds").slice(-MAX_DEBIT_IDS).each(debitId);
+            if (mongoTemplate.updateFirst(unchanged, update, FRBalance.class).getModifiedCount() == 1) {
+                balance.getBalance().getAmount().setAmount(remainingAmount);
+                balance.setCreditDebitIndicator(remainingIndicator);
+                return Optional.of(balance);
+            }
+            LOGGER.debug("Balance {} of account {} changed concurrently, retrying debit", balanceType, accountId);
+        }
+        throw new OptimisticLockingFailureException("Failed to debit " + balanceType + " balance of account "
+                + accountId + " after " + MAX_DEBIT_ATTEMPTS + " attempts");
+    }
+
     private Page<FRBalance> filter(Page<FRBalance> balances, List<FRExternalPermissionsCode> permissions) {
         return balances;
     }
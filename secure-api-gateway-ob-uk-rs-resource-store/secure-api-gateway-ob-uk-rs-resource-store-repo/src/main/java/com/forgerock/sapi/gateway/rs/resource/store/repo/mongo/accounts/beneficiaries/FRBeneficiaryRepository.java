@@ -23,11 +23,17 @@ import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface FRBeneficiaryRepository extends MongoRepository<FRBeneficiary, String>, FRBeneficiaryRepositoryCustom {
 
     Page<FRBeneficiary> findByAccountId(@Param("accountId") String accountId, Pageable pageable);
 
+    /**
+     * Streams all of the account's beneficiaries from a cursor, the caller is responsible for closing the stream.
+     */
+    Stream<FRBeneficiary> streamByAccountId(@Param("accountId") String accountId);
+
     Page<FRBeneficiary> findByAccountIdIn(@Param("accountIds") List<String> accountIds, Pageable pageable);
 
     Long deleteBeneficiaryByAccountId(@Param("accountId") String accountId);
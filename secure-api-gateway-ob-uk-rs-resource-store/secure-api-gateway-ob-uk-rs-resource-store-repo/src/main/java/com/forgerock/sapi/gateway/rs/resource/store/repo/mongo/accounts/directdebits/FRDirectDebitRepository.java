@@ -23,11 +23,17 @@ import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface FRDirectDebitRepository extends MongoRepository<FRDirectDebit, String>, FRDirectDebitRepositoryCustom {
 
     Page<FRDirectDebit> findByAccountId(@Param("accountId") String accountId, Pageable pageable);
 
+    /**
+     * Streams all of the account's direct debits from a cursor, the caller is responsible for closing the stream.
+     */
+    Stream<FRDirectDebit> streamByAccountId(@Param("accountId") String accountId);
+
     Page<FRDirectDebit> findByAccountIdIn(@Param("accountIds") List<String> accountIds, Pageable pageable);
 
     Long deleteDirectDebitByAccountId(@Param("accountId") String accountId);
@@ -23,12 +23,18 @@ import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 
 public interface FROfferRepository extends MongoRepository<FROffer, String>, FROfferRepositoryCustom {
 
     Page<FROffer> findByAccountId(@Param("accountId") String accountId, Pageable pageable);
 
+    /**
+     * Streams all of the account's offers from a cursor, the caller is responsible for closing the stream.
+     */
+    Stream<FROffer> streamByAccountId(@Param("accountId") String accountId);
+
     Page<FROffer> findByAccountIdIn(@Param("accountIds") List<String> accountIds, Pageable pageable);
 
     Long deleteFROfferByAccountId(@Param("accountId") String accountId);
@@ -25,11 +25,17 @@ import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface FRScheduledPaymentRepository extends MongoRepository<FRScheduledPayment, String>, FRScheduledPaymentRepositoryCustom {
 
     Page<FRScheduledPayment> findByAccountId(@Param("accountId") String accountId, Pageable pageable);
 
+    /**
+     * Streams all of the account's scheduled payments from a cursor, the caller is responsible for closing the stream.
+     */
+    Stream<FRScheduledPayment> streamByAccountId(@Param("accountId") String accountId);
+
     Page<FRScheduledPayment> findByAccountIdIn(@Param("accountIds") List<String> accountIds, Pageable pageable);
 
     Long deleteFRScheduledPaymentByAccountId(@Param("accountId") String accountId);
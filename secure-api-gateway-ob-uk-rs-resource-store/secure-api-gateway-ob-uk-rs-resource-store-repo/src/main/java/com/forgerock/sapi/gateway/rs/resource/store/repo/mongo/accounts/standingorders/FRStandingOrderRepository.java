@@ -24,11 +24,17 @@ import org.springframework.data.repository.query.Param;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface FRStandingOrderRepository extends MongoRepository<FRStandingOrder, String>, FRStandingOrderRepositoryCustom {
 
     Page<FRStandingOrder> findByAccountId(@Param("accountId") String accountId, Pageable pageable);
 
+    /**
+     * Streams all of the account's standing orders from a cursor, the caller is responsible for closing the stream.
+     */
+    Stream<FRStandingOrder> streamByAccountId(@Param("accountId") String accountId);
+
     Page<FRStandingOrder> findByAccountIdIn(@Param("accountIds") List<String> accountIds, Pageable pageable);
 
     Long deleteStandingOrderByAccountId(@Param("accountId") String accountId);
@@ -15,37 +15,29 @@
  */
 package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.statements;
 
-import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRStatement;
 
 
 public interface FRStatementRepository extends MongoRepository<FRStatement, String>, FRStatementRepositoryCustom {
 
-    Page<FRStatement> findByAccountIdAndStartDateTimeBetweenAndEndDateTimeBetween(
-            String accountId,
-            Date fromStartDateTime,
-            Date toStartDateTime,
-            Date fromEndDateTime,
-            Date toEndDateTime,
-            Pageable pageable
-    );
-
     Page<FRStatement> findByAccountId(
             String accountId,
             Pageable pageable
     );
 
-    List<FRStatement> findByAccountIdAndId(
-            String accountId,
-            String id
-    );
+    /**
+     * Streams all of the account's statements from a cursor, the caller is responsible for closing the stream.
+     */
+    Stream<FRStatement> streamByAccountId(@Param("accountId") String accountId);
 
     Page<FRStatement> findByAccountIdIn(
             List<String> accountIds,
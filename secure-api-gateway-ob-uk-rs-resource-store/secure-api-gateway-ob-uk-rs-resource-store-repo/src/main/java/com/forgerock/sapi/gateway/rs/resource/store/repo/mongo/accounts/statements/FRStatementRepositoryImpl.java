@@ -15,22 +15,35 @@
  */
 package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.statements;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 import java.util.Date;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
 
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRStatement;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.PermissionProjection;
 
 public class FRStatementRepositoryImpl implements FRStatementRepositoryCustom {
 
+    /**
+     * Basic statement permissions do not allow the amounts of the statement to be read.
+     */
+    static final PermissionProjection STATEMENT_PROJECTION = PermissionProjection.builder()
+            .excludeWhen(FRExternalPermissionsCode.READSTATEMENTSBASIC, "statement.statementAmounts")
+            .build();
+
     @Autowired
-    @Lazy
-    private FRStatementRepository statement1Repository;
+    private MongoTemplate mongoTemplate;
 
     @Override
     public Page<FRStatement> byAccountIdWithPermissions(
@@ -39,11 +52,20 @@ public class FRStatementRepositoryImpl implements FRStatementRepositoryCustom {
             Date toStatementDateTime,
             List<FRExternalPermissionsCode> permissions, Pageable pageable) {
 
-        if (fromStatementDateTime == null && toStatementDateTime == null) {
-            return filter(statement1Repository.findByAccountId(accountId, pageable), permissions);
-        } else {
-            return filter(statement1Repository.findByAccountIdAndStartDateTimeBetweenAndEndDateTimeBetween(accountId, fromStatementDateTime, toStatementDateTime, fromStatementDateTime, toStatementDateTime, pageable), permissions);
+        final Criteria criteria = where("accountId").is(accountId);
+        if (fromStatementDateTime != null || toStatementDateTime != null) {
+            final Criteria startDateTimeCriteria = criteria.and("startDateTime");
+            final Criteria endDateTimeCriteria = criteria.and("endDateTime");
+            if (fromStatementDateTime != null) {
+                startDateTimeCriteria.gt(fromStatementDateTime);
+                endDateTimeCriteria.gt(fromStatementDateTime);
+            }
+            if (toStatementDateTime != null) {
+                startDateTimeCriteria.lt(toStatementDateTime);
+                endDateTimeCriteria.lt(toStatementDateTime);
+            }
         }
+        return findPage(criteria, permissions, pageable);
     }
 
     @Override
@@ -52,37 +74,19 @@ public class FRStatementRepositoryImpl implements FRStatementRepositoryCustom {
             String statementId,
             List<FRExternalPermissionsCode> permissions) {
 
-        return filter(statement1Repository.findByAccountIdAndId(accountId, statementId), permissions);
+        final Query query = STATEMENT_PROJECTION.apply(query(where("accountId").is(accountId).and("_id").is(statementId)),
+                permissions);
+        return mongoTemplate.find(query, FRStatement.class);
     }
 
     @Override
     public Page<FRStatement> byAccountIdInWithPermissions(List<String> accountIds, List<FRExternalPermissionsCode> permissions, Pageable pageable) {
-        return filter(statement1Repository.findByAccountIdIn(accountIds, pageable), permissions);
-    }
-
-    private Page<FRStatement> filter(Page<FRStatement> statements, List<FRExternalPermissionsCode> permissions) {
-        for (FRExternalPermissionsCode permission : permissions) {
-            for (FRStatement statement : statements) {
-                switch (permission) {
-                    case READSTATEMENTSBASIC:
-                        statement.getStatement().setStatementAmounts(null);
-                        break;
-                }
-            }
-        }
-        return statements;
+        return findPage(where("accountId").in(accountIds), permissions, pageable);
     }
 
-    private List<FRStatement> filter(List<FRStatement> statements, List<FRExternalPermissionsCode> permissions) {
-        for (FRExternalPermissionsCode permission : permissions) {
-            for (FRStatement statement : statements) {
-                switch (permission) {
-                    case READSTATEMENTSBASIC:
-                        statement.getStatement().setStatementAmounts(null);
-                        break;
-                }
-            }
-        }
-        return statements;
+    private Page<FRStatement> findPage(Criteria criteria, List<FRExternalPermissionsCode> permissions, Pageable pageable) {
+        final Query query = STATEMENT_PROJECTION.apply(query(criteria).with(pageable), permissions);
+        return PageableExecutionUtils.getPage(mongoTemplate.find(query, FRStatement.class), pageable,
+                () -> mongoTemplate.count(query(criteria), FRStatement.class));
     }
 }
@@ -15,16 +15,15 @@
  */
 package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions;
 
-import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.repository.query.Param;
 
-import com.forgerock.sapi.gateway.ob.uk.rs.obie.api.ApiConstants;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
 
 import uk.org.openbanking.datamodel.v3.account.OBCreditDebitCode0;
@@ -37,23 +36,15 @@ public interface FRTransactionRepository extends MongoRepository<FRTransaction,
             Pageable pageable
     );
 
-    Page<FRTransaction> findByAccountIdAndTransactionCreditDebitIndicatorAndBookingDateTimeBetween(
-            @Param("accountId") String accountId,
-            @Param("creditDebitIndicator") OBCreditDebitCode0 creditDebitIndicator,
-            @Param(ApiConstants.ParametersFieldName.FROM_BOOKING_DATE_TIME) Date fromBookingDateTime,
-            @Param(ApiConstants.ParametersFieldName.TO_BOOKING_DATE_TIME) Date toBookingDateTime,
-            Pageable pageable);
-
     Page<FRTransaction> findByAccountId(
             @Param("accountId") String accountId,
             Pageable pageable
     );
 
-    Page<FRTransaction> findByAccountIdAndBookingDateTimeBetween(
-            @Param("accountId") String accountId,
-            @Param(ApiConstants.ParametersFieldName.FROM_BOOKING_DATE_TIME) Date fromBookingDateTime,
-            @Param(ApiConstants.ParametersFieldName.TO_BOOKING_DATE_TIME) Date toBookingDateTime,
-            Pageable pageable);
+    /**
+     * Streams all of the account's transactions from a cursor, the caller is responsible for closing the stream.
+     */
+    Stream<FRTransaction> streamByAccountId(@Param("accountId") String accountId);
 
     Page<FRTransaction> findByAccountIdAndStatementIdsAndTransactionCreditDebitIndicator(
             @Param("accountId") String accountId,
@@ -62,51 +53,17 @@ public interface FRTransactionRepository extends MongoRepository<FRTransaction,
             Pageable pageable
     );
 
-    Page<FRTransaction> findByAccountIdAndStatementIdsAndTransactionCreditDebitIndicatorAndBookingDateTimeBetween(
-            @Param("accountId") String accountId,
-            @Param("statementId") String statementId,
-            @Param("creditDebitIndicator") OBCreditDebitCode0 creditDebitIndicator,
-            @Param(ApiConstants.ParametersFieldName.FROM_BOOKING_DATE_TIME) Date fromBookingDateTime,
-            @Param(ApiConstants.ParametersFieldName.TO_BOOKING_DATE_TIME) Date toBookingDateTime,
-            Pageable pageable);
-
     Page<FRTransaction> findByAccountIdAndStatementIds(
             @Param("accountId") String accountId,
             @Param("statementId") String statementId,
             Pageable pageable
     );
 
-    Page<FRTransaction> findByAccountIdAndStatementIdsAndBookingDateTimeBetween(
-            @Param("accountId") String accountId,
-            @Param("statementId") String statementId,
-            @Param(ApiConstants.ParametersFieldName.FROM_BOOKING_DATE_TIME) Date fromBookingDateTime,
-            @Param(ApiConstants.ParametersFieldName.TO_BOOKING_DATE_TIME) Date toBookingDateTime,
-            Pageable pageable);
-
-    Page<FRTransaction> findByAccountIdInAndTransactionCreditDebitIndicator(
-            @Param("accountIds") List<String> accountIds,
-            @Param("creditDebitIndicator") OBCreditDebitCode0 creditDebitIndicator,
-            Pageable pageable
-    );
-
-    Page<FRTransaction> findByAccountIdInAndTransactionCreditDebitIndicatorAndBookingDateTimeBetween(
-            @Param("accountIds") List<String> accountIds,
-            @Param("creditDebitIndicator") OBCreditDebitCode0 creditDebitIndicator,
-            @Param(ApiConstants.ParametersFieldName.FROM_BOOKING_DATE_TIME) Date fromBookingDateTime,
-            @Param(ApiConstants.ParametersFieldName.TO_BOOKING_DATE_TIME) Date toBookingDateTime,
-            Pageable pageable);
-
     Page<FRTransaction> findByAccountIdIn(
             @Param("accountIds") List<String> accountIds,
             Pageable pageable
     );
 
-    Page<FRTransaction> findByAccountIdInAndBookingDateTimeBetween(
-            @Param("accountIds") List<String> accountIds,
-            @Param(ApiConstants.ParametersFieldName.FROM_BOOKING_DATE_TIME) Date fromBookingDateTime,
-            @Param(ApiConstants.ParametersFieldName.TO_BOOKING_DATE_TIME) Date toBookingDateTime,
-            Pageable pageable);
-
     Long deleteTransactionByAccountId(@Param("accountId") String accountId);
 
     Long countByAccountIdIn(Set<String> accountIds);
@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.repository.query.Param;
 
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode;
@@ -53,4 +54,34 @@ public interface FRTransactionRepositoryCustom {
                                                                               Date toBookingDateTime,
                                                                               List<FRExternalPermissionsCode> permissions,
                                                                               Pageable pageable);
+
+    /**
+     * Keyset pagination variant of {@link #byAccountIdInAndBookingDateTimeBetweenWithPermissions}, transactions are
+     * returned in (bookingDateTime, id) order starting after the supplied cursor.
+     * <p>
+     * No count query is run, {@link Slice#hasNext()} indicates whether there are further transactions.
+     *
+     * @param accountIds          the accounts to return transactions for
+     * @param fromBookingDateTime optional lower bound (exclusive) on bookingDateTime
+     * @param toBookingDateTime   optional upper bound (exclusive) on bookingDateTime
+     * @param permissions         the consent permissions, used to filter the transactions
+     * @param after               optional cursor, if null then the first page is returned
+     * @param limit               the maximum number of transactions to return
+     * @return Slice of transactions
+     */
+    Slice<FRTransaction> byAccountIdInAndBookingDateTimeBetweenWithPermissions(List<String> accountIds,
+                                                                               Date fromBookingDateTime,
+                                                                               Date toBookingDateTime,
+                                                                               List<FRExternalPermissionsCode> permissions,
+                                                                               TransactionCursor after,
+                                                                               int limit);
+
+    /**
+     * Counts the transactions which would be returned by the keyset pagination variant of
+     * {@link #byAccountIdInAndBookingDateTimeBetweenWithPermissions}, this is an optional extra query.
+     */
+    long countByAccountIdInAndBookingDateTimeBetweenWithPermissions(List<String> accountIds,
+                                                                    Date fromBookingDateTime,
+                                                                    Date toBookingDateTime,
+                                                                    List<FRExternalPermissionsCode> permissions);
 }
@@ -15,6 +15,7 @@
  */
 package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -22,13 +23,21 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
 
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.PermissionProjection;
 
 import uk.org.openbanking.datamodel.v3.account.OBCreditDebitCode0;
 import uk.org.openbanking.datamodel.v3.common.OBExternalAccountIdentification4Code;
@@ -36,35 +45,27 @@ import uk.org.openbanking.datamodel.v3.common.OBExternalAccountIdentification4Co
 public class FRTransactionRepositoryImpl implements FRTransactionRepositoryCustom {
     private static final Logger LOGGER = LoggerFactory.getLogger(FRTransactionRepositoryImpl.class);
 
+    /**
+     * Basic transaction permissions do not allow the details of the transaction to be read.
+     */
+    static final PermissionProjection TRANSACTION_PROJECTION = PermissionProjection.builder()
+            .excludeWhen(FRExternalPermissionsCode.READTRANSACTIONSBASIC,
+                    "transaction.transactionInformation",
+                    "transaction.balance",
+                    "transaction.merchantDetails",
+                    "transaction.creditorAgent",
+                    "transaction.debtorAgent")
+            .build();
+
     @Autowired
-    @Lazy
-    private FRTransactionRepository transactionRepository;
+    private MongoTemplate mongoTemplate;
 
     @Override
     public Page<FRTransaction> byAccountIdAndBookingDateTimeBetweenWithPermissions(String accountId, Date
             fromBookingDateTime, Date toBookingDateTime, List<FRExternalPermissionsCode> permissions,
                                                                                    Pageable pageable) {
-
-        if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSCREDITS)
-                && permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSDEBITS)) {
-            return filterTransition(transactionRepository
-                    .findByAccountIdAndBookingDateTimeBetween(accountId, fromBookingDateTime, toBookingDateTime, pageable), permissions);
-        } else if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSCREDITS)) {
-            return filterTransition(transactionRepository
-                            .findByAccountIdAndTransactionCreditDebitIndicatorAndBookingDateTimeBetween(accountId,
-                                    OBCreditDebitCode0.CREDIT, fromBookingDateTime, toBookingDateTime, pageable),
-                    permissions);
-        } else if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSDEBITS)) {
-            return filterTransition(transactionRepository
-                            .findByAccountIdAndTransactionCreditDebitIndicatorAndBookingDateTimeBetween(accountId,
-                                    OBCreditDebitCode0.DEBIT, fromBookingDateTime, toBookingDateTime, pageable),
-                    permissions);
-        } else {
-            LOGGER.warn("Need at least one of the following permissions: " +
-                    FRExternalPermissionsCode.READTRANSACTIONSCREDITS + " or " + FRExternalPermissionsCode
-                    .READTRANSACTIONSDEBITS);
-            return new PageImpl<>(Collections.emptyList());
-        }
+        return findPage(transactionsWithPermissionsCriteria(List.of(accountId), null, fromBookingDateTime,
+                toBookingDateTime, permissions, null), permissions, pageable);
     }
 
     @Override
@@ -75,53 +76,15 @@ public class FRTransactionRepositoryImpl implements FRTransactionRepositoryCusto
             Date toBookingDateTime,
             List<FRExternalPermissionsCode> permissions,
             Pageable pageable) {
-
-        if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSCREDITS)
-                && permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSDEBITS)) {
-            return filterTransition(transactionRepository
-                    .findByAccountIdAndStatementIdsAndBookingDateTimeBetween(accountId, statementId, fromBookingDateTime, toBookingDateTime, pageable), permissions);
-        } else if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSCREDITS)) {
-            return filterTransition(transactionRepository
-                            .findByAccountIdAndStatementIdsAndTransactionCreditDebitIndicatorAndBookingDateTimeBetween(accountId, statementId,
-                                    OBCreditDebitCode0.CREDIT, fromBookingDateTime, toBookingDateTime, pageable),
-                    permissions);
-        } else if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSDEBITS)) {
-            return filterTransition(transactionRepository
-                            .findByAccountIdAndStatementIdsAndTransactionCreditDebitIndicatorAndBookingDateTimeBetween(accountId, statementId,
-                                    OBCreditDebitCode0.DEBIT, fromBookingDateTime, toBookingDateTime, pageable),
-                    permissions);
-        } else {
-            LOGGER.warn("Need at least one of the following permissions: " +
-                    FRExternalPermissionsCode.READTRANSACTIONSCREDITS + " or " + FRExternalPermissionsCode
-                    .READTRANSACTIONSDEBITS);
-            return new PageImpl<>(Collections.emptyList());
-        }
+        return findPage(transactionsWithPermissionsCriteria(List.of(accountId), statementId, fromBookingDateTime,
+                toBookingDateTime, permissions, null), permissions, pageable);
     }
 
     @Override
     public Page<FRTransaction> byAccountIdInWithPermissions(List<String> accountIds, List<FRExternalPermissionsCode>
             permissions, Pageable pageable) {
-
-        if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSCREDITS)
-                && permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSDEBITS)) {
-            return filterTransition(transactionRepository
-                    .findByAccountIdIn(accountIds, pageable), permissions);
-        } else if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSCREDITS)) {
-            return filterTransition(transactionRepository
-                            .findByAccountIdInAndTransactionCreditDebitIndicator(accountIds, OBCreditDebitCode0.CREDIT,
-                                    pageable),
-                    permissions);
-        } else if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSDEBITS)) {
-            return filterTransition(transactionRepository
-                            .findByAccountIdInAndTransactionCreditDebitIndicator(accountIds, OBCreditDebitCode0.DEBIT,
-                                    pageable),
-                    permissions);
-        } else {
-            LOGGER.warn("Need at least one of the following permissions: " +
-                    FRExternalPermissionsCode.READTRANSACTIONSCREDITS + " or " + FRExternalPermissionsCode
-                    .READTRANSACTIONSDEBITS);
-            return new PageImpl<>(Collections.emptyList());
-        }
+        return findPage(transactionsWithPermissionsCriteria(accountIds, null, null, null, permissions, null),
+                permissions, pageable);
     }
 
 
@@ -129,52 +92,121 @@ public class FRTransactionRepositoryImpl implements FRTransactionRepositoryCusto
     public Page<FRTransaction> byAccountIdInAndBookingDateTimeBetweenWithPermissions(List<String> accountIds,
             Date fromBookingDateTime, Date toBookingDateTime, List<FRExternalPermissionsCode> permissions,
                                                                                      Pageable pageable) {
+        return findPage(transactionsWithPermissionsCriteria(accountIds, null, fromBookingDateTime, toBookingDateTime,
+                permissions, null), permissions, pageable);
+    }
+
+    @Override
+    public Slice<FRTransaction> byAccountIdInAndBookingDateTimeBetweenWithPermissions(List<String> accountIds,
+            Date fromBookingDateTime, Date toBookingDateTime, List<FRExternalPermissionsCode> permissions,
+            TransactionCursor after, int limit) {
+        final Criteria criteria = transactionsWithPermissionsCriteria(accountIds, null, fromBookingDateTime,
+                toBookingDateTime, permissions, after);
+        if (criteria == null) {
+            return new SliceImpl<>(Collections.emptyList());
+        }
+
+        // Fetch one extra transaction to determine whether there is a next page
+        final Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "bookingDateTime", "_id"))
+                .limit(limit + 1);
+        final List<FRTransaction> transactions = new ArrayList<>(
+                mongoTemplate.find(TRANSACTION_PROJECTION.apply(query, permissions), FRTransaction.class));
+        final boolean hasNext = transactions.size() > limit;
+        if (hasNext) {
+            transactions.remove(limit);
+        }
+        return mask(new SliceImpl<>(transactions, PageRequest.ofSize(limit), hasNext), permissions);
+    }
+
+    @Override
+    public long countByAccountIdInAndBookingDateTimeBetweenWithPermissions(List<String> accountIds,
+            Date fromBookingDateTime, Date toBookingDateTime, List<FRExternalPermissionsCode> permissions) {
+        final Criteria criteria = transactionsWithPermissionsCriteria(accountIds, null, fromBookingDateTime,
+                toBookingDateTime, permissions, null);
+        if (criteria == null) {
+            return 0;
+        }
+        return mongoTemplate.count(Query.query(criteria), FRTransaction.class);
+    }
+
+    private Page<FRTransaction> findPage(Criteria criteria, List<FRExternalPermissionsCode> permissions,
+                                         Pageable pageable) {
+        if (criteria == null) {
+            return new PageImpl<>(Collections.emptyList());
+        }
+        final Query query = TRANSACTION_PROJECTION.apply(Query.query(criteria).with(pageable), permissions);
+        final List<FRTransaction> transactions = mongoTemplate.find(query, FRTransaction.class);
+        return mask(PageableExecutionUtils.getPage(transactions, pageable,
+                () -> mongoTemplate.count(Query.query(criteria), FRTransaction.class)), permissions);
+    }
 
-        if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSCREDITS)
-                && permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSDEBITS)) {
-            return filterTransition(transactionRepository
-                    .findByAccountIdInAndBookingDateTimeBetween(accountIds, fromBookingDateTime, toBookingDateTime,
-                            pageable), permissions);
-        } else if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSCREDITS)) {
-            return filterTransition(transactionRepository
-                            .findByAccountIdInAndTransactionCreditDebitIndicatorAndBookingDateTimeBetween(accountIds,
-                                    OBCreditDebitCode0.CREDIT, fromBookingDateTime, toBookingDateTime, pageable),
-                    permissions);
-        } else if (permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSDEBITS)) {
-            return filterTransition(transactionRepository
-                            .findByAccountIdInAndTransactionCreditDebitIndicatorAndBookingDateTimeBetween(accountIds,
-                                    OBCreditDebitCode0.DEBIT, fromBookingDateTime, toBookingDateTime, pageable),
-                    permissions);
-        } else {
+    /**
+     * Builds the criteria for the transactions visible with the permissions, or returns null if the permissions do not
+     * allow any transactions to be read.
+     */
+    private Criteria transactionsWithPermissionsCriteria(List<String> accountIds, String statementId,
+                                                         Date fromBookingDateTime, Date toBookingDateTime,
+                                                         List<FRExternalPermissionsCode> permissions,
+                                                         TransactionCursor after) {
+        final boolean readCredits = permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSCREDITS);
+        final boolean readDebits = permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSDEBITS);
+        if (!readCredits && !readDebits) {
             LOGGER.warn("Need at least one of the following permissions: " +
                     FRExternalPermissionsCode.READTRANSACTIONSCREDITS + " or " + FRExternalPermissionsCode
                     .READTRANSACTIONSDEBITS);
-            return new PageImpl<>(Collections.emptyList());
+            return null;
+        }
+
+        final Criteria criteria = Criteria.where("accountId").in(accountIds);
+        if (statementId != null) {
+            criteria.and("statementIds").is(statementId);
         }
+        if (readCredits && !readDebits) {
+            criteria.and("transaction.creditDebitIndicator").is(OBCreditDebitCode0.CREDIT);
+        } else if (readDebits && !readCredits) {
+            criteria.and("transaction.creditDebitIndicator").is(OBCreditDebitCode0.DEBIT);
+        }
+
+        if (after != null || fromBookingDateTime != null || toBookingDateTime != null) {
+            final Criteria bookingDateTimeCriteria = criteria.and("bookingDateTime");
+            if (after != null) {
+                // The cursor is within the from bound, seek to it so that the preceding transactions are not scanned
+                bookingDateTimeCriteria.gte(after.getBookingDateTime());
+            } else if (fromBookingDateTime != null) {
+                bookingDateTimeCriteria.gt(fromBookingDateTime);
+            }
+            if (toBookingDateTime != null) {
+                bookingDateTimeCriteria.lt(toBookingDateTime);
+            }
+        }
+        if (after != null) {
+            criteria.orOperator(Criteria.where("bookingDateTime").gt(after.getBookingDateTime()),
+                    Criteria.where("bookingDateTime").is(after.getBookingDateTime()).and("_id").gt(after.getId()));
+        }
+        return criteria;
     }
 
-    private Page<FRTransaction> filterTransition(Page<FRTransaction> transactions, List<FRExternalPermissionsCode> permissions) {
+    /**
+     * Masks the PANs of the accounts in the transactions when the permissions do not allow them to be read. The fields
+     * which basic permissions do not allow are not read, see {@link #TRANSACTION_PROJECTION}.
+     */
+    private <T extends Slice<FRTransaction>> T mask(T transactions, List<FRExternalPermissionsCode> permissions) {
+        final boolean basic = permissions.contains(FRExternalPermissionsCode.READTRANSACTIONSBASIC);
+        final boolean readPan = permissions.contains(FRExternalPermissionsCode.READPAN);
         for (FRTransaction transaction : transactions) {
-            for (FRExternalPermissionsCode permission : permissions) {
-                switch (permission) {
-                    case READTRANSACTIONSBASIC:
-                        transaction.getTransaction().setTransactionInformation("");
-                        transaction.getTransaction().setBalance(null);
-                        transaction.getTransaction().setMerchantDetails(null);
-                        transaction.getTransaction().setCreditorAgent(null);
-                        transaction.getTransaction().setDebtorAgent(null);
-                        break;
-                }
-                if (!permissions.contains(FRExternalPermissionsCode.READPAN)
-                        && transaction.getTransaction().getDebtorAccount() != null
-                        && OBExternalAccountIdentification4Code.PAN.toString().equals(transaction.getTransaction().getDebtorAccount().getSchemeName())) {
-                    transaction.getTransaction().getDebtorAccount().setIdentification("xxx");
-                }
-                if (!permissions.contains(FRExternalPermissionsCode.READPAN)
-                        && transaction.getTransaction().getCreditorAccount() != null
-                        && OBExternalAccountIdentification4Code.PAN.toString().equals(transaction.getTransaction().getCreditorAccount().getSchemeName())) {
-                    transaction.getTransaction().getCreditorAccount().setIdentification("xxx");
-                }
+            if (basic) {
+                transaction.getTransaction().setTransactionInformation("");
+            }
+            if (!readPan
+                    && transaction.getTransaction().getDebtorAccount() != null
+                    && OBExternalAccountIdentification4Code.PAN.toString().equals(transaction.getTransaction().getDebtorAccount().getSchemeName())) {
+                transaction.getTransaction().getDebtorAccount().setIdentification("xxx");
+            }
+            if (!readPan
+                    && transaction.getTransaction().getCreditorAccount() != null
+                    && OBExternalAccountIdentification4Code.PAN.toString().equals(transaction.getTransaction().getCreditorAccount().getSchemeName())) {
+                transaction.getTransaction().getCreditorAccount().setIdentification("xxx");
             }
         }
         return transactions;
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
+
+/**
+ * Position in a list of transactions ordered by (bookingDateTime, id), used for keyset pagination.
+ * <p>
+ * Fetching the page after a cursor uses the (accountId, bookingDateTime, _id) index to seek straight to the position,
+ * so the cost of a page does not depend on how many pages precede it.
+ * <p>
+ * Cursors are encoded as an opaque URL safe string so that they can be returned to clients in pagination links.
+ */
+public final class TransactionCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final Date bookingDateTime;
+    private final String id;
+
+    public TransactionCursor(Date bookingDateTime, String id) {
+        this.bookingDateTime = Objects.requireNonNull(bookingDateTime, "bookingDateTime must be supplied");
+        this.id = Objects.requireNonNull(id, "id must be supplied");
+    }
+
+    /**
+     * @param transaction the last transaction in a page
+     * @return cursor which can be used to fetch the transactions that follow it
+     */
+    public static TransactionCursor after(FRTransaction transaction) {
+        Objects.requireNonNull(transaction.getBookingDateTime(), "transaction.bookingDateTime must be supplied");
+        return new TransactionCursor(transaction.getBookingDateTime().toDate(), transaction.getId());
+    }
+
+    /**
+     * @param encodedCursor value produced by {@link #encode()}
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static TransactionCursor decode(String encodedCursor) {
+        Objects.requireNonNull(encodedCursor, "encodedCursor must be supplied");
+        final String cursor = new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+        final int separatorIndex = cursor.indexOf(SEPARATOR);
+        if (separatorIndex < 1 || separatorIndex == cursor.length() - 1) {
+            throw new IllegalArgumentException("Invalid transaction cursor: " + encodedCursor);
+        }
+        try {
+            return new TransactionCursor(new Date(Long.parseLong(cursor.substring(0, separatorIndex))),
+                    cursor.substring(separatorIndex + 1));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid transaction cursor: " + encodedCursor, ex);
+        }
+    }
+
+    public String encode() {
+        final String cursor = bookingDateTime.getTime() + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Date getBookingDateTime() {
+        return bookingDateTime;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final TransactionCursor that = (TransactionCursor) o;
+        return bookingDateTime.equals(that.bookingDateTime) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookingDateTime, id);
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionCursor{" +
+                "bookingDateTime=" + bookingDateTime +
+                ", id='" + id + '\'' +
+                '}';
+    }
+}
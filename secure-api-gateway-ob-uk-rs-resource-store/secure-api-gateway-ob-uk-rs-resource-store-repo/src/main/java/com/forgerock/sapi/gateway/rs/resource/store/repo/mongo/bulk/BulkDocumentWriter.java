@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk.BulkWriteReport.BatchResult;
+import com.mongodb.bulk.BulkWriteResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes large sets of documents of mixed types using unordered bulk operations, sending each collection's documents
+ * in batches of at most {@code rs.data.upload.batchSize} rather than one round trip per document or per type.
+ * <p>
+ * Unordered batches keep going past a failed document, so a write does not stop at the first error, every failure is
+ * reported against its batch in the returned {@link BulkWriteReport} instead.
+ */
+@Component
+@Slf4j
+public class BulkDocumentWriter {
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    public BulkDocumentWriter(MongoTemplate mongoTemplate, @Value("${rs.data.upload.batchSize:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("rs.data.upload.batchSize must be at least 1, was: " + batchSize);
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Counts the documents of each type that belong to the accounts, so that limits for a whole import can be checked
+     * before anything is written.
+     *
+     * @param types      the document types to count, each must have an accountId field
+     * @param accountIds the accounts to count documents for
+     * @return the number of existing documents for each type
+     */
+    public Map<Class<?>, Long> countByAccountIdIn(Collection<Class<?>> types, Collection<String> accountIds) {
+        final Map<Class<?>, Long> counts = new LinkedHashMap<>();
+        if (accountIds.isEmpty()) {
+            types.forEach(type -> counts.put(type, 0L));
+            return counts;
+        }
+        final Query byAccountIds = new Query(where("accountId").in(accountIds));
+        for (Class<?> type : types) {
+            counts.put(type, mongoTemplate.count(byAccountIds, type));
+        }
+        return counts;
+    }
+
+    /**
+     * Inserts new documents, grouped by their type, in the order the types were first seen.
+     *
+     * @param documents the documents to insert, documents which already exist are reported as errors
+     * @return the result of each batch
+     */
+    public BulkWriteReport insert(Collection<?> documents) {
+        return write(documents, false);
+    }
+
+    /**
+     * Saves documents, replacing any existing document with the same id, in the same way as
+     * {@link org.springframework.data.repository.CrudRepository#saveAll(Iterable)}.
+     *
+     * @param documents the documents to save
+     * @return the result of each batch
+     */
+    public BulkWriteReport save(Collection<?> documents) {
+        return write(documents, true);
+    }
+
+    private BulkWriteReport write(Collection<?> documents, boolean replaceExisting) {
+        final List<BatchResult> results = new ArrayList<>();
+        groupByType(documents).forEach((type, ofType) -> {
+            final String collection = mongoTemplate.getCollectionName(type);
+            for (int from = 0, batch = 0; from < ofType.size(); from += batchSize, batch++) {
+                final List<Object> chunk = ofType.subList(from, Math.min(from + batchSize, ofType.size()));
+                final BatchResult result = writeBatch(type, collection, batch, chunk, replaceExisting);
+                log.debug("Bulk write to {} batch {}: {} of {} written", collection, batch, result.getWritten(),
+                        result.getSubmitted());
+                results.add(result);
+            }
+        });
+        return new BulkWriteReport(results);
+    }
+
+    private BatchResult writeBatch(Class<?> type, String collection, int batch, List<Object> documents,
+                                   boolean replaceExisting) {
+        final BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, type);
+        if (replaceExisting) {
+            final MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                                                                 .getRequiredPersistentEntity(type);
+            for (Object document : documents) {
+                final Object id = entity.getIdentifierAccessor(document).getIdentifier();
+                if (id == null) {
+                    operations.insert(document);
+                } else {
+                    operations.replaceOne(new Query(where("_id").is(id)), document, FindAndReplaceOptions.options().upsert());
+                }
+            }
+        } else {
+            operations.insert(documents);
+        }
+        try {
+            return new BatchResult(collection, batch, documents.size(), written(operations.execute()), List.of());
+        } catch (BulkOperationException e) {
+            final List<String> errors = e.getErrors().stream()
+                    .map(error -> String.format("document %d: %s", error.getIndex(), error.getMessage()))
+                    .toList();
+            log.warn("Bulk write to {} batch {} failed for {} of {} documents", collection, batch, errors.size(),
+                    documents.size());
+            return new BatchResult(collection, batch, documents.size(), written(e.getResult()), errors);
+        }
+    }
+
+    private static int written(BulkWriteResult result) {
+        return result.getInsertedCount() + result.getMatchedCount() + result.getUpserts().size();
+    }
+
+    private static Map<Class<?>, List<Object>> groupByType(Collection<?> documents) {
+        final Map<Class<?>, List<Object>> byType = new LinkedHashMap<>();
+        for (Object document : documents) {
+            byType.computeIfAbsent(document.getClass(), type -> new ArrayList<>()).add(document);
+        }
+        return byType;
+    }
+}
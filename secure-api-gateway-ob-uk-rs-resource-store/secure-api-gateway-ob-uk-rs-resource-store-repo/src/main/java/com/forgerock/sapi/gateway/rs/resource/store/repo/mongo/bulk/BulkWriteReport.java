@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * The outcome of a {@link BulkDocumentWriter} write, one {@link BatchResult} per batch sent to the database.
+ */
+@Value
+public class BulkWriteReport {
+
+    List<BatchResult> batches;
+
+    public int getWritten() {
+        return batches.stream().mapToInt(BatchResult::getWritten).sum();
+    }
+
+    public boolean hasErrors() {
+        return batches.stream().anyMatch(BatchResult::hasErrors);
+    }
+
+    public List<BatchResult> getFailedBatches() {
+        return batches.stream().filter(BatchResult::hasErrors).toList();
+    }
+
+    @Value
+    public static class BatchResult {
+        /**
+         * The collection the batch was written to
+         */
+        String collection;
+        /**
+         * Index of the batch within the collection, starting at 0
+         */
+        int batch;
+        int submitted;
+        int written;
+        /**
+         * The write errors reported for the batch, empty when every document was written
+         */
+        List<String> errors;
+
+        public boolean hasErrors() {
+            return !errors.isEmpty();
+        }
+    }
+}
@@ -16,10 +16,12 @@
 package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.events;
 
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.event.FREventMessageEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -32,9 +34,26 @@ public interface FREventMessageRepository extends MongoRepository<FREventMessage
 
     Collection<FREventMessageEntity> findByApiClientId(@Param("apiClientId") String apiClientId);
 
+    /**
+     * Finds the events that are waiting to be delivered to the TPP, events with TPP reported errors are excluded.
+     * <p>
+     * Sorting by created and jti with a limit in the pageable allows the query to use the
+     * (apiClientId, errors, created, jti) index so that only the events to be returned are read, regardless of how many
+     * events are pending or have errors. errors is a single document rather than an array, so the index is not
+     * multikey and the equality matches on apiClientId and errors leave the index ordered by created and jti.
+     */
+    List<FREventMessageEntity> findByApiClientIdAndErrorsIsNull(@Param("apiClientId") String apiClientId, Pageable pageable);
+
     Optional<FREventMessageEntity> findByApiClientIdAndJti(@Param("apiClientId") String apiClientId, @Param("jti") String jti);
 
     void deleteByApiClientIdAndJti(@Param("apiClientId") String apiClientId, @Param("jti") String jti);
 
+    /**
+     * Deletes the events with any of the jtis in a single deleteMany operation.
+     *
+     * @return the number of events deleted
+     */
+    long deleteByApiClientIdAndJtiIn(@Param("apiClientId") String apiClientId, @Param("jtis") Collection<String> jtis);
+
     void deleteByApiClientId(@Param("apiClientId") String apiClientId);
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.idempotency;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.idempotency.FRIdempotencyRecord;
+
+public interface IdempotencyRecordRepository extends MongoRepository<FRIdempotencyRecord, String> {
+
+    /**
+     * Find the record for an idempotencyKey that is still within its expiration window.
+     * <p>
+     * Mongo removes expired records in the background, so records past their expiry may still be present.
+     *
+     * @param apiClientId    the id of the API Client that the key is scoped to
+     * @param idempotencyKey the idempotency key to find
+     * @param currentTime    the current time to compare against the expiresAt field
+     * @return Optional<FRIdempotencyRecord> the record if one exists or an empty Optional.
+     */
+    Optional<FRIdempotencyRecord> findByApiClientIdAndIdempotencyKeyAndExpiresAtAfter(String apiClientId, String idempotencyKey, Date currentTime);
+
+    /**
+     * Removes an expired record which has not yet been removed by Mongo, allowing the idempotencyKey to be claimed again.
+     */
+    long deleteByApiClientIdAndIdempotencyKeyAndExpiresAtBefore(String apiClientId, String idempotencyKey, Date currentTime);
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.index;
+
+import static java.util.Map.entry;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRAccount;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.event.FREventMessageEntity;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.idempotency.FRIdempotencyRecord;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRStandingOrderSchedule;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRVrpPeriodicLimitSpend;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the indexes which the repositories depend on for correctness or performance.
+ * <p>
+ * Spring Data's auto-index-creation is not enabled, as it would create every index declared on every entity. Instead,
+ * the indexes which are needed are listed here by entity and by the name given to the index on the entity, and are
+ * created once the application context has started. Creating an index which already exists does nothing.
+ */
+@Component
+@Slf4j
+public class RequiredIndexCreator {
+
+    private static final Map<Class<?>, Set<String>> REQUIRED_INDEXES = Map.ofEntries(
+            // Unique index used to claim an idempotencyKey, and the TTL index which removes expired claims
+            entry(FRIdempotencyRecord.class, Set.of("apiClientId_idempotencyKey", "expiresAt")),
+            // Keyset pagination of an account's transactions, see TransactionCursor
+            entry(FRTransaction.class, Set.of("accountId_bookingDateTime_id")),
+            // Polling for an API Client's events without errors in the order they were created
+            entry(FREventMessageEntity.class, Set.of("apiClientId_errors_created_jti")),
+            // Unique index which rejects a VRP payment that would breach a periodic limit, the TTL index which
+            // removes the spend for periods that have ended, and releasing the amount of a payment which was not made
+            entry(FRVrpPeriodicLimitSpend.class, Set.of("consentId_periodType_periodAlignment_currency_periodStart", "expiresAt",
+                    "paymentIds")),
+            // Claiming due payments, and payments whose lease has expired, from the settlement queue
+            entry(FRPaymentSettlement.class, Set.of("status_dueAt", "status_leaseExpiresAt")),
+            // Claiming the standing orders which have a payment due
+            entry(FRStandingOrderSchedule.class, Set.of("nextExecutionDateTime")),
+            // Paging and streaming a user's accounts in account id order
+            entry(FRAccount.class, Set.of("userID_id")),
+            // Unique index which allows one accepted upload per file payment, and reads the results in file order, the
+            // pages of file payment details filtered by status and by instruction identification, and accepting or
+            // discarding the results of an upload
+            entry(FRFilePaymentResult.class, Set.of("filePaymentId_index", "filePaymentId_status_index",
+                    "filePaymentId_status_instructionIdentification", "uploadId")),
+            // Claiming queued file processing jobs oldest first, and jobs whose lease has expired
+            entry(FRPaymentFileProcessingJob.class, Set.of("status_created", "status_leaseExpiresAt"))
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    public RequiredIndexCreator(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void createRequiredIndexes() {
+        final IndexResolver indexResolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        REQUIRED_INDEXES.forEach((entityClass, indexNames) -> {
+            final IndexOperations indexOperations = mongoTemplate.indexOps(entityClass);
+            final Set<String> missingIndexNames = new HashSet<>(indexNames);
+            indexResolver.resolveIndexFor(entityClass).forEach(index -> {
+                final String indexName = index.getIndexOptions().getString("name");
+                if (indexNames.contains(indexName)) {
+                    log.debug("Ensuring index: {} exists for: {}", indexName, entityClass.getSimpleName());
+                    indexOperations.ensureIndex(index);
+                    missingIndexNames.remove(indexName);
+                }
+            });
+            if (!missingIndexNames.isEmpty()) {
+                throw new IllegalStateException("Indexes: " + missingIndexNames + " are not declared on: " + entityClass.getName());
+            }
+        });
+    }
+}
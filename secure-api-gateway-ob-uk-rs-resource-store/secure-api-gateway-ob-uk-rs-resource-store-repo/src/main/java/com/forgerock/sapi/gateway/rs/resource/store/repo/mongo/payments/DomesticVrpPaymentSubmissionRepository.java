@@ -15,28 +15,14 @@
  */
 package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
 
-import java.util.Optional;
-
-import org.joda.time.DateTime;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticVrpPaymentSubmission;
 
-
+/**
+ * Idempotency data for VRP payments is held in
+ * {@link com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.idempotency.IdempotencyRecordRepository}
+ */
 public interface DomesticVrpPaymentSubmissionRepository extends MongoRepository<FRDomesticVrpPaymentSubmission, String> {
 
-    /**
-     * Find if a payment already exists with the same idempontencyKey within the expiration window.
-     * <p>
-     * The keys are scoped to particular apiClientId.
-     *
-     * @param apiClientId    the id of the API Client making the request
-     * @param idempotencyKey the idempotency key to find
-     * @param currentTime    the current time to compare against the idempotencyKeyExpiration field
-     * @return Optional<FRDomesticVrpPaymentSubmission> a payment if one exists or an empty Optional.
-     */
-    @Query("{ 'apiClientId': ?0, 'idempotencyKey' : ?1, 'idempotencyKeyExpiration': {$gt: ?2 } }")
-    Optional<FRDomesticVrpPaymentSubmission> findByIdempotencyData(String apiClientId, String idempotencyKey, DateTime currentTime);
-
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+
+/**
+ * Position in the results of a file payment, which are ordered by their index in the file, used for keyset
+ * pagination of the payment details of a file payment.
+ * <p>
+ * Cursors are encoded as an opaque URL safe string so that they can be returned to clients in pagination links.
+ */
+public final class FilePaymentResultCursor {
+
+    private final int index;
+
+    public FilePaymentResultCursor(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("index must not be negative");
+        }
+        this.index = index;
+    }
+
+    /**
+     * @param result the last result in a page
+     * @return cursor which can be used to fetch the results that follow it
+     */
+    public static FilePaymentResultCursor after(FRFilePaymentResult result) {
+        return new FilePaymentResultCursor(result.getIndex());
+    }
+
+    /**
+     * @param encodedCursor value produced by {@link #encode()}
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static FilePaymentResultCursor decode(String encodedCursor) {
+        Objects.requireNonNull(encodedCursor, "encodedCursor must be supplied");
+        final String cursor = new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+        try {
+            return new FilePaymentResultCursor(Integer.parseInt(cursor));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid file payment result cursor: " + encodedCursor, ex);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(index).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final FilePaymentResultCursor that = (FilePaymentResultCursor) o;
+        return index == that.index;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(index);
+    }
+
+    @Override
+    public String toString() {
+        return "FilePaymentResultCursor{" +
+                "index=" + index +
+                '}';
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult.Status;
+
+/**
+ * Batched writes of the {@link FRFilePaymentResult}s of a file payment.
+ */
+public interface FilePaymentResultRepositoryCustom {
+
+    /**
+     * Inserts a batch of results in a single unordered bulk write.
+     *
+     * @param results the results to insert
+     * @return the number of results inserted
+     */
+    int insertBatch(List<FRFilePaymentResult> results);
+
+    /**
+     * Sets the status of all the results of a file payment.
+     *
+     * @param filePaymentId the id of the file payment
+     * @param status        the new status
+     * @param updatedAt     the time of the status update
+     * @return the number of results updated
+     */
+    long updateStatus(String filePaymentId, Status status, Date updatedAt);
+
+    /**
+     * Finds a page of the results of a file payment in the order of the transactions in the file, seeking to the
+     * position of the cursor using the (filePaymentId, status, index) or (filePaymentId, status, instructionIdentification)
+     * index when filtering.
+     *
+     * @param filePaymentId             the id of the file payment
+     * @param status                    only results with this status are returned, null for any status
+     * @param instructionIdentification only results with this instruction identification are returned, null for any
+     * @param after                     cursor of the last result of the previous page, null for the first page
+     * @param limit                     maximum number of results in the page
+     * @return a slice containing up to limit results, which reports whether there are more results
+     */
+    Slice<FRFilePaymentResult> findPaymentDetails(String filePaymentId, Status status, String instructionIdentification,
+                                                  FilePaymentResultCursor after, int limit);
+
+    /**
+     * Makes the results recorded by an upload the results of a file payment, by setting their filePaymentId.
+     *
+     * @param uploadId      the id of the upload
+     * @param filePaymentId the id of the file payment
+     * @return the number of results of the file payment
+     */
+    long acceptUpload(String uploadId, String filePaymentId);
+
+    /**
+     * Removes the results recorded by an upload which has not been accepted. The results of an upload which has been
+     * accepted are never removed.
+     *
+     * @param uploadId the id of the upload
+     * @return the number of results removed
+     */
+    long deleteUpload(String uploadId);
+
+}
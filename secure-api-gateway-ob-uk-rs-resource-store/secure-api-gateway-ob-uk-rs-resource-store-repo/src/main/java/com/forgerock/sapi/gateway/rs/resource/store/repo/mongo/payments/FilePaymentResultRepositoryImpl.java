@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult.Status;
+
+public class FilePaymentResultRepositoryImpl implements FilePaymentResultRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public int insertBatch(List<FRFilePaymentResult> results) {
+        if (results.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.bulkOps(BulkMode.UNORDERED, FRFilePaymentResult.class)
+                            .insert(results)
+                            .execute()
+                            .getInsertedCount();
+    }
+
+    @Override
+    public long updateStatus(String filePaymentId, Status status, Date updatedAt) {
+        final Update update = new Update().set("status", status).set("statusUpdateDateTime", updatedAt);
+        return mongoTemplate.updateMulti(byFilePaymentId(filePaymentId), update, FRFilePaymentResult.class)
+                            .getModifiedCount();
+    }
+
+    @Override
+    public Slice<FRFilePaymentResult> findPaymentDetails(String filePaymentId, Status status, String instructionIdentification,
+                                                         FilePaymentResultCursor after, int limit) {
+        final Criteria criteria = where("filePaymentId").is(filePaymentId);
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        if (instructionIdentification != null) {
+            criteria.and("instructionIdentification").is(instructionIdentification);
+        }
+        if (after != null) {
+            criteria.and("index").gt(after.getIndex());
+        }
+        // Fetch one more than the limit to find out whether there is a next page without counting
+        final Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "index")).limit(limit + 1);
+        final List<FRFilePaymentResult> results = mongoTemplate.find(query, FRFilePaymentResult.class);
+        final boolean hasNext = results.size() > limit;
+        return new SliceImpl<>(hasNext ? results.subList(0, limit) : results, PageRequest.ofSize(limit), hasNext);
+    }
+
+    @Override
+    public long acceptUpload(String uploadId, String filePaymentId) {
+        return mongoTemplate.updateMulti(notAcceptedByUploadId(uploadId), new Update().set("filePaymentId", filePaymentId),
+                FRFilePaymentResult.class).getModifiedCount();
+    }
+
+    @Override
+    public long deleteUpload(String uploadId) {
+        return mongoTemplate.remove(notAcceptedByUploadId(uploadId), FRFilePaymentResult.class).getDeletedCount();
+    }
+
+    private static Query byFilePaymentId(String filePaymentId) {
+        return new Query(where("filePaymentId").is(filePaymentId));
+    }
+
+    private static Query notAcceptedByUploadId(String uploadId) {
+        return new Query(where("uploadId").is(uploadId).and("filePaymentId").exists(false));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.ProcessingError;
+
+/**
+ * Queue operations on {@link FRPaymentFileProcessingJob} items.
+ */
+public interface PaymentFileProcessingJobRepositoryCustom {
+
+    /**
+     * Adds a job to the queue, replacing a job for the same consent which failed.
+     *
+     * @return true if the job was queued, false if there is already a job for the consent which has not failed
+     */
+    boolean enqueue(FRPaymentFileProcessingJob job);
+
+    /**
+     * Claims the oldest queued job, or a job whose lease has expired, for the duration of the lease. The job is claimed
+     * atomically so concurrent workers never claim the same job.
+     *
+     * @param now   the current time
+     * @param lease how long the job is held by the caller before it may be claimed by another worker
+     * @return the claimed job, or null if there are no jobs to claim
+     */
+    FRPaymentFileProcessingJob claimNext(Date now, Duration lease);
+
+    /**
+     * Marks a claimed job as completed and removes its file, provided that it is still held by the lease it was
+     * claimed with.
+     *
+     * @param claimed a job returned by {@link #claimNext(Date, Duration)}
+     * @return true if the job was completed, false if the lease had been lost to another worker
+     */
+    boolean complete(FRPaymentFileProcessingJob claimed);
+
+    /**
+     * Marks a claimed job as failed and removes its file, provided that it is still held by the lease it was claimed
+     * with.
+     *
+     * @param claimed a job returned by {@link #claimNext(Date, Duration)}
+     * @param errors  the reasons the file was rejected
+     * @return true if the job was failed, false if the lease had been lost to another worker
+     */
+    boolean fail(FRPaymentFileProcessingJob claimed, List<ProcessingError> errors);
+
+}
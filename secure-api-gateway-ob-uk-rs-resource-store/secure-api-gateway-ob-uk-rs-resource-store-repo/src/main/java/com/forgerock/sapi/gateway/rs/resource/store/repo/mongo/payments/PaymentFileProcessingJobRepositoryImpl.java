@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.ProcessingError;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.Status;
+
+public class PaymentFileProcessingJobRepositoryImpl implements PaymentFileProcessingJobRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean enqueue(FRPaymentFileProcessingJob job) {
+        // A file which was rejected may be fixed and uploaded again
+        mongoTemplate.remove(new Query(where("_id").is(job.getId()).and("status").is(Status.FAILED)),
+                FRPaymentFileProcessingJob.class);
+        try {
+            mongoTemplate.insert(job);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public FRPaymentFileProcessingJob claimNext(Date now, Duration lease) {
+        final Query claimable = new Query(new Criteria().orOperator(
+                where("status").is(Status.QUEUED),
+                where("status").is(Status.IN_PROCESS).and("leaseExpiresAt").lte(now)))
+                .with(Sort.by("created"));
+        final Update claim = new Update().set("status", Status.IN_PROCESS)
+                                         .set("leaseExpiresAt", new Date(now.getTime() + lease.toMillis()))
+                                         .inc("attempts", 1);
+        return mongoTemplate.findAndModify(claimable, claim, FindAndModifyOptions.options().returnNew(true),
+                FRPaymentFileProcessingJob.class);
+    }
+
+    @Override
+    public boolean complete(FRPaymentFileProcessingJob claimed) {
+        return finish(claimed, new Update().set("status", Status.COMPLETED));
+    }
+
+    @Override
+    public boolean fail(FRPaymentFileProcessingJob claimed, List<ProcessingError> errors) {
+        return finish(claimed, new Update().set("status", Status.FAILED).set("errors", errors));
+    }
+
+    private boolean finish(FRPaymentFileProcessingJob claimed, Update update) {
+        // The lease expiry acts as a fencing token, it changes whenever the job is claimed again
+        final Query heldByLease = new Query(where("_id").is(claimed.getId())
+                .and("status").is(Status.IN_PROCESS)
+                .and("leaseExpiresAt").is(claimed.getLeaseExpiresAt()));
+        update.unset("fileContents").unset("leaseExpiresAt").set("updated", new Date());
+        return mongoTemplate.updateFirst(heldByLease, update, FRPaymentFileProcessingJob.class).getModifiedCount() == 1;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRSubmissionStatus;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.PaymentType;
+
+/**
+ * Queue operations on {@link FRPaymentSettlement} items.
+ */
+public interface PaymentSettlementRepositoryCustom {
+
+    /**
+     * Adds a payment to the settlement queue.
+     *
+     * @return true if the payment was queued, false if it has already been queued
+     */
+    boolean enqueue(FRPaymentSettlement settlement);
+
+    /**
+     * Claims up to batchSize items which are due, or whose lease has expired, for the duration of the lease. Each item
+     * is claimed atomically so concurrent workers never claim the same item.
+     *
+     * @param now       the current time
+     * @param lease     how long the items are held by the caller before they may be claimed by another worker
+     * @param batchSize the maximum number of items to claim
+     * @return the claimed items, oldest due first
+     */
+    List<FRPaymentSettlement> claimBatch(Date now, Duration lease, int batchSize);
+
+    /**
+     * Removes an item which has been settled from the queue, provided that it is still held by the lease it was
+     * claimed with.
+     *
+     * @param claimed an item returned by {@link #claimBatch(Date, Duration, int)}
+     * @return true if the item was removed, false if the lease had been lost to another worker
+     */
+    boolean complete(FRPaymentSettlement claimed);
+
+    /**
+     * Determines whether the payment submission which a queued item settles still exists.
+     */
+    boolean submissionExists(PaymentType paymentType, String paymentId);
+
+    /**
+     * Sets the status of a payment submission, without loading and re-saving the whole submission.
+     *
+     * @return true if the submission exists
+     */
+    boolean updateSubmissionStatus(PaymentType paymentType, String paymentId, FRSubmissionStatus status);
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRSubmissionStatus;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.PaymentType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.Status;
+
+public class PaymentSettlementRepositoryImpl implements PaymentSettlementRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean enqueue(FRPaymentSettlement settlement) {
+        try {
+            mongoTemplate.insert(settlement);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<FRPaymentSettlement> claimBatch(Date now, Duration lease, int batchSize) {
+        final Query claimable = new Query(new Criteria().orOperator(
+                where("status").is(Status.QUEUED).and("dueAt").lte(now),
+                where("status").is(Status.IN_PROCESS).and("leaseExpiresAt").lte(now)))
+                .with(Sort.by("dueAt"));
+        final Update claim = new Update().set("status", Status.IN_PROCESS)
+                                         .set("leaseExpiresAt", new Date(now.getTime() + lease.toMillis()))
+                                         .inc("attempts", 1);
+        final FindAndModifyOptions returnClaimed = FindAndModifyOptions.options().returnNew(true);
+
+        final List<FRPaymentSettlement> claimed = new ArrayList<>(batchSize);
+        while (claimed.size() < batchSize) {
+            final FRPaymentSettlement settlement = mongoTemplate.findAndModify(claimable, claim, returnClaimed,
+                    FRPaymentSettlement.class);
+            if (settlement == null) {
+                break;
+            }
+            claimed.add(settlement);
+        }
+        return claimed;
+    }
+
+    @Override
+    public boolean complete(FRPaymentSettlement claimed) {
+        // The lease expiry acts as a fencing token, it changes whenever the item is claimed again
+        final Query heldByLease = new Query(where("_id").is(claimed.getId())
+                .and("leaseExpiresAt").is(claimed.getLeaseExpiresAt()));
+        return mongoTemplate.remove(heldByLease, FRPaymentSettlement.class).getDeletedCount() == 1;
+    }
+
+    @Override
+    public boolean submissionExists(PaymentType paymentType, String paymentId) {
+        return mongoTemplate.exists(new Query(where("_id").is(paymentId)), paymentType.getSubmissionClass());
+    }
+
+    @Override
+    public boolean updateSubmissionStatus(PaymentType paymentType, String paymentId, FRSubmissionStatus status) {
+        final Update update = new Update().set("status", status).set("updated", new Date());
+        return mongoTemplate.updateFirst(new Query(where("_id").is(paymentId)), update,
+                paymentType.getSubmissionClass()).getMatchedCount() == 1;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRStandingOrderSchedule;
+
+/**
+ * Lease based claiming of due {@link FRStandingOrderSchedule}s.
+ */
+public interface StandingOrderScheduleRepositoryCustom {
+
+    /**
+     * Adds the schedule of a standing order.
+     *
+     * @return true if the schedule was added, false if the standing order is already scheduled
+     */
+    boolean schedule(FRStandingOrderSchedule schedule);
+
+    /**
+     * Claims up to batchSize schedules whose next execution is due and which are not held by an unexpired lease. Each
+     * schedule is claimed atomically so concurrent workers never claim the same one.
+     *
+     * @param now       the current time
+     * @param lease     how long the schedules are held by the caller before they may be claimed by another worker
+     * @param batchSize the maximum number of schedules to claim
+     * @return the claimed schedules, earliest due first
+     */
+    List<FRStandingOrderSchedule> claimDue(Date now, Duration lease, int batchSize);
+
+    /**
+     * Records that the due payment of a claimed schedule has been made and releases the lease.
+     *
+     * @param claimed               a schedule returned by {@link #claimDue(Date, Duration, int)}
+     * @param nextExecutionDateTime when the next payment is due, null if that was the final payment
+     * @return true if the schedule was advanced, false if the lease had been lost to another worker
+     */
+    boolean advance(FRStandingOrderSchedule claimed, Date nextExecutionDateTime);
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRStandingOrderSchedule;
+
+public class StandingOrderScheduleRepositoryImpl implements StandingOrderScheduleRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean schedule(FRStandingOrderSchedule schedule) {
+        try {
+            mongoTemplate.insert(schedule);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<FRStandingOrderSchedule> claimDue(Date now, Duration lease, int batchSize) {
+        final Query claimable = new Query(where("nextExecutionDateTime").lte(now)
+                .orOperator(where("leaseExpiresAt").is(null), where("leaseExpiresAt").lte(now)))
+                .with(Sort.by("nextExecutionDateTime"));
+        final Update claim = new Update().set("leaseExpiresAt", new Date(now.getTime() + lease.toMillis()));
+        final FindAndModifyOptions returnClaimed = FindAndModifyOptions.options().returnNew(true);
+
+        final List<FRStandingOrderSchedule> claimed = new ArrayList<>(batchSize);
+        while (claimed.size() < batchSize) {
+            final FRStandingOrderSchedule schedule = mongoTemplate.findAndModify(claimable, claim, returnClaimed,
+                    FRStandingOrderSchedule.class);
+            if (schedule == null) {
+                break;
+            }
+            claimed.add(schedule);
+        }
+        return claimed;
+    }
+
+    @Override
+    public boolean advance(FRStandingOrderSchedule claimed, Date nextExecutionDateTime) {
+        // The lease expiry acts as a fencing token, it changes whenever the schedule is claimed again
+        final Query heldByLease = new Query(where("_id").is(claimed.getId())
+                .and("leaseExpiresAt").is(claimed.getLeaseExpiresAt()));
+        final Update update = new Update().inc("paymentsMade", 1).unset("leaseExpiresAt");
+        if (nextExecutionDateTime != null) {
+            update.set("nextExecutionDateTime", nextExecutionDateTime);
+        } else {
+            update.unset("nextExecutionDateTime");
+        }
+        return mongoTemplate.updateFirst(heldByLease, update, FRStandingOrderSchedule.class).getModifiedCount() == 1;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRVrpPeriodicLimitSpend;
+
+/**
+ * Atomic updates of {@link FRVrpPeriodicLimitSpend} buckets.
+ */
+public interface VrpPeriodicLimitSpendRepositoryCustom {
+
+    /**
+     * Adds the amount of a payment to the spend of a bucket, provided that the resulting spend does not exceed the
+     * limit. The bucket is created if this is the first payment in the period.
+     *
+     * @param bucket    identifies the bucket, its consentId, periodType, periodAlignment, currency, periodStart and
+     *                  expiresAt fields must be set
+     * @param paymentId the id of the payment, which is recorded against the bucket
+     * @param amount    the amount to add, must not be greater than the limit
+     * @param limit     the maximum spend for the period
+     * @return true if the spend was added, false if adding it would have breached the limit
+     */
+    boolean incrementSpendWithinLimit(FRVrpPeriodicLimitSpend bucket, String paymentId, BigDecimal amount, BigDecimal limit);
+
+    /**
+     * Removes the amount of a payment from the spend of every bucket it was added to by
+     * {@link #incrementSpendWithinLimit(FRVrpPeriodicLimitSpend, String, BigDecimal, BigDecimal)}. The payment is
+     * removed from each bucket in the same update, so releasing a payment again has no effect.
+     *
+     * @param paymentId the id of the payment
+     * @param amount    the amount of the payment
+     * @return the number of buckets the amount was removed from
+     */
+    long releasePayment(String paymentId, BigDecimal amount);
+
+}
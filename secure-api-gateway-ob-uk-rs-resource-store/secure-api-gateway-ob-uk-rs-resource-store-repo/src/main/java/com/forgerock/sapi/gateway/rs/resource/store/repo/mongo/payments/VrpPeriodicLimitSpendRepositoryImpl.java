@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.math.BigDecimal;
+
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRVrpPeriodicLimitSpend;
+
+public class VrpPeriodicLimitSpendRepositoryImpl implements VrpPeriodicLimitSpendRepositoryCustom {
+
+    /**
+     * Concurrent upserts which both create the bucket fail with a DuplicateKeyException, the loser retries against the
+     * bucket created by the winner.
+     */
+    private static final int MAX_UPSERT_ATTEMPTS = 2;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean incrementSpendWithinLimit(FRVrpPeriodicLimitSpend bucket, String paymentId, BigDecimal amount, BigDecimal limit) {
+        if (amount.compareTo(limit) > 0) {
+            return false;
+        }
+        // Only matches the bucket if there is room for the amount, when there is not the upsert attempts to insert a
+        // second document for the bucket which is rejected by the unique index.
+        final Query query = new Query(bucketCriteria(bucket).and("spent").lte(new Decimal128(limit.subtract(amount))));
+        final Update update = new Update().inc("spent", new Decimal128(amount))
+                                          .push("paymentIds", paymentId)
+                                          .setOnInsert("expiresAt", bucket.getExpiresAt());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                mongoTemplate.upsert(query, update, FRVrpPeriodicLimitSpend.class);
+                return true;
+            } catch (DuplicateKeyException ex) {
+                if (attempt == MAX_UPSERT_ATTEMPTS) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    @Override
+    public long releasePayment(String paymentId, BigDecimal amount) {
+        // Only matches the buckets which still hold the payment, each is updated atomically
+        return mongoTemplate.updateMulti(new Query(where("paymentIds").is(paymentId)),
+                new Update().inc("spent", new Decimal128(amount.negate())).pull("paymentIds", paymentId),
+                FRVrpPeriodicLimitSpend.class).getModifiedCount();
+    }
+
+    private static Criteria bucketCriteria(FRVrpPeriodicLimitSpend bucket) {
+        return where("consentId").is(bucket.getConsentId())
+                .and("periodType").is(bucket.getPeriodType())
+                .and("periodAlignment").is(bucket.getPeriodAlignment())
+                .and("currency").is(bucket.getCurrency())
+                .and("periodStart").is(bucket.getPeriodStart());
+    }
+}
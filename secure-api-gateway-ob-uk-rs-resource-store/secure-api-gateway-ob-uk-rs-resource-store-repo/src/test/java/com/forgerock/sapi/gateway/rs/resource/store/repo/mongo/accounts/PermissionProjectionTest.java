@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts;
+
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READACCOUNTSBASIC;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READACCOUNTSDETAIL;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READPAN;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READTRANSACTIONSBASIC;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+public class PermissionProjectionTest {
+
+    private final PermissionProjection projection = PermissionProjection.builder()
+            .excludeWhen(READACCOUNTSBASIC, READACCOUNTSDETAIL, "account.accounts", "account.servicer")
+            .excludeWhen(READTRANSACTIONSBASIC, "transaction.balance")
+            .build();
+
+    @Test
+    public void shouldExcludeFieldsOfGrantedPermission() {
+        assertThat(projection.excludedFields(List.of(READACCOUNTSBASIC, READPAN)))
+                .containsExactly("account.accounts", "account.servicer");
+    }
+
+    @Test
+    public void shouldNotExcludeFieldsWhenOverridingPermissionGranted() {
+        assertThat(projection.excludedFields(List.of(READACCOUNTSBASIC, READACCOUNTSDETAIL))).isEmpty();
+    }
+
+    @Test
+    public void shouldCombineFieldsOfAllGrantedPermissions() {
+        assertThat(projection.excludedFields(List.of(READTRANSACTIONSBASIC, READACCOUNTSBASIC)))
+                .containsExactly("account.accounts", "account.servicer", "transaction.balance");
+    }
+
+    @Test
+    public void shouldApplyProjectionToQuery() {
+        // When
+        Query query = projection.apply(new Query(), List.of(READTRANSACTIONSBASIC));
+
+        // Then
+        assertThat(query.getFieldsObject()).isEqualTo(new Document("transaction.balance", 0));
+    }
+
+    @Test
+    public void shouldNotProjectQueryWhenNoFieldsExcluded() {
+        // When
+        Query query = projection.apply(new Query(), List.of(READACCOUNTSDETAIL));
+
+        // Then
+        assertThat(query.getFieldsObject()).isEmpty();
+    }
+}
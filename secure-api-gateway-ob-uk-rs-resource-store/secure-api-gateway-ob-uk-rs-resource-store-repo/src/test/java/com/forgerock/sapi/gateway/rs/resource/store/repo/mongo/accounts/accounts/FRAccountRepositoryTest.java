@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.accounts;
+
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READACCOUNTSBASIC;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READACCOUNTSDETAIL;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READPAN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRAccountServicer;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRFinancialAccount;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAccountIdentifier;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRAccount;
+
+import uk.org.openbanking.datamodel.v3.common.OBExternalAccountIdentification4Code;
+
+/**
+ * Test for the user account queries of {@link FRAccountRepositoryImpl} against an embedded Mongo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FRAccountRepositoryTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String PAN = "5409050000000000";
+
+    @Autowired
+    private FRAccountRepository accountRepository;
+
+    @BeforeEach
+    void saveAccounts() {
+        accountRepository.save(account("account-3", USER_ID, "Savings"));
+        accountRepository.save(account("account-1", USER_ID, "Bills"));
+        accountRepository.save(account("account-2", USER_ID, "Bills"));
+        accountRepository.save(account("account-4", "user-2", "Bills"));
+    }
+
+    @AfterEach
+    void removeData() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReadPagesOfUserAccountsInAccountIdOrder() {
+        final List<FRExternalPermissionsCode> permissions = List.of(READACCOUNTSDETAIL, READPAN);
+
+        final Page<FRAccount> firstPage = accountRepository.byUserIDWithPermissions(USER_ID, permissions, PageRequest.of(0, 2));
+        assertThat(firstPage.getContent()).extracting(FRAccount::getId).containsExactly("account-1", "account-2");
+        assertThat(firstPage.getTotalElements()).isEqualTo(3);
+
+        final Page<FRAccount> lastPage = accountRepository.byUserIDWithPermissions(USER_ID, permissions, PageRequest.of(1, 2));
+        assertThat(lastPage.getContent()).extracting(FRAccount::getId).containsExactly("account-3");
+        assertThat(lastPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldBreakTiesOfRequestedSortByAccountId() {
+        final Page<FRAccount> accounts = accountRepository.byUserIDWithPermissions(USER_ID, List.of(READACCOUNTSDETAIL, READPAN),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "account.nickname")));
+
+        assertThat(accounts.getContent()).extracting(FRAccount::getId).containsExactly("account-3", "account-1", "account-2");
+    }
+
+    @Test
+    void shouldReadAccountIdentifiersWithDetailPermission() {
+        final Page<FRAccount> accounts = accountRepository.byUserIDWithPermissions(USER_ID, List.of(READACCOUNTSDETAIL, READPAN),
+                PageRequest.of(0, 10));
+
+        assertThat(accounts.getContent()).hasSize(3).allSatisfy(account -> {
+            assertThat(account.getAccount().getNickname()).isNotNull();
+            assertThat(account.getAccount().getServicer()).isNotNull();
+            assertThat(account.getAccount().getAccounts()).singleElement()
+                    .satisfies(identifier -> assertThat(identifier.getIdentification()).isEqualTo(PAN));
+        });
+    }
+
+    @Test
+    void shouldNotReadAccountIdentifiersWithBasicPermission() {
+        final Page<FRAccount> accounts = accountRepository.byUserIDWithPermissions(USER_ID, List.of(READACCOUNTSBASIC),
+                PageRequest.of(0, 10));
+
+        assertThat(accounts.getContent()).hasSize(3).allSatisfy(account -> {
+            assertThat(account.getAccount().getNickname()).isNotNull();
+            assertThat(account.getAccount().getServicer()).isNull();
+            assertThat(account.getAccount().getAccounts()).isNullOrEmpty();
+        });
+    }
+
+    @Test
+    void shouldMaskPanWithoutReadPanPermission() {
+        final Page<FRAccount> accounts = accountRepository.byUserIDWithPermissions(USER_ID, List.of(READACCOUNTSDETAIL),
+                PageRequest.of(0, 10));
+
+        assertThat(accounts.getContent()).hasSize(3).allSatisfy(account ->
+                assertThat(account.getAccount().getAccounts()).singleElement()
+                        .satisfies(identifier -> assertThat(identifier.getIdentification()).isEqualTo("xxx")));
+    }
+
+    @Test
+    void shouldStreamUserAccountsInAccountIdOrder() {
+        try (Stream<FRAccount> accounts = accountRepository.streamByUserID(USER_ID)) {
+            assertThat(accounts).extracting(FRAccount::getId).containsExactly("account-1", "account-2", "account-3");
+        }
+    }
+
+    private static FRAccount account(String accountId, String userId, String nickname) {
+        return FRAccount.builder()
+                .id(accountId)
+                .userID(userId)
+                .account(FRFinancialAccount.builder()
+                        .accountId(accountId)
+                        .currency("GBP")
+                        .nickname(nickname)
+                        .servicer(FRAccountServicer.builder().identification("8020441910203345").schemeName("UK.OBIE.BICFI").build())
+                        .accounts(List.of(FRAccountIdentifier.builder()
+                                .schemeName(OBExternalAccountIdentification4Code.PAN.toString())
+                                .identification(PAN)
+                                .build()))
+                        .build())
+                .build();
+    }
+}
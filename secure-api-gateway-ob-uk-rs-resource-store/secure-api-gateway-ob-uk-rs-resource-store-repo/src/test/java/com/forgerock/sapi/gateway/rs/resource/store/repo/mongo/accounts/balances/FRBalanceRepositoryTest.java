@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.balances;
+
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType.INTERIMAVAILABLE;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType.INTERIMBOOKED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRCashBalance;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRCreditDebitIndicator;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRBalance;
+
+/**
+ * Test for {@link FRBalanceRepositoryImpl#debit} against an embedded Mongo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FRBalanceRepositoryTest {
+
+    private static final String ACCOUNT_ID = "account-1";
+
+    @Autowired
+    private FRBalanceRepository balanceRepository;
+
+    @BeforeEach
+    void saveBalances() {
+        balanceRepository.save(balance(INTERIMAVAILABLE, "100.00"));
+        balanceRepository.save(balance(INTERIMBOOKED, "100.00"));
+    }
+
+    @AfterEach
+    void removeData() {
+        balanceRepository.deleteAll();
+    }
+
+    @Test
+    void shouldDebitBalance() {
+        final Optional<FRBalance> debited = balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("25.50"), false, "payment-1");
+
+        assertThat(debited).hasValueSatisfying(balance -> assertThat(balance.getCurrencyAndAmount().getAmount()).isEqualTo("74.50"));
+        assertBalance(INTERIMAVAILABLE, "74.50", FRCreditDebitIndicator.CREDIT);
+        assertBalance(INTERIMBOOKED, "100.00", FRCreditDebitIndicator.CREDIT);
+    }
+
+    @Test
+    void shouldNotDebitBalanceWhenFundsAreInsufficient() {
+        assertThat(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("100.01"), false, "payment-1")).isEmpty();
+
+        assertBalance(INTERIMAVAILABLE, "100.00", FRCreditDebitIndicator.CREDIT);
+    }
+
+    @Test
+    void shouldDebitBalanceIntoOverdraftWhenAllowed() {
+        assertThat(balanceRepository.debit(ACCOUNT_ID, INTERIMBOOKED, new BigDecimal("150.00"), true, "payment-1")).isPresent();
+
+        assertBalance(INTERIMBOOKED, "50.00", FRCreditDebitIndicator.DEBIT);
+    }
+
+    @Test
+    void shouldReturnEmptyWhenAccountHasNoBalanceOfType() {
+        assertThat(balanceRepository.debit("another-account", INTERIMAVAILABLE, BigDecimal.ONE, false, "payment-1")).isEmpty();
+    }
+
+    @Test
+    void shouldApplyEachDebitOnce() {
+        assertThat(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("60.00"), false, "payment-1")).isPresent();
+
+        // Retrying the debit succeeds without debiting the balance again, even though the funds no longer cover it
+        assertThat(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("60.00"), false, "payment-1"))
+                .hasValueSatisfying(balance -> assertThat(balance.getCurrencyAndAmount().getAmount()).isEqualTo("40.00"));
+        assertBalance(INTERIMAVAILABLE, "40.00", FRCreditDebitIndicator.CREDIT);
+
+        assertThat(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("10.00"), false, "payment-2")).isPresent();
+        assertBalance(INTERIMAVAILABLE, "30.00", FRCreditDebitIndicator.CREDIT);
+    }
+
+    @Test
+    void shouldNotLoseConcurrentDebits() throws Exception {
+        // Fewer debits than the number of attempts each debit makes, so that no debit can run out of attempts
+        final int numDebits = 8;
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<Optional<FRBalance>>> debits = new ArrayList<>();
+            for (int i = 0; i < numDebits; i++) {
+                final String debitId = "payment-" + i;
+                debits.add(() -> balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("2.50"), false, debitId));
+            }
+            for (Future<Optional<FRBalance>> result : executorService.invokeAll(debits)) {
+                assertThat(result.get()).isPresent();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertBalance(INTERIMAVAILABLE, "80.00", FRCreditDebitIndicator.CREDIT);
+    }
+
+    private void assertBalance(FRBalanceType balanceType, String amount, FRCreditDebitIndicator creditDebitIndicator) {
+        assertThat(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, balanceType)).hasValueSatisfying(balance -> {
+            assertThat(balance.getCurrencyAndAmount().getAmount()).isEqualTo(amount);
+            assertThat(balance.getCreditDebitIndicator()).isEqualTo(creditDebitIndicator);
+        });
+    }
+
+    private static FRBalance balance(FRBalanceType type, String amount) {
+        return FRBalance.builder()
+                .id(type + "-" + ACCOUNT_ID)
+                .accountId(ACCOUNT_ID)
+                .balance(FRCashBalance.builder()
+                        .accountId(ACCOUNT_ID)
+                        .type(type)
+                        .creditDebitIndicator(FRCreditDebitIndicator.CREDIT)
+                        .amount(FRAmount.builder().amount(amount).currency("GBP").build())
+                        .build())
+                .build();
+    }
+}
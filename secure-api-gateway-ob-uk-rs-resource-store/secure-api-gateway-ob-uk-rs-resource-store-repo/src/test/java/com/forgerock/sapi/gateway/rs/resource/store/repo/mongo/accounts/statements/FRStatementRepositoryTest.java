@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.statements;
+
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READSTATEMENTSBASIC;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READSTATEMENTSDETAIL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRCreditDebitIndicator;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRStatementData;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRStatement;
+
+import uk.org.openbanking.datamodel.v3.account.OBExternalStatementAmountType1Code;
+
+/**
+ * Test for the permission projected queries of {@link FRStatementRepositoryImpl} against an embedded Mongo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FRStatementRepositoryTest {
+
+    private static final String ACCOUNT_ID = "account-1";
+    private static final String STATEMENT_ID = "statement-1";
+
+    @Autowired
+    private FRStatementRepository statementRepository;
+
+    @BeforeEach
+    void saveStatement() {
+        final FRStatement statement = new FRStatement();
+        statement.setId(STATEMENT_ID);
+        statement.setAccountId(ACCOUNT_ID);
+        statement.setStatement(FRStatementData.builder()
+                .accountId(ACCOUNT_ID)
+                .statementId(STATEMENT_ID)
+                .statementReference("Ref 1")
+                .type(FRStatementData.FRStatementType.REGULARPERIODIC)
+                .statementAmounts(List.of(FRStatementData.FRStatementAmount.builder()
+                        .amount(FRAmount.builder().amount("100.00").currency("GBP").build())
+                        .creditDebitIndicator(FRCreditDebitIndicator.CREDIT)
+                        .type(OBExternalStatementAmountType1Code.PREVIOUSCLOSINGBALANCE.toString())
+                        .build()))
+                .build());
+        statementRepository.save(statement);
+    }
+
+    @AfterEach
+    void removeData() {
+        statementRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReadStatementAmountsWithDetailPermission() {
+        final List<FRStatement> statements = statementRepository.byAccountIdAndStatementIdWithPermissions(ACCOUNT_ID,
+                STATEMENT_ID, List.of(READSTATEMENTSDETAIL));
+
+        assertThat(statements).singleElement().satisfies(statement -> {
+            assertThat(statement.getStatement().getStatementReference()).isEqualTo("Ref 1");
+            assertThat(statement.getStatement().getStatementAmounts()).singleElement()
+                    .satisfies(amount -> assertThat(amount.getAmount().getAmount()).isEqualTo("100.00"));
+        });
+    }
+
+    @Test
+    void shouldNotReadStatementAmountsWithBasicPermission() {
+        final List<FRStatement> statements = statementRepository.byAccountIdInWithPermissions(List.of(ACCOUNT_ID),
+                List.of(READSTATEMENTSBASIC), PageRequest.of(0, 10)).getContent();
+
+        assertThat(statements).singleElement().satisfies(statement -> {
+            assertThat(statement.getStatement().getStatementReference()).isEqualTo("Ref 1");
+            assertThat(statement.getStatement().getStatementAmounts()).isNullOrEmpty();
+        });
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions;
+
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READPAN;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READTRANSACTIONSBASIC;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READTRANSACTIONSCREDITS;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READTRANSACTIONSDEBITS;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermissionsCode.READTRANSACTIONSDETAIL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRCreditDebitIndicator;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRTransactionData;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAccountIdentifier;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
+
+import uk.org.openbanking.datamodel.v3.common.OBExternalAccountIdentification4Code;
+
+/**
+ * Test for the permission projected queries of {@link FRTransactionRepositoryImpl} against an embedded Mongo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FRTransactionRepositoryTest {
+
+    private static final String ACCOUNT_ID = "account-1";
+    private static final String STATEMENT_ID = "statement-1";
+    private static final String PAN = "5409050000000000";
+
+    @Autowired
+    private FRTransactionRepository transactionRepository;
+
+    @BeforeEach
+    void saveTransactions() {
+        transactionRepository.save(transaction("credit-1", FRCreditDebitIndicator.CREDIT));
+        transactionRepository.save(transaction("debit-1", FRCreditDebitIndicator.DEBIT));
+    }
+
+    @AfterEach
+    void removeData() {
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReadAllFieldsWithDetailPermission() {
+        final Page<FRTransaction> transactions = transactionRepository.byAccountIdInWithPermissions(List.of(ACCOUNT_ID),
+                List.of(READTRANSACTIONSDETAIL, READTRANSACTIONSCREDITS, READTRANSACTIONSDEBITS, READPAN), PageRequest.of(0, 10));
+
+        assertThat(transactions.getContent()).hasSize(2).allSatisfy(transaction -> {
+            final FRTransactionData data = transaction.getTransaction();
+            assertThat(data.getAmount().getAmount()).isEqualTo("10.00");
+            assertThat(data.getTransactionInformation()).isEqualTo("Coffee");
+            assertThat(data.getBalance().getAmount().getAmount()).isEqualTo("90.00");
+            assertThat(data.getCreditorAccount().getIdentification()).isEqualTo(PAN);
+        });
+    }
+
+    @Test
+    void shouldNotReadDetailFieldsWithBasicPermission() {
+        final Page<FRTransaction> transactions = transactionRepository.byAccountIdInWithPermissions(List.of(ACCOUNT_ID),
+                List.of(READTRANSACTIONSBASIC, READTRANSACTIONSCREDITS, READTRANSACTIONSDEBITS, READPAN), PageRequest.of(0, 10));
+
+        assertThat(transactions.getContent()).hasSize(2).allSatisfy(transaction -> {
+            final FRTransactionData data = transaction.getTransaction();
+            assertThat(data.getAmount().getAmount()).isEqualTo("10.00");
+            assertThat(data.getTransactionInformation()).isEmpty();
+            assertThat(data.getBalance()).isNull();
+            assertThat(data.getCreditorAccount().getIdentification()).isEqualTo(PAN);
+        });
+    }
+
+    @Test
+    void shouldMaskPanWithoutReadPanPermission() {
+        final Page<FRTransaction> transactions = transactionRepository.byAccountIdAndStatementIdAndBookingDateTimeBetweenWithPermissions(
+                ACCOUNT_ID, STATEMENT_ID, null, null, List.of(READTRANSACTIONSDETAIL, READTRANSACTIONSCREDITS, READTRANSACTIONSDEBITS),
+                PageRequest.of(0, 10));
+
+        assertThat(transactions.getContent()).hasSize(2).allSatisfy(transaction ->
+                assertThat(transaction.getTransaction().getCreditorAccount().getIdentification()).isEqualTo("xxx"));
+    }
+
+    @Test
+    void shouldOnlyReadTransactionsOfPermittedCreditDebitIndicator() {
+        final Page<FRTransaction> credits = transactionRepository.byAccountIdInWithPermissions(List.of(ACCOUNT_ID),
+                List.of(READTRANSACTIONSDETAIL, READTRANSACTIONSCREDITS), PageRequest.of(0, 10));
+        assertThat(credits.getContent()).extracting(FRTransaction::getId).containsExactly("credit-1");
+        assertThat(credits.getTotalElements()).isEqualTo(1);
+
+        final Page<FRTransaction> none = transactionRepository.byAccountIdInWithPermissions(List.of(ACCOUNT_ID),
+                List.of(READTRANSACTIONSDETAIL), PageRequest.of(0, 10));
+        assertThat(none.getContent()).isEmpty();
+    }
+
+    private static FRTransaction transaction(String id, FRCreditDebitIndicator creditDebitIndicator) {
+        final FRTransaction transaction = new FRTransaction();
+        transaction.setId(id);
+        transaction.setAccountId(ACCOUNT_ID);
+        transaction.addStatementId(STATEMENT_ID);
+        transaction.setTransaction(FRTransactionData.builder()
+                .accountId(ACCOUNT_ID)
+                .transactionId(id)
+                .amount(FRAmount.builder().amount("10.00").currency("GBP").build())
+                .creditDebitIndicator(creditDebitIndicator)
+                .status(FRTransactionData.FREntryStatus.BOOKED)
+                .transactionInformation("Coffee")
+                .creditorAccount(FRAccountIdentifier.builder()
+                        .schemeName(OBExternalAccountIdentification4Code.PAN.toString())
+                        .identification(PAN)
+                        .build())
+                .balance(FRTransactionData.FRTransactionCashBalance.builder()
+                        .amount(FRAmount.builder().amount("90.00").currency("GBP").build())
+                        .creditDebitIndicator(FRCreditDebitIndicator.CREDIT)
+                        .type(FRBalanceType.INTERIMBOOKED)
+                        .build())
+                .build());
+        return transaction;
+    }
+}
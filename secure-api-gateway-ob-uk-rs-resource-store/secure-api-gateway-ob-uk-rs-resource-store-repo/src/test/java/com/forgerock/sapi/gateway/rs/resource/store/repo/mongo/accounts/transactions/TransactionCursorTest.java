@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TransactionCursorTest {
+
+    @Test
+    public void shouldDecodeEncodedCursor() {
+        // Given
+        TransactionCursor cursor = new TransactionCursor(new Date(1700000000123L), "65f1d5a3c2b7e91a4d3f0a12");
+
+        // When
+        String encoded = cursor.encode();
+
+        // Then
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(TransactionCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    public void shouldCreateCursorAfterTransaction() {
+        // Given
+        DateTime bookingDateTime = DateTime.now();
+        FRTransaction transaction = FRTransaction.builder()
+                .id("65f1d5a3c2b7e91a4d3f0a12")
+                .bookingDateTime(bookingDateTime)
+                .build();
+
+        // When
+        TransactionCursor cursor = TransactionCursor.after(transaction);
+
+        // Then
+        assertThat(cursor.getBookingDateTime()).isEqualTo(bookingDateTime.toDate());
+        assertThat(cursor.getId()).isEqualTo(transaction.getId());
+    }
+
+    @Test
+    public void shouldFailToDecodeInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("12345")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("12345:")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode(":65f1d5a3c2b7e91a4d3f0a12")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("abc:65f1d5a3c2b7e91a4d3f0a12")));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
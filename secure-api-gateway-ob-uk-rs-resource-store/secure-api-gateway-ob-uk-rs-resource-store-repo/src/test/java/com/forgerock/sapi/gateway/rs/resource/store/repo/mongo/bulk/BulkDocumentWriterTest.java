@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRStatement;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.bulk.BulkWriteReport.BatchResult;
+
+/**
+ * Test for {@link BulkDocumentWriter} against an embedded Mongo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkDocumentWriterTest {
+
+    private static final String ACCOUNT_ID = "account-1";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private BulkDocumentWriter bulkDocumentWriter;
+
+    @BeforeEach
+    void createWriter() {
+        bulkDocumentWriter = new BulkDocumentWriter(mongoTemplate, 2);
+    }
+
+    @AfterEach
+    void removeData() {
+        mongoTemplate.dropCollection(FRTransaction.class);
+        mongoTemplate.dropCollection(FRStatement.class);
+    }
+
+    @Test
+    void shouldWriteEachTypeInBatches() {
+        final List<Object> documents = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            documents.add(transaction("transaction-" + i, ACCOUNT_ID));
+        }
+        documents.add(statement("statement-1"));
+
+        final BulkWriteReport report = bulkDocumentWriter.save(documents);
+
+        assertThat(report.hasErrors()).isFalse();
+        assertThat(report.getWritten()).isEqualTo(6);
+        final String transactions = mongoTemplate.getCollectionName(FRTransaction.class);
+        final String statements = mongoTemplate.getCollectionName(FRStatement.class);
+        assertThat(report.getBatches()).extracting(BatchResult::getCollection, BatchResult::getBatch, BatchResult::getSubmitted)
+                .containsExactly(
+                        tuple(transactions, 0, 2),
+                        tuple(transactions, 1, 2),
+                        tuple(transactions, 2, 1),
+                        tuple(statements, 0, 1));
+        assertThat(mongoTemplate.findAll(FRTransaction.class)).hasSize(5);
+        assertThat(mongoTemplate.findAll(FRStatement.class)).hasSize(1);
+    }
+
+    @Test
+    void shouldReplaceExistingDocumentsWhenSaving() {
+        bulkDocumentWriter.save(List.of(transaction("transaction-1", ACCOUNT_ID)));
+
+        final BulkWriteReport report = bulkDocumentWriter.save(List.of(
+                transaction("transaction-1", "account-2"), transaction("transaction-2", "account-2")));
+
+        assertThat(report.hasErrors()).isFalse();
+        assertThat(report.getWritten()).isEqualTo(2);
+        assertThat(mongoTemplate.findAll(FRTransaction.class)).hasSize(2)
+                .allSatisfy(transaction -> assertThat(transaction.getAccountId()).isEqualTo("account-2"));
+    }
+
+    @Test
+    void shouldReportExistingDocumentsWhenInserting() {
+        bulkDocumentWriter.insert(List.of(transaction("transaction-1", ACCOUNT_ID)));
+
+        final BulkWriteReport report = bulkDocumentWriter.insert(List.of(
+                transaction("transaction-1", "account-2"), transaction("transaction-2", "account-2")));
+
+        // The batch is unordered, so the document after the failed one is still written
+        assertThat(report.hasErrors()).isTrue();
+        assertThat(report.getWritten()).isEqualTo(1);
+        assertThat(report.getFailedBatches()).singleElement().satisfies(batch -> {
+            assertThat(batch.getSubmitted()).isEqualTo(2);
+            assertThat(batch.getWritten()).isEqualTo(1);
+            assertThat(batch.getErrors()).singleElement().asString().startsWith("document 0: ");
+        });
+        assertThat(mongoTemplate.findById("transaction-1", FRTransaction.class).getAccountId()).isEqualTo(ACCOUNT_ID);
+        assertThat(mongoTemplate.findById("transaction-2", FRTransaction.class)).isNotNull();
+    }
+
+    @Test
+    void shouldCountDocumentsOfEachTypeForAccounts() {
+        bulkDocumentWriter.save(List.of(transaction("transaction-1", ACCOUNT_ID), transaction("transaction-2", ACCOUNT_ID),
+                transaction("transaction-3", "account-2"), statement("statement-1")));
+
+        final Map<Class<?>, Long> counts = bulkDocumentWriter.countByAccountIdIn(List.of(FRTransaction.class, FRStatement.class),
+                Set.of(ACCOUNT_ID));
+
+        assertThat(counts).containsExactly(Map.entry(FRTransaction.class, 2L), Map.entry(FRStatement.class, 1L));
+    }
+
+    private static FRTransaction transaction(String id, String accountId) {
+        return FRTransaction.builder().id(id).accountId(accountId).build();
+    }
+
+    private static FRStatement statement(String id) {
+        return FRStatement.builder().id(id).accountId(ACCOUNT_ID).build();
+    }
+}
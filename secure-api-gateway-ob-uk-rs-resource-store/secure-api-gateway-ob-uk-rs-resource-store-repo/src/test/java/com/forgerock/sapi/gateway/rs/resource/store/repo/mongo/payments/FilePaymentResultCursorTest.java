@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FilePaymentResultCursorTest {
+
+    @Test
+    public void shouldDecodeEncodedCursor() {
+        // Given
+        FilePaymentResultCursor cursor = new FilePaymentResultCursor(12345);
+
+        // When
+        String encoded = cursor.encode();
+
+        // Then
+        assertThat(encoded).doesNotContain("=", "+", "/", "12345");
+        assertThat(FilePaymentResultCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    public void shouldCreateCursorAfterResult() {
+        // Given
+        FRFilePaymentResult result = FRFilePaymentResult.builder()
+                .id(FRFilePaymentResult.id("PFC_123", 99))
+                .filePaymentId("PFC_123")
+                .index(99)
+                .build();
+
+        // When
+        FilePaymentResultCursor cursor = FilePaymentResultCursor.after(result);
+
+        // Then
+        assertThat(cursor.getIndex()).isEqualTo(99);
+    }
+
+    @Test
+    public void shouldFailToDecodeInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> FilePaymentResultCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> FilePaymentResultCursor.decode(encode("")));
+        assertThrows(IllegalArgumentException.class, () -> FilePaymentResultCursor.decode(encode("abc")));
+        assertThrows(IllegalArgumentException.class, () -> FilePaymentResultCursor.decode(encode("-1")));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
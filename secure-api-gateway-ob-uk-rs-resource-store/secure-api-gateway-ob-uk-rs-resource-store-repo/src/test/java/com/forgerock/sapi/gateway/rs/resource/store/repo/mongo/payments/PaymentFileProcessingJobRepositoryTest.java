@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.ProcessingError;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.Status;
+
+/**
+ * Test for {@link PaymentFileProcessingJobRepositoryImpl} against an embedded Mongo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentFileProcessingJobRepositoryTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    @Autowired
+    private PaymentFileProcessingJobRepository jobRepository;
+
+    @AfterEach
+    void removeData() {
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void shouldQueueOneJobPerConsent() {
+        assertThat(jobRepository.enqueue(job("consent-1", new Date()))).isTrue();
+        assertThat(jobRepository.enqueue(job("consent-1", new Date()))).isFalse();
+        assertThat(jobRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReplaceFailedJobWhenQueueing() {
+        final Date now = new Date();
+        jobRepository.enqueue(job("consent-1", now));
+        assertThat(jobRepository.fail(jobRepository.claimNext(now, LEASE), List.of(error()))).isTrue();
+
+        assertThat(jobRepository.enqueue(job("consent-1", now))).isTrue();
+
+        assertThat(jobRepository.findById("consent-1")).hasValueSatisfying(job -> {
+            assertThat(job.getStatus()).isEqualTo(Status.QUEUED);
+            assertThat(job.getErrors()).isNull();
+            assertThat(job.getFileContents()).isNotEmpty();
+        });
+    }
+
+    @Test
+    void shouldNotReplaceCompletedJobWhenQueueing() {
+        final Date now = new Date();
+        jobRepository.enqueue(job("consent-1", now));
+        assertThat(jobRepository.complete(jobRepository.claimNext(now, LEASE))).isTrue();
+
+        assertThat(jobRepository.enqueue(job("consent-1", now))).isFalse();
+        assertThat(jobRepository.findById("consent-1")).hasValueSatisfying(job -> assertThat(job.getStatus()).isEqualTo(Status.COMPLETED));
+    }
+
+    @Test
+    void shouldClaimQueuedJobsOldestFirst() {
+        final Date now = new Date();
+        jobRepository.enqueue(job("consent-2", minutesFrom(now, -1)));
+        jobRepository.enqueue(job("consent-1", minutesFrom(now, -2)));
+
+        final FRPaymentFileProcessingJob first = jobRepository.claimNext(now, LEASE);
+        final FRPaymentFileProcessingJob second = jobRepository.claimNext(now, LEASE);
+
+        assertThat(first.getId()).isEqualTo("consent-1");
+        assertThat(first.getStatus()).isEqualTo(Status.IN_PROCESS);
+        assertThat(first.getLeaseExpiresAt()).isEqualTo(new Date(now.getTime() + LEASE.toMillis()));
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(second.getId()).isEqualTo("consent-2");
+        assertThat(jobRepository.claimNext(now, LEASE)).isNull();
+    }
+
+    @Test
+    void shouldClaimJobAgainOnceLeaseHasExpired() {
+        final Date now = new Date();
+        jobRepository.enqueue(job("consent-1", now));
+        jobRepository.claimNext(now, LEASE);
+
+        assertThat(jobRepository.claimNext(minutesFrom(now, 1), LEASE)).isNotNull()
+                .satisfies(job -> assertThat(job.getAttempts()).isEqualTo(2));
+        assertThat(jobRepository.claimNext(minutesFrom(now, 1), LEASE)).isNull();
+    }
+
+    @Test
+    void shouldOnlyCompleteJobWhichIsStillHeldByLease() {
+        final Date now = new Date();
+        jobRepository.enqueue(job("consent-1", now));
+        final FRPaymentFileProcessingJob expired = jobRepository.claimNext(now, LEASE);
+        final FRPaymentFileProcessingJob reclaimed = jobRepository.claimNext(minutesFrom(now, 2), LEASE);
+
+        assertThat(jobRepository.complete(expired)).isFalse();
+        assertThat(jobRepository.fail(expired, List.of(error()))).isFalse();
+        assertThat(jobRepository.complete(reclaimed)).isTrue();
+
+        assertThat(jobRepository.findById("consent-1")).hasValueSatisfying(job -> {
+            assertThat(job.getStatus()).isEqualTo(Status.COMPLETED);
+            assertThat(job.getFileContents()).isNull();
+            assertThat(job.getLeaseExpiresAt()).isNull();
+            assertThat(job.getErrors()).isNull();
+        });
+        assertThat(jobRepository.complete(reclaimed)).isFalse();
+    }
+
+    @Test
+    void shouldOnlyFailJobWhichIsStillHeldByLease() {
+        final Date now = new Date();
+        jobRepository.enqueue(job("consent-1", now));
+        final FRPaymentFileProcessingJob expired = jobRepository.claimNext(now, LEASE);
+        final FRPaymentFileProcessingJob reclaimed = jobRepository.claimNext(minutesFrom(now, 2), LEASE);
+
+        assertThat(jobRepository.fail(expired, List.of(error()))).isFalse();
+        assertThat(jobRepository.fail(reclaimed, List.of(error()))).isTrue();
+
+        assertThat(jobRepository.findById("consent-1")).hasValueSatisfying(job -> {
+            assertThat(job.getStatus()).isEqualTo(Status.FAILED);
+            assertThat(job.getFileContents()).isNull();
+            assertThat(job.getErrors()).singleElement()
+                    .satisfies(error -> assertThat(error.getErrorCode()).isEqualTo("UK.OBIE.Resource.InvalidFormat"));
+        });
+    }
+
+    private static FRPaymentFileProcessingJob job(String consentId, Date created) {
+        return FRPaymentFileProcessingJob.builder()
+                .id(consentId)
+                .apiClientId("client-1")
+                .fileUploadIdempotencyKey("key-1")
+                .fileContents(new byte[] {1, 2, 3})
+                .status(Status.QUEUED)
+                .created(created)
+                .updated(created)
+                .build();
+    }
+
+    private static ProcessingError error() {
+        return ProcessingError.builder()
+                .errorCode("UK.OBIE.Resource.InvalidFormat")
+                .message("The file is invalid")
+                .path("Data.DomesticPayments[0]")
+                .build();
+    }
+
+    private static Date minutesFrom(Date date, int minutes) {
+        return new Date(date.getTime() + Duration.ofMinutes(minutes).toMillis());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.PaymentType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.Status;
+
+/**
+ * Test for {@link PaymentSettlementRepositoryImpl} against an embedded Mongo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentSettlementRepositoryTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    @Autowired
+    private PaymentSettlementRepository settlementRepository;
+
+    @AfterEach
+    void removeData() {
+        settlementRepository.deleteAll();
+    }
+
+    @Test
+    void shouldQueuePaymentOnce() {
+        assertThat(settlementRepository.enqueue(settlement("payment-1", new Date()))).isTrue();
+        assertThat(settlementRepository.enqueue(settlement("payment-1", new Date()))).isFalse();
+        assertThat(settlementRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldClaimDuePaymentsOldestFirst() {
+        final Date now = new Date();
+        settlementRepository.enqueue(settlement("payment-2", minutesFrom(now, -1)));
+        settlementRepository.enqueue(settlement("payment-1", minutesFrom(now, -2)));
+        settlementRepository.enqueue(settlement("payment-3", minutesFrom(now, 10)));
+
+        final List<FRPaymentSettlement> claimed = settlementRepository.claimBatch(now, LEASE, 10);
+
+        assertThat(claimed).extracting(FRPaymentSettlement::getId).containsExactly("payment-1", "payment-2");
+        assertThat(claimed).allSatisfy(settlement -> {
+            assertThat(settlement.getStatus()).isEqualTo(Status.IN_PROCESS);
+            assertThat(settlement.getLeaseExpiresAt()).isEqualTo(new Date(now.getTime() + LEASE.toMillis()));
+            assertThat(settlement.getAttempts()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void shouldClaimNoMoreThanBatchSize() {
+        final Date now = new Date();
+        for (int i = 0; i < 5; i++) {
+            settlementRepository.enqueue(settlement("payment-" + i, minutesFrom(now, -1)));
+        }
+
+        assertThat(settlementRepository.claimBatch(now, LEASE, 3)).hasSize(3);
+        assertThat(settlementRepository.claimBatch(now, LEASE, 3)).hasSize(2);
+        assertThat(settlementRepository.claimBatch(now, LEASE, 3)).isEmpty();
+    }
+
+    @Test
+    void shouldReclaimPaymentOnlyOnceItsLeaseHasExpired() {
+        final Date now = new Date();
+        settlementRepository.enqueue(settlement("payment-1", minutesFrom(now, -1)));
+        final FRPaymentSettlement firstClaim = settlementRepository.claimBatch(now, LEASE, 10).get(0);
+
+        assertThat(settlementRepository.claimBatch(minutesFrom(now, 0), LEASE, 10)).isEmpty();
+
+        final Date afterLease = new Date(firstClaim.getLeaseExpiresAt().getTime());
+        final List<FRPaymentSettlement> reclaimed = settlementRepository.claimBatch(afterLease, LEASE, 10);
+        assertThat(reclaimed).singleElement().satisfies(settlement -> {
+            assertThat(settlement.getId()).isEqualTo("payment-1");
+            assertThat(settlement.getAttempts()).isEqualTo(2);
+        });
+
+        // The first worker has lost its lease, so it can no longer complete the payment
+        assertThat(settlementRepository.complete(firstClaim)).isFalse();
+        assertThat(settlementRepository.complete(reclaimed.get(0))).isTrue();
+        assertThat(settlementRepository.count()).isZero();
+    }
+
+    private static FRPaymentSettlement settlement(String id, Date dueAt) {
+        return FRPaymentSettlement.builder()
+                .id(id)
+                .paymentId(id)
+                .paymentType(PaymentType.DOMESTIC)
+                .debtorAccountId("account-1")
+                .amount(new BigDecimal("10.00"))
+                .currency("GBP")
+                .status(Status.QUEUED)
+                .dueAt(dueAt)
+                .build();
+    }
+
+    private static Date minutesFrom(Date date, int minutes) {
+        return new Date(date.getTime() + Duration.ofMinutes(minutes).toMillis());
+    }
+}
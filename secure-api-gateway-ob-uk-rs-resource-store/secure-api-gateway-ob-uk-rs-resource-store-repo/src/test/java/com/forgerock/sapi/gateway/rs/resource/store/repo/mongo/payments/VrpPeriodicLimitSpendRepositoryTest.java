@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRVrpPeriodicLimitSpend;
+
+/**
+ * Test for {@link VrpPeriodicLimitSpendRepositoryImpl} against an embedded Mongo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class VrpPeriodicLimitSpendRepositoryTest {
+
+    private static final DateTime PERIOD_START = new DateTime(2024, 8, 1, 0, 0, DateTimeZone.UTC);
+
+    @Autowired
+    private VrpPeriodicLimitSpendRepository spendRepository;
+
+    private final String consentId = UUID.randomUUID().toString();
+
+    @AfterEach
+    void removeData() {
+        spendRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCreateBucketOnFirstIncrement() {
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), paymentId(), new BigDecimal("10.50"), new BigDecimal("100"))).isTrue();
+
+        final List<FRVrpPeriodicLimitSpend> buckets = spendRepository.findAll();
+        assertThat(buckets).hasSize(1);
+        assertThat(buckets.get(0).getSpent()).isEqualByComparingTo("10.50");
+        assertThat(buckets.get(0).getExpiresAt()).isEqualTo(PERIOD_START.plusMonths(1).toDate());
+    }
+
+    @Test
+    void shouldIncrementSpendUpToLimit() {
+        final BigDecimal limit = new BigDecimal("100.00");
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), paymentId(), new BigDecimal("60.00"), limit)).isTrue();
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), paymentId(), new BigDecimal("40.00"), limit)).isTrue();
+
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), paymentId(), new BigDecimal("0.01"), limit)).isFalse();
+
+        assertThat(spendRepository.findAll()).singleElement()
+                .satisfies(bucket -> assertThat(bucket.getSpent()).isEqualByComparingTo("100.00"));
+    }
+
+    @Test
+    void shouldRejectAmountGreaterThanLimit() {
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), paymentId(), new BigDecimal("100.01"), new BigDecimal("100.00"))).isFalse();
+        assertThat(spendRepository.count()).isZero();
+    }
+
+    @Test
+    void shouldKeepSpendForEachPeriodSeparately() {
+        final BigDecimal limit = new BigDecimal("100.00");
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), paymentId(), limit, limit)).isTrue();
+
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START.plusMonths(1)), paymentId(), limit, limit)).isTrue();
+        assertThat(spendRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRecordPaymentAgainstBucket() {
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), "payment-1", BigDecimal.TEN, new BigDecimal("100"))).isTrue();
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), "payment-2", BigDecimal.TEN, new BigDecimal("100"))).isTrue();
+
+        assertThat(spendRepository.findAll()).singleElement()
+                .satisfies(bucket -> assertThat(bucket.getPaymentIds()).containsExactly("payment-1", "payment-2"));
+    }
+
+    @Test
+    void shouldReleasePaymentFromEachBucketOnce() {
+        final BigDecimal limit = new BigDecimal("100.00");
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), "payment-1", new BigDecimal("75.00"), limit)).isTrue();
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), "payment-2", new BigDecimal("25.00"), limit)).isTrue();
+        assertThat(spendRepository.incrementSpendWithinLimit(yearBucket(), "payment-2", new BigDecimal("25.00"), limit)).isTrue();
+
+        assertThat(spendRepository.releasePayment("payment-2", new BigDecimal("25.00"))).isEqualTo(2);
+        // Releasing the payment again, e.g. when its settlement is retried, does not release its amount twice
+        assertThat(spendRepository.releasePayment("payment-2", new BigDecimal("25.00"))).isZero();
+
+        assertThat(spendRepository.findAll()).hasSize(2).allSatisfy(bucket -> assertThat(bucket.getPaymentIds()).doesNotContain("payment-2"));
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), "payment-3", new BigDecimal("25.00"), limit)).isTrue();
+        assertThat(spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), "payment-4", new BigDecimal("0.01"), limit)).isFalse();
+    }
+
+    @Test
+    void shouldNotExceedLimitWhenIncrementedConcurrently() throws Exception {
+        final int numPayments = 10;
+        final ExecutorService executorService = Executors.newFixedThreadPool(numPayments);
+        try {
+            final List<Callable<Boolean>> payments = new ArrayList<>();
+            for (int i = 0; i < numPayments; i++) {
+                payments.add(() -> spendRepository.incrementSpendWithinLimit(bucket(PERIOD_START), paymentId(), new BigDecimal("10.00"), new BigDecimal("50.00")));
+            }
+            int accepted = 0;
+            for (Future<Boolean> result : executorService.invokeAll(payments)) {
+                if (result.get()) {
+                    accepted++;
+                }
+            }
+            assertThat(accepted).isEqualTo(5);
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertThat(spendRepository.findAll()).singleElement()
+                .satisfies(bucket -> assertThat(bucket.getSpent()).isEqualByComparingTo("50.00"));
+    }
+
+    private FRVrpPeriodicLimitSpend yearBucket() {
+        return FRVrpPeriodicLimitSpend.builder()
+                .consentId(consentId)
+                .periodType("Year")
+                .periodAlignment("Calendar")
+                .currency("GBP")
+                .periodStart(PERIOD_START.withDayOfYear(1).toDate())
+                .expiresAt(PERIOD_START.withDayOfYear(1).plusYears(1).toDate())
+                .build();
+    }
+
+    private static String paymentId() {
+        return UUID.randomUUID().toString();
+    }
+
+    private FRVrpPeriodicLimitSpend bucket(DateTime periodStart) {
+        return FRVrpPeriodicLimitSpend.builder()
+                .consentId(consentId)
+                .periodType("Month")
+                .periodAlignment("Calendar")
+                .currency("GBP")
+                .periodStart(periodStart.toDate())
+                .expiresAt(periodStart.plusMonths(1).toDate())
+                .build();
+    }
+}
@@ -31,6 +31,7 @@ import org.springframework.stereotype.Controller;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.mapping;
@@ -51,17 +52,21 @@ public class AccountsApiController implements AccountsApi {
     @Override
     public ResponseEntity<List<FRAccountWithBalance>> getUserAccountsWithBalance(String userId, boolean withBalance) {
         log.info("Read all accounts for user ID '{}', with Balances: {}", userId, withBalance);
-        Collection<FRAccount> accountsByUserID = accountsRepository.findByUserID(userId);
+        // The accounts are converted as they are read from the cursor, rather than loading the entities up front
+        final List<com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRAccount> accountsByUserID;
+        try (Stream<FRAccount> accounts = accountsRepository.streamByUserID(userId)) {
+            accountsByUserID = accounts.map(this::toFRAccountDto).collect(toList());
+        }
 
         if (!withBalance || accountsByUserID.isEmpty()) {
             log.debug("No balances required so returning {} accounts for userId: {}", accountsByUserID.size(), userId);
             return ResponseEntity.ok(accountsByUserID.stream()
-                                 .map(account -> new FRAccountWithBalance(toFRAccountDto(account), emptyList()))
+                                 .map(account -> new FRAccountWithBalance(account, emptyList()))
                                  .collect(toList()));
         }
 
         List<String> accountIds = accountsByUserID.stream()
-                .map(FRAccount::getId)
+                .map(com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRAccount::getId)
                 .collect(toList());
         Collection<FRBalance> balances = balanceRepository.findByAccountIdIn(accountIds);
 
@@ -73,7 +78,7 @@ public class AccountsApiController implements AccountsApi {
         log.debug("Balances by accountId: {}", balancesByAccountId);
 
         return ResponseEntity.ok(accountsByUserID.stream()
-                .map(account -> new FRAccountWithBalance(toFRAccountDto(account), balancesByAccountId.get(account.getId())))
+                .map(account -> new FRAccountWithBalance(account, balancesByAccountId.get(account.getId())))
                 .collect(toList())
         );
 
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.api.discovery;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Lookup of the {@link HandlerMethod}s which are disabled, resolved from a {@link ControllerEndpointBlacklistHandler}
+ * once the handler mappings have been initialised.
+ * <p>
+ * Unlike {@link ControllerEndpointBlacklistHandler#isBlacklisted(Class, Method)}, checking whether a request is for a
+ * disabled endpoint is a map lookup by {@link Method} which does not allocate.
+ */
+public class DisabledHandlerMethods {
+
+    /**
+     * Disabled bean types keyed by method. A method may be shared by more than one controller (e.g. an interface
+     * default method), so the bean type is also checked.
+     */
+    private final Map<Method, Set<Class<?>>> disabledMethods;
+
+    private DisabledHandlerMethods(Map<Method, Set<Class<?>>> disabledMethods) {
+        this.disabledMethods = disabledMethods;
+    }
+
+    /**
+     * @param blacklistHandler the handler containing the controller methods which have been disabled
+     * @param handlerMethods all of the {@link HandlerMethod}s registered with the handler mappings
+     * @return lookup of the handlerMethods which are blacklisted
+     */
+    public static DisabledHandlerMethods resolve(ControllerEndpointBlacklistHandler blacklistHandler,
+                                                 Collection<HandlerMethod> handlerMethods) {
+        final Map<Method, Set<Class<?>>> disabledMethods = new HashMap<>();
+        for (HandlerMethod handlerMethod : handlerMethods) {
+            if (blacklistHandler.isBlacklisted(handlerMethod.getBeanType(), handlerMethod.getMethod())) {
+                disabledMethods.computeIfAbsent(handlerMethod.getMethod(), method -> new HashSet<>())
+                        .add(handlerMethod.getBeanType());
+            }
+        }
+        return new DisabledHandlerMethods(disabledMethods);
+    }
+
+    /**
+     * @param handlerMethod the handler chosen for a request
+     * @return <code>true</code> if the endpoint has been disabled in the configuration.
+     */
+    public boolean isDisabled(HandlerMethod handlerMethod) {
+        final Set<Class<?>> disabledBeanTypes = disabledMethods.get(handlerMethod.getMethod());
+        return disabledBeanTypes != null && disabledBeanTypes.contains(handlerMethod.getBeanType());
+    }
+
+    public int size() {
+        return disabledMethods.values().stream().mapToInt(Set::size).sum();
+    }
+}
@@ -16,6 +16,7 @@
 package com.forgerock.sapi.gateway.ob.uk.rs.server.api.discovery;
 
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.OBApiReference;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.HashUtils;
 import com.forgerock.sapi.gateway.uk.common.shared.api.meta.obie.OBGroupName;
 import lombok.extern.slf4j.Slf4j;
 
@@ -23,11 +24,19 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import uk.org.openbanking.datamodel.v3.discovery.GenericOBDiscoveryAPILinks;
+import uk.org.openbanking.datamodel.v3.discovery.OBDiscovery;
 import uk.org.openbanking.datamodel.v3.discovery.OBDiscoveryAPI;
-
-import java.util.HashMap;
+import uk.org.openbanking.datamodel.v3.discovery.OBDiscoveryResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Examines customer specific config (if applicable) and determines which of the available APIs should be
@@ -37,24 +46,42 @@ import java.util.Map;
 @Slf4j
 public class DiscoveryApiService {
 
-    private final DiscoveryApiConfigurationProperties discoveryProperties;
+    /**
+     * Maximum number of baseUris to cache {@link DiscoveryDocument}s for. The baseUri is derived from request headers
+     * (e.g. X-Forwarded-Host), so the cache is bounded to prevent clients from growing it without limit.
+     */
+    static final int MAX_CACHED_DOCUMENTS = 16;
 
-    private final AvailableApiEndpointsResolver availableApiEndpointsResolver;
+    private static final Comparator<AvailableApiEndpoint> ENDPOINT_ORDER = Comparator
+            .comparing(AvailableApiEndpoint::getGroupName)
+            .thenComparing(AvailableApiEndpoint::getVersion)
+            .thenComparing(endpoint -> endpoint.getApiReference().getReference());
+
+    private final DiscoveryApiConfigurationProperties discoveryProperties;
 
     private final ControllerEndpointBlacklistHandler blacklistHandler;
 
+    /**
+     * The endpoints which are enabled in the configuration, these are determined once at startup.
+     */
+    private final List<AvailableApiEndpoint> enabledEndpoints;
+
+    private final Map<String, DiscoveryDocument> discoveryDocuments = new ConcurrentHashMap<>();
+
 
     public DiscoveryApiService(DiscoveryApiConfigurationProperties discoveryProperties,
                                AvailableApiEndpointsResolver availableApiEndpointsResolver) {
         this.discoveryProperties = discoveryProperties;
-        this.availableApiEndpointsResolver = availableApiEndpointsResolver;
         this.blacklistHandler = new ControllerEndpointBlacklistHandler();
-        initBlacklist();
+        this.enabledEndpoints = initEnabledEndpoints(availableApiEndpointsResolver.getAvailableApiEndpoints());
     }
 
-    private void initBlacklist() {
-        List<AvailableApiEndpoint> availableEndpoints = availableApiEndpointsResolver.getAvailableApiEndpoints();
-
+    /**
+     * Splits the available endpoints into those that are enabled, and those that are disabled in the configuration.
+     * Disabled endpoints are added to the blacklist.
+     */
+    private List<AvailableApiEndpoint> initEnabledEndpoints(List<AvailableApiEndpoint> availableEndpoints) {
+        final List<AvailableApiEndpoint> enabled = new ArrayList<>();
         // iterate over each API endpoint
         for (AvailableApiEndpoint availableEndpoint : availableEndpoints) {
             String version = availableEndpoint.getVersion();
@@ -65,8 +92,12 @@ public class DiscoveryApiService {
                     || !isVersionOverrideEnabled(version, endpointReference)) {
                 log.warn("Disabling endpoint: [{}], for version: [{}]", endpointReference.getReference(), version);
                 blacklistHandler.blacklistEndpoint(availableEndpoint.getControllerMethod());
+            } else {
+                enabled.add(availableEndpoint);
             }
         }
+        enabled.sort(ENDPOINT_ORDER);
+        return Collections.unmodifiableList(enabled);
     }
 
     public ControllerEndpointBlacklistHandler getBlacklistHandler() {
@@ -84,38 +115,88 @@ public class DiscoveryApiService {
      * @return a {@link Map} of supported Open Banking APIs.
      */
     public Map<OBGroupName, Map<String, OBDiscoveryAPI>> getDiscoveryApis() {
-        final Map<OBGroupName, Map<String, OBDiscoveryAPI>> discoveryApis = new HashMap<>();
-        final String baseUri = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
-        final StringBuilder fullyQualifiedEndpointUriBuilder = new StringBuilder(baseUri);
-        // iterate over each API endpoint
-        for (AvailableApiEndpoint availableEndpoint : availableApiEndpointsResolver.getAvailableApiEndpoints()) {
-            fullyQualifiedEndpointUriBuilder.setLength(baseUri.length());
-            String version = availableEndpoint.getVersion();
-            OBApiReference endpointReference = availableEndpoint.getApiReference();
-            String endpointUrl = availableEndpoint.getUriPath();
+        return getDiscoveryApis(ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString());
+    }
 
-            if (isVersionEnabled(version)
-                    && isApiEnabled(endpointReference)
-                    && isVersionOverrideEnabled(version, endpointReference)) {
+    /**
+     * Gets the Discovery response for the baseUri.
+     * <p>
+     * The response only depends on the configuration and the baseUri, so it is built on the first request for a
+     * baseUri and then reused for subsequent requests.
+     *
+     * @param baseUri the baseUri that clients use to access this application
+     * @return the {@link DiscoveryDocument} containing links to the supported APIs
+     */
+    public DiscoveryDocument getDiscoveryDocument(String baseUri) {
+        final DiscoveryDocument discoveryDocument = discoveryDocuments.get(baseUri);
+        if (discoveryDocument != null) {
+            return discoveryDocument;
+        }
+        if (discoveryDocuments.size() >= MAX_CACHED_DOCUMENTS) {
+            log.debug("Discovery document cache is full, building document for baseUri: {}", baseUri);
+            return buildDiscoveryDocument(baseUri);
+        }
+        return discoveryDocuments.computeIfAbsent(baseUri, this::buildDiscoveryDocument);
+    }
 
-                // Init map
-                if (!discoveryApis.containsKey(availableEndpoint.getGroupName())) {
-                    discoveryApis.put(availableEndpoint.getGroupName(), new HashMap<>());
+    private DiscoveryDocument buildDiscoveryDocument(String baseUri) {
+        OBDiscovery discovery = new OBDiscovery();
+        discovery.setFinancialId(discoveryProperties.getFinancialId());
+
+        for (Map.Entry<OBGroupName, Map<String, OBDiscoveryAPI>> byGroup : getDiscoveryApis(baseUri).entrySet()) {
+            for (OBDiscoveryAPI obDiscoveryAPI : byGroup.getValue().values()) {
+                switch (byGroup.getKey()) {
+                    case AISP:
+                        discovery.addAccountAndTransactionAPI(obDiscoveryAPI);
+                        break;
+                    case PISP:
+                        discovery.addPaymentInitiationAPI(obDiscoveryAPI);
+                        break;
+                    case CBPII:
+                        discovery.addFundsConfirmationAPI(obDiscoveryAPI);
+                        break;
+                    case EVENT:
+                        discovery.addEventNotificationAPI(obDiscoveryAPI);
+                        break;
                 }
-                if (!discoveryApis.get(availableEndpoint.getGroupName()).containsKey(availableEndpoint.getVersion())) {
-                    discoveryApis.get(availableEndpoint.getGroupName())
-                            .put(availableEndpoint.getVersion(), new OBDiscoveryAPI<GenericOBDiscoveryAPILinks>()
-                                    .version(availableEndpoint.getVersion())
-                                    .links(new GenericOBDiscoveryAPILinks()));
-                }
-                GenericOBDiscoveryAPILinks links = (GenericOBDiscoveryAPILinks) discoveryApis
-                        .get(availableEndpoint.getGroupName())
-                        .get(availableEndpoint.getVersion())
-                        .getLinks();
-                links.addLink(endpointReference.getReference(), fullyQualifiedEndpointUriBuilder.append(endpointUrl).toString());
             }
         }
+        return new DiscoveryDocument(new OBDiscoveryResponse().data(discovery), computeETag(baseUri));
+    }
+
+    /**
+     * The ETag is a hash of all the values which the response is built from.
+     */
+    private String computeETag(String baseUri) {
+        final MessageDigest digest = HashUtils.createSHA256Digest();
+        updateDigest(digest, String.valueOf(discoveryProperties.getFinancialId()));
+        updateDigest(digest, baseUri);
+        for (AvailableApiEndpoint endpoint : enabledEndpoints) {
+            updateDigest(digest, endpoint.getGroupName().name());
+            updateDigest(digest, endpoint.getVersion());
+            updateDigest(digest, endpoint.getApiReference().getReference());
+            updateDigest(digest, endpoint.getUriPath());
+        }
+        return HashUtils.encodeHash(digest.digest());
+    }
+
+    private static void updateDigest(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        // separator to ensure that adjacent values cannot be combined to produce the same digest
+        digest.update((byte) 0);
+    }
 
+    private Map<OBGroupName, Map<String, OBDiscoveryAPI>> getDiscoveryApis(String baseUri) {
+        final Map<OBGroupName, Map<String, OBDiscoveryAPI>> discoveryApis = new LinkedHashMap<>();
+        for (AvailableApiEndpoint enabledEndpoint : enabledEndpoints) {
+            OBDiscoveryAPI discoveryAPI = discoveryApis
+                    .computeIfAbsent(enabledEndpoint.getGroupName(), groupName -> new LinkedHashMap<>())
+                    .computeIfAbsent(enabledEndpoint.getVersion(), version -> new OBDiscoveryAPI<GenericOBDiscoveryAPILinks>()
+                            .version(version)
+                            .links(new GenericOBDiscoveryAPILinks()));
+            ((GenericOBDiscoveryAPILinks) discoveryAPI.getLinks())
+                    .addLink(enabledEndpoint.getApiReference().getReference(), baseUri + enabledEndpoint.getUriPath());
+        }
         return discoveryApis;
     }
 
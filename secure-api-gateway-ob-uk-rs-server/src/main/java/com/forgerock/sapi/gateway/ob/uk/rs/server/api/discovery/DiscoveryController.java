@@ -15,7 +15,6 @@
  */
 package com.forgerock.sapi.gateway.ob.uk.rs.server.api.discovery;
 
-import com.forgerock.sapi.gateway.uk.common.shared.api.meta.obie.OBGroupName;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
@@ -25,12 +24,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
-import uk.org.openbanking.datamodel.v3.discovery.OBDiscovery;
-import uk.org.openbanking.datamodel.v3.discovery.OBDiscoveryAPI;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import uk.org.openbanking.datamodel.v3.discovery.OBDiscoveryResponse;
 
-import java.util.Map;
-
 /**
  * Controller for the "Discovery" endpoint. Provides a list of URLs for the Open Banking Read/Write API that are
  * supported by a particular deployed instance.
@@ -46,11 +42,8 @@ public class DiscoveryController {
 
     private final DiscoveryApiService discoveryAPIsService;
 
-    private final DiscoveryApiConfigurationProperties discoveryAPIsConfigurationProperties;
-
-    public DiscoveryController(DiscoveryApiService discoveryAPIsService, DiscoveryApiConfigurationProperties discoveryAPIsConfigurationProperties) {
+    public DiscoveryController(DiscoveryApiService discoveryAPIsService) {
         this.discoveryAPIsService = discoveryAPIsService;
-        this.discoveryAPIsConfigurationProperties = discoveryAPIsConfigurationProperties;
     }
 
     @ApiOperation(
@@ -71,31 +64,11 @@ public class DiscoveryController {
             method = RequestMethod.GET
     )
     public ResponseEntity<OBDiscoveryResponse> getDiscoveryResponse() {
-        OBDiscoveryResponse response = new OBDiscoveryResponse();
-        OBDiscovery discovery = new OBDiscovery();
-        discovery.setFinancialId(discoveryAPIsConfigurationProperties.getFinancialId());
-
-        for (Map.Entry<OBGroupName, Map<String, OBDiscoveryAPI>> byGroup : discoveryAPIsService.getDiscoveryApis().entrySet()) {
-            if (byGroup.getValue().isEmpty()) {
-                continue;
-            }
-            for (OBDiscoveryAPI obDiscoveryAPI : byGroup.getValue().values()) {
-                switch (byGroup.getKey()) {
-                    case AISP:
-                        discovery.addAccountAndTransactionAPI(obDiscoveryAPI);
-                        break;
-                    case PISP:
-                        discovery.addPaymentInitiationAPI(obDiscoveryAPI);
-                        break;
-                    case CBPII:
-                        discovery.addFundsConfirmationAPI(obDiscoveryAPI);
-                        break;
-                    case EVENT:
-                        discovery.addEventNotificationAPI(obDiscoveryAPI);
-                        break;
-                }
-            }
-        }
-        return ResponseEntity.ok(response.data(discovery));
+        final String baseUri = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
+        final DiscoveryDocument discoveryDocument = discoveryAPIsService.getDiscoveryDocument(baseUri);
+        // Spring returns a 304 Not Modified response if the If-None-Match request header matches the ETag
+        return ResponseEntity.ok()
+                .eTag(discoveryDocument.getETag())
+                .body(discoveryDocument.getResponse());
     }
 }
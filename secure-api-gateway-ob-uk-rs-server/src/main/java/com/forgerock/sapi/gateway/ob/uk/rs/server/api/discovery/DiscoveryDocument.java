@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.api.discovery;
+
+import java.util.Objects;
+
+import uk.org.openbanking.datamodel.v3.discovery.OBDiscoveryResponse;
+
+/**
+ * A Discovery response which has been built for a particular baseUri, along with the ETag of the response.
+ * <p>
+ * Instances are shared between requests and must not be modified.
+ */
+public class DiscoveryDocument {
+
+    private final OBDiscoveryResponse response;
+
+    private final String eTag;
+
+    public DiscoveryDocument(OBDiscoveryResponse response, String eTag) {
+        this.response = Objects.requireNonNull(response, "response must be supplied");
+        this.eTag = Objects.requireNonNull(eTag, "eTag must be supplied");
+    }
+
+    public OBDiscoveryResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * @return the ETag value (without quotes), this changes if any of the links in the response change
+     */
+    public String getETag() {
+        return eTag;
+    }
+}
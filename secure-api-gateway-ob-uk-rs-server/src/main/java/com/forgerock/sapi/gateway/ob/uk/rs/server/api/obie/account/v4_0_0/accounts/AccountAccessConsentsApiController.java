@@ -18,6 +18,7 @@ package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.account.v4_0_0.accou
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.account.FRReadConsentConverter;
 import com.forgerock.sapi.gateway.ob.uk.rs.obie.api.account.v4_0_0.accounts.AccountAccessConsentsApi;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.account.factory.v4_0_0.OBReadConsentResponseFactory;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.account.consent.v4_0_0.AccountAccessConsentCache;
 import com.forgerock.sapi.gateway.rcs.consent.store.client.account.AccountAccessConsentStoreClient;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.account.v3_1_10.AccountAccessConsent;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.account.v3_1_10.CreateAccountAccessConsentRequest;
@@ -27,6 +28,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import uk.org.openbanking.datamodel.v3.common.OBExternalRequestStatus1Code;
 import uk.org.openbanking.datamodel.v4.account.OBReadConsent1;
 import uk.org.openbanking.datamodel.v4.account.OBReadConsentResponse1;
 
@@ -39,9 +41,13 @@ public class AccountAccessConsentsApiController implements AccountAccessConsents
 
     private final OBReadConsentResponseFactory obReadConsentResponseFactory;
 
-    public AccountAccessConsentsApiController(@Qualifier("v4.0.0RestAccountAccessConsentStoreClient") AccountAccessConsentStoreClient accountAccessConsentStoreClient, OBReadConsentResponseFactory obReadConsentResponseFactory) {
+    private final AccountAccessConsentCache accountAccessConsentCache;
+
+    public AccountAccessConsentsApiController(@Qualifier("v4.0.0RestAccountAccessConsentStoreClient") AccountAccessConsentStoreClient accountAccessConsentStoreClient, OBReadConsentResponseFactory obReadConsentResponseFactory,
+                                              @Qualifier("v4.0.0AccountAccessConsentCache") AccountAccessConsentCache accountAccessConsentCache) {
         this.accountAccessConsentStoreClient = accountAccessConsentStoreClient;
         this.obReadConsentResponseFactory = obReadConsentResponseFactory;
+        this.accountAccessConsentCache = accountAccessConsentCache;
     }
 
     @Override
@@ -58,6 +64,7 @@ public class AccountAccessConsentsApiController implements AccountAccessConsents
     public ResponseEntity<Void> deleteAccountAccessConsentsConsentId(String consentId, String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, String apiClientId) {
         logger.info("Attempting to deleteAccountAccessConsent - consentId: {}, apiClientId: {}", consentId, apiClientId);
         accountAccessConsentStoreClient.deleteConsent(consentId, apiClientId);
+        accountAccessConsentCache.invalidate(consentId, apiClientId);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
@@ -66,6 +73,10 @@ public class AccountAccessConsentsApiController implements AccountAccessConsents
         logger.info("Attempting to getAccountAccessConsent - consentId: {}, apiClientId: {}", consentId, apiClientId);
 
         final AccountAccessConsent consent = accountAccessConsentStoreClient.getConsent(consentId, apiClientId);
+        if (!OBExternalRequestStatus1Code.AUTHORISED.toString().equals(consent.getStatus())) {
+            // Consent is no longer usable for resource access, drop any cached copy
+            accountAccessConsentCache.invalidate(consentId, apiClientId);
+        }
         return ResponseEntity.ok(obReadConsentResponseFactory.buildConsentResponse(consent, getClass()));
     }
 }
@@ -19,6 +19,7 @@ import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermi
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.account.FRTransactionConverter;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.ob.uk.rs.obie.api.ApiConstants;
 import com.forgerock.sapi.gateway.ob.uk.rs.obie.api.account.v4_0_0.transactions.TransactionsApi;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.v4.common.util.AccountDataInternalIdFilter;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.v4.common.util.PaginationUtil;
@@ -26,18 +27,22 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.service.account.consent.Accoun
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.account.v3_1_10.AccountAccessConsent;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions.FRTransactionRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions.TransactionCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.util.UriComponentsBuilder;
 import uk.org.openbanking.datamodel.v4.account.OBReadDataTransaction6;
 import uk.org.openbanking.datamodel.v4.account.OBReadTransaction6;
 import uk.org.openbanking.datamodel.v4.account.OBTransaction6;
+import uk.org.openbanking.datamodel.v4.common.Meta;
 
 import java.time.LocalDateTime;
 import java.time.Period;
@@ -56,6 +61,13 @@ public class TransactionsApiController implements TransactionsApi {
 
     private final int pageLimitTransactions;
 
+    /**
+     * Whether to run a count query in order to return Meta.TotalPages when using keyset pagination. Enabled by
+     * default, disabling it saves a query per page for accounts with large numbers of transactions but omits
+     * TotalPages from the response.
+     */
+    private final boolean countTotalTransactions;
+
     private final FRTransactionRepository frTransactionRepository;
 
     private final AccountDataInternalIdFilter accountDataInternalIdFilter;
@@ -68,82 +80,150 @@ public class TransactionsApiController implements TransactionsApi {
             FRExternalPermissionsCode.READTRANSACTIONSDEBITS);
 
     public TransactionsApiController(@Value("${rs.page.default.transaction.size:120}") int pageLimitTransactions,
+                                     @Value("${rs.page.transaction.count-total:true}") boolean countTotalTransactions,
                                      FRTransactionRepository FRTransactionRepositoryV4,
                                      AccountDataInternalIdFilter accountDataInternalIdFilter, @Qualifier("v4.0.0DefaultAccountResourceAccessService") AccountResourceAccessService accountResourceAccessService) {
         this.pageLimitTransactions = pageLimitTransactions;
+        this.countTotalTransactions = countTotalTransactions;
         this.frTransactionRepository = FRTransactionRepositoryV4;
         this.accountDataInternalIdFilter = accountDataInternalIdFilter;
         this.accountResourceAccessService = accountResourceAccessService;
     }
 
     @Override
-    public ResponseEntity<OBReadTransaction6> getTransactions(String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, LocalDateTime fromBookingDateTime, LocalDateTime toBookingDateTime, String apiClientId, String consentId, int page) throws OBErrorException {
-        logger.info("getTransactions for consentId: {}, apiClientId: {}, fromBookingDate {} toBookingDate {} pageNumber {} ",
-                consentId, apiClientId, fromBookingDateTime, toBookingDateTime, page);
+    public ResponseEntity<OBReadTransaction6> getTransactions(String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, LocalDateTime fromBookingDateTime, LocalDateTime toBookingDateTime, String apiClientId, String consentId, int page, String cursor) throws OBErrorException {
+        logger.info("getTransactions for consentId: {}, apiClientId: {}, fromBookingDate {} toBookingDate {} pageNumber {} cursor {}",
+                consentId, apiClientId, fromBookingDateTime, toBookingDateTime, page, cursor);
+
+        final AccountAccessConsent consent = accountResourceAccessService.getConsentForResourceAccess(consentId, apiClientId);
+        checkPermissions(consent);
+
+        if (isOffsetPaginationRequest(page, cursor)) {
+            return getTransactionsPage(consent.getAuthorisedAccountIds(), fromBookingDateTime, toBookingDateTime,
+                    consent, page, buildGetTransactionsUri());
+        }
+        return getTransactionsAfterCursor(consent.getAuthorisedAccountIds(), fromBookingDateTime, toBookingDateTime,
+                consent, cursor, buildGetTransactionsUri());
+    }
+
+    @Override
+    public ResponseEntity<OBReadTransaction6> getAccountsAccountIdTransactions(String accountId, String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, LocalDateTime fromBookingDateTime, LocalDateTime toBookingDateTime, String apiClientId, String consentId, int page, String cursor) throws OBErrorException {
+        logger.info("getAccountTransactions for accountId: {}, consentId: {}, apiClientId: {}", accountId, consentId, apiClientId);
+        logger.debug("transactionStore request transactionFrom {} transactionTo {} pageNumber {} cursor {}",
+                fromBookingDateTime, toBookingDateTime, page, cursor);
 
+        final AccountAccessConsent consent = accountResourceAccessService.getConsentForResourceAccess(consentId, apiClientId, accountId);
+        checkPermissions(consent);
+
+        if (isOffsetPaginationRequest(page, cursor)) {
+            return getTransactionsPage(List.of(accountId), fromBookingDateTime, toBookingDateTime, consent, page,
+                    buildGetAccountTransactionUri(accountId));
+        }
+        return getTransactionsAfterCursor(List.of(accountId), fromBookingDateTime, toBookingDateTime, consent, cursor,
+                buildGetAccountTransactionUri(accountId));
+    }
+
+    /**
+     * Requests for a page number other than the first page use offset pagination, this is supported for clients
+     * following links generated before keyset pagination was introduced.
+     */
+    private static boolean isOffsetPaginationRequest(int page, String cursor) {
+        return page > 0 && cursor == null;
+    }
+
+    private ResponseEntity<OBReadTransaction6> getTransactionsPage(List<String> accountIds, LocalDateTime fromBookingDateTime,
+                                                                   LocalDateTime toBookingDateTime, AccountAccessConsent consent,
+                                                                   int page, String resourceUri) {
         if (toBookingDateTime == null) {
-            toBookingDateTime = LocalDateTime.now();
+            toBookingDateTime = defaultToBookingDateTime();
         }
         if (fromBookingDateTime == null) {
-            fromBookingDateTime = toBookingDateTime.minus(Period.ofYears(100));
+            fromBookingDateTime = defaultFromBookingDateTime(toBookingDateTime);
         }
 
-        final AccountAccessConsent consent = accountResourceAccessService.getConsentForResourceAccess(consentId, apiClientId);
-        checkPermissions(consent);
-
-        Page<FRTransaction> body = frTransactionRepository.byAccountIdInAndBookingDateTimeBetweenWithPermissions(consent.getAuthorisedAccountIds(),
-                new Date(fromBookingDateTime.toInstant(ZoneOffset.UTC).toEpochMilli()), new Date(toBookingDateTime.toInstant(ZoneOffset.UTC).toEpochMilli()), consent.getRequestObj().getData().getPermissions(),
+        Page<FRTransaction> response = frTransactionRepository.byAccountIdInAndBookingDateTimeBetweenWithPermissions(accountIds,
+                toDate(fromBookingDateTime), toDate(toBookingDateTime), consent.getRequestObj().getData().getPermissions(),
                 PageRequest.of(page, pageLimitTransactions, Sort.Direction.ASC, "bookingDateTime"));
 
-        List<OBTransaction6> transactions = body.getContent()
-                .stream()
-                .map(FRTransaction::getTransaction)
-                .map(FRTransactionConverter::toOBTransaction6)
-                .map(accountDataInternalIdFilter::apply)
-                .collect(Collectors.toList());
-
         //Package the answer
-        int totalPages = body.getTotalPages();
+        int totalPages = response.getTotalPages();
 
-        return  ResponseEntity.ok(new OBReadTransaction6().data(new OBReadDataTransaction6().transaction(transactions))
-                .links(PaginationUtil.generateLinks(buildGetTransactionsUri(), page, totalPages))
+        return ResponseEntity.ok(new OBReadTransaction6()
+                .data(new OBReadDataTransaction6().transaction(toOBTransactions(response)))
+                .links(PaginationUtil.generateLinks(resourceUri, page, totalPages))
                 .meta(PaginationUtil.generateMetaData(totalPages)));
     }
 
-    @Override
-    public ResponseEntity<OBReadTransaction6> getAccountsAccountIdTransactions(String accountId, String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, LocalDateTime fromBookingDateTime, LocalDateTime toBookingDateTime, String apiClientId, String consentId, int page) throws OBErrorException {
-        logger.info("getAccountTransactions for accountId: {}, consentId: {}, apiClientId: {}", accountId, consentId, apiClientId);
-        logger.debug("transactionStore request transactionFrom {} transactionTo {} ",
-                fromBookingDateTime, toBookingDateTime);
+    private ResponseEntity<OBReadTransaction6> getTransactionsAfterCursor(List<String> accountIds, LocalDateTime fromBookingDateTime,
+                                                                          LocalDateTime toBookingDateTime, AccountAccessConsent consent,
+                                                                          String cursor, String resourceUri) throws OBErrorException {
+        final TransactionCursor after = decodeCursor(cursor);
+        // The defaults are applied to the query only, the links carry the dates that the client supplied
+        final LocalDateTime queryToBookingDateTime = toBookingDateTime != null ? toBookingDateTime : defaultToBookingDateTime();
+        final LocalDateTime queryFromBookingDateTime = fromBookingDateTime != null ? fromBookingDateTime
+                : defaultFromBookingDateTime(queryToBookingDateTime);
+        final Date fromDate = toDate(queryFromBookingDateTime);
+        final Date toDate = toDate(queryToBookingDateTime);
+        final List<FRExternalPermissionsCode> permissions = consent.getRequestObj().getData().getPermissions();
 
-        if (toBookingDateTime == null) {
-            toBookingDateTime = LocalDateTime.now();
+        final Slice<FRTransaction> response = frTransactionRepository.byAccountIdInAndBookingDateTimeBetweenWithPermissions(
+                accountIds, fromDate, toDate, permissions, after, pageLimitTransactions);
+
+        final String nextCursor = response.hasNext() ? TransactionCursor.after(response.getContent().get(response.getNumberOfElements() - 1)).encode() : null;
+
+        final UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(resourceUri);
+        if (fromBookingDateTime != null) {
+            uriBuilder.queryParam(ApiConstants.ParametersFieldName.FROM_BOOKING_DATE_TIME, fromBookingDateTime);
         }
-        if (fromBookingDateTime == null) {
-            fromBookingDateTime = toBookingDateTime.minusYears(100);
+        if (toBookingDateTime != null) {
+            uriBuilder.queryParam(ApiConstants.ParametersFieldName.TO_BOOKING_DATE_TIME, toBookingDateTime);
         }
 
-        final AccountAccessConsent consent = accountResourceAccessService.getConsentForResourceAccess(consentId, apiClientId, accountId);
-        checkPermissions(consent);
+        final OBReadTransaction6 readTransaction = new OBReadTransaction6()
+                .data(new OBReadDataTransaction6().transaction(toOBTransactions(response)))
+                .links(PaginationUtil.generateKeysetLinks(uriBuilder, cursor, nextCursor))
+                .meta(new Meta());
+        if (countTotalTransactions) {
+            final long totalTransactions = frTransactionRepository.countByAccountIdInAndBookingDateTimeBetweenWithPermissions(
+                    accountIds, fromDate, toDate, permissions);
+            readTransaction.getMeta().setTotalPages((int) Math.ceil((double) totalTransactions / pageLimitTransactions));
+        }
+        return ResponseEntity.ok(readTransaction);
+    }
 
-        Page<FRTransaction> response = frTransactionRepository.byAccountIdAndBookingDateTimeBetweenWithPermissions(accountId,
-                new Date(fromBookingDateTime.toInstant(ZoneOffset.UTC).toEpochMilli()), new Date(toBookingDateTime.toInstant(ZoneOffset.UTC).toEpochMilli()), consent.getRequestObj().getData().getPermissions(),
-                PageRequest.of(page, pageLimitTransactions, Sort.Direction.ASC, "bookingDateTime"));
+    /**
+     * Transactions booked in the future are not returned unless the client asks for them with toBookingDateTime
+     */
+    private static LocalDateTime defaultToBookingDateTime() {
+        return LocalDateTime.now();
+    }
+
+    private static LocalDateTime defaultFromBookingDateTime(LocalDateTime toBookingDateTime) {
+        return toBookingDateTime.minus(Period.ofYears(100));
+    }
+
+    private static TransactionCursor decodeCursor(String cursor) throws OBErrorException {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return TransactionCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FIELD_INVALID, "Invalid cursor: " + cursor);
+        }
+    }
 
-        List<OBTransaction6> transactions = response.getContent()
+    private List<OBTransaction6> toOBTransactions(Slice<FRTransaction> transactions) {
+        return transactions.getContent()
                 .stream()
                 .map(FRTransaction::getTransaction)
                 .map(FRTransactionConverter::toOBTransaction6)
                 .map(accountDataInternalIdFilter::apply)
                 .collect(Collectors.toList());
+    }
 
-        //Package the answer
-        int totalPages = response.getTotalPages();
-
-        return ResponseEntity.ok(new OBReadTransaction6()
-                .data(new OBReadDataTransaction6().transaction(transactions))
-                .links(PaginationUtil.generateLinks(buildGetAccountTransactionUri(accountId), page, totalPages))
-                .meta(PaginationUtil.generateMetaData(totalPages)));
+    private static Date toDate(LocalDateTime dateTime) {
+        return new Date(dateTime.toInstant(ZoneOffset.UTC).toEpochMilli());
     }
 
 //    @Override
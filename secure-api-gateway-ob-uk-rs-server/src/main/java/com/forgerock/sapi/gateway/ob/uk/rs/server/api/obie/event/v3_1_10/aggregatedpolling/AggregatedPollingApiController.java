@@ -28,6 +28,7 @@ import com.forgerock.sapi.gateway.ob.uk.common.datamodel.event.FREventPolling;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorResponseException;
 import com.forgerock.sapi.gateway.ob.uk.rs.obie.api.event.v3_1_10.aggregatedpolling.AggregatedPollingApi;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.event.EventPollingService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.event.PolledEvents;
 
 import lombok.extern.slf4j.Slf4j;
 import uk.org.openbanking.datamodel.v3.event.OBEventPolling1;
@@ -54,15 +55,12 @@ public class AggregatedPollingApiController implements AggregatedPollingApi {
         log.debug("apiClient '{}' sent aggregated polling request: {}", apiClientId, obEventPolling);
         eventPollingService.acknowledgeEvents(frEventPolling, apiClientId);
         eventPollingService.recordTppEventErrors(frEventPolling, apiClientId);
-        Map<String, String> allEventNotifications = eventPollingService.fetchNewEvents(frEventPolling, apiClientId);
-
-        // Apply limit on returned events
-        Map<String, String> truncatedEventNotifications = eventPollingService.truncateEvents(obEventPolling.getMaxEvents(), allEventNotifications, apiClientId);
-        boolean moreAvailable = truncatedEventNotifications.size() < allEventNotifications.size();
+        PolledEvents polledEvents = eventPollingService.fetchNewEvents(frEventPolling, apiClientId);
+        Map<String, String> eventNotifications = polledEvents.getEvents();
 
         ResponseEntity<OBEventPollingResponse1> response = ResponseEntity.ok(new OBEventPollingResponse1()
-                .sets(truncatedEventNotifications)
-                .moreAvailable((truncatedEventNotifications.isEmpty()) ? null : moreAvailable));
+                .sets(eventNotifications)
+                .moreAvailable((eventNotifications.isEmpty()) ? null : polledEvents.isMoreAvailable()));
         log.debug("apiClient '{}' aggregated polling response: {}", apiClientId, response.getBody());
         return response;
     }
@@ -0,0 +1,231 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.springframework.util.StringUtils;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
+
+/**
+ * Validates the payments parsed from a payment file in fixed size chunks, the chunks are validated concurrently by the
+ * supplied executor while the rest of the file is being parsed.
+ *
+ * Each chunk totals the number of transactions and the controlSum of its payments, collecting an error for any payment
+ * whose InstructedAmount.Amount is missing or is not a number. The other fields of the payments are validated by the
+ * processor of the file type, as they differ between file types. The chunk results are merged in file order, so the
+ * totals and the order of the errors do not depend on the order in which the chunks complete.
+ * <p>
+ * A chunk which the executor rejects, because it is saturated or has been shut down, is validated by the thread
+ * supplying the payments, which limits the number of payments buffered waiting to be validated.
+ */
+public class ChunkedPaymentFileValidator {
+
+    private final ExecutorService executorService;
+    private final int chunkSize;
+
+    public ChunkedPaymentFileValidator(ExecutorService executorService, int chunkSize) {
+        this.executorService = Objects.requireNonNull(executorService, "executorService must be supplied");
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be 1 or more");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Starts the validation of a file whose payments are supplied one at a time, in file order, as they are parsed.
+     *
+     * @return Validation which accepts the payments of the file
+     */
+    public Validation newValidation() {
+        return new Validation();
+    }
+
+    /**
+     * Validates the payments of a file which has already been parsed.
+     *
+     * @param payments List of payments in file order
+     * @return Result containing the merged totals and errors of all the chunks
+     */
+    public Result validate(List<FRFilePayment> payments) {
+        final Validation validation = newValidation();
+        payments.forEach(validation);
+        return validation.finish();
+    }
+
+    /**
+     * Shuts down the executor, invoked by Spring when the application context is closed. Chunks which have already
+     * been submitted are still validated, so that files being processed are not left waiting for their results; any
+     * chunks submitted afterwards are validated by the thread supplying the payments.
+     */
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    private static Result validateChunk(int firstPaymentIndex, List<FRFilePayment> payments) {
+        BigDecimal controlSum = BigDecimal.ZERO;
+        final List<TransactionError> errors = new ArrayList<>();
+        for (int i = 0; i < payments.size(); i++) {
+            final int paymentIndex = firstPaymentIndex + i;
+            final FRFilePayment payment = payments.get(i);
+            final FRAmount instructedAmount = payment == null ? null : payment.getInstructedAmount();
+            if (instructedAmount == null || !StringUtils.hasText(instructedAmount.getAmount())) {
+                errors.add(new TransactionError(paymentIndex, "InstructedAmount.Amount is required"));
+                continue;
+            }
+            try {
+                controlSum = controlSum.add(new BigDecimal(instructedAmount.getAmount()));
+            } catch (NumberFormatException e) {
+                errors.add(new TransactionError(paymentIndex, "InstructedAmount.Amount is not a valid amount"));
+            }
+        }
+        return new Result(payments.size(), controlSum, errors);
+    }
+
+    /**
+     * Validation of a single file, payments are buffered until a chunk is full and then the chunk is submitted to the
+     * executor. Instances are not thread safe, the payments must be supplied by the thread parsing the file.
+     */
+    public class Validation implements Consumer<FRFilePayment> {
+
+        private final List<CompletableFuture<Result>> chunkResults = new ArrayList<>();
+        private List<FRFilePayment> chunk = new ArrayList<>();
+        private int firstPaymentIndexInChunk;
+
+        private Validation() {
+        }
+
+        @Override
+        public void accept(FRFilePayment payment) {
+            chunk.add(payment);
+            if (chunk.size() == chunkSize) {
+                submitChunk();
+            }
+        }
+
+        /**
+         * Waits for all the chunks to be validated and merges their results in file order.
+         *
+         * @return Result containing the merged totals and errors of all the chunks
+         */
+        public Result finish() {
+            if (!chunk.isEmpty()) {
+                submitChunk();
+            }
+            int numberOfTransactions = 0;
+            BigDecimal controlSum = BigDecimal.ZERO;
+            final List<TransactionError> errors = new ArrayList<>();
+            for (final CompletableFuture<Result> chunkResult : chunkResults) {
+                final Result result = chunkResult.join();
+                numberOfTransactions += result.getNumberOfTransactions();
+                controlSum = controlSum.add(result.getControlSum());
+                errors.addAll(result.getErrors());
+            }
+            return new Result(numberOfTransactions, controlSum, errors);
+        }
+
+        private void submitChunk() {
+            final List<FRFilePayment> payments = chunk;
+            final int firstPaymentIndex = firstPaymentIndexInChunk;
+            CompletableFuture<Result> chunkResult;
+            try {
+                chunkResult = CompletableFuture.supplyAsync(() -> validateChunk(firstPaymentIndex, payments), executorService);
+            } catch (RejectedExecutionException e) {
+                // The executor is saturated or has been shut down, validate the chunk on the thread parsing the file
+                chunkResult = CompletableFuture.completedFuture(validateChunk(firstPaymentIndex, payments));
+            }
+            chunkResults.add(chunkResult);
+            firstPaymentIndexInChunk += payments.size();
+            chunk = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Totals and errors of the payments validated
+     */
+    public static class Result {
+        private final int numberOfTransactions;
+        private final BigDecimal controlSum;
+        private final List<TransactionError> errors;
+
+        public Result(int numberOfTransactions, BigDecimal controlSum, List<TransactionError> errors) {
+            this.numberOfTransactions = numberOfTransactions;
+            this.controlSum = Objects.requireNonNull(controlSum);
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * @return Number of transactions validated, including any which are invalid
+         */
+        public int getNumberOfTransactions() {
+            return numberOfTransactions;
+        }
+
+        /**
+         * @return The control sum (sum of the amounts of the valid transactions)
+         */
+        public BigDecimal getControlSum() {
+            return controlSum;
+        }
+
+        /**
+         * @return List of errors of the invalid transactions, in file order
+         */
+        public List<TransactionError> getErrors() {
+            return errors;
+        }
+
+        public boolean hasErrors() {
+            return !errors.isEmpty();
+        }
+    }
+
+    /**
+     * Error describing why the transaction at paymentIndex (zero based, in file order) is invalid
+     */
+    public static class TransactionError {
+        private final int paymentIndex;
+        private final String reason;
+
+        public TransactionError(int paymentIndex, String reason) {
+            this.paymentIndex = paymentIndex;
+            this.reason = Objects.requireNonNull(reason);
+        }
+
+        public int getPaymentIndex() {
+            return paymentIndex;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "Data.DomesticPayments[" + paymentIndex + "] " + reason;
+        }
+    }
+}
@@ -15,18 +15,22 @@
  */
 package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file;
 
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.PaymentFileProcessor;
 
@@ -38,6 +42,10 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.
  * objects. The PaymentFileProcessors are then delegated to for the real processing work.
  *
  * An exception is raised when attempting to process an unsupported FileType.
+ *
+ * When a {@link ChunkedPaymentFileValidator} is supplied, the payments produced by the processors are validated in
+ * chunks on its executor while the file is being parsed. The transaction count and controlSum of streamed files are
+ * then taken from the merged chunk results.
  */
 public class DefaultPaymentFileProcessorService implements PaymentFileProcessorService {
 
@@ -45,8 +53,19 @@ public class DefaultPaymentFileProcessorService implements PaymentFileProcessorS
 
     private final Map<String, PaymentFileType> fileTypeRegistry;
     private final Map<PaymentFileType, PaymentFileProcessor> fileTypeProcessorRegistry;
+    private final ChunkedPaymentFileValidator chunkedPaymentFileValidator;
 
     public DefaultPaymentFileProcessorService(List<PaymentFileProcessor> paymentFileProcessors) {
+        this(paymentFileProcessors, null);
+    }
+
+    /**
+     * @param paymentFileProcessors       processors of the supported FileTypes
+     * @param chunkedPaymentFileValidator optional validator of the payments in the files, may be null in which case
+     *                                    the payments are only validated by the processors
+     */
+    public DefaultPaymentFileProcessorService(List<PaymentFileProcessor> paymentFileProcessors,
+                                              ChunkedPaymentFileValidator chunkedPaymentFileValidator) {
         if (paymentFileProcessors == null || paymentFileProcessors.isEmpty()) {
             throw new IllegalArgumentException("1 or more paymentFileProcessors must be supplied");
         }
@@ -63,6 +82,7 @@ public class DefaultPaymentFileProcessorService implements PaymentFileProcessorS
 
         this.fileTypeRegistry = Collections.unmodifiableMap(fileTypeRegistry);
         this.fileTypeProcessorRegistry = Collections.unmodifiableMap(fileTypeProcessorRegistry);
+        this.chunkedPaymentFileValidator = chunkedPaymentFileValidator;
         logger.info("Supported File Payment Types: {}", fileTypeProcessorRegistry);
     }
 
@@ -82,12 +102,13 @@ public class DefaultPaymentFileProcessorService implements PaymentFileProcessorS
 
     @Override
     public PaymentFile processFile(String fileType, String fileContents) throws OBErrorException {
-        final PaymentFileProcessor paymentFileProcessor = fileTypeProcessorRegistry.get(findPaymentFileType(fileType));
-        if (paymentFileProcessor == null) {
-            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_TYPE_NOT_SUPPORTED, fileType);
-        }
+        final PaymentFileProcessor paymentFileProcessor = getPaymentFileProcessor(fileType);
         try {
-            return paymentFileProcessor.processFile(fileContents);
+            final PaymentFile paymentFile = paymentFileProcessor.processFile(fileContents);
+            if (chunkedPaymentFileValidator != null) {
+                checkForInvalidPayments(fileType, chunkedPaymentFileValidator.validate(paymentFile.getPayments()));
+            }
+            return paymentFile;
         } catch (OBErrorException ex) {
             throw ex;
         } catch (Throwable t) {
@@ -97,4 +118,48 @@ public class DefaultPaymentFileProcessorService implements PaymentFileProcessorS
             throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, "Failed to parse", t);
         }
     }
+
+    @Override
+    public PaymentFileSummary processFile(String fileType, InputStream fileContents, Consumer<FRFilePayment> paymentConsumer) throws OBErrorException {
+        final PaymentFileProcessor paymentFileProcessor = getPaymentFileProcessor(fileType);
+        try {
+            if (chunkedPaymentFileValidator == null) {
+                return paymentFileProcessor.processFile(fileContents, paymentConsumer);
+            }
+            final ChunkedPaymentFileValidator.Validation validation = chunkedPaymentFileValidator.newValidation();
+            final PaymentFileSummary paymentFileSummary = paymentFileProcessor.processFile(fileContents,
+                    validation.andThen(paymentConsumer));
+            final ChunkedPaymentFileValidator.Result validationResult = validation.finish();
+            checkForInvalidPayments(fileType, validationResult);
+            return new PaymentFileSummary(paymentFileSummary.getFileType(), validationResult.getNumberOfTransactions(),
+                    validationResult.getControlSum());
+        } catch (OBErrorException ex) {
+            throw ex;
+        } catch (Throwable t) {
+            // Guard against unexpected exceptions being raised by the processor impl
+            logger.error("Unexpected exception raised stream processing payment file of type: {}, processorClass: {}",
+                    fileType, paymentFileProcessor, t);
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, "Failed to parse", t);
+        }
+    }
+
+    /**
+     * Rejects the file if any of its payments are invalid, the error of the first invalid payment in the file is
+     * returned, in line with the processors which stop at the first invalid payment.
+     */
+    private void checkForInvalidPayments(String fileType, ChunkedPaymentFileValidator.Result validationResult) throws OBErrorException {
+        if (validationResult.hasErrors()) {
+            final List<ChunkedPaymentFileValidator.TransactionError> errors = validationResult.getErrors();
+            logger.warn("Payment file of type: {} contains {} invalid payments, first error: {}", fileType, errors.size(), errors.get(0));
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, errors.get(0).toString());
+        }
+    }
+
+    private PaymentFileProcessor getPaymentFileProcessor(String fileType) throws OBErrorException {
+        final PaymentFileProcessor paymentFileProcessor = fileTypeProcessorRegistry.get(findPaymentFileType(fileType));
+        if (paymentFileProcessor == null) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_TYPE_NOT_SUPPORTED, fileType);
+        }
+        return paymentFileProcessor;
+    }
 }
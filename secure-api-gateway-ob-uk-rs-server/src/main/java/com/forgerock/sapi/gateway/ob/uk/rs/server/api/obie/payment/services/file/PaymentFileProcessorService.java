@@ -15,10 +15,14 @@
  */
 package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file;
 
+import java.io.InputStream;
 import java.util.Set;
+import java.util.function.Consumer;
 
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileType;
 
 /**
@@ -38,6 +42,18 @@ public interface PaymentFileProcessorService {
      */
     PaymentFile processFile(String fileType, String fileContents) throws OBErrorException;
 
+    /**
+     * Processes uploaded fileContents in streaming mode, each transaction described in the file is passed to the
+     * paymentConsumer as it is parsed.
+     *
+     * @param fileType        String the OBIE schema fileType format that the fileContent is expected to be in
+     * @param fileContents    InputStream of the uploaded file content
+     * @param paymentConsumer Consumer which receives each payment in file order
+     * @return PaymentFileSummary containing the file metadata
+     * @throws OBErrorException if an error parsing the file occurs
+     */
+    PaymentFileSummary processFile(String fileType, InputStream fileContents, Consumer<FRFilePayment> paymentConsumer) throws OBErrorException;
+
     /**
      * @return Set<String> all OBIE schema fileTypes supported by this service
      */
@@ -18,6 +18,7 @@ package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.val
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.validation.v4.FilePaymentFileContentValidator.FilePaymentFileContentValidationContext;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.ValidationResult;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.BaseOBValidator;
 import uk.org.openbanking.datamodel.v3.error.OBError1;
@@ -37,21 +38,26 @@ public class FilePaymentFileContentValidator extends BaseOBValidator<FilePayment
 
     public static class FilePaymentFileContentValidationContext {
         private final String fileHash;
-        private final PaymentFile paymentFile;
+        private final PaymentFileSummary paymentFileSummary;
         private final OBWriteFileConsent3 obFileConsent;
 
-        public FilePaymentFileContentValidationContext(String fileHash, PaymentFile paymentFile, OBWriteFileConsent3 obFileConsent) {
+        public FilePaymentFileContentValidationContext(String fileHash, PaymentFileSummary paymentFileSummary, OBWriteFileConsent3 obFileConsent) {
             this.fileHash = fileHash;
-            this.paymentFile = paymentFile;
+            this.paymentFileSummary = paymentFileSummary;
             this.obFileConsent = obFileConsent;
         }
 
+        public FilePaymentFileContentValidationContext(String fileHash, PaymentFile paymentFile, OBWriteFileConsent3 obFileConsent) {
+            this(fileHash, new PaymentFileSummary(paymentFile.getFileType(), paymentFile.getNumberOfTransactions(),
+                    paymentFile.getControlSum()), obFileConsent);
+        }
+
         public String getFileHash() {
             return fileHash;
         }
 
-        public PaymentFile getPaymentFile() {
-            return paymentFile;
+        public PaymentFileSummary getPaymentFileSummary() {
+            return paymentFileSummary;
         }
 
         public OBWriteFileConsent3 getObFileConsent() {
@@ -73,7 +79,7 @@ public class FilePaymentFileContentValidator extends BaseOBValidator<FilePayment
             return;
         }
 
-        final PaymentFile paymentFile = validationContext.getPaymentFile();
+        final PaymentFileSummary paymentFile = validationContext.getPaymentFileSummary();
 
         final int numTransactionsInConsent = Integer.parseInt(obFileConsent.getData().getInitiation().getNumberOfTransactions());
         final int numTransactionsInFile = paymentFile.getNumberOfTransactions();
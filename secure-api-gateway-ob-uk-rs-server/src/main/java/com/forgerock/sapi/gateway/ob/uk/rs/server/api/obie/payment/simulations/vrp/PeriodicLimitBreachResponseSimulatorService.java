@@ -32,7 +32,8 @@ import java.util.Set;
  * Simulates VRP payment breaches for PeriodicLimits specified in the consent.
  *
  * This allows TPPs to test their error handling for this condition, the simulator can be triggered by specifying
- * a custom header on the payment request.
+ * a custom header on the payment request. Without the header the limits are enforced by
+ * {@link com.forgerock.sapi.gateway.ob.uk.rs.server.service.vrp.PeriodicLimitService}.
  */
 @Service
 public class PeriodicLimitBreachResponseSimulatorService {
@@ -56,6 +56,7 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.VersionPathExtract
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.link.LinksHelper;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.IdempotentPaymentService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.SinglePaymentForConsentIdempotentPaymentService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement.PaymentSettlementService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.PaymentSubmissionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.ResourceVersionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
@@ -87,6 +88,7 @@ public class DomesticPaymentsApiController implements DomesticPaymentsApi {
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final DomesticPaymentSubmissionRepository paymentSubmissionRepository;
     private final PaymentSubmissionValidator paymentSubmissionValidator;
+    private final PaymentSettlementService paymentSettlementService;
     private final DomesticPaymentConsentStoreClient consentStoreClient;
     private final OBValidationService<OBWriteDomestic2ValidationContext> paymentValidator;
     private final RefundAccountService refundAccountService;
@@ -95,11 +97,13 @@ public class DomesticPaymentsApiController implements DomesticPaymentsApi {
     public DomesticPaymentsApiController(
             DomesticPaymentSubmissionRepository paymentSubmissionRepository,
             PaymentSubmissionValidator paymentSubmissionValidator,
+            PaymentSettlementService paymentSettlementService,
             OBValidationService<OBWriteDomestic2ValidationContext> paymentValidator,
             @Qualifier("v3.1.10RestDomesticPaymentConsentStoreClient") DomesticPaymentConsentStoreClient consentStoreClient,
             RefundAccountService refundAccountService) {
         this.paymentSubmissionRepository = paymentSubmissionRepository;
         this.paymentSubmissionValidator = paymentSubmissionValidator;
+        this.paymentSettlementService = paymentSettlementService;
         this.paymentValidator = paymentValidator;
         this.consentStoreClient = consentStoreClient;
         this.refundAccountService = refundAccountService;
@@ -159,6 +163,8 @@ public class DomesticPaymentsApiController implements DomesticPaymentsApi {
 
         frPaymentSubmission = idempotentPaymentService.savePayment(frPaymentSubmission);
 
+        paymentSettlementService.submitForSettlement(frPaymentSubmission, consent.getAuthorisedDebtorAccountId());
+
         final ConsumePaymentConsentRequest consumePaymentRequest = new ConsumePaymentConsentRequest();
         consumePaymentRequest.setConsentId(consentId);
         consumePaymentRequest.setApiClientId(apiClientId);
@@ -56,6 +56,7 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.VersionPathExtract
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.link.LinksHelper;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.IdempotentPaymentService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.SinglePaymentForConsentIdempotentPaymentService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement.PaymentSettlementService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.PaymentSubmissionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.ResourceVersionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
@@ -86,6 +87,7 @@ public class DomesticScheduledPaymentsApiController implements DomesticScheduled
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final DomesticScheduledPaymentSubmissionRepository scheduledPaymentSubmissionRepository;
     private final PaymentSubmissionValidator paymentSubmissionValidator;
+    private final PaymentSettlementService paymentSettlementService;
     private final DomesticScheduledPaymentConsentStoreClient consentStoreClient;
     private final OBValidationService<OBWriteDomesticScheduled2ValidationContext> paymentValidator;
     private final RefundAccountService refundAccountService;
@@ -94,12 +96,14 @@ public class DomesticScheduledPaymentsApiController implements DomesticScheduled
     public DomesticScheduledPaymentsApiController(
             DomesticScheduledPaymentSubmissionRepository paymentSubmissionRepository,
             PaymentSubmissionValidator paymentSubmissionValidator,
+            PaymentSettlementService paymentSettlementService,
             @Qualifier("v3.1.10RestDomesticScheduledPaymentConsentStoreClient") DomesticScheduledPaymentConsentStoreClient consentStoreClient,
             RefundAccountService refundAccountService,
             OBValidationService<OBWriteDomesticScheduled2ValidationContext> paymentValidator
     ) {
         this.scheduledPaymentSubmissionRepository = paymentSubmissionRepository;
         this.paymentSubmissionValidator = paymentSubmissionValidator;
+        this.paymentSettlementService = paymentSettlementService;
         this.consentStoreClient = consentStoreClient;
         this.refundAccountService = refundAccountService;
         this.paymentValidator = paymentValidator;
@@ -158,6 +162,7 @@ public class DomesticScheduledPaymentsApiController implements DomesticScheduled
 
         // Save the scheduled payment
         frPaymentSubmission = idempotentPaymentService.savePayment(frPaymentSubmission);
+        paymentSettlementService.submitForSettlement(frPaymentSubmission, consent.getAuthorisedDebtorAccountId());
 
         final ConsumePaymentConsentRequest consumePaymentRequest = new ConsumePaymentConsentRequest();
         consumePaymentRequest.setConsentId(consentId);
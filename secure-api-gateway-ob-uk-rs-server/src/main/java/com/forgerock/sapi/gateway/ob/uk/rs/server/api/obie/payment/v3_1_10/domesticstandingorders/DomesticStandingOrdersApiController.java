@@ -56,6 +56,7 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.VersionPathExtract
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.link.LinksHelper;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.IdempotentPaymentService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.SinglePaymentForConsentIdempotentPaymentService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.standingorder.StandingOrderExecutionService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.PaymentSubmissionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.ResourceVersionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
@@ -87,6 +88,7 @@ public class DomesticStandingOrdersApiController implements DomesticStandingOrde
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final DomesticStandingOrderPaymentSubmissionRepository standingOrderPaymentSubmissionRepository;
     private final PaymentSubmissionValidator paymentSubmissionValidator;
+    private final StandingOrderExecutionService standingOrderExecutionService;
     private final DomesticStandingOrderConsentStoreClient consentStoreClient;
     private final OBValidationService<OBWriteDomesticStandingOrder3ValidationContext> paymentValidator;
     private final RefundAccountService refundAccountService;
@@ -95,11 +97,13 @@ public class DomesticStandingOrdersApiController implements DomesticStandingOrde
     public DomesticStandingOrdersApiController(
             DomesticStandingOrderPaymentSubmissionRepository standingOrderPaymentSubmissionRepository,
             PaymentSubmissionValidator paymentSubmissionValidator,
+            StandingOrderExecutionService standingOrderExecutionService,
             @Qualifier("v3.1.10RestDomesticStandingOrderConsentStoreClient") DomesticStandingOrderConsentStoreClient consentStoreClient,
             OBValidationService<OBWriteDomesticStandingOrder3ValidationContext> paymentValidator,
             RefundAccountService refundAccountService) {
         this.standingOrderPaymentSubmissionRepository = standingOrderPaymentSubmissionRepository;
         this.paymentSubmissionValidator = paymentSubmissionValidator;
+        this.standingOrderExecutionService = standingOrderExecutionService;
         this.consentStoreClient = consentStoreClient;
         this.paymentValidator = paymentValidator;
         this.refundAccountService = refundAccountService;
@@ -159,6 +163,7 @@ public class DomesticStandingOrdersApiController implements DomesticStandingOrde
 
         // Save the standing order
         frPaymentSubmission = idempotentPaymentService.savePayment(frPaymentSubmission);
+        standingOrderExecutionService.schedule(frPaymentSubmission, consent.getAuthorisedDebtorAccountId());
 
         final ConsumePaymentConsentRequest consumePaymentRequest = new ConsumePaymentConsentRequest();
         consumePaymentRequest.setConsentId(consentId);
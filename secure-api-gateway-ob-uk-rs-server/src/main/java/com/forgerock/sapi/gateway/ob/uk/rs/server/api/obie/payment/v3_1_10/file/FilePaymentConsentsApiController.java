@@ -43,6 +43,8 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.vali
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.HashUtils;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.report.FilePaymentResultRecorder;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.report.PaymentReportFile1Service;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.CreateFilePaymentConsentRequest;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FilePaymentConsent;
@@ -66,16 +68,20 @@ public class FilePaymentConsentsApiController implements FilePaymentConsentsApi
 
     private final OBWriteFileConsentResponse4Factory consentResponseFactory;
 
+    private final PaymentReportFile1Service paymentReportFileService;
+
     public FilePaymentConsentsApiController(@Qualifier("v3.1.10RestFilePaymentConsentStoreClient") FilePaymentConsentStoreClient consentStoreApiClient,
                                             OBValidationService<OBWriteFileConsent3> consentValidator,
                                             PaymentFileProcessorService paymentFileProcessorService,
                                             OBValidationService<FilePaymentFileContentValidationContext> fileContentValidator,
-                                            OBWriteFileConsentResponse4Factory consentResponseFactory) {
+                                            OBWriteFileConsentResponse4Factory consentResponseFactory,
+                                            PaymentReportFile1Service paymentReportFileService) {
         this.consentStoreApiClient = consentStoreApiClient;
         this.consentValidator = consentValidator;
         this.paymentFileProcessorService = paymentFileProcessorService;
         this.fileContentValidator = fileContentValidator;
         this.consentResponseFactory = consentResponseFactory;
+        this.paymentReportFileService = paymentReportFileService;
     }
 
     @Override
@@ -142,18 +148,34 @@ public class FilePaymentConsentsApiController implements FilePaymentConsentsApi
             throw new OBErrorException(OBRIErrorType.REQUEST_MEDIA_TYPE_NOT_SUPPORTED, contentType, paymentFileType.getContentType());
         }
 
+        // Record the outcome of each payment for the report of the file payment, which has the id of its consent. A
+        // file uploaded again once a file has been accepted is rejected here, before the file is processed.
+        final FilePaymentResultRecorder resultRecorder = paymentReportFileService.startRecording(consentId);
+
         final PaymentFile paymentFile = paymentFileProcessorService.processFile(fileType, fileParam);
 
         fileContentValidator.validate(new FilePaymentFileContentValidationContext(HashUtils.computeSHA256FullHash(fileParam),
                 paymentFile, FRWriteFileConsentConverter.toOBWriteFileConsent3(consent.getRequestObj())));
 
-        final FileUploadRequest fileUploadRequest = new FileUploadRequest();
-        fileUploadRequest.setApiClientId(apiClientId);
-        fileUploadRequest.setConsentId(consentId);
-        fileUploadRequest.setFileUploadIdempotencyKey(xIdempotencyKey);
-        fileUploadRequest.setFileContents(fileParam);
-
-        consentStoreApiClient.uploadFile(fileUploadRequest);
+        boolean uploaded = false;
+        try {
+            paymentFile.getPayments().forEach(resultRecorder);
+            resultRecorder.finish();
+
+            final FileUploadRequest fileUploadRequest = new FileUploadRequest();
+            fileUploadRequest.setApiClientId(apiClientId);
+            fileUploadRequest.setConsentId(consentId);
+            fileUploadRequest.setFileUploadIdempotencyKey(xIdempotencyKey);
+            fileUploadRequest.setFileContents(fileParam);
+
+            consentStoreApiClient.uploadFile(fileUploadRequest);
+            uploaded = true;
+            resultRecorder.complete();
+        } finally {
+            if (!uploaded) {
+                resultRecorder.discard();
+            }
+        }
 
         return ResponseEntity.status(HttpStatus.OK).build();
     }
@@ -46,6 +46,8 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.VersionPathExtract
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.link.LinksHelper;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.IdempotentPaymentService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.SinglePaymentForConsentIdempotentPaymentService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.report.PaymentReportFile1Service;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement.PaymentSettlementService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.PaymentSubmissionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.ResourceVersionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
@@ -62,8 +64,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
 import uk.org.openbanking.datamodel.v3.common.Meta;
@@ -79,20 +83,26 @@ public class FilePaymentsApiController implements FilePaymentsApi {
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final FilePaymentSubmissionRepository filePaymentSubmissionRepository;
     private final PaymentSubmissionValidator paymentSubmissionValidator;
+    private final PaymentSettlementService paymentSettlementService;
     private final FilePaymentConsentStoreClient consentStoreClient;
     private final OBValidationService<OBWriteFile2ValidationContext> filePaymentRequestValidator;
     private final IdempotentPaymentService<FRFilePaymentSubmission, FRWriteFile> idempotentPaymentService;
+    private final PaymentReportFile1Service paymentReportFileService;
 
     public FilePaymentsApiController(
             FilePaymentSubmissionRepository filePaymentSubmissionRepository,
             PaymentSubmissionValidator paymentSubmissionValidator,
+            PaymentSettlementService paymentSettlementService,
             @Qualifier("v3.1.10RestFilePaymentConsentStoreClient") FilePaymentConsentStoreClient consentStoreClient,
-            OBValidationService<OBWriteFile2ValidationContext> filePaymentRequestValidator) {
+            OBValidationService<OBWriteFile2ValidationContext> filePaymentRequestValidator,
+            PaymentReportFile1Service paymentReportFileService) {
         this.filePaymentSubmissionRepository = filePaymentSubmissionRepository;
         this.paymentSubmissionValidator = paymentSubmissionValidator;
+        this.paymentSettlementService = paymentSettlementService;
         this.consentStoreClient = consentStoreClient;
         this.filePaymentRequestValidator = filePaymentRequestValidator;
         this.idempotentPaymentService = new SinglePaymentForConsentIdempotentPaymentService<>(filePaymentSubmissionRepository);
+        this.paymentReportFileService = paymentReportFileService;
     }
 
     public ResponseEntity<OBWriteFileResponse3> createFilePayments(
@@ -141,6 +151,7 @@ public class FilePaymentsApiController implements FilePaymentsApi {
 
         // Save the file payment(s)
         frPaymentSubmission = idempotentPaymentService.savePayment(frPaymentSubmission);
+        paymentSettlementService.submitForSettlement(frPaymentSubmission, consent.getAuthorisedDebtorAccountId());
 
         final ConsumePaymentConsentRequest consumePaymentRequest = new ConsumePaymentConsentRequest();
         consumePaymentRequest.setConsentId(consentId);
@@ -194,7 +205,7 @@ public class FilePaymentsApiController implements FilePaymentsApi {
         return new ResponseEntity<>(NOT_IMPLEMENTED);
     }
 
-    public ResponseEntity getFilePaymentsFilePaymentIdReportFile(
+    public ResponseEntity<StreamingResponseBody> getFilePaymentsFilePaymentIdReportFile(
             String filePaymentId,
             String authorization,
             String xFapiAuthDate,
@@ -205,22 +216,26 @@ public class FilePaymentsApiController implements FilePaymentsApi {
             HttpServletRequest request,
             Principal principal
     ) throws OBErrorResponseException {
-        return new ResponseEntity<>(NOT_IMPLEMENTED);
-//        FRFilePaymentSubmission filePayment = filePaymentSubmissionRepository.findById(filePaymentId)
-//                .orElseThrow(() ->
-//                        new OBErrorResponseException(
-//                                HttpStatus.BAD_REQUEST,
-//                                OBRIErrorResponseCategory.REQUEST_INVALID,
-//                                OBRIErrorType.PAYMENT_ID_NOT_FOUND
-//                                        .toOBError1(filePaymentId))
-//                );
-//        logger.debug("Payment File '{}' exists with status: {} so generating a report file for type: '{}'",
-//                filePayment.getId(),
-//                filePayment.getStatus(),
-//                filePayment.getFilePayment().getData().getInitiation().getFileType());
-//        String reportFile = paymentReportFileService.createPaymentReport(filePayment);
-//        logger.debug("Generated report file for Payment File: '{}'", filePayment.getId());
-//        return ResponseEntity.ok(reportFile);
+        final FRFilePaymentSubmission filePayment = filePaymentSubmissionRepository.findById(filePaymentId)
+                .orElseThrow(() ->
+                        new OBErrorResponseException(
+                                HttpStatus.BAD_REQUEST,
+                                OBRIErrorResponseCategory.REQUEST_INVALID,
+                                OBRIErrorType.PAYMENT_SUBMISSION_NOT_FOUND
+                                        .toOBError1(filePaymentId))
+                );
+        OBVersion apiVersion = VersionPathExtractor.getVersionFromPath(request);
+        if (!ResourceVersionValidator.isAccessToResourceAllowed(apiVersion, filePayment.getObVersion())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        // Only the ApiClient which owns the consent may read the report
+        consentStoreClient.getConsent(filePayment.getConsentId(), apiClientId);
+
+        logger.debug("Generating report file for file payment: '{}' with status: {}", filePayment.getId(),
+                filePayment.getStatus());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> paymentReportFileService.writePaymentReport(filePayment, out));
     }
 
     private OBWriteFileResponse3 responseEntity(FilePaymentConsent filePaymentConsent,
@@ -56,6 +56,7 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.VersionPathExtract
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.link.LinksHelper;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.IdempotentPaymentService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.SinglePaymentForConsentIdempotentPaymentService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement.PaymentSettlementService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.PaymentSubmissionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.ResourceVersionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
@@ -86,6 +87,7 @@ public class InternationalPaymentsApiController implements InternationalPayments
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final InternationalPaymentSubmissionRepository paymentSubmissionRepository;
     private final PaymentSubmissionValidator paymentSubmissionValidator;
+    private final PaymentSettlementService paymentSettlementService;
     private final InternationalPaymentConsentStoreClient consentStoreClient;
     private final OBValidationService<OBWriteInternational3ValidationContext> paymentValidator;
     private final RefundAccountService refundAccountService;
@@ -94,11 +96,13 @@ public class InternationalPaymentsApiController implements InternationalPayments
     public InternationalPaymentsApiController(
             InternationalPaymentSubmissionRepository paymentSubmissionRepository,
             PaymentSubmissionValidator paymentSubmissionValidator,
+            PaymentSettlementService paymentSettlementService,
             @Qualifier("v3.1.10RestInternationalPaymentConsentStoreClient") InternationalPaymentConsentStoreClient consentStoreClient,
             OBValidationService<OBWriteInternational3ValidationContext> paymentValidator,
             RefundAccountService refundAccountService) {
         this.paymentSubmissionRepository = paymentSubmissionRepository;
         this.paymentSubmissionValidator = paymentSubmissionValidator;
+        this.paymentSettlementService = paymentSettlementService;
         this.consentStoreClient = consentStoreClient;
         this.paymentValidator = paymentValidator;
         this.refundAccountService = refundAccountService;
@@ -158,6 +162,7 @@ public class InternationalPaymentsApiController implements InternationalPayments
 
         // Save the international payment
         frPaymentSubmission = idempotentPaymentService.savePayment(frPaymentSubmission);
+        paymentSettlementService.submitForSettlement(frPaymentSubmission, consent.getAuthorisedDebtorAccountId());
 
         final ConsumePaymentConsentRequest consumePaymentRequest = new ConsumePaymentConsentRequest();
         consumePaymentRequest.setConsentId(consentId);
@@ -57,6 +57,7 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.VersionPathExtract
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.link.LinksHelper;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.IdempotentPaymentService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.SinglePaymentForConsentIdempotentPaymentService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement.PaymentSettlementService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.PaymentSubmissionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.ResourceVersionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
@@ -87,6 +88,7 @@ public class InternationalScheduledPaymentsApiController implements Internationa
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final InternationalScheduledPaymentSubmissionRepository scheduledPaymentSubmissionRepository;
     private final PaymentSubmissionValidator paymentSubmissionValidator;
+    private final PaymentSettlementService paymentSettlementService;
     private final InternationalScheduledPaymentConsentStoreClient consentStoreClient;
     private final OBValidationService<OBWriteInternationalScheduled3ValidationContext> paymentValidator;
     private final RefundAccountService refundAccountService;
@@ -95,11 +97,13 @@ public class InternationalScheduledPaymentsApiController implements Internationa
     public InternationalScheduledPaymentsApiController(
             InternationalScheduledPaymentSubmissionRepository scheduledPaymentSubmissionRepository,
             PaymentSubmissionValidator paymentSubmissionValidator,
+            PaymentSettlementService paymentSettlementService,
             @Qualifier("v3.1.10RestInternationalScheduledPaymentConsentStoreClient") InternationalScheduledPaymentConsentStoreClient consentStoreClient,
             OBValidationService<OBWriteInternationalScheduled3ValidationContext> paymentValidator,
             RefundAccountService refundAccountService) {
         this.scheduledPaymentSubmissionRepository = scheduledPaymentSubmissionRepository;
         this.paymentSubmissionValidator = paymentSubmissionValidator;
+        this.paymentSettlementService = paymentSettlementService;
         this.consentStoreClient = consentStoreClient;
         this.paymentValidator = paymentValidator;
         this.refundAccountService = refundAccountService;
@@ -159,6 +163,7 @@ public class InternationalScheduledPaymentsApiController implements Internationa
 
         // Save the international scheduled payment
         frPaymentSubmission = idempotentPaymentService.savePayment(frPaymentSubmission);
+        paymentSettlementService.submitForSettlement(frPaymentSubmission, consent.getAuthorisedDebtorAccountId());
 
         final ConsumePaymentConsentRequest consumePaymentRequest = new ConsumePaymentConsentRequest();
         consumePaymentRequest.setConsentId(consentId);
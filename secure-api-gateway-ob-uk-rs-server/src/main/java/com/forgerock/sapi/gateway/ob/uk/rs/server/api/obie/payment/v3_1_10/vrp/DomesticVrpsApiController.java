@@ -47,12 +47,14 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.VersionPathExtract
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.link.LinksHelper;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.IdempotentPaymentService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.VRPIdempotentPaymentService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement.PaymentSettlementService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.PaymentSubmissionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.v3.payment.OBDomesticVRPRequestValidator.OBDomesticVRPRequestValidationContext;
 import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.vrp.DomesticVRPConsentStoreClient;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.vrp.v3_1_10.DomesticVRPConsent;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticVrpPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.idempotency.IdempotencyRecordRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.DomesticVrpPaymentSubmissionRepository;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -84,16 +86,19 @@ public class DomesticVrpsApiController implements DomesticVrpsApi {
     private final DomesticVrpPaymentSubmissionRepository paymentSubmissionRepository;
     private final PeriodicLimitBreachResponseSimulatorService limitBreachResponseSimulatorService;
     private final PaymentSubmissionValidator paymentSubmissionValidator;
+    private final PaymentSettlementService paymentSettlementService;
     private final RefundAccountService refundAccountService;
     private final DomesticVRPConsentStoreClient consentStoreClient;
     private final IdempotentPaymentService<FRDomesticVrpPaymentSubmission, FRDomesticVrpRequest> idempotentPaymentService;
 
     public DomesticVrpsApiController(
             DomesticVrpPaymentSubmissionRepository paymentSubmissionRepository,
+            IdempotencyRecordRepository idempotencyRecordRepository,
             OBValidationService<OBDomesticVRPRequestValidationContext> paymentRequestValidator,
             @Qualifier("v3.1.10RestDomesticVRPConsentStoreClient") DomesticVRPConsentStoreClient consentStoreClient,
             PeriodicLimitBreachResponseSimulatorService limitBreachResponseSimulatorService,
             PaymentSubmissionValidator paymentSubmissionValidator,
+            PaymentSettlementService paymentSettlementService,
             RefundAccountService refundAccountService
     ) {
         this.paymentSubmissionRepository = Objects.requireNonNull(paymentSubmissionRepository, "PaymentSubmissionRepository cannot be null");
@@ -101,9 +106,11 @@ public class DomesticVrpsApiController implements DomesticVrpsApi {
         this.consentStoreClient = Objects.requireNonNull(consentStoreClient, "ConsentStoreClient cannot be null");
         this.limitBreachResponseSimulatorService = Objects.requireNonNull(limitBreachResponseSimulatorService, "LimitBreachResponseSimulatorService cannot be null");
         this.paymentSubmissionValidator = Objects.requireNonNull(paymentSubmissionValidator, "PaymentSubmissionValidator cannot be null");
+        this.paymentSettlementService = Objects.requireNonNull(paymentSettlementService, "PaymentSettlementService cannot be null");
         this.refundAccountService = Objects.requireNonNull(refundAccountService, "RefundAccountService cannot be null");
         this.idempotentPaymentService = new VRPIdempotentPaymentService(
-                Objects.requireNonNull(paymentSubmissionRepository, "PaymentSubmissionRepository cannot be null for IdempotentPaymentService")
+                Objects.requireNonNull(paymentSubmissionRepository, "PaymentSubmissionRepository cannot be null for IdempotentPaymentService"),
+                Objects.requireNonNull(idempotencyRecordRepository, "IdempotencyRecordRepository cannot be null for IdempotentPaymentService")
         );
     }
 
@@ -241,7 +248,8 @@ public class DomesticVrpsApiController implements DomesticVrpsApi {
                 .build();
 
         //save the domestic vrp
-        idempotentPaymentService.savePayment(vrpPaymentSubmission);
+        vrpPaymentSubmission = idempotentPaymentService.savePayment(vrpPaymentSubmission);
+        paymentSettlementService.submitForSettlement(vrpPaymentSubmission, consent.getAuthorisedDebtorAccountId());
 
         OBDomesticVRPResponse entity = responseEntity(consent, obDomesticVRPRequest, vrpPaymentSubmission);
 
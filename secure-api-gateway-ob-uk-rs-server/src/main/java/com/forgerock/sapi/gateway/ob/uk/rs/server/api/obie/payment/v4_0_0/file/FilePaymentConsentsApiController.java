@@ -16,22 +16,22 @@
 package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.v4_0_0.file;
 
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRCharge;
-import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.payment.FRWriteFileConsentConverter;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorResponseException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorResponseCategory;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.obie.api.payment.v4_0_0.file.FilePaymentConsentsApi;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.factories.v4_0_0.OBWriteFileConsentResponse4Factory;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file.PaymentFileProcessorService;
-import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.validation.v4.FilePaymentFileContentValidator.FilePaymentFileContentValidationContext;
-import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileType;
-import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.HashUtils;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.UploadedPaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.file.PaymentFileJobService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.file.PaymentFileUploadService;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
 import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.file.FilePaymentConsentStoreClient;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.CreateFilePaymentConsentRequest;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FilePaymentConsent;
-import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FileUploadRequest;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,8 +42,11 @@ import org.springframework.stereotype.Controller;
 import uk.org.openbanking.datamodel.v4.payment.OBWriteFileConsent3;
 import uk.org.openbanking.datamodel.v4.payment.OBWriteFileConsentResponse4;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.payment.FRWriteFileConsentConverter.toFRWriteFileConsent;
 
@@ -58,20 +61,24 @@ public class FilePaymentConsentsApiController implements FilePaymentConsentsApi
 
     private final PaymentFileProcessorService paymentFileProcessorService;
 
-    private final OBValidationService<FilePaymentFileContentValidationContext> fileContentValidator;
-
     private final OBWriteFileConsentResponse4Factory consentResponseFactory;
 
+    private final PaymentFileUploadService paymentFileUploadService;
+
+    private final PaymentFileJobService paymentFileJobService;
+
     public FilePaymentConsentsApiController(@Qualifier("v4.0.0RestFilePaymentConsentStoreClient") FilePaymentConsentStoreClient consentStoreApiClient,
                                             OBValidationService<OBWriteFileConsent3> consentValidator,
                                             PaymentFileProcessorService paymentFileProcessorService,
-                                            OBValidationService<FilePaymentFileContentValidationContext> fileContentValidator,
-                                            OBWriteFileConsentResponse4Factory consentResponseFactory) {
+                                            OBWriteFileConsentResponse4Factory consentResponseFactory,
+                                            PaymentFileUploadService paymentFileUploadService,
+                                            PaymentFileJobService paymentFileJobService) {
         this.consentStoreApiClient = consentStoreApiClient;
         this.consentValidator = consentValidator;
         this.paymentFileProcessorService = paymentFileProcessorService;
-        this.fileContentValidator = fileContentValidator;
         this.consentResponseFactory = consentResponseFactory;
+        this.paymentFileUploadService = paymentFileUploadService;
+        this.paymentFileJobService = paymentFileJobService;
     }
 
     private List<FRCharge> calculateCharges(OBWriteFileConsent3 obWriteFileConsent3) {
@@ -97,12 +104,21 @@ public class FilePaymentConsentsApiController implements FilePaymentConsentsApi
         return new ResponseEntity<>(consentResponseFactory.buildConsentResponse(consent, getClass()), HttpStatus.CREATED);
     }
 
+    /**
+     * Uploads a payment file for a consent.
+     *
+     * The request body is read once, computing the SHA-256 hash as it is read, and the hash is verified against the
+     * consent before any parsing is done. The file is then processed by the {@link PaymentFileUploadService}, either
+     * while the request waits or, when background processing is enabled, by a worker of the
+     * {@link PaymentFileJobService} after the request has been answered.
+     */
     @Override
-    public ResponseEntity<Void> createFilePaymentConsentsConsentIdFile(String consentId, String authorization, String xIdempotencyKey, String xJwsSignature, String body, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, String apiClientId, HttpServletRequest request) throws OBErrorException, OBErrorResponseException {
+    public ResponseEntity<Void> createFilePaymentConsentsConsentIdFile(String consentId, String authorization, String xIdempotencyKey, String xJwsSignature, InputStream body, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, String apiClientId, HttpServletRequest request) throws OBErrorException, OBErrorResponseException {
         logger.info("Processing createFilePaymentConsentsConsentIdFile request - idempotencyKey: {}, apiClient: {}, x-fapi-interaction-id: {}",
                 xIdempotencyKey, apiClientId, xFapiInteractionId);
 
-        if (body == null || body.isBlank()) {
+        final UploadedPaymentFile uploadedFile = readUploadedFile(body, request.getContentLengthLong());
+        if (uploadedFile.isBlank()) {
             throw new OBErrorException(OBRIErrorType.REQUEST_FILE_EMPTY);
         }
 
@@ -115,22 +131,33 @@ public class FilePaymentConsentsApiController implements FilePaymentConsentsApi
             throw new OBErrorException(OBRIErrorType.REQUEST_MEDIA_TYPE_NOT_SUPPORTED, contentType, paymentFileType.getContentType());
         }
 
-        final PaymentFile paymentFile = paymentFileProcessorService.processFile(fileType, body);
-
-        fileContentValidator.validate(new FilePaymentFileContentValidationContext(HashUtils.computeSHA256FullHash(body),
-                paymentFile, FRWriteFileConsentConverter.toOBWriteFileConsent3(consent.getRequestObj())));
-
-        final FileUploadRequest fileUploadRequest = new FileUploadRequest();
-        fileUploadRequest.setApiClientId(apiClientId);
-        fileUploadRequest.setConsentId(consentId);
-        fileUploadRequest.setFileUploadIdempotencyKey(xIdempotencyKey);
-        fileUploadRequest.setFileContents(body);
+        // Reject tampered files before spending any effort parsing them
+        final String fileHash = uploadedFile.getFileHash();
+        final String consentFileHash = consent.getRequestObj().getData().getInitiation().getFileHash();
+        if (!fileHash.equals(consentFileHash)) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INCORRECT_FILE_HASH, fileHash, consentFileHash);
+        }
 
-        consentStoreApiClient.uploadFile(fileUploadRequest);
+        if (paymentFileJobService.isEnabled()) {
+            paymentFileJobService.enqueue(consentId, apiClientId, xIdempotencyKey, uploadedFile);
+        } else {
+            paymentFileUploadService.processFile(consentId, consent, apiClientId, xIdempotencyKey, uploadedFile);
+        }
 
         return ResponseEntity.status(HttpStatus.OK).build();
     }
 
+    private static UploadedPaymentFile readUploadedFile(InputStream body, long contentLength) throws OBErrorException {
+        if (body == null) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_EMPTY);
+        }
+        try {
+            return UploadedPaymentFile.read(body, contentLength);
+        } catch (IOException e) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, e.getMessage());
+        }
+    }
+
     @Override
     public ResponseEntity<OBWriteFileConsentResponse4> getFilePaymentConsentsConsentId(String consentId, String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, String apiClientId) {
         logger.info("Processing getFilePaymentConsentsConsentId request - consentId: {}, apiClient: {}, x-fapi-interaction-id: {}",
@@ -140,13 +167,13 @@ public class FilePaymentConsentsApiController implements FilePaymentConsentsApi
     }
 
     @Override
-    public ResponseEntity<Object> getFilePaymentConsentsConsentIdFile(String consentId, String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, String apiClientId) throws OBErrorException {
+    public ResponseEntity<Object> getFilePaymentConsentsConsentIdFile(String consentId, String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, String apiClientId) throws OBErrorException, OBErrorResponseException {
         logger.info("Processing getFilePaymentConsentsConsentIdFile request - consentId: {}, apiClient: {}, x-fapi-interaction-id: {}",
                 consentId, apiClientId, xFapiInteractionId);
 
         final FilePaymentConsent consent = consentStoreApiClient.getConsent(consentId, apiClientId);
         if (consent.getFileContent() == null) {
-            throw new OBErrorException(OBRIErrorType.NO_FILE_FOR_CONSENT);
+            return fileProcessingStatus(consentId);
         }
         final String fileType = consent.getRequestObj().getData().getInitiation().getFileType();
         final PaymentFileType paymentFileType = paymentFileProcessorService.findPaymentFileType(fileType);
@@ -155,4 +182,21 @@ public class FilePaymentConsentsApiController implements FilePaymentConsentsApi
                 .contentType(paymentFileType.getContentType())
                 .body(consent.getFileContent());
     }
+
+    /**
+     * Reports the status of a file which has been uploaded but not yet forwarded to the consent store, i.e. one which
+     * is being processed in the background: 202 Accepted while it is queued or being processed, or the reasons the
+     * file was rejected.
+     */
+    private ResponseEntity<Object> fileProcessingStatus(String consentId) throws OBErrorException, OBErrorResponseException {
+        final Optional<FRPaymentFileProcessingJob> job = paymentFileJobService.findJob(consentId);
+        if (job.isEmpty() || job.get().getStatus() == FRPaymentFileProcessingJob.Status.COMPLETED) {
+            throw new OBErrorException(OBRIErrorType.NO_FILE_FOR_CONSENT);
+        }
+        if (job.get().getStatus() == FRPaymentFileProcessingJob.Status.FAILED) {
+            throw new OBErrorResponseException(HttpStatus.BAD_REQUEST, OBRIErrorResponseCategory.REQUEST_INVALID,
+                    PaymentFileJobService.getErrors(job.get()));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    }
 }
@@ -20,23 +20,31 @@ import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.com
 import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.common.FRSubmissionStatusConverter.toOBWriteFileResponse3DataStatus;
 import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.payment.FRWriteFileConsentConverter.toOBWriteFile2DataInitiation;
 import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.payment.FRWriteFileConverter.toFRWriteFile;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.http.HttpStatus.CREATED;
-import static org.springframework.http.HttpStatus.NOT_IMPLEMENTED;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.Locale;
 import java.util.Optional;
 
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRSubmissionStatus;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.mapper.FRModelMapper;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.common.FRChargeConverter;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.common.FRPaymentDetailsStatusConverter;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.payment.FRWriteFileConsentConverter;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteDataFile;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteFile;
@@ -49,6 +57,9 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.PaymentApiResponse
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.VersionPathExtractor;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.IdempotentPaymentService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.SinglePaymentForConsentIdempotentPaymentService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.report.PaymentReportFile1Service;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement.PaymentSettlementService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.v4.common.util.PaginationUtil;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.v4.common.util.link.LinksHelper;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.PaymentSubmissionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.ResourceVersionValidator;
@@ -57,7 +68,10 @@ import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.v4.payment.OBWriteFil
 import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.file.FilePaymentConsentStoreClient;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.ConsumePaymentConsentRequest;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FilePaymentConsent;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultCursor;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentSubmissionRepository;
 import com.forgerock.sapi.gateway.uk.common.shared.api.meta.obie.OBVersion;
 
@@ -68,7 +82,10 @@ import uk.org.openbanking.datamodel.v4.payment.OBWriteFile2;
 import uk.org.openbanking.datamodel.v4.payment.OBWriteFileConsent3;
 import uk.org.openbanking.datamodel.v4.payment.OBWriteFileResponse3;
 import uk.org.openbanking.datamodel.v4.payment.OBWriteFileResponse3Data;
+import uk.org.openbanking.datamodel.v4.payment.OBWritePaymentDetails1;
+import uk.org.openbanking.datamodel.v4.payment.OBWritePaymentDetails1StatusDetail;
 import uk.org.openbanking.datamodel.v4.payment.OBWritePaymentDetailsResponse1;
+import uk.org.openbanking.datamodel.v4.payment.OBWritePaymentDetailsResponse1Data;
 
 @Controller("FilePaymentsApiV4.0.0")
 public class FilePaymentsApiController implements FilePaymentsApi {
@@ -76,20 +93,32 @@ public class FilePaymentsApiController implements FilePaymentsApi {
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final FilePaymentSubmissionRepository filePaymentSubmissionRepository;
     private final PaymentSubmissionValidator paymentSubmissionValidator;
+    private final PaymentSettlementService paymentSettlementService;
     private final FilePaymentConsentStoreClient consentStoreClient;
     private final OBValidationService<OBWriteFile2ValidationContext> filePaymentRequestValidator;
     private final IdempotentPaymentService<FRFilePaymentSubmission, FRWriteFile> idempotentPaymentService;
+    private final PaymentReportFile1Service paymentReportFileService;
+    private final FilePaymentResultRepository filePaymentResultRepository;
+    private final int pageLimitPaymentDetails;
 
     public FilePaymentsApiController(
             FilePaymentSubmissionRepository filePaymentSubmissionRepository,
             PaymentSubmissionValidator paymentSubmissionValidator,
+            PaymentSettlementService paymentSettlementService,
             @Qualifier("v4.0.0RestFilePaymentConsentStoreClient") FilePaymentConsentStoreClient consentStoreClient,
-            OBValidationService<OBWriteFile2ValidationContext> filePaymentRequestValidator) {
+            OBValidationService<OBWriteFile2ValidationContext> filePaymentRequestValidator,
+            PaymentReportFile1Service paymentReportFileService,
+            FilePaymentResultRepository filePaymentResultRepository,
+            @Value("${rs.page.default.file-payment-details.size:100}") int pageLimitPaymentDetails) {
         this.filePaymentSubmissionRepository = filePaymentSubmissionRepository;
         this.paymentSubmissionValidator = paymentSubmissionValidator;
+        this.paymentSettlementService = paymentSettlementService;
         this.consentStoreClient = consentStoreClient;
         this.filePaymentRequestValidator = filePaymentRequestValidator;
         this.idempotentPaymentService = new SinglePaymentForConsentIdempotentPaymentService<>(filePaymentSubmissionRepository);
+        this.paymentReportFileService = paymentReportFileService;
+        this.filePaymentResultRepository = filePaymentResultRepository;
+        this.pageLimitPaymentDetails = pageLimitPaymentDetails;
     }
 
     private OBWriteFileResponse3 responseEntity(FilePaymentConsent filePaymentConsent,
@@ -146,6 +175,7 @@ public class FilePaymentsApiController implements FilePaymentsApi {
 
         // Save the file payment(s)
         frPaymentSubmission = idempotentPaymentService.savePayment(frPaymentSubmission);
+        paymentSettlementService.submitForSettlement(frPaymentSubmission, consent.getAuthorisedDebtorAccountId());
 
         final ConsumePaymentConsentRequest consumePaymentRequest = new ConsumePaymentConsentRequest();
         consumePaymentRequest.setConsentId(consentId);
@@ -176,13 +206,100 @@ public class FilePaymentsApiController implements FilePaymentsApi {
     }
 
     @Override
-    public ResponseEntity<OBWritePaymentDetailsResponse1> getFilePaymentsFilePaymentIdPaymentDetails(String filePaymentId, String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, String apiClientId) {
-        // Optional endpoint - not implemented
-        return new ResponseEntity<>(NOT_IMPLEMENTED);
+    public ResponseEntity<OBWritePaymentDetailsResponse1> getFilePaymentsFilePaymentIdPaymentDetails(String filePaymentId, String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, String apiClientId, String status, String instructionIdentification, String cursor) throws OBErrorResponseException, OBErrorException {
+        final FRFilePaymentResult.Status resultStatus = decodeStatus(status);
+        final FilePaymentResultCursor after = decodeCursor(cursor);
+        final FRFilePaymentSubmission filePayment = filePaymentSubmissionRepository.findById(filePaymentId)
+                .orElseThrow(() -> new OBErrorResponseException(
+                        HttpStatus.BAD_REQUEST,
+                        OBRIErrorResponseCategory.REQUEST_INVALID,
+                        OBRIErrorType.PAYMENT_SUBMISSION_NOT_FOUND
+                                .toOBError1(filePaymentId)));
+        // Only the ApiClient which owns the consent may read the payment details
+        consentStoreClient.getConsent(filePayment.getConsentId(), apiClientId);
+
+        final Slice<FRFilePaymentResult> results = filePaymentResultRepository.findPaymentDetails(filePayment.getId(),
+                resultStatus, instructionIdentification, after, pageLimitPaymentDetails);
+        final String nextCursor = results.hasNext() ?
+                FilePaymentResultCursor.after(results.getContent().get(results.getNumberOfElements() - 1)).encode() : null;
+
+        final UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(
+                linkTo(getClass()).slash("file-payments").slash(filePayment.getId()).slash("payment-details").toString());
+        if (status != null) {
+            uriBuilder.queryParam("status", status);
+        }
+        if (instructionIdentification != null) {
+            uriBuilder.queryParam("instructionIdentification", instructionIdentification);
+        }
+
+        final OBWritePaymentDetailsResponse1Data data = new OBWritePaymentDetailsResponse1Data();
+        results.forEach(result -> data.addPaymentStatusItem(toOBWritePaymentDetails1(result)));
+        return ResponseEntity.ok(new OBWritePaymentDetailsResponse1()
+                .data(data)
+                .links(PaginationUtil.generateKeysetLinks(uriBuilder, cursor, nextCursor))
+                .meta(new Meta()));
     }
 
     @Override
-    public ResponseEntity<Object> getFilePaymentsFilePaymentIdReportFile(String filePaymentId, String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, String apiClientId) {
-        return new ResponseEntity<>(NOT_IMPLEMENTED);
+    public ResponseEntity<StreamingResponseBody> getFilePaymentsFilePaymentIdReportFile(String filePaymentId, String authorization, String xFapiAuthDate, String xFapiCustomerIpAddress, String xFapiInteractionId, String xCustomerUserAgent, String apiClientId) throws OBErrorResponseException {
+        final FRFilePaymentSubmission filePayment = filePaymentSubmissionRepository.findById(filePaymentId)
+                .orElseThrow(() -> new OBErrorResponseException(
+                        HttpStatus.BAD_REQUEST,
+                        OBRIErrorResponseCategory.REQUEST_INVALID,
+                        OBRIErrorType.PAYMENT_SUBMISSION_NOT_FOUND
+                                .toOBError1(filePaymentId)));
+        // Only the ApiClient which owns the consent may read the report
+        consentStoreClient.getConsent(filePayment.getConsentId(), apiClientId);
+
+        logger.debug("Generating report file for file payment: '{}' with status: {}", filePayment.getId(),
+                filePayment.getStatus());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> paymentReportFileService.writePaymentReport(filePayment, out));
+    }
+
+    private static OBWritePaymentDetails1 toOBWritePaymentDetails1(FRFilePaymentResult result) {
+        final String submissionStatus = toFRSubmissionStatus(result.getStatus()).getValue();
+        return new OBWritePaymentDetails1()
+                .status(FRPaymentDetailsStatusConverter.toOBPaymentDetailsStatus(submissionStatus))
+                .paymentTransactionId(FRFilePaymentResult.id(result.getFilePaymentId(), result.getIndex()))
+                .statusUpdateDateTime(new DateTime(result.getStatusUpdateDateTime()))
+                .statusDetail(new OBWritePaymentDetails1StatusDetail()
+                        .status(FRPaymentDetailsStatusConverter.toOBWritePaymentDetails1StatusDetailStatus(submissionStatus))
+                        .statusReason(FRPaymentDetailsStatusConverter.toOBWritePaymentDetails1StatusDetailStatus(submissionStatus).getValue())
+                        .statusReasonDescription(submissionStatus));
+    }
+
+    private static FRSubmissionStatus toFRSubmissionStatus(FRFilePaymentResult.Status status) {
+        switch (status) {
+            case COMPLETED:
+                return FRSubmissionStatus.ACCEPTEDSETTLEMENTCOMPLETED;
+            case REJECTED:
+                return FRSubmissionStatus.REJECTED;
+            default:
+                return FRSubmissionStatus.PENDING;
+        }
+    }
+
+    private static FRFilePaymentResult.Status decodeStatus(String status) throws OBErrorException {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return FRFilePaymentResult.Status.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FIELD_INVALID, "Invalid status: " + status);
+        }
+    }
+
+    private static FilePaymentResultCursor decodeCursor(String cursor) throws OBErrorException {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return FilePaymentResultCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FIELD_INVALID, "Invalid cursor: " + cursor);
+        }
     }
 }
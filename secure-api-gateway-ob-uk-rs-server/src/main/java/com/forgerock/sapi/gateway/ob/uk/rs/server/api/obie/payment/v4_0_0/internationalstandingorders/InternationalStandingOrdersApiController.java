@@ -52,6 +52,7 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.PaymentApiResponse
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.VersionPathExtractor;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.IdempotentPaymentService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.SinglePaymentForConsentIdempotentPaymentService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.standingorder.StandingOrderExecutionService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.v4.common.util.link.LinksHelper;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.PaymentSubmissionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.ResourceVersionValidator;
@@ -82,6 +83,7 @@ public class InternationalStandingOrdersApiController implements InternationalSt
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final InternationalStandingOrderPaymentSubmissionRepository standingOrderPaymentSubmissionRepository;
     private final PaymentSubmissionValidator paymentSubmissionValidator;
+    private final StandingOrderExecutionService standingOrderExecutionService;
     private final InternationalStandingOrderConsentStoreClient consentStoreClient;
     private final OBValidationService<OBWriteInternationalStandingOrder4ValidationContext> paymentValidator;
     private final RefundAccountService refundAccountService;
@@ -90,11 +92,13 @@ public class InternationalStandingOrdersApiController implements InternationalSt
     public InternationalStandingOrdersApiController(
             InternationalStandingOrderPaymentSubmissionRepository standingOrderPaymentSubmissionRepository,
             PaymentSubmissionValidator paymentSubmissionValidator,
+            StandingOrderExecutionService standingOrderExecutionService,
             @Qualifier("v4.0.0RestInternationalStandingOrderConsentStoreClient") InternationalStandingOrderConsentStoreClient consentStoreClient,
             OBValidationService<OBWriteInternationalStandingOrder4ValidationContext> paymentValidator,
             RefundAccountService refundAccountService) {
         this.standingOrderPaymentSubmissionRepository = standingOrderPaymentSubmissionRepository;
         this.paymentSubmissionValidator = paymentSubmissionValidator;
+        this.standingOrderExecutionService = standingOrderExecutionService;
         this.consentStoreClient = consentStoreClient;
         this.paymentValidator = paymentValidator;
         this.refundAccountService = refundAccountService;
@@ -153,6 +157,7 @@ public class InternationalStandingOrdersApiController implements InternationalSt
 
         // Save the international standing order
         frPaymentSubmission = idempotentPaymentService.savePayment(frPaymentSubmission);
+        standingOrderExecutionService.schedule(frPaymentSubmission, consent.getAuthorisedDebtorAccountId());
 
         final ConsumePaymentConsentRequest consumePaymentRequest = new ConsumePaymentConsentRequest();
         consumePaymentRequest.setConsentId(consentId);
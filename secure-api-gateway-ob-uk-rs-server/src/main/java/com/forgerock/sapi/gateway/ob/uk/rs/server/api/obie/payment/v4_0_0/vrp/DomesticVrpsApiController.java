@@ -21,9 +21,9 @@ import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.vrp
 import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.vrp.FRDomesticVrpConverters.toOBDomesticVRPRequest;
 import static org.springframework.http.HttpStatus.CREATED;
 
+import java.math.BigDecimal;
 import java.security.Principal;
 import java.util.Collections;
-import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -49,6 +49,9 @@ import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.simulations.v
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.VersionPathExtractor;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.IdempotentPaymentService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency.VRPIdempotentPaymentService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement.PaymentSettlementService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.vrp.PeriodicLimitReservation;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.vrp.PeriodicLimitService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.v4.common.util.link.LinksHelper;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.validator.PaymentSubmissionValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
@@ -56,6 +59,7 @@ import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.v4.payment.OBDomestic
 import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.vrp.DomesticVRPConsentStoreClient;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.vrp.v3_1_10.DomesticVRPConsent;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticVrpPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.idempotency.IdempotencyRecordRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.DomesticVrpPaymentSubmissionRepository;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -86,27 +90,35 @@ public class DomesticVrpsApiController implements DomesticVrpsApi {
     private final OBValidationService<OBDomesticVRPRequestValidationContext> paymentRequestValidator;
     private final DomesticVrpPaymentSubmissionRepository paymentSubmissionRepository;
     private final PeriodicLimitBreachResponseSimulatorService limitBreachResponseSimulatorService;
+    private final PeriodicLimitService periodicLimitService;
     private final PaymentSubmissionValidator paymentSubmissionValidator;
+    private final PaymentSettlementService paymentSettlementService;
     private final RefundAccountService refundAccountService;
     private final DomesticVRPConsentStoreClient consentStoreClient;
     private final IdempotentPaymentService<FRDomesticVrpPaymentSubmission, FRDomesticVrpRequest> idempotentPaymentService;
 
     public DomesticVrpsApiController(
             DomesticVrpPaymentSubmissionRepository paymentSubmissionRepository,
+            IdempotencyRecordRepository idempotencyRecordRepository,
             OBValidationService<OBDomesticVRPRequestValidationContext> paymentRequestValidator,
             @Qualifier(("v4.0.0RestDomesticVRPConsentStoreClient")) DomesticVRPConsentStoreClient consentStoreClient,
             PeriodicLimitBreachResponseSimulatorService limitBreachResponseSimulatorService,
+            PeriodicLimitService periodicLimitService,
             PaymentSubmissionValidator paymentSubmissionValidator,
+            PaymentSettlementService paymentSettlementService,
             RefundAccountService refundAccountService
     ) {
         this.paymentSubmissionRepository = Objects.requireNonNull(paymentSubmissionRepository, "PaymentSubmissionRepository cannot be null");
         this.paymentRequestValidator = Objects.requireNonNull(paymentRequestValidator, "PaymentRequestValidator cannot be null");
         this.consentStoreClient = Objects.requireNonNull(consentStoreClient, "ConsentStoreClient cannot be null");
         this.limitBreachResponseSimulatorService = Objects.requireNonNull(limitBreachResponseSimulatorService, "LimitBreachResponseSimulatorService cannot be null");
+        this.periodicLimitService = Objects.requireNonNull(periodicLimitService, "PeriodicLimitService cannot be null");
         this.paymentSubmissionValidator = Objects.requireNonNull(paymentSubmissionValidator, "PaymentSubmissionValidator cannot be null");
+        this.paymentSettlementService = Objects.requireNonNull(paymentSettlementService, "PaymentSettlementService cannot be null");
         this.refundAccountService = Objects.requireNonNull(refundAccountService, "RefundAccountService cannot be null");
         this.idempotentPaymentService = new VRPIdempotentPaymentService(
-                Objects.requireNonNull(paymentSubmissionRepository, "PaymentSubmissionRepository cannot be null for IdempotentPaymentService")
+                Objects.requireNonNull(paymentSubmissionRepository, "PaymentSubmissionRepository cannot be null for IdempotentPaymentService"),
+                Objects.requireNonNull(idempotencyRecordRepository, "IdempotencyRecordRepository cannot be null for IdempotentPaymentService")
         );
     }
 
@@ -226,8 +238,15 @@ public class DomesticVrpsApiController implements DomesticVrpsApi {
 
         log.debug("VRP validation successful! Creating the payment.");
 
+        final String paymentId = UUID.randomUUID().toString();
+        final DateTime paymentDateTime = DateTime.now();
+        final OBActiveOrHistoricCurrencyAndAmount instructedAmount = obDomesticVRPRequest.getData().getInstruction().getInstructedAmount();
+        final PeriodicLimitReservation limitReservation = periodicLimitService.reserve(consentId, paymentId,
+                consent.getRequestObj(), getConsentStart(consent, paymentDateTime),
+                new BigDecimal(instructedAmount.getAmount()), instructedAmount.getCurrency(), paymentDateTime);
+
         FRDomesticVrpPaymentSubmission vrpPaymentSubmission = FRDomesticVrpPaymentSubmission.builder()
-                .id(UUID.randomUUID().toString())
+                .id(paymentId)
                 .transactionId(UUID.randomUUID().toString())
                 .idempotencyKey(xIdempotencyKey)
                 .idempotencyKeyExpiration(DateTime.now().plusHours(24))
@@ -235,19 +254,47 @@ public class DomesticVrpsApiController implements DomesticVrpsApi {
                 .consentId(frDomesticVRPRequest.data.consentId)
                 .payment(frDomesticVRPRequest)
                 .status(toFRSubmissionStatus(OBDomesticVRPResponseDataStatus.PENDING))
-                .created(new Date())
-                .updated(new Date())
+                .created(paymentDateTime.toDate())
+                .updated(paymentDateTime.toDate())
                 .obVersion(VersionPathExtractor.getVersionFromPath(request))
                 .build();
 
         //save the domestic vrp
-        idempotentPaymentService.savePayment(vrpPaymentSubmission);
+        try {
+            vrpPaymentSubmission = idempotentPaymentService.savePayment(vrpPaymentSubmission);
+        } catch (OBErrorException | RuntimeException ex) {
+            periodicLimitService.release(limitReservation);
+            throw ex;
+        }
+        if (paymentId.equals(vrpPaymentSubmission.getId())) {
+            paymentSettlementService.submitForSettlement(vrpPaymentSubmission, consent.getAuthorisedDebtorAccountId());
+        } else {
+            // A concurrent request with the same idempotencyKey created the payment, it has reserved its own amount and
+            // queued the payment for settlement
+            periodicLimitService.release(limitReservation);
+        }
 
         OBDomesticVRPResponse entity = responseEntity(consent, obDomesticVRPRequest, vrpPaymentSubmission);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(entity);
     }
 
+    /**
+     * The start of the consent for Consent aligned PeriodicLimits: the ValidFromDateTime if one was specified, otherwise
+     * the consent creation time.
+     */
+    private static DateTime getConsentStart(DomesticVRPConsent consent, DateTime paymentDateTime) {
+        final DateTime validFromDateTime = consent.getRequestObj().getData().getControlParameters().getValidFromDateTime();
+        if (validFromDateTime != null) {
+            return validFromDateTime;
+        }
+        if (consent.getCreationDateTime() != null) {
+            return new DateTime(consent.getCreationDateTime());
+        }
+        log.warn("Consent: {} has no creationDateTime, Consent aligned periodic limits will start from the payment time", consent.getId());
+        return paymentDateTime;
+    }
+
     private OBDomesticVRPResponse responseEntity(DomesticVRPConsent consent, FRDomesticVrpPaymentSubmission paymentSubmission) {
         OBDomesticVRPRequest obDomesticVRPRequest = toOBDomesticVRPRequest(paymentSubmission.getPayment());
         return responseEntity(consent, obDomesticVRPRequest, paymentSubmission);
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Summary of a payment file which has been processed in streaming mode, the individual payments are not retained.
+ */
+public class PaymentFileSummary {
+
+    private final PaymentFileType fileType;
+    private final int numberOfTransactions;
+    private final BigDecimal controlSum;
+
+    public PaymentFileSummary(PaymentFileType fileType, int numberOfTransactions, BigDecimal controlSum) {
+        this.fileType = Objects.requireNonNull(fileType);
+        this.controlSum = Objects.requireNonNull(controlSum);
+        if (numberOfTransactions < 1) {
+            throw new IllegalArgumentException("numberOfTransactions must be 1 or more");
+        }
+        this.numberOfTransactions = numberOfTransactions;
+    }
+
+    /**
+     * @return Number of transactions in payment file
+     */
+    public int getNumberOfTransactions() {
+        return numberOfTransactions;
+    }
+
+    /**
+     * @return The control sum (sum of all transaction amounts)
+     */
+    public BigDecimal getControlSum() {
+        return controlSum;
+    }
+
+    /**
+     * @return PaymentFileType the type of file that was parsed
+     */
+    public PaymentFileType getFileType() {
+        return fileType;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentFileSummary{" +
+                "fileType=" + fileType +
+                ", numberOfTransactions=" + numberOfTransactions +
+                ", controlSum=" + controlSum +
+                '}';
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Objects;
+
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.HashUtils;
+
+/**
+ * Raw content of an uploaded payment file together with its SHA-256 hash.
+ *
+ * The hash is computed incrementally as the upload is read, meaning that it can be verified before any parsing takes
+ * place. The content is held in a single buffer which can then be parsed via {@link #newInputStream()} and forwarded
+ * via {@link #getContentsAsString()} without making further copies of the bytes.
+ */
+public final class UploadedPaymentFile {
+
+    private static final int READ_CHUNK_SIZE = 8192;
+
+    /**
+     * Upper bound on the buffer size to pre-allocate from a client supplied Content-Length
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1024 * 1024;
+
+    private final ContentBuffer content;
+
+    private final String fileHash;
+
+    private UploadedPaymentFile(ContentBuffer content, String fileHash) {
+        this.content = content;
+        this.fileHash = fileHash;
+    }
+
+    /**
+     * Reads the whole of the inputStream, hashing the content as it is read.
+     *
+     * @param inputStream   InputStream of the uploaded file, this is not closed by this method
+     * @param contentLength the expected length of the content, or -1 if not known
+     * @return UploadedPaymentFile containing the content and its hash
+     * @throws IOException if reading the inputStream fails
+     */
+    public static UploadedPaymentFile read(InputStream inputStream, long contentLength) throws IOException {
+        Objects.requireNonNull(inputStream, "inputStream must be supplied");
+        final int initialCapacity = contentLength > 0 ? (int) Math.min(contentLength, MAX_INITIAL_CAPACITY) : READ_CHUNK_SIZE;
+        final ContentBuffer content = new ContentBuffer(initialCapacity);
+        final MessageDigest digest = HashUtils.createSHA256Digest();
+        final byte[] chunk = new byte[READ_CHUNK_SIZE];
+        int bytesRead;
+        while ((bytesRead = inputStream.read(chunk)) != -1) {
+            digest.update(chunk, 0, bytesRead);
+            content.write(chunk, 0, bytesRead);
+        }
+        return new UploadedPaymentFile(content, HashUtils.encodeHash(digest.digest()));
+    }
+
+    /**
+     * @return the SHA-256 hash of the file, encoded as per {@link HashUtils#computeSHA256FullHash(String)}
+     */
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    /**
+     * @return the size of the file in bytes
+     */
+    public int getSize() {
+        return content.size();
+    }
+
+    /**
+     * @return true if the file is empty or only contains whitespace
+     */
+    public boolean isBlank() {
+        return content.isBlank();
+    }
+
+    /**
+     * @return a new InputStream over the file content, this reads directly from the underlying buffer
+     */
+    public InputStream newInputStream() {
+        return content.newInputStream();
+    }
+
+    /**
+     * @return a copy of the file content
+     */
+    public byte[] getContents() {
+        return content.toByteArray();
+    }
+
+    /**
+     * @return the file content decoded as UTF-8
+     */
+    public String getContentsAsString() {
+        return content.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * ByteArrayOutputStream which allows its buffer to be read in place rather than copied by toByteArray.
+     */
+    private static class ContentBuffer extends ByteArrayOutputStream {
+
+        private ContentBuffer(int initialCapacity) {
+            super(initialCapacity);
+        }
+
+        private synchronized InputStream newInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+
+        private synchronized boolean isBlank() {
+            for (int i = 0; i < count; i++) {
+                if (!Character.isWhitespace(buf[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -15,9 +15,13 @@
  */
 package com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,12 +30,17 @@ import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileType;
 
 /**
  * Abstract class that can be used as a base for PaymentFileProcessor implementations.
  *
- * Subclasses need to implement the processFileImpl method.
+ * Subclasses need to implement the processFileImpl method. Subclasses which are able to parse the file incrementally
+ * should also override the streaming processFileImpl method, the default implementation reads the whole file into
+ * memory and delegates to the String based processFileImpl.
+ *
+ * A file which does not contain any payments is rejected, whichever way it is processed.
  */
 public abstract class BasePaymentFileProcessor implements PaymentFileProcessor {
 
@@ -48,6 +57,16 @@ public abstract class BasePaymentFileProcessor implements PaymentFileProcessor {
      */
     protected abstract PaymentFile processFileImpl(String fileContent) throws OBErrorException;
 
+    /**
+     * FileType specific streaming processing implementation, fileContent is guaranteed to be non-empty.
+     *
+     * The default implementation uses the buffering fallback of {@link PaymentFileProcessor}, which reads the whole
+     * file into memory and delegates to {@link #processFile(String)}.
+     */
+    protected PaymentFileSummary processFileImpl(InputStream fileContent, Consumer<FRFilePayment> paymentConsumer) throws OBErrorException {
+        return PaymentFileProcessor.super.processFile(fileContent, paymentConsumer);
+    }
+
     @Override
     public PaymentFileType getSupportedFileType() {
         return supportedPaymentFileType;
@@ -60,12 +79,46 @@ public abstract class BasePaymentFileProcessor implements PaymentFileProcessor {
         }
         logger.debug("Parsing file content: {}", fileContent);
         final PaymentFile paymentFile = processFileImpl(fileContent);
+        checkContainsPayments(paymentFile.getNumberOfTransactions());
         logger.debug("Parsed payment file, numTransactions: {}, controlSum: {}",
                      paymentFile.getNumberOfTransactions(), paymentFile.getControlSum());
         return paymentFile;
     }
 
+    @Override
+    public PaymentFileSummary processFile(InputStream fileContent, Consumer<FRFilePayment> paymentConsumer) throws OBErrorException {
+        Objects.requireNonNull(paymentConsumer, "paymentConsumer must be supplied");
+        if (fileContent == null) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_EMPTY);
+        }
+        try {
+            final PushbackInputStream pushbackInputStream = new PushbackInputStream(fileContent, 1);
+            final int firstByte = pushbackInputStream.read();
+            if (firstByte == -1) {
+                throw new OBErrorException(OBRIErrorType.REQUEST_FILE_EMPTY);
+            }
+            pushbackInputStream.unread(firstByte);
+            final PaymentFileSummary paymentFileSummary = processFileImpl(pushbackInputStream, paymentConsumer);
+            checkContainsPayments(paymentFileSummary.getNumberOfTransactions());
+            logger.debug("Streamed payment file, numTransactions: {}, controlSum: {}",
+                         paymentFileSummary.getNumberOfTransactions(), paymentFileSummary.getControlSum());
+            return paymentFileSummary;
+        } catch (IOException e) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, e.getMessage());
+        }
+    }
+
     protected PaymentFile createPaymentFile(List<FRFilePayment> payments, BigDecimal controlSum) {
         return new PaymentFile(supportedPaymentFileType, payments, controlSum);
     }
+
+    protected PaymentFileSummary createPaymentFileSummary(int numberOfTransactions, BigDecimal controlSum) {
+        return new PaymentFileSummary(supportedPaymentFileType, numberOfTransactions, controlSum);
+    }
+
+    private static void checkContainsPayments(int numberOfTransactions) throws OBErrorException {
+        if (numberOfTransactions == 0) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, "file does not contain any payments");
+        }
+    }
 }
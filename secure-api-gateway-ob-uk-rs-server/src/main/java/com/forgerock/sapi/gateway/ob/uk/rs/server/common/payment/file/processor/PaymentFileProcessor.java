@@ -15,8 +15,16 @@
  */
 package com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileType;
 
 /**
@@ -36,4 +44,28 @@ public interface PaymentFileProcessor {
      *                    the file such as the individual payment transactions.
      */
     PaymentFile processFile(String fileContent) throws OBErrorException;
+
+    /**
+     * Process the contents of a payment file in streaming mode.
+     *
+     * Each payment is passed to the paymentConsumer as soon as it has been parsed, the payments are not retained by
+     * the processor, allowing large files to be processed with bounded memory.
+     *
+     * The default implementation reads the whole file into memory and delegates to {@link #processFile(String)},
+     * processors which are able to parse incrementally should override this method.
+     *
+     * @param fileContent     InputStream of the file content, the caller is responsible for closing the stream
+     * @param paymentConsumer Consumer which receives each payment in file order
+     * @return PaymentFileSummary containing the number of transactions and the control sum of the file
+     */
+    default PaymentFileSummary processFile(InputStream fileContent, Consumer<FRFilePayment> paymentConsumer) throws OBErrorException {
+        final PaymentFile paymentFile;
+        try {
+            paymentFile = processFile(fileContent == null ? null : new String(fileContent.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, e.getMessage());
+        }
+        paymentFile.getPayments().forEach(paymentConsumer);
+        return new PaymentFileSummary(paymentFile.getFileType(), paymentFile.getNumberOfTransactions(), paymentFile.getControlSum());
+    }
 }
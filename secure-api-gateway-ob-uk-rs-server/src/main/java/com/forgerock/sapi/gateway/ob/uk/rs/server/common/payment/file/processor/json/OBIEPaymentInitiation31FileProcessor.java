@@ -15,17 +15,20 @@
  */
 package com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.json;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import org.joda.time.DateTime;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.common.FRAmountConverter;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
@@ -33,11 +36,19 @@ import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.DefaultPaymentFileType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.BasePaymentFileProcessor;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.json.schema.OBDomestic2;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.json.schema.OBRemittanceInformation1;
-import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.JsonUtils;
 
+import uk.org.openbanking.datamodel.v3.common.OBActiveOrHistoricCurrencyAndAmount;
+
+/**
+ * Processor for UK.OBIE.PaymentInitiation.3.1 JSON files.
+ *
+ * Files are read with a Jackson token stream, each element of Data.DomesticPayments is mapped, validated and totalled
+ * as it is reached. Processing stops at the first invalid payment, the rest of the file is not read.
+ */
 @Component
 public class OBIEPaymentInitiation31FileProcessor extends BasePaymentFileProcessor {
 
@@ -54,33 +65,105 @@ public class OBIEPaymentInitiation31FileProcessor extends BasePaymentFileProcess
     @Override
     protected PaymentFile processFileImpl(String fileContent) throws OBErrorException {
         try {
-            final JsonNode dataNode = objectMapper.readTree(fileContent).path(DATA_NODE);
-
-            final AtomicReference<BigDecimal> controlSumRef = new AtomicReference<>(BigDecimal.ZERO);
-            final List<FRFilePayment> payments = JsonUtils.streamArray(dataNode.path(DOMESTIC_PAYMENTS_NODE))
-                    .map(this::toOBDomestic)
-                    .map(obDomestic2 -> {
-                        final FRFilePayment frFilePayment = this.toFRFilePayment(obDomestic2);
-                        final BigDecimal paymentAmount = new BigDecimal(frFilePayment.getInstructedAmount().getAmount());
-                        controlSumRef.set(controlSumRef.get().add(paymentAmount));
-                        return frFilePayment;
-                    })
-                    .collect(Collectors.toList());
-
-            return createPaymentFile(payments, controlSumRef.get());
+            final List<FRFilePayment> payments = new ArrayList<>();
+            final PaymentFileSummary paymentFileSummary = parsePayments(objectMapper.createParser(fileContent), payments::add);
+            return createPaymentFile(payments, paymentFileSummary.getControlSum());
+        } catch (OBErrorException e) {
+            logger.warn("Invalid JSON payment file. File content: '{}'", fileContent, e);
+            throw e;
         } catch (Exception e) {
             logger.error("Error parsing JSON file. File content: '{}'", fileContent, e);
             throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, e.getMessage());
         }
     }
-    private OBDomestic2 toOBDomestic(JsonNode paymentNode) {
+
+    @Override
+    protected PaymentFileSummary processFileImpl(InputStream fileContent, Consumer<FRFilePayment> paymentConsumer) throws OBErrorException {
         try {
-            return objectMapper.treeToValue(paymentNode, OBDomestic2.class);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
+            return parsePayments(objectMapper.createParser(fileContent), paymentConsumer);
+        } catch (OBErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error stream parsing JSON file", e);
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, e.getMessage());
+        }
+    }
+
+    /**
+     * Walks the token stream to Data.DomesticPayments and maps one array element at a time, all other fields are
+     * skipped without being bound.
+     */
+    private PaymentFileSummary parsePayments(JsonParser parser, Consumer<FRFilePayment> paymentConsumer) throws IOException, OBErrorException {
+        try (parser) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, "file must contain a JSON object");
+            }
+            int numberOfTransactions = 0;
+            BigDecimal controlSum = BigDecimal.ZERO;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.currentName();
+                if (parser.nextToken() != JsonToken.START_OBJECT || !DATA_NODE.equals(fieldName)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String dataFieldName = parser.currentName();
+                    if (parser.nextToken() != JsonToken.START_ARRAY || !DOMESTIC_PAYMENTS_NODE.equals(dataFieldName)) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    JsonToken paymentToken;
+                    while ((paymentToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (paymentToken == null) {
+                            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, "unexpected end of file");
+                        }
+                        final OBDomestic2 payment = paymentToken == JsonToken.START_OBJECT ? objectMapper.readValue(parser, OBDomestic2.class) : null;
+                        final BigDecimal paymentAmount = validatePayment(payment, numberOfTransactions);
+                        controlSum = controlSum.add(paymentAmount);
+                        numberOfTransactions++;
+                        paymentConsumer.accept(toFRFilePayment(payment));
+                    }
+                }
+            }
+            return createPaymentFileSummary(numberOfTransactions, controlSum);
         }
     }
 
+    /**
+     * Validates the fields required to create a FRFilePayment
+     *
+     * @return BigDecimal the instructed amount of the payment
+     */
+    private BigDecimal validatePayment(OBDomestic2 payment, int paymentIndex) throws OBErrorException {
+        if (payment == null) {
+            throw invalidPayment(paymentIndex, "payment must be a JSON object");
+        }
+        if (!StringUtils.hasText(payment.getInstructionIdentification())) {
+            throw invalidPayment(paymentIndex, "InstructionIdentification is required");
+        }
+        if (!StringUtils.hasText(payment.getEndToEndIdentification())) {
+            throw invalidPayment(paymentIndex, "EndToEndIdentification is required");
+        }
+        if (payment.getCreditorAccount() == null || !StringUtils.hasText(payment.getCreditorAccount().getIdentification())) {
+            throw invalidPayment(paymentIndex, "CreditorAccount.Identification is required");
+        }
+        final OBActiveOrHistoricCurrencyAndAmount instructedAmount = payment.getInstructedAmount();
+        if (instructedAmount == null || !StringUtils.hasText(instructedAmount.getCurrency())
+                || !StringUtils.hasText(instructedAmount.getAmount())) {
+            throw invalidPayment(paymentIndex, "InstructedAmount.Amount and InstructedAmount.Currency are required");
+        }
+        try {
+            return new BigDecimal(instructedAmount.getAmount());
+        } catch (NumberFormatException e) {
+            throw invalidPayment(paymentIndex, "InstructedAmount.Amount is not a valid amount");
+        }
+    }
+
+    private static OBErrorException invalidPayment(int paymentIndex, String reason) {
+        return new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID,
+                DATA_NODE + "." + DOMESTIC_PAYMENTS_NODE + "[" + paymentIndex + "] " + reason);
+    }
+
     private FRFilePayment toFRFilePayment(OBDomestic2 payment) {
         Optional<OBRemittanceInformation1> remittanceInformation = Optional.ofNullable(payment.getRemittanceInformation());
         return FRFilePayment.builder()
@@ -17,10 +17,16 @@ package com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor
 
 import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.common.FRAmountConverter.toFRAmount;
 
+import java.io.InputStream;
 import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.joda.time.DateTime;
 import org.springframework.stereotype.Component;
@@ -31,47 +37,132 @@ import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.DefaultPaymentFileType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.jaxb.pain001.CreditTransferTransaction26;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.jaxb.pain001.CreditorReferenceInformation2;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.jaxb.pain001.Document;
-import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.jaxb.pain001.PaymentInstruction22;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.jaxb.pain001.StructuredRemittanceInformation13;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.BasePaymentFileProcessor;
 
 import uk.org.openbanking.datamodel.v3.common.OBActiveOrHistoricCurrencyAndAmount;
 
-import jakarta.xml.bind.JAXB;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
 
+/**
+ * Processor for pain.001.001.08 XML files.
+ *
+ * Files are parsed with StAX, each CdtTrfTxInf element is unmarshalled on its own using a shared JAXBContext, so the
+ * full Document object tree is never materialised.
+ */
 @Component
 public class OBIEPain001FileProcessor extends BasePaymentFileProcessor {
 
+    private static final String DOCUMENT_ELEMENT = "Document";
+    static final String PAIN_001_001_08_NAMESPACE = "urn:iso:std:iso:20022:tech:xsd:pain.001.001.08";
+    private static final String CREDIT_TRANSFER_TRANSACTION_ELEMENT = "CdtTrfTxInf";
+
+    /**
+     * JAXBContext is thread safe and expensive to create, Unmarshallers are cheap but not thread safe
+     */
+    private static final JAXBContext PAIN_001_JAXB_CONTEXT = createJaxbContext();
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
     public OBIEPain001FileProcessor() {
         super(DefaultPaymentFileType.UK_OBIE_PAIN_001.getPaymentFileType());
     }
 
+    private static JAXBContext createJaxbContext() {
+        try {
+            return JAXBContext.newInstance(Document.class);
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Failed to create JAXBContext for pain.001 Document", e);
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        final XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+        // Payment files are untrusted input, disable DTDs and external entities (XXE)
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return xmlInputFactory;
+    }
+
     @Override
     protected PaymentFile processFileImpl(String fileContent) throws OBErrorException {
         try {
             logger.debug("Attempt to unmarshal XML '{}'", fileContent);
-            Document document = JAXB.unmarshal(new StringReader(fileContent), Document.class);
-            logger.debug("Unmarshalled to document");
-            final List<PaymentInstruction22> pmtInf = document.getCstmrCdtTrfInitn().getPmtInf();
             final List<FRFilePayment> payments = new ArrayList<>();
+            final PaymentFileSummary paymentFileSummary = unmarshalPayments(
+                    XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(fileContent)), payments::add);
+            return createPaymentFile(payments, paymentFileSummary.getControlSum());
+        } catch (OBErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.warn("JAXB exception while attempting to unmarshal: {}", fileContent, e);
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, e.getMessage());
+        }
+    }
+
+    @Override
+    protected PaymentFileSummary processFileImpl(InputStream fileContent, Consumer<FRFilePayment> paymentConsumer) throws OBErrorException {
+        try {
+            return unmarshalPayments(XML_INPUT_FACTORY.createXMLStreamReader(fileContent), paymentConsumer);
+        } catch (OBErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.warn("Exception while attempting to stream unmarshal pain.001 file", e);
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, e.getMessage());
+        }
+    }
+
+    /**
+     * Walks the document with StAX, unmarshalling each CdtTrfTxInf element as it is reached and passing the resulting
+     * payment to the paymentConsumer. The transaction count and controlSum are accumulated as the file is read.
+     */
+    private PaymentFileSummary unmarshalPayments(XMLStreamReader xmlStreamReader, Consumer<FRFilePayment> paymentConsumer)
+            throws XMLStreamException, JAXBException, OBErrorException {
+        try {
+            final Unmarshaller unmarshaller = PAIN_001_JAXB_CONTEXT.createUnmarshaller();
+            boolean rootElementChecked = false;
+            int numberOfTransactions = 0;
             BigDecimal controlSum = BigDecimal.ZERO;
-            for (final PaymentInstruction22 paymentInstruction22 : pmtInf) {
-                for (final CreditTransferTransaction26 creditTransferTransaction26 : paymentInstruction22.getCdtTrfTxInf()) {
+            while (xmlStreamReader.hasNext()) {
+                if (!xmlStreamReader.isStartElement()) {
+                    xmlStreamReader.next();
+                    continue;
+                }
+                final String elementName = xmlStreamReader.getLocalName();
+                if (!rootElementChecked) {
+                    if (!DOCUMENT_ELEMENT.equals(elementName)) {
+                        throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, "unexpected root element: " + elementName);
+                    }
+                    final String namespace = xmlStreamReader.getNamespaceURI();
+                    if (!PAIN_001_001_08_NAMESPACE.equals(namespace)) {
+                        throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, "unexpected namespace of root element: " + namespace);
+                    }
+                    rootElementChecked = true;
+                }
+                if (CREDIT_TRANSFER_TRANSACTION_ELEMENT.equals(elementName)) {
+                    // Unmarshalling consumes the element, leaving the reader on the event after its end tag
+                    final CreditTransferTransaction26 creditTransferTransaction26 =
+                            unmarshaller.unmarshal(xmlStreamReader, CreditTransferTransaction26.class).getValue();
                     final FRFilePayment filePayment = toFRFilePayment(creditTransferTransaction26);
-                    payments.add(filePayment);
                     controlSum = controlSum.add(new BigDecimal(filePayment.getInstructedAmount().getAmount()));
+                    numberOfTransactions++;
+                    paymentConsumer.accept(filePayment);
+                } else {
+                    xmlStreamReader.next();
                 }
             }
-            return createPaymentFile(payments, controlSum);
-        } catch (Exception e) {
-            logger.warn("JAXB exception while attempting to unmarshal: {}", fileContent, e);
-            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, e.getMessage());
+            return createPaymentFileSummary(numberOfTransactions, controlSum);
+        } finally {
+            xmlStreamReader.close();
         }
     }
-    
+
     private FRFilePayment toFRFilePayment(CreditTransferTransaction26 payment) {
         String remittanceReference = payment
                 .getRmtInf()
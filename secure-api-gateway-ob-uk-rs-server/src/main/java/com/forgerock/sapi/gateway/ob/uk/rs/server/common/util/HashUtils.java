@@ -26,12 +26,28 @@ public class HashUtils {
 
     public static String computeSHA256FullHash(String contentToEncode) {
         Preconditions.checkNotNull(contentToEncode, "Cannot hash null");
+        return encodeHash(createSHA256Digest().digest(contentToEncode.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Creates a new SHA-256 MessageDigest, this can be used to compute a hash incrementally as content is read.
+     * The digest produced should be encoded using {@link #encodeHash(byte[])}.
+     *
+     * @return MessageDigest for the SHA-256 algorithm
+     */
+    public static MessageDigest createSHA256Digest() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(contentToEncode.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(hash);
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException ex) {
             throw new IllegalStateException("Unknown algorithm for file hash: SHA-256");
         }
     }
+
+    /**
+     * @param hash byte[] digest output
+     * @return the hash encoded in the same format as {@link #computeSHA256FullHash(String)}
+     */
+    public static String encodeHash(byte[] hash) {
+        return Base64.getEncoder().encodeToString(hash);
+    }
 }
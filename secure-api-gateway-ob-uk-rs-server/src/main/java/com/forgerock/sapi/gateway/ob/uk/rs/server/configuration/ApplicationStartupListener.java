@@ -21,6 +21,7 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 import com.forgerock.sapi.gateway.ob.uk.rs.server.api.discovery.DiscoveryApiService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.web.DisabledEndpointInterceptor;
@@ -48,6 +49,8 @@ public class ApplicationStartupListener implements ApplicationListener<Applicati
      * See {@link DisabledEndpointInterceptor} documentation relating to the circular dependency for this component
      */
     private void configureDisableEndpointInterceptorServices(ConfigurableApplicationContext applicationContext) {
-        applicationContext.getBean(DisabledEndpointInterceptor.class).setDiscoveryApiService(applicationContext.getBean(DiscoveryApiService.class));
+        applicationContext.getBean(DisabledEndpointInterceptor.class).setDiscoveryApiService(
+                applicationContext.getBean(DiscoveryApiService.class),
+                applicationContext.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class));
     }
 }
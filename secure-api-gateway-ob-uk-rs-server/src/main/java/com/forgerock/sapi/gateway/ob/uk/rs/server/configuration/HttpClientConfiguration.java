@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.configuration;
+
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.Map;
+
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.ObservationExecChainHandler;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Configuration of the pooled HttpClient used by the RestTemplate, see {@link HttpClientConfigurationProperties} for
+ * the available settings.
+ *
+ * Pool state is published via the httpcomponents.httpclient.pool.* gauges and per route request latency via the
+ * httpcomponents.httpclient.request timer (tagged with target.host/target.port), both are exposed on the prometheus
+ * actuator endpoint.
+ */
+@Configuration
+public class HttpClientConfiguration {
+
+    static final String POOL_NAME = "restTemplate";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager restTemplateConnectionManager(HttpClientConfigurationProperties properties) {
+        final PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnectionsTotal())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.getConnectionTimeToLive()))
+                        .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                        .build())
+                .build();
+
+        for (Map.Entry<String, Integer> routeMaxConnections : properties.getRouteMaxConnections().entrySet()) {
+            connectionManager.setMaxPerRoute(new HttpRoute(toHttpHost(routeMaxConnections.getKey())), routeMaxConnections.getValue());
+        }
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient restTemplateHttpClient(PoolingHttpClientConnectionManager restTemplateConnectionManager,
+                                                      HttpClientConfigurationProperties properties,
+                                                      ObjectProvider<ObservationRegistry> observationRegistry) {
+        return HttpClients.custom()
+                .setConnectionManager(restTemplateConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .build())
+                .setKeepAliveStrategy(cappedKeepAliveStrategy(properties.getMaxKeepAlive()))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEvictionTimeout()))
+                .addExecInterceptorLast("micrometer",
+                        new ObservationExecChainHandler(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)))
+                .build();
+    }
+
+    /**
+     * Publishes connection pool gauges: max, leased, available and pending (requests waiting to lease a connection).
+     */
+    @Bean
+    public MeterBinder restTemplateConnectionPoolMetrics(PoolingHttpClientConnectionManager restTemplateConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(restTemplateConnectionManager, POOL_NAME);
+    }
+
+    /**
+     * Honours the server's Keep-Alive timeout when it is shorter than maxKeepAlive, otherwise uses maxKeepAlive
+     */
+    static ConnectionKeepAliveStrategy cappedKeepAliveStrategy(Duration maxKeepAlive) {
+        final TimeValue maxKeepAliveTimeValue = TimeValue.of(maxKeepAlive);
+        return (response, context) -> {
+            final TimeValue keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            if (TimeValue.isPositive(keepAlive) && keepAlive.compareTo(maxKeepAliveTimeValue) < 0) {
+                return keepAlive;
+            }
+            return maxKeepAliveTimeValue;
+        };
+    }
+
+    private static HttpHost toHttpHost(String routeUri) {
+        try {
+            return HttpHost.create(routeUri);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid rs.http.client.routeMaxConnections route: " + routeUri, e);
+        }
+    }
+}
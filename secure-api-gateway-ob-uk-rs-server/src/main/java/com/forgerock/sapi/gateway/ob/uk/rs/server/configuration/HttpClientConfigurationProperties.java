@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Configuration for the pooled HttpClient used by the RestTemplate for all outbound calls (consent store, cloud client).
+ *
+ * Example config:
+ *   rs:
+ *     http:
+ *       client:
+ *         maxConnectionsTotal: 200
+ *         maxConnectionsPerRoute: 50
+ *         routeMaxConnections:
+ *           "http://consent-store:8080": 100
+ *         connectTimeout: PT5S
+ *         responseTimeout: PT30S
+ */
+@Component
+@Data
+@ConfigurationProperties(prefix = "rs.http.client")
+public class HttpClientConfigurationProperties {
+
+    /**
+     * Maximum number of connections in the pool across all routes
+     */
+    private int maxConnectionsTotal = 200;
+
+    /**
+     * Default maximum number of connections per route (scheme, host, port)
+     */
+    private int maxConnectionsPerRoute = 50;
+
+    /**
+     * Per route overrides of maxConnectionsPerRoute, keyed by the route's base uri e.g. "https://host:443"
+     */
+    private Map<String, Integer> routeMaxConnections = new HashMap<>();
+
+    /**
+     * Timeout to establish a new connection
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum time to wait for a response once a request has been sent
+     */
+    private Duration responseTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Maximum time to wait to lease a connection from the pool
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Total time to live of a pooled connection, regardless of keep-alive
+     */
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+
+    /**
+     * Upper bound on the keep-alive duration, applies when the server does not send a shorter Keep-Alive timeout
+     */
+    private Duration maxKeepAlive = Duration.ofSeconds(60);
+
+    /**
+     * Connections idle for longer than this are evicted from the pool by a background thread
+     */
+    private Duration idleEvictionTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Pooled connections which have been inactive for this period are validated before being leased
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
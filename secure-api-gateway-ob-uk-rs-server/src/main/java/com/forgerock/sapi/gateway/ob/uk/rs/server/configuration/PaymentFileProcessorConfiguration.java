@@ -16,11 +16,17 @@
 package com.forgerock.sapi.gateway.ob.uk.rs.server.configuration;
 
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file.ChunkedPaymentFileValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file.DefaultPaymentFileProcessorService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file.PaymentFileProcessorService;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.PaymentFileProcessor;
@@ -45,11 +51,41 @@ public class PaymentFileProcessorConfiguration {
      *
      * @param paymentFileProcessors List<PaymentFileProcessor> all PaymentFileProcessor beans available in the
      *                              Spring Context
+     * @param chunkedPaymentFileValidator validator of the payments in the files
      * @return PaymentFileProcessorService that supports the paymentFileProcessors supplied
      */
     @Bean
-    public PaymentFileProcessorService paymentFileProcessorService(List<PaymentFileProcessor> paymentFileProcessors) {
-        return new DefaultPaymentFileProcessorService(paymentFileProcessors);
+    public PaymentFileProcessorService paymentFileProcessorService(List<PaymentFileProcessor> paymentFileProcessors,
+                                                                   ChunkedPaymentFileValidator chunkedPaymentFileValidator) {
+        return new DefaultPaymentFileProcessorService(paymentFileProcessors, chunkedPaymentFileValidator);
+    }
+
+    /**
+     * Creates the {@link ChunkedPaymentFileValidator}, the chunks are validated by a fixed size pool of daemon threads.
+     * The pool rejects chunks when its queue is full, those chunks are validated by the thread parsing the file, which
+     * limits the number of payments buffered waiting to be validated.
+     *
+     * @param threads   number of threads validating chunks, 0 to use one per available processor
+     * @param chunkSize number of payments in each chunk
+     * @return ChunkedPaymentFileValidator the validator, its pool is shut down when the context is closed
+     */
+    @Bean
+    public ChunkedPaymentFileValidator chunkedPaymentFileValidator(
+            @Value("${rs.payments.file.validation.threads:0}") int threads,
+            @Value("${rs.payments.file.validation.chunkSize:1000}") int chunkSize) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("rs.payments.file.validation.threads must be 0 or more");
+        }
+        final int poolSize = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ThreadPoolExecutor validationPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 2),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "payment-file-validation-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        return new ChunkedPaymentFileValidator(validationPool, chunkSize);
     }
 
 }
@@ -30,6 +30,7 @@ import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
@@ -52,20 +53,24 @@ import uk.org.openbanking.jackson.LocalDateSerializer;
 @Configuration
 public class RsApplicationConfiguration {
 
+    /**
+     * RestTemplate used for all outbound calls, uses the pooled HttpClient created by {@link HttpClientConfiguration}
+     * when available.
+     */
     @Bean
-    public RestTemplate restTemplate(@Qualifier("mappingJacksonHttpMessageConverter") MappingJackson2HttpMessageConverter converter) {
+    public RestTemplate restTemplate(@Qualifier("mappingJacksonHttpMessageConverter") MappingJackson2HttpMessageConverter converter,
+                                     @Qualifier("restTemplateHttpClient") ObjectProvider<HttpClient> httpClient) {
         RestTemplate restTemplate = new RestTemplate();
-        customiseRestTemplate(converter, restTemplate);
+        customiseRestTemplate(converter, restTemplate, httpClient.getIfAvailable(() -> HttpClientBuilder.create().build()));
         return restTemplate;
     }
 
-    private void customiseRestTemplate(@Qualifier("mappingJacksonHttpMessageConverter") MappingJackson2HttpMessageConverter converter, RestTemplate restTemplate) {
+    private void customiseRestTemplate(@Qualifier("mappingJacksonHttpMessageConverter") MappingJackson2HttpMessageConverter converter, RestTemplate restTemplate, HttpClient httpClient) {
         List<HttpMessageConverter<?>> messageConverters = restTemplate.getMessageConverters();
         messageConverters.removeIf(c -> c instanceof MappingJackson2HttpMessageConverter);
         messageConverters.add(converter);
 //        restTemplate.setErrorHandler(new ClientResponseErrorHandler());
         // support for http PATCH calls
-        HttpClient httpClient = HttpClientBuilder.create().build();
         HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
         restTemplate.setRequestFactory(requestFactory);
     }
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.account.consent.v4_0_0;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.account.v3_1_10.AccountAccessConsent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded, TTL based cache of Authorised {@link AccountAccessConsent}s, keyed by (consentId, apiClientId).
+ *
+ * Only Authorised consents are cached, consents in any other state are always fetched from the consent store so that
+ * a newly Authorised consent is usable immediately. The TTL bounds how long a consent revoked outside of the RS
+ * (e.g. by the PSU via the RCS) may continue to be served, it should therefore be kept short.
+ *
+ * Hit/miss/eviction metrics are published to the MeterRegistry under the cache name "accountAccessConsents".
+ *
+ * Example config:
+ *   rs:
+ *     consent:
+ *       cache:
+ *         account-access:
+ *           ttl: PT10S
+ *           maxSize: 10000
+ */
+@Component("v4.0.0AccountAccessConsentCache")
+public class AccountAccessConsentCache {
+
+    static final String CACHE_NAME = "accountAccessConsents";
+
+    private final Cache<ConsentKey, AuthorisedConsent> cache;
+
+    public AccountAccessConsentCache(@Value("${rs.consent.cache.account-access.ttl:PT10S}") Duration ttl,
+                                     @Value("${rs.consent.cache.account-access.maxSize:10000}") long maxSize,
+                                     MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                             .expireAfterWrite(ttl)
+                             .maximumSize(maxSize)
+                             .recordStats()
+                             .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @return the cached AuthorisedConsent or null if there is no entry for this consentId and apiClientId
+     */
+    public AuthorisedConsent get(String consentId, String apiClientId) {
+        return cache.getIfPresent(new ConsentKey(consentId, apiClientId));
+    }
+
+    public AuthorisedConsent put(String consentId, String apiClientId, AccountAccessConsent consent) {
+        final AuthorisedConsent authorisedConsent = new AuthorisedConsent(consent);
+        cache.put(new ConsentKey(consentId, apiClientId), authorisedConsent);
+        return authorisedConsent;
+    }
+
+    /**
+     * Removes a consent from the cache, this must be called whenever the RS changes the status of a consent.
+     */
+    public void invalidate(String consentId, String apiClientId) {
+        cache.invalidate(new ConsentKey(consentId, apiClientId));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Authorised consent together with its authorised account ids held in a Set for constant time access checks.
+     */
+    public static class AuthorisedConsent {
+
+        private final AccountAccessConsent consent;
+
+        private final Set<String> authorisedAccountIds;
+
+        AuthorisedConsent(AccountAccessConsent consent) {
+            this.consent = consent;
+            this.authorisedAccountIds = consent.getAuthorisedAccountIds() == null ? Set.of()
+                                                                                  : Set.copyOf(consent.getAuthorisedAccountIds());
+        }
+
+        public AccountAccessConsent getConsent() {
+            return consent;
+        }
+
+        public boolean isAccountAuthorised(String accountId) {
+            return accountId != null && authorisedAccountIds.contains(accountId);
+        }
+    }
+
+    private static class ConsentKey {
+
+        private final String consentId;
+
+        private final String apiClientId;
+
+        private ConsentKey(String consentId, String apiClientId) {
+            this.consentId = Objects.requireNonNull(consentId, "consentId must be supplied");
+            this.apiClientId = Objects.requireNonNull(apiClientId, "apiClientId must be supplied");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final ConsentKey that = (ConsentKey) o;
+            return consentId.equals(that.consentId) && apiClientId.equals(that.apiClientId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(consentId, apiClientId);
+        }
+    }
+}
@@ -18,37 +18,54 @@ package com.forgerock.sapi.gateway.ob.uk.rs.server.service.account.consent.v4_0_
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.service.account.consent.AccountResourceAccessService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.account.consent.v4_0_0.AccountAccessConsentCache.AuthorisedConsent;
 import com.forgerock.sapi.gateway.rcs.consent.store.client.account.AccountAccessConsentStoreClient;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.account.v3_1_10.AccountAccessConsent;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import uk.org.openbanking.datamodel.v3.common.OBExternalRequestStatus1Code;
 
+/**
+ * Default {@link AccountResourceAccessService}, Authorised consents are served from the {@link AccountAccessConsentCache}
+ * to avoid a round trip to the consent store for each AIS request.
+ */
 @Service("v4.0.0DefaultAccountResourceAccessService")
 public class DefaultAccountResourceAccessService implements AccountResourceAccessService {
 
     private final AccountAccessConsentStoreClient consentStoreClient;
 
-    public DefaultAccountResourceAccessService(@Qualifier("v4.0.0RestAccountAccessConsentStoreClient") AccountAccessConsentStoreClient consentStoreClient) {
+    private final AccountAccessConsentCache consentCache;
+
+    public DefaultAccountResourceAccessService(@Qualifier("v4.0.0RestAccountAccessConsentStoreClient") AccountAccessConsentStoreClient consentStoreClient,
+                                               @Qualifier("v4.0.0AccountAccessConsentCache") AccountAccessConsentCache consentCache) {
         this.consentStoreClient = consentStoreClient;
+        this.consentCache = consentCache;
     }
 
     @Override
     public AccountAccessConsent getConsentForResourceAccess(String consentId, String apiClientId) throws OBErrorException {
-        final AccountAccessConsent consent = consentStoreClient.getConsent(consentId, apiClientId);
-        if (!consent.getStatus().equals(OBExternalRequestStatus1Code.AUTHORISED.toString())) {
-            throw new OBErrorException(OBRIErrorType.CONSENT_STATUS_NOT_AUTHORISED, consent.getStatus());
-        }
-        return consent;
+        return getAuthorisedConsent(consentId, apiClientId).getConsent();
     }
 
     @Override
     public AccountAccessConsent getConsentForResourceAccess(String consentId, String apiClientId, String accountIdToAccess) throws OBErrorException {
-        final AccountAccessConsent consent = getConsentForResourceAccess(consentId, apiClientId);
-        if (!consent.getAuthorisedAccountIds().contains(accountIdToAccess)) {
+        final AuthorisedConsent authorisedConsent = getAuthorisedConsent(consentId, apiClientId);
+        if (!authorisedConsent.isAccountAuthorised(accountIdToAccess)) {
             throw new OBErrorException(OBRIErrorType.UNAUTHORISED_ACCOUNT, accountIdToAccess);
         }
-        return consent;
+        return authorisedConsent.getConsent();
+    }
+
+    private AuthorisedConsent getAuthorisedConsent(String consentId, String apiClientId) throws OBErrorException {
+        final AuthorisedConsent cachedConsent = consentCache.get(consentId, apiClientId);
+        if (cachedConsent != null) {
+            return cachedConsent;
+        }
+        final AccountAccessConsent consent = consentStoreClient.getConsent(consentId, apiClientId);
+        if (!consent.getStatus().equals(OBExternalRequestStatus1Code.AUTHORISED.toString())) {
+            throw new OBErrorException(OBRIErrorType.CONSENT_STATUS_NOT_AUTHORISED, consent.getStatus());
+        }
+        return consentCache.put(consentId, apiClientId, consent);
     }
 
 }
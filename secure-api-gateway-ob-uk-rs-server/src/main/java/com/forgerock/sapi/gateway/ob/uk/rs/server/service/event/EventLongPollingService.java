@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.event;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.event.FREventPolling;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorResponseException;
+import com.google.common.base.Preconditions;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Long polling for the aggregated polling API.
+ * <p>
+ * A poll with returnImmediately set to false, which finds no pending events, is parked as a {@link DeferredResult}
+ * rather than holding a request thread. It is woken by {@link #notifyEventsAvailable(String)} when an event is written
+ * for its apiClientId, see {@link EventMessageSavedListener} and {@link EventMessageChangeStreamListener}, and answered
+ * with no events once {@code rs.events.polling.longPolling.maxWait} has passed.
+ * <p>
+ * Each TPP may have at most {@code rs.events.polling.longPolling.maxWaitersPerApiClient} polls parked at once, further
+ * polls are answered immediately with the pending events, as if returnImmediately had been set.
+ */
+@Service
+@Slf4j
+public class EventLongPollingService {
+
+    private final EventPollingService eventPollingService;
+    private final Duration maxWait;
+    private final int maxWaitersPerApiClient;
+
+    /**
+     * The parked polls by apiClientId
+     */
+    private final ConcurrentHashMap<String, Set<Waiter<?>>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Re-fetches events for woken polls, so that the thread which wrote the event is not held up
+     */
+    private final ExecutorService wakeUpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "event-long-polling");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EventLongPollingService(EventPollingService eventPollingService,
+                                   @Value("${rs.events.polling.longPolling.maxWait:PT30S}") Duration maxWait,
+                                   @Value("${rs.events.polling.longPolling.maxWaitersPerApiClient:5}") int maxWaitersPerApiClient) {
+        Preconditions.checkArgument(maxWaitersPerApiClient > 0, "maxWaitersPerApiClient must be greater than 0");
+        this.eventPollingService = eventPollingService;
+        this.maxWait = maxWait;
+        this.maxWaitersPerApiClient = maxWaitersPerApiClient;
+    }
+
+    /**
+     * Polls for the TPP's pending events, waiting for up to the configured maxWait for events to arrive if this is a
+     * long polling request and there are none.
+     *
+     * @param frEventPolling the polling request, any acknowledgements and errors should already have been processed
+     * @param apiClientId    the TPP polling for events
+     * @param responseMapper creates the response from the polled events
+     * @return the response, which may not be set until events arrive or the wait times out
+     */
+    public <T> DeferredResult<T> pollEvents(FREventPolling frEventPolling, String apiClientId,
+                                            Function<PolledEvents, T> responseMapper) throws OBErrorResponseException {
+        Preconditions.checkNotNull(apiClientId);
+        Preconditions.checkNotNull(frEventPolling);
+        final DeferredResult<T> result = new DeferredResult<>(maxWait.toMillis());
+        if (!EventPollingService.isLongPollingRequest(frEventPolling) || EventPollingService.isNoEventsRequest(frEventPolling)) {
+            result.setResult(responseMapper.apply(eventPollingService.fetchPendingEvents(frEventPolling, apiClientId)));
+            return result;
+        }
+
+        // Registered before the first fetch so that an event written in between is not missed
+        final Waiter<T> waiter = new Waiter<>(frEventPolling, apiClientId, responseMapper, result);
+        final AtomicBoolean registered = new AtomicBoolean();
+        waiters.compute(apiClientId, (id, clientWaiters) -> {
+            final Set<Waiter<?>> updated = clientWaiters != null ? clientWaiters : ConcurrentHashMap.newKeySet();
+            if (updated.size() < maxWaitersPerApiClient) {
+                registered.set(updated.add(waiter));
+            }
+            return updated.isEmpty() ? null : updated;
+        });
+        if (!registered.get()) {
+            log.debug("TPP: {} already has {} long poll(s) waiting, responding immediately", apiClientId, maxWaitersPerApiClient);
+            result.setResult(responseMapper.apply(eventPollingService.fetchPendingEvents(frEventPolling, apiClientId)));
+            return result;
+        }
+        result.onCompletion(() -> removeWaiter(waiter));
+        result.onTimeout(() -> {
+            log.debug("Long poll for TPP: {} timed out after {}", apiClientId, maxWait);
+            waiter.fetch(true);
+        });
+        result.onError(error -> log.debug("Long poll for TPP: {} failed", apiClientId, error));
+
+        final PolledEvents polledEvents;
+        try {
+            polledEvents = eventPollingService.fetchPendingEvents(frEventPolling, apiClientId);
+        } catch (OBErrorResponseException | RuntimeException e) {
+            removeWaiter(waiter);
+            throw e;
+        }
+        if (!polledEvents.getEvents().isEmpty()) {
+            removeWaiter(waiter);
+            result.setResult(responseMapper.apply(polledEvents));
+        } else {
+            log.debug("No pending events for TPP: {}, waiting up to {} for events to arrive", apiClientId, maxWait);
+        }
+        return result;
+    }
+
+    /**
+     * Wakes the TPP's parked polls, each of which fetches the pending events and responds if there are any.
+     */
+    public void notifyEventsAvailable(String apiClientId) {
+        if (apiClientId == null) {
+            return;
+        }
+        final Set<Waiter<?>> clientWaiters = waiters.get(apiClientId);
+        if (clientWaiters == null || clientWaiters.isEmpty()) {
+            return;
+        }
+        log.debug("Waking {} long poll(s) for TPP: {}", clientWaiters.size(), apiClientId);
+        for (Waiter<?> waiter : clientWaiters) {
+            wakeUpExecutor.execute(() -> waiter.fetch(false));
+        }
+    }
+
+    int getWaiterCount(String apiClientId) {
+        final Set<Waiter<?>> clientWaiters = waiters.get(apiClientId);
+        return clientWaiters == null ? 0 : clientWaiters.size();
+    }
+
+    private void removeWaiter(Waiter<?> waiter) {
+        waiters.computeIfPresent(waiter.apiClientId, (id, clientWaiters) -> {
+            clientWaiters.remove(waiter);
+            return clientWaiters.isEmpty() ? null : clientWaiters;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        wakeUpExecutor.shutdownNow();
+    }
+
+    private class Waiter<T> {
+        private final FREventPolling frEventPolling;
+        private final String apiClientId;
+        private final Function<PolledEvents, T> responseMapper;
+        private final DeferredResult<T> result;
+
+        private Waiter(FREventPolling frEventPolling, String apiClientId, Function<PolledEvents, T> responseMapper,
+                       DeferredResult<T> result) {
+            this.frEventPolling = frEventPolling;
+            this.apiClientId = apiClientId;
+            this.responseMapper = responseMapper;
+            this.result = result;
+        }
+
+        /**
+         * Fetches the pending events and responds if there are any, or regardless when the wait is over.
+         */
+        private void fetch(boolean respondIfNone) {
+            if (result.isSetOrExpired() && !respondIfNone) {
+                return;
+            }
+            try {
+                final PolledEvents polledEvents = eventPollingService.fetchPendingEvents(frEventPolling, apiClientId);
+                if (respondIfNone || !polledEvents.getEvents().isEmpty()) {
+                    removeWaiter(this);
+                    result.setResult(responseMapper.apply(polledEvents));
+                }
+            } catch (OBErrorResponseException | RuntimeException e) {
+                removeWaiter(this);
+                result.setErrorResult(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.event;
+
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.event.FREventMessageEntity;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wakes the TPP's long polls when an event is inserted by any instance of the RS, by watching a Mongo change stream on
+ * the event messages collection.
+ * <p>
+ * Change streams require Mongo to be running as a replica set, so this is only enabled when
+ * {@code rs.events.polling.longPolling.changeStream.enabled} is true. Without it, long polls are only woken by events
+ * saved by the same instance, see {@link EventMessageSavedListener}, otherwise they pick up the events when they time
+ * out.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rs.events.polling.longPolling.changeStream", name = "enabled", havingValue = "true")
+@Slf4j
+public class EventMessageChangeStreamListener {
+
+    private final EventLongPollingService eventLongPollingService;
+    private final MessageListenerContainer container;
+    private final String collectionName;
+
+    public EventMessageChangeStreamListener(EventLongPollingService eventLongPollingService, MongoTemplate mongoTemplate) {
+        this.eventLongPollingService = eventLongPollingService;
+        this.container = new DefaultMessageListenerContainer(mongoTemplate);
+        this.collectionName = mongoTemplate.getCollectionName(FREventMessageEntity.class);
+    }
+
+    @PostConstruct
+    void start() {
+        final ChangeStreamRequest<Document> request = ChangeStreamRequest.<Document>builder()
+                .collection(collectionName)
+                .filter(Aggregation.newAggregation(Aggregation.match(Criteria.where("operationType").is("insert"))))
+                .publishTo(message -> {
+                    final Document eventMessage = message.getBody();
+                    if (eventMessage != null) {
+                        eventLongPollingService.notifyEventsAvailable(eventMessage.getString("apiClientId"));
+                    }
+                })
+                .build();
+        container.register(request, Document.class, error -> log.warn("Error watching {} for new events", collectionName, error));
+        container.start();
+        log.info("Watching {} for new events to wake long polls", collectionName);
+    }
+
+    @PreDestroy
+    void stop() {
+        container.stop();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.event;
+
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.event.FREventMessageEntity;
+
+/**
+ * Wakes the TPP's long polls when an event is saved by this instance of the RS.
+ * <p>
+ * Events saved by other instances are not seen, enable {@link EventMessageChangeStreamListener} when running more than
+ * one instance.
+ */
+@Component
+public class EventMessageSavedListener extends AbstractMongoEventListener<FREventMessageEntity> {
+
+    private final EventLongPollingService eventLongPollingService;
+
+    public EventMessageSavedListener(EventLongPollingService eventLongPollingService) {
+        this.eventLongPollingService = eventLongPollingService;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<FREventMessageEntity> event) {
+        final FREventMessageEntity eventMessage = event.getSource();
+        // Events with TPP reported errors are never delivered
+        if (eventMessage.getErrors() == null) {
+            eventLongPollingService.notifyEventsAvailable(eventMessage.getApiClientId());
+        }
+    }
+}
@@ -17,11 +17,13 @@ package com.forgerock.sapi.gateway.ob.uk.rs.server.service.event;
 
 import static com.forgerock.sapi.gateway.rs.resource.store.api.admin.events.FRDataEventsConverter.toOBEventNotification1;
 
-import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -46,6 +48,8 @@ import uk.org.openbanking.datamodel.v3.event.OBEventNotification1;
 @Service
 @Slf4j
 public class EventPollingService {
+    private static final Sort PENDING_EVENTS_SORT = Sort.by(Sort.Direction.ASC, "created", "jti");
+
     private final FREventMessageRepository frEventMessageRepository;
     private final ObjectMapper objectMapper;
 
@@ -68,10 +72,8 @@ public class EventPollingService {
 
         if (frEventPolling.getAck() != null && !frEventPolling.getAck().isEmpty()) {
             log.debug("TPP '{}' is acknowledging (and therefore deleting) the following event notifications: {}", apiClientId, frEventPolling.getAck());
-            frEventPolling.getAck()
-                    .forEach(
-                            jti -> frEventMessageRepository.deleteByApiClientIdAndJti(apiClientId, jti)
-                    );
+            final long deleted = frEventMessageRepository.deleteByApiClientIdAndJtiIn(apiClientId, frEventPolling.getAck());
+            log.debug("Deleted {} acknowledged event notifications for TPP '{}'", deleted, apiClientId);
         }
     }
 
@@ -90,37 +92,58 @@ public class EventPollingService {
 
     }
 
-    public Map<String, String> fetchNewEvents(FREventPolling frEventPolling, String apiClientId) throws OBErrorResponseException {
+    /**
+     * Fetches the oldest pending event notifications for the TPP, see {@link #fetchPendingEvents(FREventPolling, String)}.
+     * <p>
+     * Long polling is rejected, it is only supported by the v4 API, see {@link EventLongPollingService}.
+     */
+    public PolledEvents fetchNewEvents(FREventPolling frEventPolling, String apiClientId) throws OBErrorResponseException {
         Preconditions.checkNotNull(apiClientId);
         Preconditions.checkNotNull(frEventPolling);
-        if (frEventPolling.getMaxEvents() != null && frEventPolling.getMaxEvents() <= 0) {
+        if (isNoEventsRequest(frEventPolling)) {
             // Zero notifications can be requested by TPP when they just want to send acknowledgements and/or errors to sandbox
             log.debug("Polling request for TPP: '{}' requested no event notifications so none will be returned", apiClientId);
-            return Collections.emptyMap();
+            return PolledEvents.none();
         }
 
-        // Long polling is currently optional in OB specs and as it requires more work to implement it will be left out for now.
-        if (frEventPolling.getReturnImmediately() != null && !frEventPolling.isReturnImmediately()) {
+        if (isLongPollingRequest(frEventPolling)) {
             log.warn("TPP: {} requested long polling on the event notification API but it is not supported", apiClientId);
             throw new OBErrorResponseException(
                     HttpStatus.NOT_IMPLEMENTED,
                     OBRIErrorResponseCategory.REQUEST_INVALID,
                     OBRIErrorType.LONG_POLLING_NOT_SUPPORTED_FOR_EVENTS.toOBError1());
         }
+        return fetchPendingEvents(frEventPolling, apiClientId);
+    }
+
+    /**
+     * Fetches the oldest pending event notifications for the TPP, up to the maxEvents requested (capped at the
+     * configured events limit). The returnImmediately flag of the request is not considered.
+     * <p>
+     * The limit and ordering are applied by the query on the (apiClientId, errors, created, jti) index, so only the
+     * events that will be delivered are loaded. One extra event is requested in order to determine whether more are available.
+     */
+    public PolledEvents fetchPendingEvents(FREventPolling frEventPolling, String apiClientId) throws OBErrorResponseException {
+        Preconditions.checkNotNull(apiClientId);
+        Preconditions.checkNotNull(frEventPolling);
+        if (isNoEventsRequest(frEventPolling)) {
+            return PolledEvents.none();
+        }
 
-        // Load all event notifications for TPP
-        log.debug("Loading all notifications for TPP: {}", apiClientId);
+        final int maxEvents = getMaxEvents(frEventPolling.getMaxEvents(), apiClientId);
+        log.debug("Loading up to {} notifications for TPP: {}", maxEvents, apiClientId);
+        final List<FREventMessageEntity> events = frEventMessageRepository.findByApiClientIdAndErrorsIsNull(apiClientId,
+                PageRequest.of(0, maxEvents + 1, PENDING_EVENTS_SORT));
+        final boolean moreAvailable = events.size() > maxEvents;
+        if (moreAvailable) {
+            log.debug("TPP has more than {} pending event notifications. Only the first {} will be returned.", maxEvents, maxEvents);
+        }
         try {
-            return frEventMessageRepository.findByApiClientId(apiClientId).stream()
-                    .filter(event -> !event.hasErrors())
-                    .collect(
-                            Collectors.toMap(
-                                    FREventMessageEntity::getJti,
-                                    frEventMessageEntity ->
-                                            writeValueAsString(toOBEventNotification1(frEventMessageEntity))
-
-                            )
-                    );
+            final Map<String, String> eventNotifications = new LinkedHashMap<>();
+            for (FREventMessageEntity event : events.subList(0, Math.min(events.size(), maxEvents))) {
+                eventNotifications.put(event.getJti(), writeValueAsString(toOBEventNotification1(event)));
+            }
+            return new PolledEvents(eventNotifications, moreAvailable);
         } catch (Exception e) {
             throw new OBErrorResponseException(
                     HttpStatus.NOT_IMPLEMENTED,
@@ -129,34 +152,33 @@ public class EventPollingService {
         }
     }
 
-    private String writeValueAsString(OBEventNotification1 obEventNotification1) {
-        try {
-            return objectMapper.writeValueAsString(obEventNotification1);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * @return whether the TPP is only sending acknowledgements and/or errors, and does not want any events back
+     */
+    public static boolean isNoEventsRequest(FREventPolling frEventPolling) {
+        return frEventPolling.getMaxEvents() != null && frEventPolling.getMaxEvents() <= 0;
     }
 
-    public Map<String, String> truncateEvents(Integer maxEvents, Map<String, String> eventNotifications, String apiClientId) {
-        Preconditions.checkNotNull(apiClientId);
-        log.debug("Request to truncate {} event notification to be max of {}", eventNotifications.size(), maxEvents);
-        if (eventNotifications.isEmpty()) {
-            return eventNotifications; // Nothing to do
-        }
+    /**
+     * @return whether the TPP asked for the response to be held until events are available
+     */
+    public static boolean isLongPollingRequest(FREventPolling frEventPolling) {
+        return frEventPolling.getReturnImmediately() != null && !frEventPolling.isReturnImmediately();
+    }
 
+    private int getMaxEvents(Integer maxEvents, String apiClientId) {
         if (maxEvents == null || maxEvents > eventsLimit) {
             log.debug("TPP {} requested a number of event notifications ({}) on polling that exceeds that allowed maximum on the sandbox ({}). Only {} will be returned.", apiClientId, maxEvents, eventsLimit, eventsLimit);
-            maxEvents = eventsLimit;
+            return eventsLimit;
         }
+        return maxEvents;
+    }
 
-        if (eventNotifications.size() > maxEvents) {
-            log.debug("TPP has {} pending event notifications. Only the first {} will be returned.", eventNotifications.size(), maxEvents);
-            return eventNotifications.entrySet().stream()
-                    .limit(maxEvents)
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        } else {
-            return eventNotifications;
+    private String writeValueAsString(OBEventNotification1 obEventNotification1) {
+        try {
+            return objectMapper.writeValueAsString(obEventNotification1);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
         }
-
     }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.event;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The event notifications returned by a poll of the aggregated polling API.
+ */
+public class PolledEvents {
+
+    private static final PolledEvents NONE = new PolledEvents(Collections.emptyMap(), false);
+
+    private final Map<String, String> events;
+    private final boolean moreAvailable;
+
+    public PolledEvents(Map<String, String> events, boolean moreAvailable) {
+        this.events = Collections.unmodifiableMap(events);
+        this.moreAvailable = moreAvailable;
+    }
+
+    public static PolledEvents none() {
+        return NONE;
+    }
+
+    /**
+     * @return Map of jti to the serialised event notification, in the order that the events were created
+     */
+    public Map<String, String> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return whether there are pending events for the TPP which were not returned by this poll
+     */
+    public boolean isMoreAvailable() {
+        return moreAvailable;
+    }
+}
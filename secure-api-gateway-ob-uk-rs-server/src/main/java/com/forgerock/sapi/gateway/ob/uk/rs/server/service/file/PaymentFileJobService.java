@@ -0,0 +1,264 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorResponseException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.UploadedPaymentFile;
+import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.file.FilePaymentConsentStoreClient;
+import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FilePaymentConsent;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.ProcessingError;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.Status;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.PaymentFileProcessingJobRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import uk.org.openbanking.datamodel.v3.error.OBError1;
+
+/**
+ * Processes uploaded payment files in the background, so that the request which uploads a file is answered as soon as
+ * the file has been checked against the consent and queued, rather than holding a request thread while the file is
+ * parsed and validated.
+ * <p>
+ * Queued files are persisted as {@link FRPaymentFileProcessingJob}s and processed by a fixed number of worker threads
+ * using the {@link PaymentFileUploadService}, so that large files can not starve other requests. Workers are woken
+ * when a file is queued, and the queue is also polled so that jobs left behind by an instance which stopped, or whose
+ * processing failed unexpectedly, are picked up once their lease expires. A job which fails unexpectedly is retried
+ * until it has been attempted maxAttempts times.
+ * <p>
+ * Background processing is disabled by default, in which case files are processed while the upload request waits.
+ */
+@Service
+@Slf4j
+public class PaymentFileJobService {
+
+    private final PaymentFileProcessingJobRepository jobRepository;
+    private final PaymentFileUploadService paymentFileUploadService;
+    private final FilePaymentConsentStoreClient consentStoreApiClient;
+    private final boolean enabled;
+    private final int workers;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final ThreadPoolExecutor workerPool;
+
+    public PaymentFileJobService(PaymentFileProcessingJobRepository jobRepository,
+                                 PaymentFileUploadService paymentFileUploadService,
+                                 @Qualifier("v4.0.0RestFilePaymentConsentStoreClient") FilePaymentConsentStoreClient consentStoreApiClient,
+                                 @Value("${rs.payments.file.processing.async.enabled:false}") boolean enabled,
+                                 @Value("${rs.payments.file.processing.workers:2}") int workers,
+                                 @Value("${rs.payments.file.processing.lease:PT5M}") Duration lease,
+                                 @Value("${rs.payments.file.processing.maxAttempts:3}") int maxAttempts) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.jobRepository = jobRepository;
+        this.paymentFileUploadService = paymentFileUploadService;
+        this.consentStoreApiClient = consentStoreApiClient;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.workerPool = enabled ? createWorkerPool(workers) : null;
+    }
+
+    /**
+     * Each task drains the queue, so a task only needs to be queued if there is not already one waiting to start
+     */
+    private static ThreadPoolExecutor createWorkerPool(int workers) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "payment-file-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * @return true if uploaded files should be queued with {@link #enqueue}, false if they should be processed while
+     * the upload request waits
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues an uploaded file to be processed by a worker.
+     *
+     * @param consentId                the id of the consent the file was uploaded to
+     * @param apiClientId              the ApiClient which uploaded the file
+     * @param fileUploadIdempotencyKey the idempotency key of the upload request
+     * @param uploadedFile             the file, which must already have been checked against the consent
+     * @throws OBErrorException if a different file has already been uploaded for the consent
+     */
+    public void enqueue(String consentId, String apiClientId, String fileUploadIdempotencyKey,
+                        UploadedPaymentFile uploadedFile) throws OBErrorException {
+        final Date now = new Date();
+        final FRPaymentFileProcessingJob job = FRPaymentFileProcessingJob.builder()
+                .id(consentId)
+                .apiClientId(apiClientId)
+                .fileUploadIdempotencyKey(fileUploadIdempotencyKey)
+                .fileContents(uploadedFile.getContents())
+                .status(Status.QUEUED)
+                .created(now)
+                .updated(now)
+                .build();
+        if (!jobRepository.enqueue(job)) {
+            final Optional<FRPaymentFileProcessingJob> existingJob = jobRepository.findById(consentId);
+            // A replay of the upload which queued the existing job is accepted again
+            if (existingJob.isPresent() && Objects.equals(existingJob.get().getApiClientId(), apiClientId)
+                    && Objects.equals(existingJob.get().getFileUploadIdempotencyKey(), fileUploadIdempotencyKey)) {
+                log.info("File upload for consent: {} is a replay, the file has already been queued", consentId);
+                return;
+            }
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID,
+                    "A file has already been uploaded for consent " + consentId);
+        }
+        log.debug("Queued file of {} bytes for consent: {}", uploadedFile.getSize(), consentId);
+        wakeWorker();
+    }
+
+    /**
+     * @param consentId the id of the consent
+     * @return the processing job of the file uploaded for the consent, if a file has been queued
+     */
+    public Optional<FRPaymentFileProcessingJob> findJob(String consentId) {
+        return jobRepository.findById(consentId);
+    }
+
+    /**
+     * @param job a job which has FAILED
+     * @return the reasons the file was rejected
+     */
+    public static List<OBError1> getErrors(FRPaymentFileProcessingJob job) {
+        return job.getErrors().stream().map(PaymentFileJobService::toOBError1).collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${rs.payments.file.processing.pollInterval:PT30S}")
+    public void pollQueue() {
+        if (enabled) {
+            for (int i = 0; i < workers; i++) {
+                wakeWorker();
+            }
+        }
+    }
+
+    private void wakeWorker() {
+        if (workerPool != null) {
+            workerPool.execute(this::processQueuedJobs);
+        }
+    }
+
+    /**
+     * Claims and processes jobs until the queue is empty.
+     */
+    void processQueuedJobs() {
+        FRPaymentFileProcessingJob job;
+        while ((job = jobRepository.claimNext(new Date(), lease)) != null) {
+            process(job);
+        }
+    }
+
+    private void process(FRPaymentFileProcessingJob job) {
+        final String consentId = job.getId();
+        try {
+            final FilePaymentConsent consent = consentStoreApiClient.getConsent(consentId, job.getApiClientId());
+            if (consent.getFileContent() != null) {
+                // The file was uploaded by an earlier attempt whose lease expired before the job was completed
+                log.info("File for consent: {} has already been uploaded", consentId);
+                jobRepository.complete(job);
+                return;
+            }
+            final UploadedPaymentFile uploadedFile = readFile(job);
+            paymentFileUploadService.processFile(consentId, consent, job.getApiClientId(),
+                    job.getFileUploadIdempotencyKey(), uploadedFile);
+            if (jobRepository.complete(job)) {
+                log.info("Processed file for consent: {}", consentId);
+            }
+        } catch (OBErrorException ex) {
+            reject(job, List.of(ex.getOBError()));
+        } catch (OBErrorResponseException ex) {
+            reject(job, ex.getErrors());
+        } catch (RuntimeException ex) {
+            if (job.getAttempts() >= maxAttempts) {
+                log.error("Failed to process file for consent: {} after {} attempts", consentId, job.getAttempts(), ex);
+                reject(job, List.of(OBRIErrorType.SERVER_ERROR.toOBError1()));
+            } else {
+                log.warn("Failed to process file for consent: {}, attempt {}, it will be retried when its lease expires",
+                        consentId, job.getAttempts(), ex);
+            }
+        }
+    }
+
+    private void reject(FRPaymentFileProcessingJob job, List<OBError1> errors) {
+        log.info("File for consent: {} was rejected - errors: {}", job.getId(), errors);
+        jobRepository.fail(job, errors.stream().map(PaymentFileJobService::toProcessingError).collect(Collectors.toList()));
+    }
+
+    private static UploadedPaymentFile readFile(FRPaymentFileProcessingJob job) {
+        final byte[] fileContents = job.getFileContents();
+        try {
+            return UploadedPaymentFile.read(new ByteArrayInputStream(fileContents), fileContents.length);
+        } catch (IOException e) {
+            // Not expected when reading from memory
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ProcessingError toProcessingError(OBError1 error) {
+        return new ProcessingError(error.getErrorCode(), error.getMessage(), error.getPath());
+    }
+
+    private static OBError1 toOBError1(ProcessingError error) {
+        final OBError1 obError = new OBError1();
+        obError.setErrorCode(error.getErrorCode());
+        obError.setMessage(error.getMessage());
+        obError.setPath(error.getPath());
+        return obError;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (workerPool != null) {
+            // Jobs which are interrupted are processed again once their lease expires
+            workerPool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.file;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.payment.FRWriteFileConsentConverter;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorResponseException;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file.PaymentFileProcessorService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.validation.v4.FilePaymentFileContentValidator.FilePaymentFileContentValidationContext;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.UploadedPaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.report.FilePaymentResultRecorder;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.report.PaymentReportFile1Service;
+import com.forgerock.sapi.gateway.ob.uk.rs.validation.obie.OBValidationService;
+import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.file.FilePaymentConsentStoreClient;
+import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FilePaymentConsent;
+import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FileUploadRequest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Processes a file uploaded to a v4 file payment consent: the file is parsed in streaming mode, its content validated
+ * against the consent and then it is forwarded to the consent store.
+ * <p>
+ * The outcome of each payment is recorded as it is parsed, to be served as the report of the file payment. The results
+ * only become those of the file payment once the consent store has accepted the file, and are discarded if the file is
+ * rejected. A file uploaded to a consent which already has an accepted file is rejected before anything is recorded.
+ * <p>
+ * The file type, content type and hash of the file are expected to have been checked against the consent by the
+ * caller, so that tampered files are rejected before any effort is spent on them.
+ */
+@Service
+@Slf4j
+public class PaymentFileUploadService {
+
+    private final PaymentFileProcessorService paymentFileProcessorService;
+    private final OBValidationService<FilePaymentFileContentValidationContext> fileContentValidator;
+    private final PaymentReportFile1Service paymentReportFileService;
+    private final FilePaymentConsentStoreClient consentStoreApiClient;
+
+    public PaymentFileUploadService(PaymentFileProcessorService paymentFileProcessorService,
+                                    OBValidationService<FilePaymentFileContentValidationContext> fileContentValidator,
+                                    PaymentReportFile1Service paymentReportFileService,
+                                    @Qualifier("v4.0.0RestFilePaymentConsentStoreClient") FilePaymentConsentStoreClient consentStoreApiClient) {
+        this.paymentFileProcessorService = paymentFileProcessorService;
+        this.fileContentValidator = fileContentValidator;
+        this.paymentReportFileService = paymentReportFileService;
+        this.consentStoreApiClient = consentStoreApiClient;
+    }
+
+    /**
+     * @param consentId                the id of the consent the file was uploaded to
+     * @param consent                  the consent
+     * @param apiClientId              the ApiClient which uploaded the file
+     * @param fileUploadIdempotencyKey the idempotency key of the upload request
+     * @param uploadedFile             the file
+     * @throws OBErrorException         if the file cannot be parsed, or a file has already been accepted for the consent
+     * @throws OBErrorResponseException if the content of the file does not match the consent
+     */
+    public void processFile(String consentId, FilePaymentConsent consent, String apiClientId,
+                            String fileUploadIdempotencyKey, UploadedPaymentFile uploadedFile) throws OBErrorException, OBErrorResponseException {
+        final String fileType = consent.getRequestObj().getData().getInitiation().getFileType();
+
+        // The file payment has the id of its consent
+        final FilePaymentResultRecorder resultRecorder = paymentReportFileService.startRecording(consentId);
+        boolean uploaded = false;
+        try {
+            final PaymentFileSummary paymentFileSummary = paymentFileProcessorService.processFile(fileType,
+                    uploadedFile.newInputStream(), resultRecorder);
+
+            fileContentValidator.validate(new FilePaymentFileContentValidationContext(uploadedFile.getFileHash(),
+                    paymentFileSummary, FRWriteFileConsentConverter.toOBWriteFileConsent3(consent.getRequestObj())));
+            resultRecorder.finish();
+
+            final FileUploadRequest fileUploadRequest = new FileUploadRequest();
+            fileUploadRequest.setApiClientId(apiClientId);
+            fileUploadRequest.setConsentId(consentId);
+            fileUploadRequest.setFileUploadIdempotencyKey(fileUploadIdempotencyKey);
+            fileUploadRequest.setFileContents(uploadedFile.getContentsAsString());
+
+            consentStoreApiClient.uploadFile(fileUploadRequest);
+            uploaded = true;
+            resultRecorder.complete();
+            log.debug("Uploaded file of {} bytes for consent: {}", uploadedFile.getSize(), consentId);
+        } finally {
+            if (!uploaded) {
+                resultRecorder.discard();
+            }
+        }
+    }
+}
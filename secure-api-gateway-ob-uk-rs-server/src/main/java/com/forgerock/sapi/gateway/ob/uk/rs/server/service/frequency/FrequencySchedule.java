@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.frequency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.LocalDate;
+import org.joda.time.MonthDay;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.forgerock.sapi.gateway.uk.common.shared.api.meta.forgerock.FRFrequencyType;
+import com.forgerock.sapi.gateway.uk.common.shared.api.meta.forgerock.FRQuarterType;
+
+/**
+ * A standing order frequency expression, e.g. "IntrvlMnthDay:01:15", parsed once so that the dates of the payments can
+ * be calculated repeatedly without matching the expression again.
+ * <p>
+ * Each date is calculated directly from the previous one, quarter days included, so calculating the dates of a
+ * standing order costs a constant amount per payment however far apart they are. Schedules are immutable and
+ * {@link #of(String)} shares them between callers using the same expression.
+ */
+public final class FrequencySchedule {
+
+    private static final int MAX_CACHED_SCHEDULES = 1000;
+
+    private static final Cache<String, FrequencySchedule> SCHEDULES = Caffeine.newBuilder()
+                                                                             .maximumSize(MAX_CACHED_SCHEDULES)
+                                                                             .build();
+
+    private static final Map<FRQuarterType, List<MonthDay>> QUARTER_DAYS = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final FRFrequencyType frequencyType;
+    private final int interval;
+    private final int day;
+    private final List<MonthDay> quarterDays;
+
+    private FrequencySchedule(String expression, FRFrequencyType frequencyType, int interval, int day,
+                              FRQuarterType quarterType) {
+        this.expression = expression;
+        this.frequencyType = frequencyType;
+        this.interval = interval;
+        this.day = day;
+        this.quarterDays = quarterType != null ? QUARTER_DAYS.computeIfAbsent(quarterType, FrequencySchedule::quarterDays)
+                : List.of();
+    }
+
+    /**
+     * Returns the schedule of a frequency expression, parsing it only if it has not been parsed recently.
+     *
+     * @throws IllegalArgumentException if the expression is not a valid frequency
+     */
+    public static FrequencySchedule of(String expression) {
+        return SCHEDULES.get(expression, FrequencySchedule::parse);
+    }
+
+    /**
+     * Parses a frequency expression.
+     *
+     * @throws IllegalArgumentException if the expression is not a valid frequency
+     */
+    public static FrequencySchedule parse(String expression) {
+        final String[] parts = expression.split(":", 2);
+        final FRFrequencyType frequencyType = FRFrequencyType.fromFrequencyString(parts[0]);
+        final Matcher matcher = frequencyType.getPattern().matcher(expression);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("Frequency '" + expression + "' doesn't match regex '" + frequencyType.getPattern().pattern() + "'");
+        }
+        switch (frequencyType) {
+            case INTERVALWEEKDAY:
+            case WEEKINMONTHDAY:
+            case INTERVALMONTHDAY:
+                return new FrequencySchedule(expression, frequencyType, Integer.parseInt(matcher.group(1)),
+                        Integer.parseInt(matcher.group(2)), null);
+            case QUARTERDAY:
+                return new FrequencySchedule(expression, frequencyType, 0, 0,
+                        FRQuarterType.fromQuarterTypeString(matcher.group(1)));
+            case INTERVALDAY:
+                return new FrequencySchedule(expression, frequencyType, Integer.parseInt(matcher.group(1)), 0, null);
+            case EVERYDAY:
+            case EVERYWORKINGDAY:
+                return new FrequencySchedule(expression, frequencyType, 0, 0, null);
+            default:
+                throw new IllegalStateException("Frequency type should be defined at this state");
+        }
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Calculates the dates of the payments which follow a payment made on the previous date.
+     *
+     * @param previous the date of the previous payment
+     * @param count    the number of dates to calculate
+     * @return the next count payment dates, in order
+     */
+    public List<DateTime> nextOccurrences(DateTime previous, int count) {
+        final List<DateTime> occurrences = new ArrayList<>(count);
+        DateTime occurrence = previous;
+        for (int i = 0; i < count; i++) {
+            occurrence = next(occurrence);
+            occurrences.add(occurrence);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Calculates the date of the payment which follows a payment made on the previous date.
+     */
+    public DateTime next(DateTime previous) {
+        switch (frequencyType) {
+            case INTERVALWEEKDAY:
+                return nextIntervalWeekDay(previous);
+            case WEEKINMONTHDAY:
+                return nextIntervalWeekDay(previous.plusMonths(1).withDayOfMonth(1));
+            case INTERVALMONTHDAY:
+                return nextIntervalMonthDay(previous);
+            case QUARTERDAY:
+                return nextQuarterDay(previous);
+            case EVERYDAY:
+                return previous.plusDays(1);
+            case EVERYWORKINGDAY:
+                return nextWorkingDay(previous);
+            case INTERVALDAY:
+                return previous.plusDays(interval);
+            default:
+                throw new IllegalStateException("Frequency type should be defined at this state");
+        }
+    }
+
+    private DateTime nextWorkingDay(DateTime previous) {
+        if (previous.dayOfWeek().get() >= DateTimeConstants.FRIDAY) {
+            return previous.plusDays(7 - previous.dayOfWeek().get() + 1);
+        } else {
+            return previous.plusDays(1);
+        }
+    }
+
+    private DateTime nextQuarterDay(DateTime previous) {
+        final MonthDay previousDay = new MonthDay(previous.getMonthOfYear(), previous.getDayOfMonth());
+        // A 29th February quarter day may be up to 4 years away, any other is within the next year
+        for (int year = previous.getYear(); year <= previous.getYear() + 4; year++) {
+            for (MonthDay quarterDay : quarterDays) {
+                if ((year > previous.getYear() || quarterDay.isAfter(previousDay)) && existsInYear(quarterDay, year)) {
+                    return previous.withDate(year, quarterDay.getMonthOfYear(), quarterDay.getDayOfMonth());
+                }
+            }
+        }
+        throw new IllegalStateException("We should always find a quarter matching for date '" + previous + "'");
+    }
+
+    private static boolean existsInYear(MonthDay monthDay, int year) {
+        return monthDay.getDayOfMonth() <= new LocalDate(year, monthDay.getMonthOfYear(), 1).dayOfMonth().getMaximumValue();
+    }
+
+    /**
+     * {@link FRQuarterType} only tells whether a date is one of its quarter days, so they are found once by testing
+     * each day of a leap year.
+     */
+    private static List<MonthDay> quarterDays(FRQuarterType quarterType) {
+        final List<MonthDay> quarterDays = new ArrayList<>();
+        for (DateTime date = new DateTime(2000, 1, 1, 12, 0); date.getYear() == 2000; date = date.plusDays(1)) {
+            if (quarterType.matchOneQuarter(date)) {
+                quarterDays.add(new MonthDay(date.getMonthOfYear(), date.getDayOfMonth()));
+            }
+        }
+        return List.copyOf(quarterDays);
+    }
+
+    private DateTime nextIntervalMonthDay(DateTime previous) {
+        if (day < 0) {
+            return previous
+                    .plusMonths(interval + 1)
+                    .withDayOfMonth(1)
+                    .plusDays(day);
+        } else {
+            return previous
+                    .plusMonths(interval)
+                    .withDayOfMonth(day);
+        }
+    }
+
+    private DateTime nextIntervalWeekDay(DateTime previous) {
+        return previous
+                .plusWeeks(interval)
+                .withDayOfWeek(day);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return expression.equals(((FrequencySchedule) o).expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(expression);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
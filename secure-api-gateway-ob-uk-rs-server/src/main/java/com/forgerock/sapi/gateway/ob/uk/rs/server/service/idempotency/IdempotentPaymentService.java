@@ -27,14 +27,11 @@ import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.PaymentS
  * If a payment already exists, then it is returned to the client as if it had just been created.
  * Otherwise, the calling code may continue to validate the request and create the payment.
  *
- * This provides a simplified payment submission idempotency implementation, that is good enough for a test facility.
- * The TPP is able to test the idempotent behaviour of the API serially, including error conditions such as idempotency
+ * The TPP is able to test the idempotent behaviour of the API, including error conditions such as idempotency
  * key being reused but the request body being changed.
  *
- * There is no idempotency guarantee when idempotent requests are submitted concurrently.
- *
- * A proper implementation should occur in a layer or component before the biz logic, and needs to handle concurrent
- * access.
+ * Implementations claim the payment atomically in savePayment, so when idempotent requests are submitted concurrently
+ * only one payment is created and the other requests receive that payment.
  *
  * @param <T> PaymentSubmission<R> type - the entity stored in the datastore for a particular payment type
  * @param <R> The FR data-model representation of the OB payment request
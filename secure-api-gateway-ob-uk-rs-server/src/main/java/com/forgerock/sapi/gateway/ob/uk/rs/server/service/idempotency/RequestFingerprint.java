@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency;
+
+import static java.util.Objects.requireNonNull;
+
+import java.security.MessageDigest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.HashUtils;
+
+/**
+ * Computes a fingerprint of a request body, two requests have the same fingerprint if they contain the same data.
+ *
+ * The request is serialised to JSON with properties and map entries in a stable order, and the SHA-256 hash of the
+ * JSON is returned. This allows idempotent requests to be compared against a stored fingerprint instead of loading
+ * and comparing the full request object.
+ */
+public final class RequestFingerprint {
+
+    private static final ObjectWriter CANONICAL_WRITER = JsonMapper.builder()
+            .findAndAddModules()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build()
+            .writer();
+
+    private RequestFingerprint() {
+    }
+
+    public static String of(Object request) {
+        requireNonNull(request, "request must be supplied");
+        try {
+            final MessageDigest digest = HashUtils.createSHA256Digest();
+            return HashUtils.encodeHash(digest.digest(CANONICAL_WRITER.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to compute fingerprint for request of type: " + request.getClass(), e);
+        }
+    }
+}
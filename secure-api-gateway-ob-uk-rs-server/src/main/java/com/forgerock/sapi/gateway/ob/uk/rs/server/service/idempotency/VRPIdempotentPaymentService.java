@@ -17,46 +17,181 @@ package com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Duration;
+import java.util.Date;
 import java.util.Optional;
 
-import org.joda.time.DateTime;
+import org.springframework.dao.DuplicateKeyException;
 
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRDomesticVrpRequest;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.idempotency.FRIdempotencyRecord;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticVrpPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.idempotency.IdempotencyRecordRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.DomesticVrpPaymentSubmissionRepository;
 
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * This implementation works with VRP payments, there can be multiple of these payments per consent.
  *
- * As we are not able to know the id ahead of time (unlike {@link SinglePaymentForConsentIdempotentPaymentService} then
- * we cannot guard against duplicate payments being inserted concurrently. This is deemed good enough for a test
- * facility as no payments are actually being made.
+ * As we are not able to know the id ahead of time (unlike {@link SinglePaymentForConsentIdempotentPaymentService}) the
+ * idempotencyKey is claimed by inserting a {@link FRIdempotencyRecord} before the payment is saved. The record
+ * collection has a unique index on (apiClientId, idempotencyKey), so when idempotent requests are submitted
+ * concurrently only one of them creates a payment, the others return that payment.
+ *
+ * The record stores a fingerprint of the request, see {@link RequestFingerprint}, which is used to detect the
+ * idempotencyKey being reused with a different request body.
  *
- * See {@link IdempotentPaymentService} documentation for known limitations of this approach.
+ * A request which finds the key already claimed may arrive before the claiming request has saved its payment, so it
+ * polls for the payment for up to claimTimeout after the claim was made. If the payment has still not been saved by
+ * then the request fails. The claim is left in place, the claiming request may only be slow, and removing its claim
+ * would allow a second payment to be created for the idempotencyKey. A claiming request which fails to save its
+ * payment releases its claim, after which the key can be claimed again.
  */
+@Slf4j
 public class VRPIdempotentPaymentService implements IdempotentPaymentService<FRDomesticVrpPaymentSubmission, FRDomesticVrpRequest> {
 
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private static final Duration DEFAULT_CLAIM_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(50);
+
     private final DomesticVrpPaymentSubmissionRepository repository;
 
-    public VRPIdempotentPaymentService(DomesticVrpPaymentSubmissionRepository repository) {
-        this.repository = repository;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final Duration claimTimeout;
+
+    private final Duration pollInterval;
+
+    public VRPIdempotentPaymentService(DomesticVrpPaymentSubmissionRepository repository,
+                                       IdempotencyRecordRepository idempotencyRecordRepository) {
+        this(repository, idempotencyRecordRepository, DEFAULT_CLAIM_TIMEOUT, DEFAULT_POLL_INTERVAL);
+    }
+
+    VRPIdempotentPaymentService(DomesticVrpPaymentSubmissionRepository repository,
+                                IdempotencyRecordRepository idempotencyRecordRepository,
+                                Duration claimTimeout, Duration pollInterval) {
+        this.repository = requireNonNull(repository);
+        this.idempotencyRecordRepository = requireNonNull(idempotencyRecordRepository);
+        this.claimTimeout = requireNonNull(claimTimeout);
+        this.pollInterval = requireNonNull(pollInterval);
     }
 
     @Override
     public Optional<FRDomesticVrpPaymentSubmission> findExistingPayment(FRDomesticVrpRequest frPaymentRequest, String consentId, String apiClientId, String idempotencyKey) throws OBErrorException {
-        final Optional<FRDomesticVrpPaymentSubmission> existingPayment = repository.findByIdempotencyData(apiClientId, idempotencyKey, DateTime.now());
-        if (existingPayment.isPresent()) {
-            validateExistingPaymentIdempotencyData(frPaymentRequest, idempotencyKey, existingPayment.get());
+        final Optional<FRIdempotencyRecord> idempotencyRecord = findIdempotencyRecord(apiClientId, idempotencyKey);
+        if (idempotencyRecord.isEmpty()) {
+            return Optional.empty();
         }
-        return existingPayment;
+        validateRequestFingerprint(idempotencyRecord.get(), RequestFingerprint.of(frPaymentRequest), idempotencyKey);
+        // Empty if the claiming request failed, in which case this request is free to create the payment
+        return awaitClaimedPayment(idempotencyRecord.get());
     }
 
     @Override
-    public FRDomesticVrpPaymentSubmission savePayment(FRDomesticVrpPaymentSubmission paymentSubmission) {
+    public FRDomesticVrpPaymentSubmission savePayment(FRDomesticVrpPaymentSubmission paymentSubmission) throws OBErrorException {
+        requireNonNull(paymentSubmission.getId());
         requireNonNull(paymentSubmission.getIdempotencyKey());
         requireNonNull(paymentSubmission.getIdempotencyKeyExpiration());
         requireNonNull(paymentSubmission.getApiClientId());
-        return repository.save(paymentSubmission);
+
+        final FRIdempotencyRecord claim = FRIdempotencyRecord.builder()
+                .apiClientId(paymentSubmission.getApiClientId())
+                .idempotencyKey(paymentSubmission.getIdempotencyKey())
+                .requestFingerprint(RequestFingerprint.of(paymentSubmission.getPayment()))
+                .resourceId(paymentSubmission.getId())
+                .expiresAt(paymentSubmission.getIdempotencyKeyExpiration().toDate())
+                .build();
+
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            final Optional<FRIdempotencyRecord> existingClaim = claimIdempotencyKey(claim);
+            if (existingClaim.isEmpty()) {
+                try {
+                    return repository.insert(paymentSubmission);
+                } catch (RuntimeException ex) {
+                    // Release the claim so that the request can be retried
+                    idempotencyRecordRepository.delete(claim);
+                    throw ex;
+                }
+            }
+            // Another request has already used this idempotencyKey, return the payment it created
+            final FRIdempotencyRecord idempotencyRecord = existingClaim.get();
+            validateRequestFingerprint(idempotencyRecord, claim.getRequestFingerprint(), claim.getIdempotencyKey());
+            final Optional<FRDomesticVrpPaymentSubmission> existingPayment = awaitClaimedPayment(idempotencyRecord);
+            if (existingPayment.isPresent()) {
+                return existingPayment.get();
+            }
+        }
+        throw new IllegalStateException("Failed to claim idempotencyKey: " + claim.getIdempotencyKey());
+    }
+
+    /**
+     * Attempts to claim the idempotencyKey by inserting the record.
+     *
+     * @return an empty Optional if the claim succeeded, otherwise the record of the existing claim
+     */
+    private Optional<FRIdempotencyRecord> claimIdempotencyKey(FRIdempotencyRecord claim) {
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            try {
+                claim.setCreated(new Date());
+                idempotencyRecordRepository.insert(claim);
+                return Optional.empty();
+            } catch (DuplicateKeyException ex) {
+                final Optional<FRIdempotencyRecord> existingClaim = findIdempotencyRecord(claim.getApiClientId(), claim.getIdempotencyKey());
+                if (existingClaim.isPresent()) {
+                    return existingClaim;
+                }
+                // The existing claim has expired but has not been removed yet
+                idempotencyRecordRepository.deleteByApiClientIdAndIdempotencyKeyAndExpiresAtBefore(
+                        claim.getApiClientId(), claim.getIdempotencyKey(), new Date());
+            }
+        }
+        throw new IllegalStateException("Failed to claim idempotencyKey: " + claim.getIdempotencyKey());
+    }
+
+    /**
+     * Waits for the request which made the claim to save its payment.
+     *
+     * @return the payment, or an empty Optional if the claim was released, in which case the key can be claimed again.
+     * @throws OBErrorException if the claiming request did not save its payment or release its claim within claimTimeout
+     */
+    private Optional<FRDomesticVrpPaymentSubmission> awaitClaimedPayment(FRIdempotencyRecord idempotencyRecord) throws OBErrorException {
+        final long deadline = idempotencyRecord.getCreated().getTime() + claimTimeout.toMillis();
+        while (true) {
+            final Optional<FRDomesticVrpPaymentSubmission> payment = repository.findById(idempotencyRecord.getResourceId());
+            if (payment.isPresent()) {
+                return payment;
+            }
+            if (!idempotencyRecordRepository.existsById(idempotencyRecord.getId())) {
+                // The claiming request failed to save its payment and released the claim
+                return Optional.empty();
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("Payment {} for idempotencyKey {} was not saved within {}", idempotencyRecord.getResourceId(),
+                        idempotencyRecord.getIdempotencyKey(), claimTimeout);
+                throw new OBErrorException(OBRIErrorType.SERVER_ERROR);
+            }
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for payment: " + idempotencyRecord.getResourceId(), ex);
+            }
+        }
+    }
+
+    private Optional<FRIdempotencyRecord> findIdempotencyRecord(String apiClientId, String idempotencyKey) {
+        return idempotencyRecordRepository.findByApiClientIdAndIdempotencyKeyAndExpiresAtAfter(apiClientId, idempotencyKey, new Date());
+    }
+
+    private static void validateRequestFingerprint(FRIdempotencyRecord idempotencyRecord, String requestFingerprint,
+                                                   String idempotencyKey) throws OBErrorException {
+        if (!idempotencyRecord.getRequestFingerprint().equals(requestFingerprint)) {
+            throw new OBErrorException(OBRIErrorType.IDEMPOTENCY_KEY_REQUEST_BODY_CHANGED, idempotencyKey);
+        }
     }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.report;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records a {@link FRFilePaymentResult} for each payment of a file as the file is processed, see
+ * {@link PaymentReportFile1Service#startRecording(String)}. Results are written in batches, so at most one batch of
+ * results is held in memory whatever the size of the file.
+ * <p>
+ * The results are recorded under the id of this upload, and only become the results of the file payment once the
+ * consent store has accepted the file, see {@link #complete()}. An upload which is rejected, or retried, therefore
+ * never replaces the results of a file which has been accepted.
+ * <p>
+ * Instances are not thread safe, a recorder is used by the thread processing the file.
+ */
+@Slf4j
+public class FilePaymentResultRecorder implements Consumer<FRFilePayment> {
+
+    private final FilePaymentResultRepository filePaymentResultRepository;
+    private final String filePaymentId;
+    private final String uploadId;
+    private final int batchSize;
+    private List<FRFilePaymentResult> batch;
+    private int numberOfPayments;
+
+    FilePaymentResultRecorder(FilePaymentResultRepository filePaymentResultRepository, String filePaymentId,
+                              String uploadId, int batchSize) {
+        this.filePaymentResultRepository = filePaymentResultRepository;
+        this.filePaymentId = filePaymentId;
+        this.uploadId = uploadId;
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void accept(FRFilePayment payment) {
+        final int index = numberOfPayments++;
+        batch.add(FRFilePaymentResult.builder()
+                                     .id(FRFilePaymentResult.id(uploadId, index))
+                                     .uploadId(uploadId)
+                                     .index(index)
+                                     .instructionIdentification(payment.getInstructionIdentification())
+                                     .endToEndIdentification(payment.getEndToEndIdentification())
+                                     .amount(new BigDecimal(payment.getInstructedAmount().getAmount()))
+                                     .currency(payment.getInstructedAmount().getCurrency())
+                                     .status(FRFilePaymentResult.Status.PENDING)
+                                     .statusUpdateDateTime(new Date())
+                                     .build());
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the results which have not yet been written, to be called once the whole file has been processed.
+     *
+     * @return the number of results recorded for the file
+     */
+    public int finish() {
+        flush();
+        log.debug("Recorded {} results of upload {} for file payment {}", numberOfPayments, uploadId, filePaymentId);
+        return numberOfPayments;
+    }
+
+    /**
+     * Makes the recorded results the results of the file payment, to be called once the consent store has accepted
+     * the file.
+     */
+    public void complete() {
+        final long accepted = filePaymentResultRepository.acceptUpload(uploadId, filePaymentId);
+        log.debug("Accepted {} results of upload {} for file payment {}", accepted, uploadId, filePaymentId);
+    }
+
+    /**
+     * Removes the results recorded so far, to be called when the file is rejected.
+     */
+    public void discard() {
+        batch.clear();
+        final long deleted = filePaymentResultRepository.deleteUpload(uploadId);
+        log.debug("Discarded {} results of upload {} for file payment {}", deleted, uploadId, filePaymentId);
+    }
+
+    private void flush() {
+        if (!batch.isEmpty()) {
+            filePaymentResultRepository.insertBatch(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+}
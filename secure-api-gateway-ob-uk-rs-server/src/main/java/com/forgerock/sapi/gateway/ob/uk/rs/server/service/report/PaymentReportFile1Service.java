@@ -15,44 +15,129 @@
  */
 package com.forgerock.sapi.gateway.ob.uk.rs.server.service.report;
 
-import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorResponseException;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.common.FRSubmissionStatusConverter.toOBWriteFileResponse3DataStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteFileDataInitiation;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultRepository;
+
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Service;
 
 /**
- * Generate a file payment report from an authorised payment consent.
+ * Generates the report of a file payment.
+ * <p>
+ * The outcome of each payment in the file is recorded as a {@link FRFilePaymentResult} while the file is processed on
+ * upload, see {@link #startRecording(String)}, and updated when the file payment is settled. The report is streamed
+ * from the recorded results in the order of the payments in the file, rather than by parsing the file again, so
+ * generating it does not depend on the size or type of the file. The report is a JSON document for all file types.
  */
 @Service
 @Slf4j
 public class PaymentReportFile1Service {
 
-//    private final OBIEPaymentInitiationReport1Builder obiePaymentInitiationReportBuilder;
-//    private final OBIEPainXmlReport1Builder obiePainXmlReportBuilder;
-//
-//    public PaymentReportFile1Service(OBIEPaymentInitiationReport1Builder obiePaymentInitiationReportBuilder,
-//                                     OBIEPainXmlReport1Builder obiePainXmlReportBuilder) {
-//        this.obiePaymentInitiationReportBuilder = obiePaymentInitiationReportBuilder;
-//        this.obiePainXmlReportBuilder = obiePainXmlReportBuilder;
-//    }
+    private final FilePaymentResultRepository filePaymentResultRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public PaymentReportFile1Service(FilePaymentResultRepository filePaymentResultRepository,
+                                     ObjectMapper objectMapper,
+                                     @Value("${rs.payments.file.report.batchSize:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("rs.payments.file.report.batchSize must be at least 1, was: " + batchSize);
+        }
+        this.filePaymentResultRepository = filePaymentResultRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts recording the results of the payments in an upload of a file. A file can only be accepted once for a file
+     * payment, so an upload is rejected before anything is recorded if the results of an accepted file exist.
+     *
+     * @param filePaymentId the id of the file payment, which is the id of the consent the file is uploaded to
+     * @return a recorder to pass the payments of the file to as they are parsed
+     * @throws OBErrorException if a file has already been accepted for the file payment
+     */
+    public FilePaymentResultRecorder startRecording(String filePaymentId) throws OBErrorException {
+        if (filePaymentResultRepository.existsByFilePaymentId(filePaymentId)) {
+            throw new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID,
+                    "A file has already been uploaded for consent " + filePaymentId);
+        }
+        return new FilePaymentResultRecorder(filePaymentResultRepository, filePaymentId, UUID.randomUUID().toString(),
+                batchSize);
+    }
 
-    public String createPaymentReport(FRFilePaymentSubmission filePayment) throws OBErrorResponseException {
+    /**
+     * Writes the report of a file payment, reading the results of its payments from a cursor.
+     *
+     * @param filePayment the file payment submission
+     * @param out         the stream to write the report to, it is not closed
+     */
+    public void writePaymentReport(FRFilePaymentSubmission filePayment, OutputStream out) throws IOException {
         log.debug("Create file payment report for filePayment: {}", filePayment.getId());
+        final FRWriteFileDataInitiation initiation = filePayment.getPayment().getData().getInitiation();
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                                                   .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+             Stream<FRFilePaymentResult> results =
+                     filePaymentResultRepository.streamByFilePaymentIdOrderByIndexAsc(filePayment.getId())) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("Data");
+            generator.writeStringField("FilePaymentId", filePayment.getId());
+            generator.writeStringField("ConsentId", filePayment.getConsentId());
+            generator.writeStringField("Status", toOBWriteFileResponse3DataStatus(filePayment.getStatus()).getValue());
+            generator.writeStringField("FileType", initiation.getFileType());
+            generator.writeStringField("FileReference", initiation.getFileReference());
+            generator.writeStringField("NumberOfTransactions", String.valueOf(initiation.getNumberOfTransactions()));
+            generator.writeNumberField("ControlSum", initiation.getControlSum());
+            generator.writeArrayFieldStart("Payments");
+            for (FRFilePaymentResult result : (Iterable<FRFilePaymentResult>) results::iterator) {
+                writePaymentResult(generator, result);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writePaymentResult(JsonGenerator generator, FRFilePaymentResult result) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("Index", result.getIndex());
+        generator.writeStringField("InstructionIdentification", result.getInstructionIdentification());
+        generator.writeStringField("EndToEndIdentification", result.getEndToEndIdentification());
+        generator.writeObjectFieldStart("InstructedAmount");
+        generator.writeStringField("Amount", result.getAmount().toPlainString());
+        generator.writeStringField("Currency", result.getCurrency());
+        generator.writeEndObject();
+        generator.writeStringField("Status", toReportStatus(result.getStatus()));
+        if (result.getStatusUpdateDateTime() != null) {
+            generator.writeStringField("StatusUpdateDateTime", result.getStatusUpdateDateTime().toInstant().toString());
+        }
+        generator.writeEndObject();
+    }
 
-        // TODO - determine what functionality is required
-        throw new UnsupportedOperationException("createPaymentReport not implemented");
-
-//        Preconditions.checkNotNull(filePayment, "filePayment cannot be null");
-//
-//        String fileType = filePayment.getFilePayment().getData().getInitiation().getFileType();
-//        switch (fileType) {
-//            case UK_OBIE_PAYMENT_INITIATION_V3_0:
-//                return obiePaymentInitiationReportBuilder.toPaymentReport(filePayment);
-//            case UK_OBIE_PAIN_001:
-//                return obiePainXmlReportBuilder.toPaymentReport(filePayment);
-//            default:
-//                log.error("File payment submitted with file type {} should not have passed validation. No report file is supported for this type.", fileType);
-//                throw new IllegalArgumentException("Unknown payment file type: " + fileType);
-//        }
+    private static String toReportStatus(FRFilePaymentResult.Status status) {
+        switch (status) {
+            case COMPLETED:
+                return "Completed";
+            case REJECTED:
+                return "Rejected";
+            default:
+                return "Pending";
+        }
     }
 }
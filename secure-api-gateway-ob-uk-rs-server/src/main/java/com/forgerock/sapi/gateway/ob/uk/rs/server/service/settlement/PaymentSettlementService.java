@@ -0,0 +1,362 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement;
+
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType.INTERIMAVAILABLE;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType.INTERIMBOOKED;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Date;
+import java.util.Optional;
+
+import org.joda.time.DateTime;
+import org.springframework.stereotype.Service;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRCreditDebitIndicator;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRTransactionData;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAccountIdentifier;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRRemittanceInformation;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRSubmissionStatus;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRDomesticVrpRequest;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteDomesticDataInitiation;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteDomesticScheduledDataInitiation;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteFileDataInitiation;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteInternationalDataInitiation;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteInternationalScheduledDataInitiation;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.currency.ExchangeRateService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.vrp.PeriodicLimitService;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRBalance;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticScheduledPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticVrpPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRInternationalPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRInternationalScheduledPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.PaymentType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.Status;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRStandingOrderSchedule;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.balances.FRBalanceRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions.FRTransactionRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.PaymentSettlementRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Settles payments: debits the debtor account's balances, posts a debit transaction to the account and advances the
+ * status of the payment submission. Single immediate payments move from AcceptedSettlementInProcess to
+ * AcceptedSettlementCompleted, or to Rejected when the account does not have the funds available; scheduled, standing
+ * order and file payments move from InitiationPending to InitiationCompleted (or InitiationFailed).
+ * <p>
+ * Payments are queued for settlement by the payment controllers, at the requested execution date of scheduled
+ * payments, and by the {@link com.forgerock.sapi.gateway.ob.uk.rs.server.service.standingorder.StandingOrderExecutionService}
+ * as the payments of standing orders fall due. They are settled in batches by the {@link PaymentSettlementWorker}.
+ * Settling an item is idempotent: each balance debit is recorded against the id of the queued item in the same update
+ * as the amount (see {@link FRBalanceRepository#debit}), and the id of the transaction is the id of the queued item. An
+ * item that is settled again, because its lease expired or a previous attempt failed part way through, therefore does
+ * not debit the account twice.
+ * <p>
+ * The outcome of a file payment is also recorded against the results of the payments in its file, which are reported
+ * by the {@link com.forgerock.sapi.gateway.ob.uk.rs.server.service.report.PaymentReportFile1Service}. A VRP payment
+ * which is rejected gives back the amount it reserved against the PeriodicLimits of its consent.
+ */
+@Service
+@Slf4j
+public class PaymentSettlementService {
+
+    private final PaymentSettlementRepository settlementRepository;
+    private final FRBalanceRepository balanceRepository;
+    private final FRTransactionRepository transactionRepository;
+    private final ExchangeRateService exchangeRateService;
+    private final FilePaymentResultRepository filePaymentResultRepository;
+    private final PeriodicLimitService periodicLimitService;
+
+    public PaymentSettlementService(PaymentSettlementRepository settlementRepository,
+                                    FRBalanceRepository balanceRepository,
+                                    FRTransactionRepository transactionRepository,
+                                    ExchangeRateService exchangeRateService,
+                                    FilePaymentResultRepository filePaymentResultRepository,
+                                    PeriodicLimitService periodicLimitService) {
+        this.settlementRepository = settlementRepository;
+        this.balanceRepository = balanceRepository;
+        this.transactionRepository = transactionRepository;
+        this.exchangeRateService = exchangeRateService;
+        this.filePaymentResultRepository = filePaymentResultRepository;
+        this.periodicLimitService = periodicLimitService;
+    }
+
+    public void submitForSettlement(FRDomesticPaymentSubmission submission, String debtorAccountId) {
+        final FRWriteDomesticDataInitiation initiation = submission.getPayment().getData().getInitiation();
+        enqueue(PaymentType.DOMESTIC, submission.getId(), debtorAccountId, initiation.getInstructedAmount(),
+                initiation.getCreditorAccount(), initiation.getRemittanceInformation(), null);
+    }
+
+    public void submitForSettlement(FRDomesticScheduledPaymentSubmission submission, String debtorAccountId) {
+        final FRWriteDomesticScheduledDataInitiation initiation = submission.getPayment().getData().getInitiation();
+        enqueue(PaymentType.DOMESTIC_SCHEDULED, submission.getId(), debtorAccountId, initiation.getInstructedAmount(),
+                initiation.getCreditorAccount(), initiation.getRemittanceInformation(),
+                initiation.getRequestedExecutionDateTime());
+    }
+
+    public void submitForSettlement(FRInternationalPaymentSubmission submission, String debtorAccountId) {
+        final FRWriteInternationalDataInitiation initiation = submission.getPayment().getData().getInitiation();
+        enqueue(PaymentType.INTERNATIONAL, submission.getId(), debtorAccountId, initiation.getInstructedAmount(),
+                initiation.getCreditorAccount(), initiation.getRemittanceInformation(), null);
+    }
+
+    public void submitForSettlement(FRInternationalScheduledPaymentSubmission submission, String debtorAccountId) {
+        final FRWriteInternationalScheduledDataInitiation initiation = submission.getPayment().getData().getInitiation();
+        enqueue(PaymentType.INTERNATIONAL_SCHEDULED, submission.getId(), debtorAccountId,
+                initiation.getInstructedAmount(), initiation.getCreditorAccount(),
+                initiation.getRemittanceInformation(), initiation.getRequestedExecutionDateTime());
+    }
+
+    public void submitForSettlement(FRDomesticVrpPaymentSubmission submission, String debtorAccountId) {
+        final FRDomesticVrpRequest payment = submission.getPayment();
+        enqueue(PaymentType.DOMESTIC_VRP, submission.getId(), debtorAccountId,
+                payment.getData().getInstruction().getInstructedAmount(),
+                payment.getData().getInstruction().getCreditorAccount(),
+                payment.getData().getInstruction().getRemittanceInformation(), null);
+    }
+
+    /**
+     * File payments are settled as a single debit of the control sum of the file, in the currency of the account.
+     */
+    public void submitForSettlement(FRFilePaymentSubmission submission, String debtorAccountId) {
+        final FRWriteFileDataInitiation initiation = submission.getPayment().getData().getInitiation();
+        enqueue(FRPaymentSettlement.builder()
+                                   .id(submission.getId())
+                                   .paymentId(submission.getId())
+                                   .paymentType(PaymentType.FILE)
+                                   .debtorAccountId(debtorAccountId)
+                                   .amount(initiation.getControlSum())
+                                   .reference(initiation.getFileReference())
+                                   .status(Status.QUEUED)
+                                   .dueAt(new Date())
+                                   .build());
+    }
+
+    private void enqueue(PaymentType paymentType, String paymentId, String debtorAccountId, FRAmount instructedAmount,
+                         FRAccountIdentifier creditorAccount, FRRemittanceInformation remittanceInformation,
+                         DateTime requestedExecutionDateTime) {
+        enqueue(FRPaymentSettlement.builder()
+                                   .id(paymentId)
+                                   .paymentId(paymentId)
+                                   .paymentType(paymentType)
+                                   .debtorAccountId(debtorAccountId)
+                                   .amount(new BigDecimal(instructedAmount.getAmount()))
+                                   .currency(instructedAmount.getCurrency())
+                                   .creditorName(creditorAccount != null ? creditorAccount.getName() : null)
+                                   .reference(remittanceInformation != null ? remittanceInformation.getReference() : null)
+                                   .status(Status.QUEUED)
+                                   .dueAt(requestedExecutionDateTime != null ? requestedExecutionDateTime.toDate() : new Date())
+                                   .build());
+    }
+
+    private void enqueue(FRPaymentSettlement settlement) {
+        if (settlementRepository.enqueue(settlement)) {
+            log.debug("Queued {} payment {} for settlement, due at {}", settlement.getPaymentType(),
+                    settlement.getId(), settlement.getDueAt());
+        } else {
+            log.debug("{} payment {} is already queued for settlement", settlement.getPaymentType(), settlement.getId());
+        }
+    }
+
+    /**
+     * Queues one of the payments of a standing order for settlement.
+     *
+     * @param schedule      the schedule of the standing order
+     * @param paymentNumber the number of the payment, starting at 1 for the first payment
+     * @param amount        the amount of the payment
+     * @param dueAt         the date of the payment
+     */
+    public void submitForSettlement(FRStandingOrderSchedule schedule, int paymentNumber, FRAmount amount, Date dueAt) {
+        enqueue(FRPaymentSettlement.builder()
+                                   .id(schedule.getId() + ":" + paymentNumber)
+                                   .paymentId(schedule.getId())
+                                   .paymentType(schedule.getPaymentType())
+                                   .debtorAccountId(schedule.getDebtorAccountId())
+                                   .amount(new BigDecimal(amount.getAmount()))
+                                   .currency(amount.getCurrency())
+                                   .creditorName(schedule.getCreditorName())
+                                   .reference(schedule.getReference())
+                                   .status(Status.QUEUED)
+                                   .dueAt(dueAt)
+                                   .build());
+    }
+
+    /**
+     * Settles a payment claimed from the settlement queue and removes it from the queue.
+     *
+     * @param settlement an item claimed by {@link PaymentSettlementRepository#claimBatch}
+     */
+    public void settle(FRPaymentSettlement settlement) {
+        final String paymentId = settlement.getPaymentId();
+        final PaymentType paymentType = settlement.getPaymentType();
+        if (!settlementRepository.submissionExists(paymentType, paymentId)) {
+            log.warn("{} payment {} no longer exists, removing it from the settlement queue", paymentType, paymentId);
+            settlementRepository.complete(settlement);
+            return;
+        }
+        updateSubmissionStatus(paymentType, paymentId, inProcessStatus(paymentType));
+
+        if (transactionRepository.existsById(settlement.getId())) {
+            log.info("Transaction for {} payment {} has already been posted", paymentType, settlement.getId());
+        } else if (!debitAndPostTransaction(settlement)) {
+            log.info("Rejecting {} payment {}, account {} has insufficient funds", paymentType, settlement.getId(),
+                    settlement.getDebtorAccountId());
+            updateSubmissionStatus(paymentType, paymentId, rejectedStatus(paymentType));
+            updateFilePaymentResults(paymentType, paymentId, FRFilePaymentResult.Status.REJECTED);
+            releasePeriodicLimits(settlement);
+            settlementRepository.complete(settlement);
+            return;
+        }
+
+        updateSubmissionStatus(paymentType, paymentId, completedStatus(paymentType));
+        updateFilePaymentResults(paymentType, paymentId, FRFilePaymentResult.Status.COMPLETED);
+        if (!settlementRepository.complete(settlement)) {
+            log.warn("Lease on {} payment {} expired during settlement", paymentType, settlement.getId());
+        }
+    }
+
+    private void updateSubmissionStatus(PaymentType paymentType, String paymentId, FRSubmissionStatus status) {
+        if (status != null) {
+            settlementRepository.updateSubmissionStatus(paymentType, paymentId, status);
+        }
+    }
+
+    /**
+     * A file payment is settled as a whole, so every payment in the file has the outcome of the file payment.
+     */
+    private void updateFilePaymentResults(PaymentType paymentType, String paymentId, FRFilePaymentResult.Status status) {
+        if (paymentType == PaymentType.FILE) {
+            final long updated = filePaymentResultRepository.updateStatus(paymentId, status, new Date());
+            log.debug("Marked {} payments of file payment {} as {}", updated, paymentId, status);
+        }
+    }
+
+    /**
+     * The release is keyed by the id of the payment, so a rejection which is retried, because the lease on the item
+     * expired before it was completed, does not release the amount twice.
+     */
+    private void releasePeriodicLimits(FRPaymentSettlement settlement) {
+        if (settlement.getPaymentType() == PaymentType.DOMESTIC_VRP) {
+            periodicLimitService.release(settlement.getPaymentId(), settlement.getAmount());
+        }
+    }
+
+    /**
+     * Single immediate payments report the progress of their settlement, the other payment types only report whether
+     * their initiation has completed.
+     */
+    private static boolean isSettlementReported(PaymentType paymentType) {
+        return paymentType == PaymentType.DOMESTIC || paymentType == PaymentType.INTERNATIONAL
+                || paymentType == PaymentType.DOMESTIC_VRP;
+    }
+
+    private static boolean isStandingOrder(PaymentType paymentType) {
+        return paymentType == PaymentType.DOMESTIC_STANDING_ORDER
+                || paymentType == PaymentType.INTERNATIONAL_STANDING_ORDER;
+    }
+
+    private static FRSubmissionStatus inProcessStatus(PaymentType paymentType) {
+        return isSettlementReported(paymentType) ? FRSubmissionStatus.ACCEPTEDSETTLEMENTINPROCESS : null;
+    }
+
+    private static FRSubmissionStatus completedStatus(PaymentType paymentType) {
+        return isSettlementReported(paymentType) ? FRSubmissionStatus.ACCEPTEDSETTLEMENTCOMPLETED
+                : FRSubmissionStatus.INITIATIONCOMPLETED;
+    }
+
+    private static FRSubmissionStatus rejectedStatus(PaymentType paymentType) {
+        if (isSettlementReported(paymentType)) {
+            return FRSubmissionStatus.REJECTED;
+        }
+        // A standing order carries on after one of its payments fails
+        return isStandingOrder(paymentType) ? null : FRSubmissionStatus.INITIATIONFAILED;
+    }
+
+    private boolean debitAndPostTransaction(FRPaymentSettlement settlement) {
+        final String accountId = settlement.getDebtorAccountId();
+        // The account's data is incomplete rather than its funds insufficient, the item is retried when its lease expires
+        final FRBalance availableBalance = balanceRepository.findByAccountIdAndBalanceType(accountId, INTERIMAVAILABLE)
+                .orElseThrow(() -> new IllegalStateException("No " + INTERIMAVAILABLE + " balance found for account " + accountId));
+        final String accountCurrency = availableBalance.getCurrency();
+        final BigDecimal amount = toAccountCurrency(settlement, accountCurrency);
+
+        final Optional<FRBalance> debitedAvailable = balanceRepository.debit(accountId, INTERIMAVAILABLE, amount, false,
+                settlement.getId());
+        if (debitedAvailable.isEmpty()) {
+            return false;
+        }
+        // The booked balance may go overdrawn, the available balance is the one which covers the payment
+        FRBalanceType balanceType = INTERIMBOOKED;
+        FRBalance balanceAfter = balanceRepository.debit(accountId, INTERIMBOOKED, amount, true, settlement.getId())
+                                                  .orElse(null);
+        if (balanceAfter == null) {
+            balanceType = INTERIMAVAILABLE;
+            balanceAfter = debitedAvailable.get();
+        }
+
+        transactionRepository.save(transaction(settlement, new FRAmount(amount.toPlainString(), accountCurrency),
+                balanceType, balanceAfter));
+        return true;
+    }
+
+    private BigDecimal toAccountCurrency(FRPaymentSettlement settlement, String accountCurrency) {
+        final BigDecimal amount = settlement.getAmount();
+        if (settlement.getCurrency() == null || settlement.getCurrency().equals(accountCurrency)) {
+            return amount.setScale(2, RoundingMode.HALF_EVEN);
+        }
+        final BigDecimal exchangeRate = exchangeRateService.calculateExchangeRateInfo(accountCurrency,
+                new FRAmount(amount.toPlainString(), settlement.getCurrency()), null).getExchangeRate();
+        return amount.multiply(exchangeRate).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private static FRTransaction transaction(FRPaymentSettlement settlement, FRAmount amount,
+                                             FRBalanceType balanceType, FRBalance balanceAfter) {
+        final DateTime now = DateTime.now();
+        return FRTransaction.builder()
+                            .id(settlement.getId())
+                            .accountId(settlement.getDebtorAccountId())
+                            .bookingDateTime(now)
+                            .transaction(FRTransactionData.builder()
+                                                          .accountId(settlement.getDebtorAccountId())
+                                                          .transactionId(settlement.getId())
+                                                          .transactionReference(settlement.getReference())
+                                                          .amount(amount)
+                                                          .creditDebitIndicator(FRCreditDebitIndicator.DEBIT)
+                                                          .status(FRTransactionData.FREntryStatus.BOOKED)
+                                                          .bookingDateTime(now)
+                                                          .valueDateTime(now)
+                                                          .transactionInformation(settlement.getCreditorName() != null
+                                                                  ? "Payment to " + settlement.getCreditorName()
+                                                                  : "Payment " + settlement.getId())
+                                                          .balance(FRTransactionData.FRTransactionCashBalance.builder()
+                                                                                 .amount(balanceAfter.getCurrencyAndAmount())
+                                                                                 .creditDebitIndicator(balanceAfter.getCreditDebitIndicator())
+                                                                                 .type(balanceType)
+                                                                                 .build())
+                                                          .build())
+                            .build();
+    }
+}
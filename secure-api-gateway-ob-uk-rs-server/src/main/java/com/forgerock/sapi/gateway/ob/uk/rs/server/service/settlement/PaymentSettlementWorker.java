@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.PaymentSettlementRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the settlement queue, claiming a batch of due payments on each run and settling them with the
+ * {@link PaymentSettlementService}.
+ * <p>
+ * Multiple instances of the RS can run the worker, claims are leased so each payment is settled by one of them. A
+ * payment that fails to settle is retried once its lease expires. The number of payments settled, the number of
+ * failures and the settlement time are published to the MeterRegistry.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rs.payments.settlement", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PaymentSettlementWorker {
+
+    private final PaymentSettlementRepository settlementRepository;
+    private final PaymentSettlementService settlementService;
+    private final int batchSize;
+    private final Duration lease;
+    private final Counter settled;
+    private final Counter failed;
+    private final Timer settlementTimer;
+
+    public PaymentSettlementWorker(PaymentSettlementRepository settlementRepository,
+                                   PaymentSettlementService settlementService,
+                                   @Value("${rs.payments.settlement.batchSize:50}") int batchSize,
+                                   @Value("${rs.payments.settlement.lease:PT1M}") Duration lease,
+                                   MeterRegistry meterRegistry) {
+        this.settlementRepository = settlementRepository;
+        this.settlementService = settlementService;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.settled = meterRegistry.counter("rs.payments.settlement.settled");
+        this.failed = meterRegistry.counter("rs.payments.settlement.failed");
+        this.settlementTimer = meterRegistry.timer("rs.payments.settlement.duration");
+    }
+
+    @Scheduled(fixedDelayString = "${rs.payments.settlement.pollInterval:PT1S}")
+    public void settleDuePayments() {
+        List<FRPaymentSettlement> batch;
+        do {
+            batch = settlementRepository.claimBatch(new Date(), lease, batchSize);
+            if (!batch.isEmpty()) {
+                log.debug("Settling batch of {} payments", batch.size());
+            }
+            for (FRPaymentSettlement settlement : batch) {
+                try {
+                    settlementTimer.record(() -> settlementService.settle(settlement));
+                    settled.increment();
+                } catch (RuntimeException ex) {
+                    failed.increment();
+                    log.error("Failed to settle {} payment {}, attempt {}, it will be retried when its lease expires",
+                            settlement.getPaymentType(), settlement.getId(), settlement.getAttempts(), ex);
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.standingorder;
+
+import java.util.Date;
+
+import org.joda.time.DateTime;
+import org.springframework.stereotype.Service;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAccountIdentifier;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteDomesticStandingOrderDataInitiation;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteInternationalStandingOrderDataInitiation;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.frequency.FrequencySchedule;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement.PaymentSettlementService;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticStandingOrderPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRInternationalStandingOrderPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.PaymentType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRStandingOrderSchedule;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.StandingOrderScheduleRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes standing orders: each payment is queued for settlement with the {@link PaymentSettlementService} when it
+ * falls due, and the schedule of the standing order is advanced to the date of its next payment.
+ * <p>
+ * Due schedules are claimed in batches by the {@link StandingOrderExecutionWorker}. The settlement of each payment is
+ * keyed by the standing order and the number of the payment, so a schedule which is executed again after its lease
+ * expired does not queue the same payment twice.
+ */
+@Service
+@Slf4j
+public class StandingOrderExecutionService {
+
+    private final StandingOrderScheduleRepository scheduleRepository;
+    private final PaymentSettlementService settlementService;
+
+    public StandingOrderExecutionService(StandingOrderScheduleRepository scheduleRepository,
+                                         PaymentSettlementService settlementService) {
+        this.scheduleRepository = scheduleRepository;
+        this.settlementService = settlementService;
+    }
+
+    public void schedule(FRDomesticStandingOrderPaymentSubmission submission, String debtorAccountId) {
+        final FRWriteDomesticStandingOrderDataInitiation initiation = submission.getStandingOrder().getData().getInitiation();
+        schedule(FRStandingOrderSchedule.builder()
+                                        .id(submission.getId())
+                                        .paymentType(PaymentType.DOMESTIC_STANDING_ORDER)
+                                        .debtorAccountId(debtorAccountId)
+                                        .frequency(initiation.getFrequency())
+                                        .firstPaymentAmount(initiation.getFirstPaymentAmount())
+                                        .recurringPaymentAmount(initiation.getRecurringPaymentAmount())
+                                        .finalPaymentAmount(initiation.getFinalPaymentAmount())
+                                        .finalPaymentDateTime(toDate(initiation.getFinalPaymentDateTime()))
+                                        .numberOfPayments(toInteger(initiation.getNumberOfPayments()))
+                                        .creditorName(creditorName(initiation.getCreditorAccount()))
+                                        .reference(initiation.getReference())
+                                        .nextExecutionDateTime(toDate(initiation.getFirstPaymentDateTime()))
+                                        .build());
+    }
+
+    /**
+     * Every payment of an international standing order is for the instructed amount.
+     */
+    public void schedule(FRInternationalStandingOrderPaymentSubmission submission, String debtorAccountId) {
+        final FRWriteInternationalStandingOrderDataInitiation initiation = submission.getStandingOrder().getData().getInitiation();
+        schedule(FRStandingOrderSchedule.builder()
+                                        .id(submission.getId())
+                                        .paymentType(PaymentType.INTERNATIONAL_STANDING_ORDER)
+                                        .debtorAccountId(debtorAccountId)
+                                        .frequency(initiation.getFrequency())
+                                        .firstPaymentAmount(initiation.getInstructedAmount())
+                                        .recurringPaymentAmount(initiation.getInstructedAmount())
+                                        .finalPaymentAmount(initiation.getInstructedAmount())
+                                        .finalPaymentDateTime(toDate(initiation.getFinalPaymentDateTime()))
+                                        .numberOfPayments(toInteger(initiation.getNumberOfPayments()))
+                                        .creditorName(creditorName(initiation.getCreditorAccount()))
+                                        .reference(initiation.getReference())
+                                        .nextExecutionDateTime(toDate(initiation.getFirstPaymentDateTime()))
+                                        .build());
+    }
+
+    private void schedule(FRStandingOrderSchedule schedule) {
+        if (scheduleRepository.schedule(schedule)) {
+            log.debug("Scheduled {} {}, first payment due at {}", schedule.getPaymentType(), schedule.getId(),
+                    schedule.getNextExecutionDateTime());
+        } else {
+            log.debug("{} {} is already scheduled", schedule.getPaymentType(), schedule.getId());
+        }
+    }
+
+    /**
+     * Queues the due payment of a claimed schedule for settlement and advances the schedule to its next payment.
+     *
+     * @param claimed a schedule claimed by {@link StandingOrderScheduleRepository#claimDue}
+     */
+    public void execute(FRStandingOrderSchedule claimed) {
+        final int paymentNumber = claimed.getPaymentsMade() + 1;
+        final Date dueAt = claimed.getNextExecutionDateTime();
+        final Date next = nextExecutionDateTime(claimed, paymentNumber, dueAt);
+
+        settlementService.submitForSettlement(claimed, paymentNumber, amount(claimed, paymentNumber, next == null), dueAt);
+
+        if (scheduleRepository.advance(claimed, next)) {
+            log.debug("Executed payment {} of {} {}, next payment due at {}", paymentNumber, claimed.getPaymentType(),
+                    claimed.getId(), next);
+        } else {
+            log.warn("Lease on {} {} expired while executing payment {}, it will be executed again",
+                    claimed.getPaymentType(), claimed.getId(), paymentNumber);
+        }
+    }
+
+    /**
+     * @return the date of the payment after the given one, null if the given payment is the final payment
+     */
+    private Date nextExecutionDateTime(FRStandingOrderSchedule schedule, int paymentNumber, Date dueAt) {
+        if (schedule.getNumberOfPayments() != null && paymentNumber >= schedule.getNumberOfPayments()) {
+            return null;
+        }
+        final DateTime next = FrequencySchedule.of(schedule.getFrequency()).next(new DateTime(dueAt));
+        if (schedule.getFinalPaymentDateTime() != null && next.toDate().after(schedule.getFinalPaymentDateTime())) {
+            return null;
+        }
+        return next.toDate();
+    }
+
+    private static FRAmount amount(FRStandingOrderSchedule schedule, int paymentNumber, boolean finalPayment) {
+        if (paymentNumber == 1 && schedule.getFirstPaymentAmount() != null) {
+            return schedule.getFirstPaymentAmount();
+        }
+        if (finalPayment && schedule.getFinalPaymentAmount() != null) {
+            return schedule.getFinalPaymentAmount();
+        }
+        return schedule.getRecurringPaymentAmount() != null ? schedule.getRecurringPaymentAmount()
+                : schedule.getFirstPaymentAmount();
+    }
+
+    private static Date toDate(DateTime dateTime) {
+        return dateTime != null ? dateTime.toDate() : null;
+    }
+
+    private static Integer toInteger(String numberOfPayments) {
+        return numberOfPayments != null ? Integer.valueOf(numberOfPayments) : null;
+    }
+
+    private static String creditorName(FRAccountIdentifier creditorAccount) {
+        return creditorAccount != null ? creditorAccount.getName() : null;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.standingorder;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRStandingOrderSchedule;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.StandingOrderScheduleRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Claims the standing orders whose next payment is due, using the next execution date index, and executes them with
+ * the {@link StandingOrderExecutionService}.
+ * <p>
+ * Multiple instances of the RS can run the worker, claims are leased so each payment is executed by one of them. The
+ * number of payments executed, the number of failures and the execution time are published to the MeterRegistry.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rs.payments.standingOrders", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class StandingOrderExecutionWorker {
+
+    private final StandingOrderScheduleRepository scheduleRepository;
+    private final StandingOrderExecutionService executionService;
+    private final int batchSize;
+    private final Duration lease;
+    private final Counter executed;
+    private final Counter failed;
+    private final Timer executionTimer;
+
+    public StandingOrderExecutionWorker(StandingOrderScheduleRepository scheduleRepository,
+                                        StandingOrderExecutionService executionService,
+                                        @Value("${rs.payments.standingOrders.batchSize:50}") int batchSize,
+                                        @Value("${rs.payments.standingOrders.lease:PT1M}") Duration lease,
+                                        MeterRegistry meterRegistry) {
+        this.scheduleRepository = scheduleRepository;
+        this.executionService = executionService;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.executed = meterRegistry.counter("rs.payments.standingorders.executed");
+        this.failed = meterRegistry.counter("rs.payments.standingorders.failed");
+        this.executionTimer = meterRegistry.timer("rs.payments.standingorders.duration");
+    }
+
+    @Scheduled(fixedDelayString = "${rs.payments.standingOrders.pollInterval:PT1M}")
+    public void executeDueStandingOrders() {
+        List<FRStandingOrderSchedule> batch;
+        do {
+            batch = scheduleRepository.claimDue(new Date(), lease, batchSize);
+            if (!batch.isEmpty()) {
+                log.debug("Executing batch of {} standing orders", batch.size());
+            }
+            for (FRStandingOrderSchedule schedule : batch) {
+                try {
+                    executionTimer.record(() -> executionService.execute(schedule));
+                    executed.increment();
+                } catch (RuntimeException ex) {
+                    failed.increment();
+                    log.error("Failed to execute payment {} of {} {}, it will be retried when its lease expires",
+                            schedule.getPaymentsMade() + 1, schedule.getPaymentType(), schedule.getId(), ex);
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+}
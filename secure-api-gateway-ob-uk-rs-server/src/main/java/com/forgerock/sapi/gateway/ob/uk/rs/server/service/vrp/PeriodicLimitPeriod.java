@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.vrp;
+
+import java.util.Objects;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Days;
+import org.joda.time.Months;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRPeriodicLimits.PeriodAlignmentEnum;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRPeriodicLimits.PeriodTypeEnum;
+
+/**
+ * The period of a VRP PeriodicLimit which contains a point in time, periods are calculated in UTC.
+ * <p>
+ * Calendar aligned periods start at the beginning of the calendar day, week (Monday), month, half-year or year. Consent
+ * aligned periods are consecutive periods of the same length starting from the start of the consent.
+ * <p>
+ * The calendar has no fortnights, so the specification requires Fortnight limits to be Consent aligned. A Fortnight
+ * limit is always treated as Consent aligned, even if the consent states Calendar.
+ */
+public final class PeriodicLimitPeriod {
+
+    private final DateTime start;
+    private final DateTime end;
+
+    private PeriodicLimitPeriod(DateTime start, DateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @param periodType      the PeriodType of the limit
+     * @param periodAlignment the PeriodAlignment of the limit
+     * @param consentStart    start of the consent, used for Consent aligned limits
+     * @param dateTime        the point in time to find the period for
+     * @return the period containing dateTime
+     */
+    public static PeriodicLimitPeriod of(PeriodTypeEnum periodType, PeriodAlignmentEnum periodAlignment,
+                                         DateTime consentStart, DateTime dateTime) {
+        Objects.requireNonNull(periodType, "periodType must be supplied");
+        Objects.requireNonNull(periodAlignment, "periodAlignment must be supplied");
+        final DateTime time = dateTime.withZone(DateTimeZone.UTC);
+        if (periodAlignment == PeriodAlignmentEnum.CALENDAR && !"Fortnight".equals(periodType.getValue())) {
+            return calendarPeriod(periodType.getValue(), time);
+        }
+        return consentPeriod(periodType.getValue(), consentStart.withZone(DateTimeZone.UTC), time);
+    }
+
+    private static PeriodicLimitPeriod calendarPeriod(String periodType, DateTime time) {
+        final DateTime startOfDay = time.withTimeAtStartOfDay();
+        switch (periodType) {
+        case "Day":
+            return new PeriodicLimitPeriod(startOfDay, startOfDay.plusDays(1));
+        case "Week": {
+            final DateTime startOfWeek = startOfDay.withDayOfWeek(DateTimeConstants.MONDAY);
+            return new PeriodicLimitPeriod(startOfWeek, startOfWeek.plusWeeks(1));
+        }
+        case "Month": {
+            final DateTime startOfMonth = startOfDay.withDayOfMonth(1);
+            return new PeriodicLimitPeriod(startOfMonth, startOfMonth.plusMonths(1));
+        }
+        case "Half-year": {
+            final DateTime startOfHalfYear = startOfDay.withDayOfMonth(1)
+                                                       .withMonthOfYear(time.getMonthOfYear() <= 6 ? 1 : 7);
+            return new PeriodicLimitPeriod(startOfHalfYear, startOfHalfYear.plusMonths(6));
+        }
+        case "Year": {
+            final DateTime startOfYear = startOfDay.withDayOfYear(1);
+            return new PeriodicLimitPeriod(startOfYear, startOfYear.plusYears(1));
+        }
+        default:
+            throw new IllegalArgumentException("Unsupported periodType: " + periodType);
+        }
+    }
+
+    private static PeriodicLimitPeriod consentPeriod(String periodType, DateTime consentStart, DateTime time) {
+        switch (periodType) {
+        case "Day":
+            return consentPeriodOfDays(1, consentStart, time);
+        case "Week":
+            return consentPeriodOfDays(7, consentStart, time);
+        case "Fortnight":
+            return consentPeriodOfDays(14, consentStart, time);
+        case "Month":
+            return consentPeriodOfMonths(1, consentStart, time);
+        case "Half-year":
+            return consentPeriodOfMonths(6, consentStart, time);
+        case "Year":
+            return consentPeriodOfMonths(12, consentStart, time);
+        default:
+            throw new IllegalArgumentException("Unsupported periodType: " + periodType);
+        }
+    }
+
+    private static PeriodicLimitPeriod consentPeriodOfDays(int days, DateTime consentStart, DateTime time) {
+        final int periods = Math.max(0, Days.daysBetween(consentStart, time).getDays() / days);
+        final DateTime start = consentStart.plusDays(periods * days);
+        return new PeriodicLimitPeriod(start, start.plusDays(days));
+    }
+
+    private static PeriodicLimitPeriod consentPeriodOfMonths(int months, DateTime consentStart, DateTime time) {
+        // Each period start is calculated from the consentStart so that end of month clamping does not accumulate
+        final int periods = Math.max(0, Months.monthsBetween(consentStart, time).getMonths() / months);
+        return new PeriodicLimitPeriod(consentStart.plusMonths(periods * months), consentStart.plusMonths((periods + 1) * months));
+    }
+
+    public DateTime getStart() {
+        return start;
+    }
+
+    public DateTime getEnd() {
+        return end;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final PeriodicLimitPeriod that = (PeriodicLimitPeriod) o;
+        return start.isEqual(that.start) && end.isEqual(that.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start.getMillis(), end.getMillis());
+    }
+
+    @Override
+    public String toString() {
+        return "PeriodicLimitPeriod{start=" + start + ", end=" + end + '}';
+    }
+}
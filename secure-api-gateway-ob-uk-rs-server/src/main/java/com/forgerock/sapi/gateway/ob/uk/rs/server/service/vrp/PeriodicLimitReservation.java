@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.vrp;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRVrpPeriodicLimitSpend;
+
+/**
+ * The amount of a VRP payment reserved against the PeriodicLimits buckets of its consent, see
+ * {@link PeriodicLimitService#reserve}
+ */
+public final class PeriodicLimitReservation {
+
+    private final String paymentId;
+    private final List<FRVrpPeriodicLimitSpend> buckets;
+    private final BigDecimal amount;
+
+    PeriodicLimitReservation(String paymentId, List<FRVrpPeriodicLimitSpend> buckets, BigDecimal amount) {
+        this.paymentId = paymentId;
+        this.buckets = buckets;
+        this.amount = amount;
+    }
+
+    String getPaymentId() {
+        return paymentId;
+    }
+
+    List<FRVrpPeriodicLimitSpend> getBuckets() {
+        return buckets;
+    }
+
+    BigDecimal getAmount() {
+        return amount;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.vrp;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.joda.time.DateTime;
+import org.springframework.stereotype.Service;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRDomesticVRPConsent;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRPeriodicLimits;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRVrpPeriodicLimitSpend;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.VrpPeriodicLimitSpendRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Enforces the PeriodicLimits of VRP consents.
+ * <p>
+ * The spend against each limit is pre-aggregated in a {@link FRVrpPeriodicLimitSpend} bucket per period, so checking a
+ * payment costs one atomic update per limit rather than a scan of the payments made against the consent. A payment
+ * reserves its amount in every limit in the payment's currency, if any limit would be breached then the amounts
+ * already reserved are released and the payment is rejected.
+ * <p>
+ * The amount is reserved against the id of the payment, and is released by payment id. Releasing a payment is
+ * idempotent, so a payment which is rejected when it is settled, possibly more than once, only gives back its amount
+ * once.
+ */
+@Service
+@Slf4j
+public class PeriodicLimitService {
+
+    private final VrpPeriodicLimitSpendRepository spendRepository;
+
+    public PeriodicLimitService(VrpPeriodicLimitSpendRepository spendRepository) {
+        this.spendRepository = Objects.requireNonNull(spendRepository, "spendRepository must be supplied");
+    }
+
+    /**
+     * Reserves a payment's amount against the PeriodicLimits of the consent.
+     *
+     * @param consentId       the id of the consent
+     * @param paymentId       the id of the payment
+     * @param consent         the consent request, containing the PeriodicLimits
+     * @param consentStart    the start of the consent, used for Consent aligned limits
+     * @param amount          the amount of the payment
+     * @param currency        the currency of the payment
+     * @param paymentDateTime the time of the payment, this determines the period of each limit
+     * @return the reservation, which must be released if the payment is not made
+     * @throws OBErrorException if the payment would breach one of the limits
+     */
+    public PeriodicLimitReservation reserve(String consentId, String paymentId, FRDomesticVRPConsent consent,
+                                            DateTime consentStart, BigDecimal amount, String currency,
+                                            DateTime paymentDateTime) throws OBErrorException {
+        final List<FRPeriodicLimits> periodicLimits = consent.getData().getControlParameters().getPeriodicLimits();
+        if (periodicLimits == null || periodicLimits.isEmpty()) {
+            return new PeriodicLimitReservation(paymentId, List.of(), amount);
+        }
+
+        final List<FRVrpPeriodicLimitSpend> reservedBuckets = new ArrayList<>(periodicLimits.size());
+        for (FRPeriodicLimits periodicLimit : periodicLimits) {
+            if (!currency.equals(periodicLimit.getCurrency())) {
+                continue;
+            }
+            final FRVrpPeriodicLimitSpend bucket = createBucket(consentId, periodicLimit, consentStart, paymentDateTime);
+            if (!spendRepository.incrementSpendWithinLimit(bucket, paymentId, amount, new BigDecimal(periodicLimit.getAmount()))) {
+                log.debug("Payment of {} {} breaches limit: {} for consentId: {}", amount, currency, periodicLimit, consentId);
+                release(new PeriodicLimitReservation(paymentId, reservedBuckets, amount));
+                throw new OBErrorException(OBRIErrorType.REQUEST_VRP_CONTROL_PARAMETERS_PAYMENT_PERIODIC_LIMIT_BREACH,
+                        periodicLimit.getAmount(), periodicLimit.getCurrency(),
+                        periodicLimit.getPeriodType(), periodicLimit.getPeriodAlignment());
+            }
+            reservedBuckets.add(bucket);
+        }
+        return new PeriodicLimitReservation(paymentId, Collections.unmodifiableList(reservedBuckets), amount);
+    }
+
+    /**
+     * Releases the amounts reserved for a payment which was not made.
+     */
+    public void release(PeriodicLimitReservation reservation) {
+        if (!reservation.getBuckets().isEmpty()) {
+            release(reservation.getPaymentId(), reservation.getAmount());
+        }
+    }
+
+    /**
+     * Releases the amounts reserved for a payment which was accepted but then rejected, this has no effect if the
+     * amounts have already been released.
+     *
+     * @param paymentId the id of the payment
+     * @param amount    the amount of the payment, in the currency it was reserved in
+     */
+    public void release(String paymentId, BigDecimal amount) {
+        final long released = spendRepository.releasePayment(paymentId, amount);
+        log.debug("Released {} from {} periodic limits for payment: {}", amount, released, paymentId);
+    }
+
+    private static FRVrpPeriodicLimitSpend createBucket(String consentId, FRPeriodicLimits periodicLimit,
+                                                        DateTime consentStart, DateTime paymentDateTime) {
+        final PeriodicLimitPeriod period = PeriodicLimitPeriod.of(periodicLimit.getPeriodType(),
+                periodicLimit.getPeriodAlignment(), consentStart, paymentDateTime);
+        return FRVrpPeriodicLimitSpend.builder()
+                .consentId(consentId)
+                .periodType(periodicLimit.getPeriodType().getValue())
+                .periodAlignment(periodicLimit.getPeriodAlignment().getValue())
+                .currency(periodicLimit.getCurrency())
+                .periodStart(period.getStart().toDate())
+                .expiresAt(period.getEnd().toDate())
+                .build();
+    }
+}
@@ -25,6 +25,8 @@ public class PaginationUtil {
 
     public static final String PAGE = "page";
 
+    public static final String CURSOR = "cursor";
+
     public static Links generateLinks(String httpUrl, int page, int totalPages) {
         UriComponentsBuilder uriComponentsBuilder = UriComponentsBuilder
                 .fromHttpUrl(httpUrl);
@@ -59,6 +61,25 @@ public class PaginationUtil {
         return links;
     }
 
+    /**
+     * Generates links for keyset (cursor) pagination, only forward navigation is supported.
+     *
+     * @param uriComponentsBuilder builder for the resource URI including any query parameters other than the cursor
+     * @param cursor the cursor used to fetch the current page, null for the first page
+     * @param nextCursor the cursor for the next page, null if this is the last page
+     */
+    public static Links generateKeysetLinks(UriComponentsBuilder uriComponentsBuilder, String cursor, String nextCursor) {
+        Links links = new Links();
+        links.setSelf(getUrlWithCursor(cursor, uriComponentsBuilder));
+        if (cursor != null || nextCursor != null) {
+            links.setFirst(getUrlWithCursor(null, uriComponentsBuilder));
+        }
+        if (nextCursor != null) {
+            links.setNext(getUrlWithCursor(nextCursor, uriComponentsBuilder));
+        }
+        return links;
+    }
+
     public static Links generateLinksOnePager(String httpUrl) {
         URI resourceUrl = UriComponentsBuilder.fromHttpUrl(httpUrl).build().encode().toUri();
 
@@ -71,6 +92,13 @@ public class PaginationUtil {
         return new Meta().totalPages(totalPages);
     }
 
+    private static URI getUrlWithCursor(String cursor, UriComponentsBuilder builder) {
+        if (cursor == null) {
+            return builder.cloneBuilder().replaceQueryParam(CURSOR).build().encode().toUri();
+        }
+        return builder.cloneBuilder().replaceQueryParam(CURSOR, cursor).build().encode().toUri();
+    }
+
     private static URI getUrlWithPage(int page, UriComponentsBuilder builder) {
         return builder.replaceQueryParam(PAGE, page).build().encode().toUri();
     }
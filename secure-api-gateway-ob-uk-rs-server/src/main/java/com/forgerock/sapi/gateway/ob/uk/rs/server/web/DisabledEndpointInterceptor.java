@@ -23,8 +23,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
-import com.forgerock.sapi.gateway.ob.uk.rs.server.api.discovery.ControllerEndpointBlacklistHandler;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.api.discovery.DisabledHandlerMethods;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.api.discovery.DiscoveryApiService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +37,9 @@ import lombok.extern.slf4j.Slf4j;
  * then get into a cyclic dependency. This is due to this interceptor needing to be created before the WebMvc can be
  * created and the Discovery data is determined by processing the HandlerMappings created by the WebMvc
  *
+ * The blacklist is resolved against the {@link HandlerMethod}s of the HandlerMappings when the beans are bound, so that
+ * checking a request is a lookup of its HandlerMethod.
+ *
  * The {@link com.forgerock.sapi.gateway.ob.uk.rs.server.configuration.ApplicationStartupListener} is doing the late
  * binding of the beans.
  */
@@ -43,13 +47,15 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class DisabledEndpointInterceptor implements HandlerInterceptor {
 
-    private ControllerEndpointBlacklistHandler blacklistHandler;
+    private volatile DisabledHandlerMethods disabledHandlerMethods;
 
     public DisabledEndpointInterceptor() {
     }
 
-    public void setDiscoveryApiService(DiscoveryApiService discoveryApiService) {
-        this.blacklistHandler = discoveryApiService.getBlacklistHandler();
+    public void setDiscoveryApiService(DiscoveryApiService discoveryApiService, RequestMappingHandlerMapping handlerMapping) {
+        this.disabledHandlerMethods = DisabledHandlerMethods.resolve(discoveryApiService.getBlacklistHandler(),
+                handlerMapping.getHandlerMethods().values());
+        log.info("Resolved {} disabled handler methods", disabledHandlerMethods.size());
     }
 
     /**
@@ -64,7 +70,7 @@ public class DisabledEndpointInterceptor implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         if (handler instanceof HandlerMethod) {
             HandlerMethod handlerMethod = (HandlerMethod) handler;
-            if (blacklistHandler.isBlacklisted(handlerMethod.getBeanType(), handlerMethod.getMethod())) {
+            if (disabledHandlerMethods.isDisabled(handlerMethod)) {
                 log.warn("Request URI {} was BLOCKED due to RS configuration settings. " +
                         "Handler method: {}", request.getRequestURI(), handlerMethod.getMethod());
                 try {
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.api.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Unit test for {@link DisabledHandlerMethods}.
+ */
+public class DisabledHandlerMethodsTest {
+
+    interface TestApi {
+        default String getResource() {
+            return "resource";
+        }
+    }
+
+    static class TestControllerV1 implements TestApi {
+        public String getOtherResource() {
+            return "other";
+        }
+    }
+
+    static class TestControllerV2 implements TestApi {
+    }
+
+    @Test
+    public void shouldResolveDisabledHandlerMethods() throws Exception {
+        // Given
+        HandlerMethod v1GetResource = new HandlerMethod(new TestControllerV1(), "getResource");
+        HandlerMethod v1GetOtherResource = new HandlerMethod(new TestControllerV1(), "getOtherResource");
+        HandlerMethod v2GetResource = new HandlerMethod(new TestControllerV2(), "getResource");
+        ControllerEndpointBlacklistHandler blacklistHandler = new ControllerEndpointBlacklistHandler();
+        blacklistHandler.blacklistEndpoint(ControllerMethod.of(TestControllerV1.class, v1GetResource.getMethod()));
+
+        // When
+        DisabledHandlerMethods disabledHandlerMethods = DisabledHandlerMethods.resolve(blacklistHandler,
+                List.of(v1GetResource, v1GetOtherResource, v2GetResource));
+
+        // Then
+        assertThat(disabledHandlerMethods.size()).isEqualTo(1);
+        assertThat(disabledHandlerMethods.isDisabled(v1GetResource)).isTrue();
+        // HandlerMethods are recreated for each request with the bean resolved
+        assertThat(disabledHandlerMethods.isDisabled(new HandlerMethod(new TestControllerV1(), v1GetResource.getMethod()))).isTrue();
+        assertThat(disabledHandlerMethods.isDisabled(v1GetOtherResource)).isFalse();
+        // the default method is shared with the V2 controller, which is enabled
+        assertThat(disabledHandlerMethods.isDisabled(v2GetResource)).isFalse();
+    }
+
+    @Test
+    public void shouldNotDisableAnyHandlerMethodsGivenEmptyBlacklist() throws Exception {
+        // Given
+        HandlerMethod getResource = new HandlerMethod(new TestControllerV1(), "getResource");
+
+        // When
+        DisabledHandlerMethods disabledHandlerMethods = DisabledHandlerMethods.resolve(new ControllerEndpointBlacklistHandler(),
+                List.of(getResource));
+
+        // Then
+        assertThat(disabledHandlerMethods.size()).isZero();
+        assertThat(disabledHandlerMethods.isDisabled(getResource)).isFalse();
+    }
+}
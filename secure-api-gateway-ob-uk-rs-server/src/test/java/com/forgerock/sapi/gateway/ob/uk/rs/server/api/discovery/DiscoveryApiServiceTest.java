@@ -27,6 +27,7 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import uk.org.openbanking.datamodel.v3.discovery.GenericOBDiscoveryAPILinks;
+import uk.org.openbanking.datamodel.v3.discovery.OBDiscovery;
 import uk.org.openbanking.datamodel.v3.discovery.OBDiscoveryAPI;
 
 import java.util.HashMap;
@@ -69,8 +70,8 @@ public class DiscoveryApiServiceTest {
     public void shouldGetDiscoveryApisByVersionAndGroupName() {
         // Given
         DiscoveryApiConfigurationProperties discoveryProperties = new DiscoveryApiConfigurationProperties();
-        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
         when(availableApisResolver.getAvailableApiEndpoints()).thenReturn(AvailableApisTestDataFactory.getAvailableApiEndpoints());
+        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
 
         // When
         Map<OBGroupName, Map<String, OBDiscoveryAPI>> discoveryApis = discoveryApiService.getDiscoveryApis();
@@ -88,8 +89,8 @@ public class DiscoveryApiServiceTest {
         // Given
         DiscoveryApiConfigurationProperties discoveryProperties = new DiscoveryApiConfigurationProperties();
         discoveryProperties.setVersions(ImmutableMap.of(TEST_VERSION, false));
-        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
         when(availableApisResolver.getAvailableApiEndpoints()).thenReturn(AvailableApisTestDataFactory.getAvailableApiEndpoints());
+        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
 
         // When
         Map<OBGroupName, Map<String, OBDiscoveryAPI>> discoveryApis = discoveryApiService.getDiscoveryApis();
@@ -107,8 +108,8 @@ public class DiscoveryApiServiceTest {
         // Given
         DiscoveryApiConfigurationProperties discoveryProperties = new DiscoveryApiConfigurationProperties();
         discoveryProperties.setApis(ImmutableMap.of(OBApiReference.GET_ACCOUNT, false));
-        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
         when(availableApisResolver.getAvailableApiEndpoints()).thenReturn(AvailableApisTestDataFactory.getAvailableApiEndpoints());
+        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
 
         // When
         Map<OBGroupName, Map<String, OBDiscoveryAPI>> discoveryApis = discoveryApiService.getDiscoveryApis();
@@ -129,8 +130,8 @@ public class DiscoveryApiServiceTest {
         // Given
         DiscoveryApiConfigurationProperties discoveryProperties = new DiscoveryApiConfigurationProperties();
         discoveryProperties.setVersionApiOverrides(ImmutableMap.of("v3_1_2", ImmutableMap.of(OBApiReference.GET_ACCOUNTS, false)));
-        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
         when(availableApisResolver.getAvailableApiEndpoints()).thenReturn(AvailableApisTestDataFactory.getAvailableApiEndpoints());
+        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
 
         // When
         Map<OBGroupName, Map<String, OBDiscoveryAPI>> discoveryApis = discoveryApiService.getDiscoveryApis();
@@ -157,8 +158,8 @@ public class DiscoveryApiServiceTest {
     public void shouldGetEmptyDiscoveryApisGivenNoAvailableEndpoints() {
         // Given
         DiscoveryApiConfigurationProperties discoveryProperties = new DiscoveryApiConfigurationProperties();
-        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
         when(availableApisResolver.getAvailableApiEndpoints()).thenReturn(emptyList());
+        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
 
         // When
         Map<OBGroupName, Map<String, OBDiscoveryAPI>> discoveryApis = discoveryApiService.getDiscoveryApis();
@@ -172,8 +173,8 @@ public class DiscoveryApiServiceTest {
         // Given
         DiscoveryApiConfigurationProperties discoveryProperties = new DiscoveryApiConfigurationProperties();
         discoveryProperties.setVersions(allVersionsDisabled());
-        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
         when(availableApisResolver.getAvailableApiEndpoints()).thenReturn(AvailableApisTestDataFactory.getAvailableApiEndpoints());
+        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
 
         // When
         Map<OBGroupName, Map<String, OBDiscoveryAPI>> discoveryApis = discoveryApiService.getDiscoveryApis();
@@ -182,6 +183,89 @@ public class DiscoveryApiServiceTest {
         assertThat(discoveryApis).isEmpty();
     }
 
+    @Test
+    public void shouldGetDiscoveryDocument() {
+        // Given
+        DiscoveryApiConfigurationProperties discoveryProperties = new DiscoveryApiConfigurationProperties();
+        discoveryProperties.setFinancialId("0015800001041REAAY");
+        discoveryProperties.setApis(ImmutableMap.of(OBApiReference.GET_ACCOUNT, false));
+        when(availableApisResolver.getAvailableApiEndpoints()).thenReturn(AvailableApisTestDataFactory.getAvailableApiEndpoints());
+        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
+
+        // When
+        DiscoveryDocument discoveryDocument = discoveryApiService.getDiscoveryDocument(BASE_URI);
+
+        // Then
+        OBDiscovery discovery = discoveryDocument.getResponse().getData();
+        assertThat(discovery.getFinancialId()).isEqualTo("0015800001041REAAY");
+        assertThat(discovery.getAccountAndTransactionAPIs()).hasSize(AvailableApisTestDataFactory.PATCHES);
+        assertThat(discovery.getPaymentInitiationAPIs()).hasSize(AvailableApisTestDataFactory.PATCHES);
+        assertThat(discovery.getFundsConfirmationAPIs()).hasSize(AvailableApisTestDataFactory.PATCHES);
+        assertThat(discovery.getEventNotificationAPIs()).hasSize(AvailableApisTestDataFactory.PATCHES);
+        Map<String, String> links = discovery.getAccountAndTransactionAPIs().stream()
+                .filter(api -> api.getVersion().equals(TEST_VERSION))
+                .map(api -> ((GenericOBDiscoveryAPILinks) api.getLinks()).getLinks())
+                .findFirst()
+                .orElseThrow();
+        assertThat(links).doesNotContainKey(OBApiReference.GET_ACCOUNT.getReference());
+        assertThat(links).containsEntry(OBApiReference.GET_ACCOUNTS.getReference(), buildDiscoveryDocumentUrl(TEST_VERSION, "/aisp/accounts"));
+        assertThat(discoveryDocument.getETag()).isNotBlank();
+    }
+
+    @Test
+    public void shouldReuseDiscoveryDocumentForBaseUri() {
+        // Given
+        DiscoveryApiConfigurationProperties discoveryProperties = new DiscoveryApiConfigurationProperties();
+        when(availableApisResolver.getAvailableApiEndpoints()).thenReturn(AvailableApisTestDataFactory.getAvailableApiEndpoints());
+        DiscoveryApiService discoveryApiService = new DiscoveryApiService(discoveryProperties, availableApisResolver);
+
+        // When
+        DiscoveryDocument discoveryDocument = discoveryApiService.getDiscoveryDocument(BASE_URI);
+        DiscoveryDocument otherBaseUriDocument = discoveryApiService.getDiscoveryDocument("https://rs.example.com");
+
+        // Then
+        assertThat(discoveryApiService.getDiscoveryDocument(BASE_URI)).isSameAs(discoveryDocument);
+        assertThat(otherBaseUriDocument.getETag()).isNotEqualTo(discoveryDocument.getETag());
+        Map<String, String> links = ((GenericOBDiscoveryAPILinks) otherBaseUriDocument.getResponse().getData()
+                .getAccountAndTransactionAPIs().get(0).getLinks()).getLinks();
+        assertThat(links.values()).allMatch(link -> link.startsWith("https://rs.example.com" + AvailableApisTestDataFactory.BASE_URL));
+    }
+
+    @Test
+    public void shouldGetSameETagForSameConfiguration() {
+        // Given
+        when(availableApisResolver.getAvailableApiEndpoints()).thenReturn(AvailableApisTestDataFactory.getAvailableApiEndpoints());
+        DiscoveryApiService discoveryApiService = new DiscoveryApiService(new DiscoveryApiConfigurationProperties(), availableApisResolver);
+        DiscoveryApiService otherDiscoveryApiService = new DiscoveryApiService(new DiscoveryApiConfigurationProperties(), availableApisResolver);
+        DiscoveryApiConfigurationProperties disabledApiProperties = new DiscoveryApiConfigurationProperties();
+        disabledApiProperties.setApis(ImmutableMap.of(OBApiReference.GET_ACCOUNT, false));
+        DiscoveryApiService disabledApiDiscoveryApiService = new DiscoveryApiService(disabledApiProperties, availableApisResolver);
+
+        // When
+        String eTag = discoveryApiService.getDiscoveryDocument(BASE_URI).getETag();
+
+        // Then
+        assertThat(otherDiscoveryApiService.getDiscoveryDocument(BASE_URI).getETag()).isEqualTo(eTag);
+        assertThat(disabledApiDiscoveryApiService.getDiscoveryDocument(BASE_URI).getETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    public void shouldBuildDiscoveryDocumentWhenCacheIsFull() {
+        // Given
+        when(availableApisResolver.getAvailableApiEndpoints()).thenReturn(AvailableApisTestDataFactory.getAvailableApiEndpoints());
+        DiscoveryApiService discoveryApiService = new DiscoveryApiService(new DiscoveryApiConfigurationProperties(), availableApisResolver);
+        for (int i = 0; i < DiscoveryApiService.MAX_CACHED_DOCUMENTS; i++) {
+            discoveryApiService.getDiscoveryDocument("https://rs" + i + ".example.com");
+        }
+
+        // When
+        DiscoveryDocument discoveryDocument = discoveryApiService.getDiscoveryDocument(BASE_URI);
+
+        // Then
+        assertThat(discoveryApiService.getDiscoveryDocument(BASE_URI)).isNotSameAs(discoveryDocument);
+        assertThat(discoveryApiService.getDiscoveryDocument(BASE_URI).getETag()).isEqualTo(discoveryDocument.getETag());
+    }
+
     private boolean containsAllVersions(Map<String, OBDiscoveryAPI> apiVersions) {
         boolean isValid = true;
         for (int patch = 1; patch <= AvailableApisTestDataFactory.PATCHES; patch++) {
@@ -19,11 +19,14 @@ import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRExternalPermi
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRFinancialAccount;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRReadConsent;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRReadConsentData;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.account.consent.v4_0_0.AccountAccessConsentCache;
 import com.forgerock.sapi.gateway.rcs.consent.store.client.account.AccountAccessConsentStoreClient;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.account.v3_1_10.AccountAccessConsent;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRAccount;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.accounts.FRAccountRepository;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -36,6 +39,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
+import uk.org.openbanking.datamodel.v3.error.OBErrorResponse1;
 import uk.org.openbanking.datamodel.v4.account.OBAccount6;
 import uk.org.openbanking.datamodel.v4.account.OBReadAccount6;
 
@@ -74,6 +78,16 @@ public class AccountsApiControllerTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("v4.0.0AccountAccessConsentCache")
+    private AccountAccessConsentCache accountAccessConsentCache;
+
+    @BeforeEach
+    void clearConsentCache() {
+        // The tests share consent ids, a consent cached by one test must not be served to the next
+        accountAccessConsentCache.invalidateAll();
+    }
+
     @AfterEach
     void removeData() {
         frAccountRepository.deleteAll();
@@ -164,11 +178,72 @@ public class AccountsApiControllerTest {
         assertThat(response.getBody().getLinks().getSelf().toString()).isEqualTo(url);
     }
 
+    @Test
+    public void shouldNotServeUpdatedConsentFromCacheOnceInvalidated() {
+        // Given
+        final String accountId = saveAccount();
+        final String otherAccountId = saveAccount();
+        mockAuthorisedConsentResponse(accountId, List.of(FRExternalPermissionsCode.READACCOUNTSDETAIL));
+        assertThat(getAccount(accountId, OBReadAccount6.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // When the consent is re-authorised for a different account
+        mockAuthorisedConsentResponse(otherAccountId, List.of(FRExternalPermissionsCode.READACCOUNTSDETAIL));
+
+        // Then the cached consent is served until it is invalidated
+        assertThat(getAccount(accountId, OBReadAccount6.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        accountAccessConsentCache.invalidate("consent-343553", "client-123");
+        final ResponseEntity<OBErrorResponse1> response = getAccount(accountId, OBErrorResponse1.class);
+        assertThat(response.getStatusCode()).isEqualTo(OBRIErrorType.UNAUTHORISED_ACCOUNT.getHttpStatus());
+        assertThat(Objects.requireNonNull(response.getBody()).getErrors()).containsExactly(
+                OBRIErrorType.UNAUTHORISED_ACCOUNT.toOBError1(accountId));
+        assertThat(getAccount(otherAccountId, OBReadAccount6.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    public void shouldNotServeRevokedConsentFromCacheOnceInvalidated() {
+        // Given
+        final String accountId = saveAccount();
+        mockAuthorisedConsentResponse(accountId, List.of(FRExternalPermissionsCode.READACCOUNTSDETAIL));
+        assertThat(getAccount(accountId, OBReadAccount6.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // When
+        mockConsentResponse("Revoked", accountId, List.of(FRExternalPermissionsCode.READACCOUNTSDETAIL));
+        accountAccessConsentCache.invalidate("consent-343553", "client-123");
+
+        // Then
+        final ResponseEntity<OBErrorResponse1> response = getAccount(accountId, OBErrorResponse1.class);
+        assertThat(response.getStatusCode()).isEqualTo(OBRIErrorType.CONSENT_STATUS_NOT_AUTHORISED.getHttpStatus());
+        assertThat(Objects.requireNonNull(response.getBody()).getErrors()).containsExactly(
+                OBRIErrorType.CONSENT_STATUS_NOT_AUTHORISED.toOBError1("Revoked"));
+    }
+
+    private String saveAccount() {
+        final FRAccount account = FRAccount.builder()
+                .userID("AUserId")
+                .account(aValidFRFinancialAccount())
+                .latestStatementId("5678")
+                .build();
+        frAccountRepository.save(account);
+        return account.getId();
+    }
+
+    private <T> ResponseEntity<T> getAccount(String accountId, Class<T> responseType) {
+        return restTemplate.exchange(
+                accountsIdUrl(accountId),
+                HttpMethod.GET,
+                new HttpEntity<>(requiredAccountApiHeaders("consent-343553", "client-123")),
+                responseType);
+    }
+
     private void mockAuthorisedConsentResponse(String accountId, List<FRExternalPermissionsCode> permissions) {
+        mockConsentResponse("Authorised", accountId, permissions);
+    }
+
+    private void mockConsentResponse(String status, String accountId, List<FRExternalPermissionsCode> permissions) {
         final AccountAccessConsent consent = new AccountAccessConsent();
         consent.setId("consent-343553");
         consent.setApiClientId("client-123");
-        consent.setStatus("Authorised");
+        consent.setStatus(status);
         consent.setAuthorisedAccountIds(List.of(accountId));
         consent.setRequestObj(FRReadConsent.builder().data(FRReadConsentData.builder().permissions(permissions).build()).build());
         given(accountAccessConsentStoreClient.getConsent(eq("consent-343553"), eq("client-123"))).willReturn(consent);
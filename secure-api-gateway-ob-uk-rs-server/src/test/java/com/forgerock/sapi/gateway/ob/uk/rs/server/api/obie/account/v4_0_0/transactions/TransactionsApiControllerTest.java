@@ -41,7 +41,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import uk.org.openbanking.datamodel.v4.account.OBReadTransaction6;
+import uk.org.openbanking.datamodel.v3.error.OBErrorResponse1;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -190,6 +192,88 @@ public class TransactionsApiControllerTest {
         assertThat(response.getBody().getLinks().getSelf().toString()).isEqualTo(url);
     }
 
+    @Test
+    public void shouldGetAllAccountTransactionsByFollowingNextLinks() {
+        // Given
+        String url = accountTransactionsUrl(accountId);
+
+        final AccountAccessConsent consent = createAuthorisedConsentAllPermissions(accountId);
+        mockAccountResourceAccessServiceResponse(accountResourceAccessService, consent, accountId);
+
+        // When
+        int numTransactions = 0;
+        int numPages = 0;
+        URI next = URI.create(url);
+        while (next != null) {
+            ResponseEntity<OBReadTransaction6> response = restTemplate.exchange(
+                    next,
+                    HttpMethod.GET,
+                    new HttpEntity<>(requiredAccountApiHeaders(consent.getId(), consent.getApiClientId())),
+                    OBReadTransaction6.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().getLinks().getSelf()).isEqualTo(next);
+            numTransactions += response.getBody().getData().getTransaction().size();
+            next = response.getBody().getLinks().getNext();
+            numPages++;
+        }
+
+        // Then
+        assertThat(numTransactions).isEqualTo(365);
+        assertThat(numPages).isEqualTo((int) Math.ceil(365.0 / pageLimitTransactions));
+    }
+
+    @Test
+    public void shouldNotGetFutureAccountTransactionsByDefault() {
+        // Given
+        FRTransactionData futureTransactionData = aValidFRTransactionData(accountId);
+        frTransactionRepository.save(FRTransaction.builder()
+                .accountId(accountId)
+                .transaction(futureTransactionData)
+                .bookingDateTime(futureTransactionData.getBookingDateTime().plusDays(10))
+                .build());
+        String url = accountTransactionsUrl(accountId);
+
+        final AccountAccessConsent consent = createAuthorisedConsentAllPermissions(accountId);
+        mockAccountResourceAccessServiceResponse(accountResourceAccessService, consent, accountId);
+
+        // When
+        int numTransactions = 0;
+        URI next = URI.create(url);
+        while (next != null) {
+            ResponseEntity<OBReadTransaction6> response = restTemplate.exchange(
+                    next,
+                    HttpMethod.GET,
+                    new HttpEntity<>(requiredAccountApiHeaders(consent.getId(), consent.getApiClientId())),
+                    OBReadTransaction6.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().getMeta().getTotalPages()).isEqualTo((int) Math.ceil(365.0 / pageLimitTransactions));
+            numTransactions += response.getBody().getData().getTransaction().size();
+            next = response.getBody().getLinks().getNext();
+        }
+
+        // Then
+        assertThat(numTransactions).isEqualTo(365);
+    }
+
+    @Test
+    public void shouldFailToGetAccountTransactionsWithInvalidCursor() {
+        // Given
+        String url = accountTransactionsUrl(accountId) + "?cursor=invalid!";
+
+        final AccountAccessConsent consent = createAuthorisedConsentAllPermissions(accountId);
+        mockAccountResourceAccessServiceResponse(accountResourceAccessService, consent, accountId);
+
+        // When
+        ResponseEntity<OBErrorResponse1> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                new HttpEntity<>(requiredAccountApiHeaders(consent.getId(), consent.getApiClientId())),
+                OBErrorResponse1.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     private String accountTransactionsUrl(String accountId) {
         String url = BASE_URL + port + ACCOUNT_TRANSACTIONS_URI;
         return url.replace("{AccountId}", accountId);
@@ -18,6 +18,7 @@ package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.event.v4_0_0.aggrega
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.joda.JodaModule;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.event.FREventPollingError;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.testsupport.api.HttpHeadersTestDataFactory;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.event.FREventMessageEntity;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.events.FREventMessageRepository;
@@ -35,11 +36,16 @@ import uk.org.openbanking.datamodel.v3.event.OBEventPolling1;
 import uk.org.openbanking.datamodel.v3.event.OBEventPolling1SetErrsValue;
 import uk.org.openbanking.datamodel.v4.event.OBEventPollingResponse1;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.event.EventTestHelper.aValidFREventMessageEntity;
+import static com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.event.EventTestHelper.aValidFREventNotificationEntityBuilder;
 import static com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.event.EventTestHelper.aValidOBEventPolling1;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
@@ -143,6 +149,80 @@ public class AggregatedPollingApiControllerTest {
         assertThat(response.getBody().getSets()).isEmpty();
     }
 
+    @Test
+    public void shouldPollOldestEventsFirstExcludingEventsWithErrors() {
+        // Given
+        List<FREventMessageEntity> events = new ArrayList<>();
+        long created = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            events.add(pendingEventsRepository.save(aValidFREventNotificationEntityBuilder(API_CLIENT_ID)
+                    .created(new Date(created + i)).build()));
+        }
+        FREventMessageEntity eventWithErrors = events.get(0);
+        eventWithErrors.setErrors(FREventPollingError.builder().error("jwtIss").description("Issuer is invalid").build());
+        pendingEventsRepository.save(eventWithErrors);
+        pendingEventsRepository.save(aValidFREventMessageEntity(UUID.randomUUID().toString()));
+
+        OBEventPolling1 obEventPolling = aValidOBEventPolling1();
+        HttpHeaders headers = HttpHeadersTestDataFactory.requiredEventNotificationsHttpHeaders(API_CLIENT_ID);
+        HttpEntity<OBEventPolling1> request = new HttpEntity<>(obEventPolling, headers);
+
+        // When
+        ResponseEntity<OBEventPollingResponse1> firstResponse = restTemplate.postForEntity(eventsUrl(), request, OBEventPollingResponse1.class);
+
+        // Then
+        assertThat(firstResponse.getStatusCode()).isEqualTo(OK);
+        assertThat(firstResponse.getBody().getMoreAvailable()).isTrue();
+        assertThat(firstResponse.getBody().getSets()).containsOnlyKeys(events.get(1).getJti());
+
+        // When
+        obEventPolling.setAck(List.of(events.get(1).getJti()));
+        ResponseEntity<OBEventPollingResponse1> secondResponse = restTemplate.postForEntity(eventsUrl(), request, OBEventPollingResponse1.class);
+
+        // Then
+        assertThat(secondResponse.getStatusCode()).isEqualTo(OK);
+        assertThat(secondResponse.getBody().getMoreAvailable()).isFalse();
+        assertThat(secondResponse.getBody().getSets()).containsOnlyKeys(events.get(2).getJti());
+        assertThat(pendingEventsRepository.findByApiClientIdAndJti(API_CLIENT_ID, events.get(1).getJti())).isEmpty();
+    }
+
+    @Test
+    public void shouldHoldLongPollUntilEventArrives() throws Exception {
+        // Given
+        OBEventPolling1 obEventPolling = aValidOBEventPolling1().returnImmediately(false);
+        HttpHeaders headers = HttpHeadersTestDataFactory.requiredEventNotificationsHttpHeaders(API_CLIENT_ID);
+        HttpEntity<OBEventPolling1> request = new HttpEntity<>(obEventPolling, headers);
+        CompletableFuture<ResponseEntity<OBEventPollingResponse1>> pendingResponse = CompletableFuture.supplyAsync(
+                () -> restTemplate.postForEntity(eventsUrl(), request, OBEventPollingResponse1.class));
+        // Give the poll a chance to start waiting, the event is still delivered if it is written first
+        Thread.sleep(200);
+
+        // When
+        FREventMessageEntity frEventMessageEntity = pendingEventsRepository.save(aValidFREventMessageEntity(API_CLIENT_ID));
+
+        // Then
+        ResponseEntity<OBEventPollingResponse1> response = pendingResponse.get(10, TimeUnit.SECONDS);
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getMoreAvailable()).isFalse();
+        validateStringSet(response.getBody().getSets().get(frEventMessageEntity.getJti()), frEventMessageEntity);
+    }
+
+    @Test
+    public void shouldRespondWithNoEventsWhenLongPollTimesOut() {
+        // Given
+        OBEventPolling1 obEventPolling = aValidOBEventPolling1().returnImmediately(false);
+        HttpHeaders headers = HttpHeadersTestDataFactory.requiredEventNotificationsHttpHeaders(API_CLIENT_ID);
+        HttpEntity<OBEventPolling1> request = new HttpEntity<>(obEventPolling, headers);
+
+        // When
+        ResponseEntity<OBEventPollingResponse1> response = restTemplate.postForEntity(eventsUrl(), request, OBEventPollingResponse1.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getMoreAvailable()).isNull();
+        assertThat(response.getBody().getSets()).isEmpty();
+    }
+
     private void validateStringSet(String set, FREventMessageEntity frEventMessageEntity) throws Exception {
         Map setMap = objectMapper.readValue(set, Map.class);
         Map<String, Object> entityMap = objectMapper.convertValue(frEventMessageEntity, new TypeReference<>() {
@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file.ChunkedPaymentFileValidator.Result;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file.ChunkedPaymentFileValidator.TransactionError;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.file.ChunkedPaymentFileValidator.Validation;
+
+class ChunkedPaymentFileValidatorTest {
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void failsToCreateValidatorWithInvalidChunkSize() {
+        final IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> new ChunkedPaymentFileValidator(executorService, 0));
+        assertThat(ex.getMessage()).isEqualTo("chunkSize must be 1 or more");
+    }
+
+    @Test
+    void shouldMergeTotalsOfAllChunks() {
+        final ChunkedPaymentFileValidator validator = new ChunkedPaymentFileValidator(executorService, 2);
+        final List<FRFilePayment> payments = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            payments.add(payment(i, i + ".25"));
+        }
+
+        final Result result = validator.validate(payments);
+
+        assertThat(result.hasErrors()).isFalse();
+        assertThat(result.getNumberOfTransactions()).isEqualTo(5);
+        assertThat(result.getControlSum()).isEqualByComparingTo("16.25");
+    }
+
+    @Test
+    void shouldValidatePaymentsAsTheyAreSupplied() {
+        final ChunkedPaymentFileValidator validator = new ChunkedPaymentFileValidator(executorService, 3);
+        final Validation validation = validator.newValidation();
+        for (int i = 0; i < 10; i++) {
+            validation.accept(payment(i, "10"));
+        }
+
+        final Result result = validation.finish();
+
+        assertThat(result.hasErrors()).isFalse();
+        assertThat(result.getNumberOfTransactions()).isEqualTo(10);
+        assertThat(result.getControlSum()).isEqualByComparingTo("100");
+    }
+
+    @Test
+    void shouldReturnErrorsInFileOrder() {
+        final ChunkedPaymentFileValidator validator = new ChunkedPaymentFileValidator(executorService, 1);
+        final List<FRFilePayment> payments = new ArrayList<>();
+        final List<Integer> invalidPaymentIndexes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            if (i % 7 == 0) {
+                payments.add(payment(i, "not a number"));
+                invalidPaymentIndexes.add(i);
+            } else {
+                payments.add(payment(i, "1"));
+            }
+        }
+
+        final Result result = validator.validate(payments);
+
+        assertThat(result.getNumberOfTransactions()).isEqualTo(200);
+        assertThat(result.getControlSum()).isEqualByComparingTo(BigDecimal.valueOf(200 - invalidPaymentIndexes.size()));
+        assertThat(result.getErrors().stream().map(TransactionError::getPaymentIndex).collect(Collectors.toList()))
+                .isEqualTo(invalidPaymentIndexes);
+        assertThat(result.getErrors().get(0).toString()).isEqualTo("Data.DomesticPayments[0] InstructedAmount.Amount is not a valid amount");
+    }
+
+    @Test
+    void shouldOnlyValidateInstructedAmount() {
+        final ChunkedPaymentFileValidator validator = new ChunkedPaymentFileValidator(executorService, 2);
+        // Identifiers and the creditor account are validated by the processor of the file type
+        final FRFilePayment withoutIdentifiers = paymentBuilder(0, "1").instructionIdentification(null)
+                .endToEndIdentification(null).creditorAccountIdentification(null).build();
+        final FRFilePayment missingInstructedAmount = paymentBuilder(1, "1").instructedAmount(null).build();
+        final FRFilePayment missingAmount = paymentBuilder(2, "1").instructedAmount(new FRAmount("", "GBP")).build();
+
+        final Result result = validator.validate(List.of(withoutIdentifiers, missingInstructedAmount, missingAmount,
+                payment(3, "2.50")));
+
+        assertThat(result.getNumberOfTransactions()).isEqualTo(4);
+        assertThat(result.getControlSum()).isEqualByComparingTo("3.50");
+        assertThat(result.getErrors().stream().map(TransactionError::toString).collect(Collectors.toList())).containsExactly(
+                "Data.DomesticPayments[1] InstructedAmount.Amount is required",
+                "Data.DomesticPayments[2] InstructedAmount.Amount is required");
+    }
+
+    @Test
+    void shouldValidateChunksRejectedByExecutorOnCallingThread() {
+        final ChunkedPaymentFileValidator validator = new ChunkedPaymentFileValidator(executorService, 2);
+        final Validation validation = validator.newValidation();
+        validation.accept(payment(0, "1"));
+        validation.accept(payment(1, "1"));
+        validator.shutdown();
+        for (int i = 2; i < 5; i++) {
+            validation.accept(payment(i, "1"));
+        }
+
+        final Result result = validation.finish();
+
+        assertThat(result.hasErrors()).isFalse();
+        assertThat(result.getNumberOfTransactions()).isEqualTo(5);
+        assertThat(result.getControlSum()).isEqualByComparingTo("5");
+    }
+
+    private static FRFilePayment payment(int index, String amount) {
+        return paymentBuilder(index, amount).build();
+    }
+
+    private static FRFilePayment.FRFilePaymentBuilder paymentBuilder(int index, String amount) {
+        return FRFilePayment.builder()
+                .instructionIdentification("instr-" + index)
+                .endToEndIdentification("e2e-" + index)
+                .creditorAccountIdentification("08080021325698")
+                .instructedAmount(new FRAmount(amount, "GBP"))
+                .status(FRFilePayment.PaymentStatus.PENDING);
+    }
+}
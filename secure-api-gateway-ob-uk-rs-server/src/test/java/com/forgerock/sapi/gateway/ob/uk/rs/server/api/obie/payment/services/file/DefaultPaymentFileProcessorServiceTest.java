@@ -19,9 +19,12 @@ import static com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.Bas
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -32,6 +35,7 @@ import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.DefaultPaymentFileType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.xml.OBIEPain001FileProcessor;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.json.OBIEPaymentInitiation31FileProcessor;
@@ -175,4 +179,44 @@ class DefaultPaymentFileProcessorServiceTest {
         assertThat(obErrorException.getOBError().getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid");
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldValidatePaymentsInChunksWhileStreamingFile() throws OBErrorException {
+        final ChunkedPaymentFileValidator chunkedPaymentFileValidator = new ChunkedPaymentFileValidator(Executors.newFixedThreadPool(2), 1);
+        try {
+            final DefaultPaymentFileProcessorService paymentFileProcessorService = new DefaultPaymentFileProcessorService(
+                    OBIE_FILE_TYPE_PROCESSORS, chunkedPaymentFileValidator);
+            for (final TestPaymentFile testPaymentFile : TestPaymentFileResources.getInstance().getPaymentFiles().values()) {
+                final List<FRFilePayment> streamedPayments = new ArrayList<>();
+                final PaymentFileSummary paymentFileSummary = paymentFileProcessorService.processFile(
+                        testPaymentFile.getFileType().getFileType(),
+                        new ByteArrayInputStream(testPaymentFile.getFileContent().getBytes(StandardCharsets.UTF_8)),
+                        streamedPayments::add);
+
+                assertThat(paymentFileSummary.getFileType()).isEqualTo(testPaymentFile.getFileType());
+                assertThat(paymentFileSummary.getNumberOfTransactions()).isEqualTo(testPaymentFile.getNumTransactions());
+                assertThat(paymentFileSummary.getControlSum()).isEqualByComparingTo(testPaymentFile.getControlSum());
+                assertThat(streamedPayments).hasSize(testPaymentFile.getNumTransactions());
+            }
+        } finally {
+            chunkedPaymentFileValidator.shutdown();
+        }
+    }
+
+    @Test
+    void failsWhenChunkedValidationFindsInvalidPayment() {
+        final ChunkedPaymentFileValidator chunkedPaymentFileValidator = new ChunkedPaymentFileValidator(Executors.newFixedThreadPool(2), 1);
+        try {
+            final PaymentFile invalidPaymentFile = new PaymentFile(UNIT_TEST_TYPE, List.of(new FRFilePayment()), new BigDecimal("1.00"));
+            final DefaultPaymentFileProcessorService paymentFileProcessorService = new DefaultPaymentFileProcessorService(
+                    List.of(new UnitTestPaymentFileTypeProcessor(invalidPaymentFile)), chunkedPaymentFileValidator);
+
+            final OBErrorException obErrorException = assertThrows(OBErrorException.class,
+                    () -> paymentFileProcessorService.processFile(UNIT_TEST_TYPE.getFileType(), "example file"));
+            assertThat(obErrorException.getOBError().getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid");
+            assertThat(obErrorException.getMessage()).contains("Data.DomesticPayments[0] InstructedAmount.Amount is required");
+        } finally {
+            chunkedPaymentFileValidator.shutdown();
+        }
+    }
+
+}
@@ -19,6 +19,7 @@ import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.validation.v4.FilePaymentFileContentValidator;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.services.validation.v4.FilePaymentFileContentValidator.FilePaymentFileContentValidationContext;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFile;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileSummary;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.HashUtils;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.util.payment.file.TestPaymentFileResources;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.util.payment.file.TestPaymentFileResources.TestPaymentFile;
@@ -64,6 +65,18 @@ class FilePaymentFileContentValidatorTest {
     }
 
 
+    @Test
+    void fileContentValidationSucceedsForPaymentFileSummary() {
+        final TestPaymentFile testPaymentFile = testPaymentFileResources.getPaymentFile(PAIN_001_001_08_FILE_PATH);
+        final PaymentFileSummary paymentFileSummary = new PaymentFileSummary(testPaymentFile.getFileType(),
+                testPaymentFile.getNumTransactions(), testPaymentFile.getControlSum());
+
+        final ValidationResult<OBError1> validationResult = validator.validate(new FilePaymentFileContentValidationContext(
+                computeFileHash(testPaymentFile), paymentFileSummary, createConsent(testPaymentFile)));
+        assertThat(validationResult.isValid()).isTrue();
+    }
+
+
     @Test
     void validationFailsDueToFileHashMismatch() {
         final TestPaymentFile testPaymentFile = testPaymentFileResources.getPaymentFile(PAIN_001_001_08_FILE_PATH);
@@ -24,6 +24,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 
 import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
 
 import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.file.FilePaymentConsentStoreClient;
 import org.joda.time.DateTimeZone;
@@ -43,12 +45,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.payment.FRWriteFileConsentConverter;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.DefaultPaymentFileType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.testsupport.api.HttpHeadersTestDataFactory;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.ConsumePaymentConsentRequest;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FilePaymentConsent;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentSubmissionRepository;
 import com.forgerock.sapi.gateway.uk.common.shared.api.meta.share.IntentType;
 
@@ -82,6 +88,12 @@ public class FilePaymentsApiControllerTest {
     @Autowired
     private FilePaymentSubmissionRepository filePaymentsRepository;
 
+    @Autowired
+    private FilePaymentResultRepository filePaymentResultRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockBean
     @Qualifier("v3.1.10RestFilePaymentConsentStoreClient")
     private FilePaymentConsentStoreClient filePaymentConsentStoreClient;
@@ -92,6 +104,7 @@ public class FilePaymentsApiControllerTest {
     @AfterEach
     void removeData() {
         filePaymentsRepository.deleteAll();
+        filePaymentResultRepository.deleteAll();
     }
 
     private static OBWriteFileConsent3 createValidConsent() {
@@ -222,16 +235,65 @@ public class FilePaymentsApiControllerTest {
     }
 
     @Test
-    public void shouldFailToGetReportFileGivenNotImplemented() {
+    public void shouldGetReportFile() throws Exception {
+        // Given
+        final String consentId = IntentType.PAYMENT_FILE_CONSENT.generateIntentId();
+        final OBWriteFileConsent3 filePaymentConsent = createValidConsent();
+        mockConsentStoreGetResponse(consentId, filePaymentConsent);
+        final ResponseEntity<OBWriteFileResponse3> createResponse = restTemplate.exchange(filePaymentsUrl(), HttpMethod.POST,
+                new HttpEntity<>(createPayment(consentId, filePaymentConsent), HTTP_HEADERS), OBWriteFileResponse3.class);
+        assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        final String filePaymentId = createResponse.getBody().getData().getFilePaymentId();
+        filePaymentResultRepository.insertBatch(List.of(
+                filePaymentResult(filePaymentId, 1, "INSTR-2", "0.40"),
+                filePaymentResult(filePaymentId, 0, "INSTR-1", "0.60")));
+
+        // When
+        final ResponseEntity<String> response = restTemplate.exchange(filePaymentsReportUrl(filePaymentId), HttpMethod.GET,
+                new HttpEntity<>(HTTP_HEADERS), String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        final JsonNode data = objectMapper.readTree(response.getBody()).get("Data");
+        assertThat(data.get("FilePaymentId").asText()).isEqualTo(filePaymentId);
+        assertThat(data.get("ConsentId").asText()).isEqualTo(consentId);
+        assertThat(data.get("NumberOfTransactions").asText()).isEqualTo("12");
+        final JsonNode payments = data.get("Payments");
+        assertThat(payments).hasSize(2);
+        assertThat(payments.get(0).get("Index").asInt()).isEqualTo(0);
+        assertThat(payments.get(0).get("InstructionIdentification").asText()).isEqualTo("INSTR-1");
+        assertThat(payments.get(0).get("InstructedAmount").get("Amount").asText()).isEqualTo("0.60");
+        assertThat(payments.get(0).get("Status").asText()).isEqualTo("Pending");
+        assertThat(payments.get(1).get("InstructionIdentification").asText()).isEqualTo("INSTR-2");
+    }
+
+    @Test
+    public void shouldFailToGetReportFileGivenUnknownFilePayment() {
         // Given
         String filePaymentId = "1234";
         String url = filePaymentsReportUrl(filePaymentId);
 
         // When
-        ResponseEntity response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(HTTP_HEADERS), Void.class);
+        ResponseEntity<OBErrorResponse1> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(HTTP_HEADERS), OBErrorResponse1.class);
 
         // Then
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getErrors().get(0)).isEqualTo(OBRIErrorType.PAYMENT_SUBMISSION_NOT_FOUND.toOBError1(filePaymentId));
+    }
+
+    private static FRFilePaymentResult filePaymentResult(String filePaymentId, int index, String instructionIdentification,
+                                                         String amount) {
+        return FRFilePaymentResult.builder()
+                .id(FRFilePaymentResult.id(filePaymentId, index))
+                .filePaymentId(filePaymentId)
+                .index(index)
+                .instructionIdentification(instructionIdentification)
+                .endToEndIdentification("E2E-" + index)
+                .amount(new BigDecimal(amount))
+                .currency("GBP")
+                .status(FRFilePaymentResult.Status.PENDING)
+                .statusUpdateDateTime(new Date())
+                .build();
     }
 
     private String filePaymentsUrl() {
@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.v4_0_0.file;
+
+import com.forgerock.sapi.gateway.ob.uk.rs.server.testsupport.api.HttpHeadersTestDataFactory;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.util.payment.file.TestPaymentFileResources;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.util.payment.file.TestPaymentFileResources.TestPaymentFile;
+import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.file.FilePaymentConsentStoreClient;
+import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FilePaymentConsent;
+import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FileUploadRequest;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.ProcessingError;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.Status;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.PaymentFileProcessingJobRepository;
+import com.forgerock.sapi.gateway.uk.common.shared.api.meta.share.IntentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+import uk.org.openbanking.datamodel.v3.error.OBError1;
+import uk.org.openbanking.datamodel.v3.error.OBErrorResponse1;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.v4_0_0.file.FilePaymentConsentsApiControllerTest.TEST_API_CLIENT_ID;
+import static com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.v4_0_0.file.FilePaymentConsentsApiControllerTest.buildAwaitingUploadConsent;
+import static com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.v4_0_0.file.FilePaymentConsentsApiControllerTest.createHeadersForFileUpload;
+import static com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.v4_0_0.file.FilePaymentConsentsApiControllerTest.createValidConsentRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests the file upload and file retrieval endpoints when uploaded files are processed in the background.
+ */
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "rs.payments.file.processing.async.enabled=true")
+@ActiveProfiles("test")
+public class FilePaymentConsentsApiControllerAsyncFileProcessingTest {
+
+    private static final HttpHeaders HTTP_HEADERS = HttpHeadersTestDataFactory.requiredPaymentHttpHeaders(TEST_API_CLIENT_ID);
+
+    private static final long PROCESSING_TIMEOUT_MILLIS = 10_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    @Qualifier("v4.0.0RestFilePaymentConsentStoreClient")
+    private FilePaymentConsentStoreClient consentStoreClient;
+
+    @Autowired
+    private PaymentFileProcessingJobRepository jobRepository;
+
+    @Autowired
+    private FilePaymentResultRepository filePaymentResultRepository;
+
+    private final TestPaymentFileResources testPaymentFileResources = TestPaymentFileResources.getInstance();
+
+    @AfterEach
+    void removeData() {
+        jobRepository.deleteAll();
+        filePaymentResultRepository.deleteAll();
+    }
+
+    private String controllerFileUri(String consentId) {
+        return "http://localhost:" + port + "/open-banking/v4.0.0/pisp/file-payment-consents/" + consentId + "/file";
+    }
+
+    @Test
+    void testUploadFileIsQueuedAndProcessed() {
+        final String consentId = IntentType.PAYMENT_FILE_CONSENT.generateIntentId();
+        final TestPaymentFile paymentFile = testPaymentFileResources.getPaymentFile(TestPaymentFileResources.PAIN_001_001_08_FILE_PATH);
+        given(consentStoreClient.getConsent(eq(consentId), eq(TEST_API_CLIENT_ID))).willReturn(buildAwaitingUploadConsent(
+                createValidConsentRequest(paymentFile.getFileType(), paymentFile.getFileHash(), paymentFile.getNumTransactions(), paymentFile.getControlSum())));
+
+        final String idempotencyKey = UUID.randomUUID().toString();
+        final ResponseEntity<Void> uploadResponse = restTemplate.exchange(controllerFileUri(consentId), HttpMethod.POST,
+                new HttpEntity<>(paymentFile.getFileContent(), createHeadersForFileUpload(idempotencyKey, paymentFile.getFileType())),
+                Void.class);
+        assertThat(uploadResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(jobRepository.findById(consentId)).hasValueSatisfying(job -> {
+            assertThat(job.getApiClientId()).isEqualTo(TEST_API_CLIENT_ID);
+            assertThat(job.getFileUploadIdempotencyKey()).isEqualTo(idempotencyKey);
+        });
+
+        // A worker forwards the file to the consent store once it has been processed
+        final ArgumentCaptor<FileUploadRequest> fileUploadRequestCaptor = ArgumentCaptor.forClass(FileUploadRequest.class);
+        verify(consentStoreClient, timeout(PROCESSING_TIMEOUT_MILLIS)).uploadFile(fileUploadRequestCaptor.capture());
+        final FileUploadRequest fileUploadRequest = fileUploadRequestCaptor.getValue();
+        assertThat(fileUploadRequest.getConsentId()).isEqualTo(consentId);
+        assertThat(fileUploadRequest.getFileContents()).isEqualTo(paymentFile.getFileContent());
+        assertThat(fileUploadRequest.getFileUploadIdempotencyKey()).isEqualTo(idempotencyKey);
+
+        final FRPaymentFileProcessingJob job = awaitJobFinished(consentId);
+        assertThat(job.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(job.getFileContents()).isNull();
+        assertThat(filePaymentResultRepository.countByFilePaymentId(consentId)).isEqualTo(paymentFile.getNumTransactions());
+    }
+
+    @Test
+    void testInvalidFileIsRejectedByWorker() {
+        final String consentId = IntentType.PAYMENT_FILE_CONSENT.generateIntentId();
+        final TestPaymentFile paymentFile = testPaymentFileResources.getPaymentFile(TestPaymentFileResources.PAIN_001_001_08_FILE_PATH);
+        // Num transactions in consent != num in file, which is only detected once the file has been parsed
+        given(consentStoreClient.getConsent(eq(consentId), eq(TEST_API_CLIENT_ID))).willReturn(buildAwaitingUploadConsent(
+                createValidConsentRequest(paymentFile.getFileType(), paymentFile.getFileHash(), 1000, paymentFile.getControlSum())));
+
+        final ResponseEntity<Void> uploadResponse = restTemplate.exchange(controllerFileUri(consentId), HttpMethod.POST,
+                new HttpEntity<>(paymentFile.getFileContent(), createHeadersForFileUpload(UUID.randomUUID().toString(), paymentFile.getFileType())),
+                Void.class);
+        assertThat(uploadResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(awaitJobFinished(consentId).getStatus()).isEqualTo(Status.FAILED);
+        final ResponseEntity<OBErrorResponse1> fileResponse = restTemplate.exchange(controllerFileUri(consentId),
+                HttpMethod.GET, new HttpEntity<>(HTTP_HEADERS), OBErrorResponse1.class);
+        assertThat(fileResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(Objects.requireNonNull(fileResponse.getBody()).getErrors()).singleElement()
+                .extracting(OBError1::getErrorCode).isEqualTo("OBRI.Request.Object.file.wrong.number.of.transactions");
+        assertThat(filePaymentResultRepository.count()).isZero();
+    }
+
+    @Test
+    void testGetFileWhileFileIsBeingProcessed() {
+        final String consentId = IntentType.PAYMENT_FILE_CONSENT.generateIntentId();
+        given(consentStoreClient.getConsent(eq(consentId), eq(TEST_API_CLIENT_ID))).willReturn(new FilePaymentConsent());
+        // Leased to a worker, so it will not be claimed by this instance's workers
+        saveJob(consentId, Status.IN_PROCESS, null);
+
+        final ResponseEntity<String> fileResponse = restTemplate.exchange(controllerFileUri(consentId),
+                HttpMethod.GET, new HttpEntity<>(HTTP_HEADERS), String.class);
+
+        assertThat(fileResponse.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(fileResponse.getBody()).isNull();
+    }
+
+    @Test
+    void testGetFileWhenFileWasRejected() {
+        final String consentId = IntentType.PAYMENT_FILE_CONSENT.generateIntentId();
+        given(consentStoreClient.getConsent(eq(consentId), eq(TEST_API_CLIENT_ID))).willReturn(new FilePaymentConsent());
+        final ProcessingError error = new ProcessingError("OBRI.Request.Object.file.invalid", "File is invalid", "Data.DomesticPayments[1]");
+        saveJob(consentId, Status.FAILED, List.of(error));
+
+        final ResponseEntity<OBErrorResponse1> fileResponse = restTemplate.exchange(controllerFileUri(consentId),
+                HttpMethod.GET, new HttpEntity<>(HTTP_HEADERS), OBErrorResponse1.class);
+
+        assertThat(fileResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        final OBErrorResponse1 errorResponse = Objects.requireNonNull(fileResponse.getBody());
+        assertThat(errorResponse.getCode()).isEqualTo("OBRI.Request.Invalid");
+        assertThat(errorResponse.getErrors()).singleElement().satisfies(obError -> {
+            assertThat(obError.getErrorCode()).isEqualTo(error.getErrorCode());
+            assertThat(obError.getMessage()).isEqualTo(error.getMessage());
+            assertThat(obError.getPath()).isEqualTo(error.getPath());
+        });
+    }
+
+    @Test
+    void testGetFileWhenFileWasProcessedButNotReturnedByConsentStore() {
+        final String consentId = IntentType.PAYMENT_FILE_CONSENT.generateIntentId();
+        given(consentStoreClient.getConsent(eq(consentId), eq(TEST_API_CLIENT_ID))).willReturn(new FilePaymentConsent());
+        saveJob(consentId, Status.COMPLETED, null);
+
+        final ResponseEntity<OBErrorResponse1> fileResponse = restTemplate.exchange(controllerFileUri(consentId),
+                HttpMethod.GET, new HttpEntity<>(HTTP_HEADERS), OBErrorResponse1.class);
+
+        assertThat(fileResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private void saveJob(String consentId, Status status, List<ProcessingError> errors) {
+        final Date now = new Date();
+        jobRepository.save(FRPaymentFileProcessingJob.builder()
+                .id(consentId)
+                .apiClientId(TEST_API_CLIENT_ID)
+                .fileUploadIdempotencyKey(UUID.randomUUID().toString())
+                .status(status)
+                .leaseExpiresAt(status == Status.IN_PROCESS ? new Date(now.getTime() + 300_000) : null)
+                .attempts(1)
+                .errors(errors)
+                .created(now)
+                .updated(now)
+                .build());
+    }
+
+    private FRPaymentFileProcessingJob awaitJobFinished(String consentId) {
+        final long deadline = System.currentTimeMillis() + PROCESSING_TIMEOUT_MILLIS;
+        while (true) {
+            final FRPaymentFileProcessingJob job = jobRepository.findById(consentId).orElseThrow();
+            if (job.getStatus() == Status.COMPLETED || job.getStatus() == Status.FAILED
+                    || System.currentTimeMillis() > deadline) {
+                return job;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
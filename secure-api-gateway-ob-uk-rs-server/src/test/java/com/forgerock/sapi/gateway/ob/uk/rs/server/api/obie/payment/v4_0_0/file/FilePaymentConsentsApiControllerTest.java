@@ -15,10 +15,12 @@
  */
 package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.v4_0_0.file;
 
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRSubmissionStatus;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.payment.FRWriteFileConsentConverter;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.DefaultPaymentFileType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.PaymentFileType;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.report.PaymentReportFile1Service;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.testsupport.api.HttpHeadersTestDataFactory;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.util.payment.file.TestPaymentFileResources;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.util.payment.file.TestPaymentFileResources.TestPaymentFile;
@@ -27,8 +29,12 @@ import com.forgerock.sapi.gateway.rcs.consent.store.client.ConsentStoreClientExc
 import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.file.FilePaymentConsentStoreClient;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FilePaymentConsent;
 import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FileUploadRequest;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultRepository;
 import com.forgerock.sapi.gateway.uk.common.shared.api.meta.share.IntentType;
 import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,15 +48,22 @@ import org.springframework.test.context.ActiveProfiles;
 import uk.org.openbanking.datamodel.error.OBStandardErrorCodes1;
 import uk.org.openbanking.datamodel.v3.error.OBError1;
 import uk.org.openbanking.datamodel.v3.error.OBErrorResponse1;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteFile2;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteFile2Data;
 import uk.org.openbanking.datamodel.v4.payment.OBWriteFileConsent3;
 import uk.org.openbanking.testsupport.v4.payment.OBWriteFileConsentTestDataFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.payment.FRWriteFileConverter.toFRWriteFile;
 import static com.forgerock.sapi.gateway.ob.uk.common.error.ErrorCode.OBRI_CONSENT_NOT_FOUND;
 import static com.forgerock.sapi.gateway.ob.uk.common.error.ErrorCode.OBRI_PERMISSION_INVALID;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -64,7 +77,7 @@ import static uk.org.openbanking.datamodel.v3.payment.OBWriteFileConsentResponse
 @ActiveProfiles("test")
 public class FilePaymentConsentsApiControllerTest {
 
-    private static final String TEST_API_CLIENT_ID = "client_234093-49";
+    static final String TEST_API_CLIENT_ID = "client_234093-49";
 
     private static final HttpHeaders HTTP_HEADERS = HttpHeadersTestDataFactory.requiredPaymentHttpHeaders(TEST_API_CLIENT_ID);
 
@@ -78,8 +91,19 @@ public class FilePaymentConsentsApiControllerTest {
     @Qualifier("v4.0.0RestFilePaymentConsentStoreClient")
     private FilePaymentConsentStoreClient consentStoreClient;
 
+    @Autowired
+    private FilePaymentResultRepository filePaymentResultRepository;
+
+    @Autowired
+    private PaymentReportFile1Service paymentReportFileService;
+
     private final TestPaymentFileResources testPaymentFileResources = TestPaymentFileResources.getInstance();
 
+    @AfterEach
+    void removeData() {
+        filePaymentResultRepository.deleteAll();
+    }
+
     private String controllerBaseUri() {
         return "http://localhost:" + port + "/open-banking/v4.0.0/pisp/file-payment-consents";
     }
@@ -115,6 +139,16 @@ public class FilePaymentConsentsApiControllerTest {
         assertThat(fileUploadRequest.getFileContents()).isEqualTo(paymentFile.getFileContent());
         assertThat(fileUploadRequest.getFileUploadIdempotencyKey()).isEqualTo(idempotencyKey);
         assertThat(fileUploadRequest.getApiClientId()).isEqualTo(TEST_API_CLIENT_ID);
+
+        // A result is recorded for each payment in the file, in the order of the file
+        try (Stream<FRFilePaymentResult> results = filePaymentResultRepository.streamByFilePaymentIdOrderByIndexAsc(consentId)) {
+            final List<FRFilePaymentResult> recorded = results.collect(Collectors.toList());
+            assertThat(recorded).hasSize(paymentFile.getNumTransactions());
+            assertThat(recorded).extracting(FRFilePaymentResult::getIndex).containsExactly(0, 1, 2);
+            assertThat(recorded).allMatch(result -> result.getStatus() == FRFilePaymentResult.Status.PENDING);
+            assertThat(recorded.stream().map(FRFilePaymentResult::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                    .isEqualByComparingTo(paymentFile.getControlSum());
+        }
     }
 
     @Test
@@ -141,7 +175,78 @@ public class FilePaymentConsentsApiControllerTest {
         final OBError1 obError1 = obErrorResponse.getErrors().get(0);
         assertThat(obError1.getErrorCode()).isEqualTo("OBRI.Request.Object.file.wrong.number.of.transactions");
         assertThat(obError1.getMessage()).isEqualTo("The file received contains 3 transactions but the file consent metadata indicated that we are expecting a file with 1000 transactions'");
+        // The results recorded while the file was processed are discarded
+        assertThat(filePaymentResultRepository.count()).isZero();
+
+    }
 
+    @Test
+    void testFailToReUploadFileGivenFileWasAccepted() throws Exception {
+        final String consentId = IntentType.PAYMENT_FILE_CONSENT.generateIntentId();
+
+        final TestPaymentFile paymentFile = testPaymentFileResources.getPaymentFile(TestPaymentFileResources.PAIN_001_001_08_FILE_PATH);
+        final OBWriteFileConsent3 consentRequest = createValidConsentRequest(paymentFile.getFileType(), paymentFile.getFileHash(),
+                paymentFile.getNumTransactions(), paymentFile.getControlSum());
+        given(consentStoreClient.getConsent(eq(consentId), eq(TEST_API_CLIENT_ID))).willReturn(buildAwaitingUploadConsent(consentRequest));
+
+        final ResponseEntity<Void> uploadResponse = restTemplate.exchange(controllerUploadFileUri(consentId), HttpMethod.POST,
+                new HttpEntity<>(paymentFile.getFileContent(), createHeadersForFileUpload(UUID.randomUUID().toString(), paymentFile.getFileType())),
+                Void.class);
+        assertThat(uploadResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // The file payment is settled
+        filePaymentResultRepository.updateStatus(consentId, FRFilePaymentResult.Status.COMPLETED, new Date());
+        final FRFilePaymentSubmission filePayment = FRFilePaymentSubmission.builder()
+                .id(consentId)
+                .filePayment(toFRWriteFile(new OBWriteFile2().data(new OBWriteFile2Data()
+                        .consentId(consentId)
+                        .initiation(consentRequest.getData().getInitiation()))))
+                .status(FRSubmissionStatus.INITIATIONCOMPLETED)
+                .build();
+        final String settledReport = writePaymentReport(filePayment);
+
+        // The file is uploaded again before the consent store has changed the status of the consent
+        final ResponseEntity<OBErrorResponse1> reUploadResponse = restTemplate.exchange(controllerUploadFileUri(consentId), HttpMethod.POST,
+                new HttpEntity<>(paymentFile.getFileContent(), createHeadersForFileUpload(UUID.randomUUID().toString(), paymentFile.getFileType())),
+                OBErrorResponse1.class);
+
+        assertThat(reUploadResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(Objects.requireNonNull(reUploadResponse.getBody()).getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid"));
+        verify(consentStoreClient, times(1)).uploadFile(any());
+        // Nothing was recorded for the re-upload, and the report of the settled file payment is unchanged
+        assertThat(filePaymentResultRepository.count()).isEqualTo(paymentFile.getNumTransactions());
+        assertThat(writePaymentReport(filePayment)).isEqualTo(settledReport);
+    }
+
+    private String writePaymentReport(FRFilePaymentSubmission filePayment) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        paymentReportFileService.writePaymentReport(filePayment, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testFailToUploadFileWithIncorrectFileHash() {
+        final String consentId = IntentType.PAYMENT_FILE_CONSENT.generateIntentId();
+
+        final TestPaymentFile paymentFile = testPaymentFileResources.getPaymentFile(TestPaymentFileResources.PAIN_001_001_08_FILE_PATH);
+
+        final String idempotencyKey = UUID.randomUUID().toString();
+        final HttpEntity<String> entity = new HttpEntity<>(paymentFile.getFileContent(), createHeadersForFileUpload(idempotencyKey, paymentFile.getFileType()));
+
+        given(consentStoreClient.getConsent(eq(consentId), eq(TEST_API_CLIENT_ID))).willReturn(buildAwaitingUploadConsent(
+                createValidConsentRequest(paymentFile.getFileType(), "tampered-file-hash", paymentFile.getNumTransactions(), paymentFile.getControlSum())));
+
+        final ResponseEntity<OBErrorResponse1> fileUploadResponse = restTemplate.exchange(controllerUploadFileUri(consentId), HttpMethod.POST,
+                entity, OBErrorResponse1.class);
+
+        assertThat(fileUploadResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        final OBErrorResponse1 obErrorResponse = fileUploadResponse.getBody();
+        assert obErrorResponse != null;
+        assertThat(obErrorResponse.getErrors().size()).isEqualTo(1);
+        final OBError1 obError1 = obErrorResponse.getErrors().get(0);
+        assertThat(obError1.getErrorCode()).isEqualTo("OBRI.Request.Object.file.hash.no.matching.metadata");
+        verify(consentStoreClient, never()).uploadFile(any());
     }
 
     @Test
@@ -244,8 +349,8 @@ public class FilePaymentConsentsApiControllerTest {
     }
 
 
-    private static OBWriteFileConsent3 createValidConsentRequest(PaymentFileType paymentFileType, String fileHash,
-                                                                    int numTransactions, BigDecimal controlSum) {
+    static OBWriteFileConsent3 createValidConsentRequest(PaymentFileType paymentFileType, String fileHash,
+                                                          int numTransactions, BigDecimal controlSum) {
         final OBWriteFileConsent3 consentRequest = OBWriteFileConsentTestDataFactory.aValidOBWriteFileConsent3(
                 paymentFileType.getFileType(), fileHash, String.valueOf(numTransactions), controlSum);
         consentRequest.getData().getInitiation().setRequestedExecutionDateTime(consentRequest.getData().getInitiation().getRequestedExecutionDateTime().withZone(DateTimeZone.UTC));
@@ -266,7 +371,7 @@ public class FilePaymentConsentsApiControllerTest {
         return consentStoreResponse;
     }
 
-    private static HttpHeaders createHeadersForFileUpload(String idempotencyKey, PaymentFileType paymentFileType) {
+    static HttpHeaders createHeadersForFileUpload(String idempotencyKey, PaymentFileType paymentFileType) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(paymentFileType.getContentType());
         headers.setBearerAuth("dummyAuthToken");
@@ -0,0 +1,240 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.api.obie.payment.v4_0_0.file;
+
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v4.payment.FRWriteFileConverter.toFRWriteFile;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRSubmissionStatus;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.DefaultPaymentFileType;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.testsupport.api.HttpHeadersTestDataFactory;
+import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.file.FilePaymentConsentStoreClient;
+import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FilePaymentConsent;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentSubmissionRepository;
+import com.forgerock.sapi.gateway.uk.common.shared.api.meta.share.IntentType;
+
+import uk.org.openbanking.datamodel.v4.error.OBErrorResponse1;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteFile2;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteFile2Data;
+import uk.org.openbanking.datamodel.v4.payment.OBWriteFileConsent3;
+import uk.org.openbanking.testsupport.v4.payment.OBWriteFileConsentTestDataFactory;
+
+/**
+ * A SpringBoot test for the payment details of the {@link FilePaymentsApiController}.
+ */
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "rs.page.default.file-payment-details.size=2")
+@ActiveProfiles("test")
+public class FilePaymentsApiControllerTest {
+
+    private static final String TEST_API_CLIENT_ID = "client-123";
+    private static final HttpHeaders HTTP_HEADERS = HttpHeadersTestDataFactory.requiredPaymentHttpHeaders(TEST_API_CLIENT_ID);
+    private static final String BASE_URL = "http://localhost:";
+    private static final String FILE_PAYMENTS_URI = "/open-banking/v4.0.0/pisp/file-payments";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FilePaymentSubmissionRepository filePaymentsRepository;
+
+    @Autowired
+    private FilePaymentResultRepository filePaymentResultRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    @Qualifier("v4.0.0RestFilePaymentConsentStoreClient")
+    private FilePaymentConsentStoreClient filePaymentConsentStoreClient;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @AfterEach
+    void removeData() {
+        filePaymentsRepository.deleteAll();
+        filePaymentResultRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldGetPaymentDetailsPageByPage() throws Exception {
+        // Given
+        final String filePaymentId = createFilePayment(5);
+
+        // When
+        final List<String> paymentTransactionIds = new ArrayList<>();
+        String url = paymentDetailsUrl(filePaymentId);
+        int pages = 0;
+        while (url != null) {
+            final ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET,
+                    new HttpEntity<>(HTTP_HEADERS), String.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            final JsonNode body = objectMapper.readTree(response.getBody());
+            body.get("Data").get("PaymentStatus").forEach(payment -> paymentTransactionIds.add(payment.get("PaymentTransactionId").asText()));
+            final JsonNode next = body.get("Links").get("Next");
+            url = next == null || next.isNull() ? null : next.asText();
+            pages++;
+        }
+
+        // Then
+        assertThat(pages).isEqualTo(3);
+        assertThat(paymentTransactionIds).containsExactly(
+                FRFilePaymentResult.id(filePaymentId, 0),
+                FRFilePaymentResult.id(filePaymentId, 1),
+                FRFilePaymentResult.id(filePaymentId, 2),
+                FRFilePaymentResult.id(filePaymentId, 3),
+                FRFilePaymentResult.id(filePaymentId, 4));
+        verify(filePaymentConsentStoreClient, times(3)).getConsent(eq(filePaymentId), eq(TEST_API_CLIENT_ID));
+    }
+
+    @Test
+    public void shouldGetPaymentDetailsByInstructionIdentification() throws Exception {
+        // Given
+        final String filePaymentId = createFilePayment(5);
+
+        // When
+        final ResponseEntity<String> response = restTemplate.exchange(
+                paymentDetailsUrl(filePaymentId) + "?instructionIdentification=INSTR-3", HttpMethod.GET,
+                new HttpEntity<>(HTTP_HEADERS), String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        final JsonNode payments = objectMapper.readTree(response.getBody()).get("Data").get("PaymentStatus");
+        assertThat(payments).hasSize(1);
+        assertThat(payments.get(0).get("PaymentTransactionId").asText()).isEqualTo(FRFilePaymentResult.id(filePaymentId, 3));
+    }
+
+    @Test
+    public void shouldGetPaymentDetailsByStatus() throws Exception {
+        // Given
+        final String filePaymentId = createFilePayment(3);
+        final FRFilePaymentResult rejected = filePaymentResultRepository.findById(FRFilePaymentResult.id(filePaymentId, 1)).orElseThrow();
+        rejected.setStatus(FRFilePaymentResult.Status.REJECTED);
+        filePaymentResultRepository.save(rejected);
+
+        // When
+        final ResponseEntity<String> response = restTemplate.exchange(paymentDetailsUrl(filePaymentId) + "?status=Rejected",
+                HttpMethod.GET, new HttpEntity<>(HTTP_HEADERS), String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        final JsonNode body = objectMapper.readTree(response.getBody());
+        final JsonNode payments = body.get("Data").get("PaymentStatus");
+        assertThat(payments).hasSize(1);
+        assertThat(payments.get(0).get("PaymentTransactionId").asText()).isEqualTo(rejected.getId());
+        assertThat(body.get("Links").get("Self").asText()).contains("status=Rejected");
+    }
+
+    @Test
+    public void shouldFailToGetPaymentDetailsGivenInvalidCursor() {
+        // Given
+        final String filePaymentId = createFilePayment(1);
+
+        // When
+        final ResponseEntity<OBErrorResponse1> response = restTemplate.exchange(paymentDetailsUrl(filePaymentId) + "?cursor=invalid!",
+                HttpMethod.GET, new HttpEntity<>(HTTP_HEADERS), OBErrorResponse1.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getErrors().get(0).getErrorCode())
+                .isEqualTo(OBRIErrorType.REQUEST_FIELD_INVALID.toOBError1("Invalid cursor: invalid!").getErrorCode());
+    }
+
+    @Test
+    public void shouldFailToGetPaymentDetailsGivenUnknownFilePayment() {
+        // Given
+        final String filePaymentId = "1234";
+
+        // When
+        final ResponseEntity<OBErrorResponse1> response = restTemplate.exchange(paymentDetailsUrl(filePaymentId),
+                HttpMethod.GET, new HttpEntity<>(HTTP_HEADERS), OBErrorResponse1.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getErrors().get(0)).isEqualTo(OBRIErrorType.PAYMENT_SUBMISSION_NOT_FOUND.toOBError1(filePaymentId));
+    }
+
+    private String createFilePayment(int numberOfPayments) {
+        final String consentId = IntentType.PAYMENT_FILE_CONSENT.generateIntentId();
+        final OBWriteFileConsent3 consentRequest = OBWriteFileConsentTestDataFactory.aValidOBWriteFileConsent3(
+                DefaultPaymentFileType.UK_OBIE_PAIN_001.getPaymentFileType().getFileType(),
+                "hash123", String.valueOf(numberOfPayments), BigDecimal.valueOf(numberOfPayments));
+        final OBWriteFile2 filePayment = new OBWriteFile2().data(new OBWriteFile2Data()
+                .consentId(consentId)
+                .initiation(consentRequest.getData().getInitiation()));
+        filePaymentsRepository.save(FRFilePaymentSubmission.builder()
+                .id(consentId)
+                .filePayment(toFRWriteFile(filePayment))
+                .status(FRSubmissionStatus.INITIATIONPENDING)
+                .build());
+
+        final List<FRFilePaymentResult> results = new ArrayList<>();
+        for (int i = 0; i < numberOfPayments; i++) {
+            results.add(FRFilePaymentResult.builder()
+                    .id(FRFilePaymentResult.id(consentId, i))
+                    .filePaymentId(consentId)
+                    .index(i)
+                    .instructionIdentification("INSTR-" + i)
+                    .endToEndIdentification("E2E-" + i)
+                    .amount(BigDecimal.ONE)
+                    .currency("GBP")
+                    .status(FRFilePaymentResult.Status.PENDING)
+                    .statusUpdateDateTime(new Date())
+                    .build());
+        }
+        filePaymentResultRepository.insertBatch(results);
+
+        final FilePaymentConsent consent = new FilePaymentConsent();
+        consent.setId(consentId);
+        when(filePaymentConsentStoreClient.getConsent(eq(consentId), eq(TEST_API_CLIENT_ID))).thenReturn(consent);
+        return consentId;
+    }
+
+    private String paymentDetailsUrl(String filePaymentId) {
+        return BASE_URL + port + FILE_PAYMENTS_URI + "/" + filePaymentId + "/payment-details";
+    }
+}
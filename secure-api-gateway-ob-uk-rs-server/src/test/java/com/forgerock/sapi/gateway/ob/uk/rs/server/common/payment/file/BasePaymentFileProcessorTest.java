@@ -18,6 +18,9 @@ package com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +28,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.PaymentFileProcessor;
@@ -59,6 +63,52 @@ public abstract class BasePaymentFileProcessorTest {
         assertThat(paymentFileResult.getFileType()).isEqualTo(testPaymentFile.getFileType());
     }
 
+    @Test
+    void shouldStreamValidFile() throws OBErrorException {
+        final List<TestPaymentFile> files = testPaymentFileResources.getPaymentFiles().values().stream()
+                .filter(testPaymentFile -> testPaymentFile.getFileType().equals(paymentFileProcessor.getSupportedFileType()))
+                .collect(Collectors.toList());
+
+        for (final TestPaymentFile testPaymentFile : files) {
+            final List<FRFilePayment> streamedPayments = new ArrayList<>();
+            final PaymentFileSummary paymentFileSummary = paymentFileProcessor.processFile(toInputStream(testPaymentFile.getFileContent()),
+                                                                                           streamedPayments::add);
+            assertThat(paymentFileSummary.getControlSum()).isEqualByComparingTo(testPaymentFile.getControlSum());
+            assertThat(paymentFileSummary.getNumberOfTransactions()).isEqualTo(testPaymentFile.getNumTransactions());
+            assertThat(paymentFileSummary.getFileType()).isEqualTo(testPaymentFile.getFileType());
+
+            // Streamed payments must match those produced when processing the file in memory, in the same order
+            final PaymentFile paymentFile = paymentFileProcessor.processFile(testPaymentFile.getFileContent());
+            assertThat(streamedPayments).hasSize(testPaymentFile.getNumTransactions());
+            for (int i = 0; i < streamedPayments.size(); i++) {
+                final FRFilePayment streamedPayment = streamedPayments.get(i);
+                final FRFilePayment payment = paymentFile.getPayments().get(i);
+                assertThat(streamedPayment.getInstructionIdentification()).isEqualTo(payment.getInstructionIdentification());
+                assertThat(streamedPayment.getEndToEndIdentification()).isEqualTo(payment.getEndToEndIdentification());
+                assertThat(streamedPayment.getInstructedAmount()).isEqualTo(payment.getInstructedAmount());
+                assertThat(streamedPayment.getCreditorAccountIdentification()).isEqualTo(payment.getCreditorAccountIdentification());
+            }
+        }
+    }
+
+    @Test
+    void shouldThrowOBErrorForEmptyStream() {
+        final Throwable throwable = catchThrowable(() -> paymentFileProcessor.processFile(toInputStream(""), payment -> {}));
+        assertThat(throwable).isInstanceOf(OBErrorException.class);
+        assertThat(((OBErrorException) throwable).getOBError().getErrorCode()).isEqualTo(OBRIErrorType.REQUEST_FILE_EMPTY.getCode().toString());
+    }
+
+    @Test
+    void shouldThrowOBErrorForInvalidStream() {
+        final Throwable throwable = catchThrowable(() -> paymentFileProcessor.processFile(toInputStream("junk"), payment -> {}));
+        assertThat(throwable).isInstanceOf(OBErrorException.class);
+        assertThat(((OBErrorException) throwable).getOBError().getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid");
+    }
+
+    private static ByteArrayInputStream toInputStream(String fileContent) {
+        return new ByteArrayInputStream(fileContent.getBytes(StandardCharsets.UTF_8));
+    }
+
     @ParameterizedTest
     @NullAndEmptySource
     void shouldThrowOBErrorForEmptyFile(String fileContent) {
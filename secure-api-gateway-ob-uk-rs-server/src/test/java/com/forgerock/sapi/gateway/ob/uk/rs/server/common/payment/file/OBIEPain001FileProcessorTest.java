@@ -15,8 +15,18 @@
  */
 package com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.xml.OBIEPain001FileProcessor;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.PaymentFileProcessor;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.util.payment.file.TestPaymentFileResources;
 
 class OBIEPain001FileProcessorTest extends BasePaymentFileProcessorTest {
 
@@ -24,4 +34,46 @@ class OBIEPain001FileProcessorTest extends BasePaymentFileProcessorTest {
     protected PaymentFileProcessor createFileProcessor() {
         return new OBIEPain001FileProcessor();
     }
+
+    @Test
+    void shouldRejectDocumentWithoutPain001Namespace() {
+        final String fileContent = TestPaymentFileResources.getInstance()
+                .getPaymentFile(TestPaymentFileResources.PAIN_001_001_08_FILE_PATH).getFileContent()
+                .replace("urn:iso:std:iso:20022:tech:xsd:pain.001.001.08", "urn:iso:std:iso:20022:tech:xsd:pain.001.001.03");
+
+        final Throwable throwable = catchThrowable(() -> createFileProcessor().processFile(fileContent));
+
+        assertThat(throwable).isInstanceOf(OBErrorException.class);
+        final OBErrorException obErrorException = (OBErrorException) throwable;
+        assertThat(obErrorException.getOBError().getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid");
+        assertThat(obErrorException.getOBError().getMessage()).contains("unexpected namespace of root element");
+    }
+
+    @Test
+    void shouldRejectFileWithoutPayments() {
+        final Throwable throwable = catchThrowable(() -> createFileProcessor().processFile(fileWithoutPayments()));
+
+        assertFileWithoutPaymentsRejected(throwable);
+    }
+
+    @Test
+    void shouldRejectStreamedFileWithoutPayments() {
+        final Throwable throwable = catchThrowable(() -> createFileProcessor().processFile(
+                new ByteArrayInputStream(fileWithoutPayments().getBytes(StandardCharsets.UTF_8)), payment -> {}));
+
+        assertFileWithoutPaymentsRejected(throwable);
+    }
+
+    private static String fileWithoutPayments() {
+        return TestPaymentFileResources.getInstance()
+                .getPaymentFile(TestPaymentFileResources.PAIN_001_001_08_FILE_PATH).getFileContent()
+                .replaceAll("(?s)<CdtTrfTxInf>.*?</CdtTrfTxInf>", "");
+    }
+
+    private static void assertFileWithoutPaymentsRejected(Throwable throwable) {
+        assertThat(throwable).isInstanceOf(OBErrorException.class);
+        final OBErrorException obErrorException = (OBErrorException) throwable;
+        assertThat(obErrorException.getOBError().getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid");
+        assertThat(obErrorException.getOBError().getMessage()).contains("file does not contain any payments");
+    }
 }
\ No newline at end of file
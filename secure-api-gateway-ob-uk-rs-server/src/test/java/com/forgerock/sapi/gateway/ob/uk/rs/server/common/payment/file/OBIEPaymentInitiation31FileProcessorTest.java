@@ -18,8 +18,18 @@ package com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.json.OBIEPaymentInitiation31FileProcessor;
 import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.processor.PaymentFileProcessor;
@@ -48,4 +58,117 @@ class OBIEPaymentInitiation31FileProcessorTest extends BasePaymentFileProcessorT
         assertThat(obErrorException.getOBError().getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid");
         assertThat(obErrorException.getOBError().getMessage()).startsWith("The Payment file uploaded is invalid");
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamingStopsAtFirstInvalidPayment() {
+        final String fileContent = "{\n" +
+                "  \"Data\": {\n" +
+                "    \"DomesticPayments\": [\n" +
+                "      " + domesticPaymentJson("PAY-1", "10.00") + ",\n" +
+                "      " + domesticPaymentJson("PAY-2", "not-a-number") + ",\n" +
+                "      " + domesticPaymentJson("PAY-3", "5.00") + "\n" +
+                "    ]\n" +
+                "  }\n" +
+                "}\n";
+        final List<FRFilePayment> streamedPayments = new ArrayList<>();
+
+        final Throwable throwable = catchThrowable(() -> createFileProcessor().processFile(
+                new ByteArrayInputStream(fileContent.getBytes(StandardCharsets.UTF_8)), streamedPayments::add));
+
+        assertThat(throwable).isInstanceOf(OBErrorException.class);
+        final OBErrorException obErrorException = (OBErrorException) throwable;
+        assertThat(obErrorException.getOBError().getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid");
+        assertThat(obErrorException.getOBError().getMessage()).contains("Data.DomesticPayments[1]");
+        assertThat(streamedPayments).hasSize(1);
+        assertThat(streamedPayments.get(0).getInstructionIdentification()).isEqualTo("PAY-1");
+    }
+
+    @Test
+    void skipsFieldsOutsideOfDomesticPayments() throws OBErrorException {
+        final String fileContent = "{\n" +
+                "  \"Meta\": { \"Nested\": [ { \"DomesticPayments\": [] } ] },\n" +
+                "  \"Data\": {\n" +
+                "    \"Other\": [ 1, 2, 3 ],\n" +
+                "    \"DomesticPayments\": [\n" +
+                "      " + domesticPaymentJson("PAY-1", "10.00") + ",\n" +
+                "      " + domesticPaymentJson("PAY-2", "2.50") + "\n" +
+                "    ]\n" +
+                "  }\n" +
+                "}\n";
+
+        final PaymentFile paymentFile = createFileProcessor().processFile(fileContent);
+        assertThat(paymentFile.getNumberOfTransactions()).isEqualTo(2);
+        assertThat(paymentFile.getControlSum()).isEqualByComparingTo("12.50");
+    }
+
+    @Test
+    void failsWhenFileDoesNotContainAnyPayments() {
+        final String fileContent = "{ \"Data\": { \"DomesticPayments\": [] } }";
+
+        final Throwable throwable = catchThrowable(() -> createFileProcessor().processFile(fileContent));
+        final Throwable streamingThrowable = catchThrowable(() -> createFileProcessor().processFile(
+                new ByteArrayInputStream(fileContent.getBytes(StandardCharsets.UTF_8)), payment -> {}));
+
+        for (Throwable t : List.of(throwable, streamingThrowable)) {
+            assertThat(t).isInstanceOf(OBErrorException.class);
+            final OBErrorException obErrorException = (OBErrorException) t;
+            assertThat(obErrorException.getOBError().getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid");
+            assertThat(obErrorException.getOBError().getMessage()).contains("file does not contain any payments");
+        }
+    }
+
+    private static Stream<Arguments> paymentsMissingRequiredFields() {
+        final String creditorAccount = "\"CreditorAccount\": { \"SchemeName\": \"UK.OBIE.SortCodeAccountNumber\", \"Identification\": \"08080021325698\" }";
+        final String instructedAmount = "\"InstructedAmount\": { \"Amount\": \"10.00\", \"Currency\": \"GBP\" }";
+        return Stream.of(
+                Arguments.of("\"not an object\"", "payment must be a JSON object"),
+                Arguments.of("{\"EndToEndIdentification\": \"E2E-1\"," + instructedAmount + "," + creditorAccount + "}",
+                        "InstructionIdentification is required"),
+                Arguments.of("{\"InstructionIdentification\": \"PAY-1\"," + instructedAmount + "," + creditorAccount + "}",
+                        "EndToEndIdentification is required"),
+                Arguments.of("{\"InstructionIdentification\": \"PAY-1\", \"EndToEndIdentification\": \"E2E-1\"," + instructedAmount + "}",
+                        "CreditorAccount.Identification is required"),
+                Arguments.of("{\"InstructionIdentification\": \"PAY-1\", \"EndToEndIdentification\": \"E2E-1\"," + instructedAmount + ","
+                        + "\"CreditorAccount\": { \"SchemeName\": \"UK.OBIE.SortCodeAccountNumber\" }}",
+                        "CreditorAccount.Identification is required"),
+                Arguments.of("{\"InstructionIdentification\": \"PAY-1\", \"EndToEndIdentification\": \"E2E-1\"," + creditorAccount + "}",
+                        "InstructedAmount.Amount and InstructedAmount.Currency are required"),
+                Arguments.of("{\"InstructionIdentification\": \"PAY-1\", \"EndToEndIdentification\": \"E2E-1\","
+                        + "\"InstructedAmount\": { \"Amount\": \"10.00\" }," + creditorAccount + "}",
+                        "InstructedAmount.Amount and InstructedAmount.Currency are required"),
+                Arguments.of("{\"InstructionIdentification\": \"PAY-1\", \"EndToEndIdentification\": \"E2E-1\","
+                        + "\"InstructedAmount\": { \"Currency\": \"GBP\" }," + creditorAccount + "}",
+                        "InstructedAmount.Amount and InstructedAmount.Currency are required"),
+                Arguments.of(domesticPaymentJson("PAY-1", "ten pounds"), "InstructedAmount.Amount is not a valid amount")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("paymentsMissingRequiredFields")
+    void failsWhenPaymentIsMissingRequiredField(String paymentJson, String expectedReason) {
+        final String fileContent = "{\n" +
+                "  \"Data\": {\n" +
+                "    \"DomesticPayments\": [\n" +
+                "      " + domesticPaymentJson("PAY-0", "1.00") + ",\n" +
+                "      " + paymentJson + "\n" +
+                "    ]\n" +
+                "  }\n" +
+                "}\n";
+
+        final Throwable throwable = catchThrowable(() -> createFileProcessor().processFile(fileContent));
+
+        assertThat(throwable).isInstanceOf(OBErrorException.class);
+        final OBErrorException obErrorException = (OBErrorException) throwable;
+        assertThat(obErrorException.getOBError().getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid");
+        assertThat(obErrorException.getOBError().getMessage()).contains("Data.DomesticPayments[1] " + expectedReason);
+    }
+
+    private static String domesticPaymentJson(String instructionIdentification, String amount) {
+        return "{" +
+                "\"InstructionIdentification\": \"" + instructionIdentification + "\"," +
+                "\"EndToEndIdentification\": \"E2E-" + instructionIdentification + "\"," +
+                "\"InstructedAmount\": { \"Amount\": \"" + amount + "\", \"Currency\": \"GBP\" }," +
+                "\"CreditorAccount\": { \"SchemeName\": \"UK.OBIE.SortCodeAccountNumber\", \"Identification\": \"08080021325698\", \"Name\": \"Bob Clements\" }" +
+                "}";
+    }
+}
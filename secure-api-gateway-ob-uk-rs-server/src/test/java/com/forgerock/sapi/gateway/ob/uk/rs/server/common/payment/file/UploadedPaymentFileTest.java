@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.util.HashUtils;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.util.payment.file.TestPaymentFileResources;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.util.payment.file.TestPaymentFileResources.TestPaymentFile;
+
+class UploadedPaymentFileTest {
+
+    @Test
+    void shouldComputeSameHashAsHashUtils() throws IOException {
+        final TestPaymentFile testPaymentFile = TestPaymentFileResources.getInstance().getPaymentFile(TestPaymentFileResources.PAIN_001_001_08_FILE_PATH);
+        final String fileContent = testPaymentFile.getFileContent();
+
+        final UploadedPaymentFile uploadedFile = UploadedPaymentFile.read(toInputStream(fileContent), -1);
+
+        assertThat(uploadedFile.getFileHash()).isEqualTo(HashUtils.computeSHA256FullHash(fileContent));
+        assertThat(uploadedFile.getContentsAsString()).isEqualTo(fileContent);
+        assertThat(uploadedFile.getSize()).isEqualTo(fileContent.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(uploadedFile.isBlank()).isFalse();
+    }
+
+    @Test
+    void shouldReadContentLargerThanContentLength() throws IOException {
+        final String fileContent = "x".repeat(20_000) + "£";
+
+        final UploadedPaymentFile uploadedFile = UploadedPaymentFile.read(toInputStream(fileContent), 10);
+
+        assertThat(uploadedFile.getFileHash()).isEqualTo(HashUtils.computeSHA256FullHash(fileContent));
+        assertThat(uploadedFile.getContentsAsString()).isEqualTo(fileContent);
+    }
+
+    @Test
+    void shouldReturnNewInputStreamEachTime() throws IOException {
+        final String fileContent = "{\"Data\":{}}";
+        final UploadedPaymentFile uploadedFile = UploadedPaymentFile.read(toInputStream(fileContent), fileContent.length());
+
+        for (int i = 0; i < 2; i++) {
+            try (InputStream inputStream = uploadedFile.newInputStream()) {
+                assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(fileContent);
+            }
+        }
+    }
+
+    @Test
+    void shouldDetectBlankContent() throws IOException {
+        assertThat(UploadedPaymentFile.read(toInputStream(""), 0).isBlank()).isTrue();
+        assertThat(UploadedPaymentFile.read(toInputStream(" \r\n\t"), -1).isBlank()).isTrue();
+        assertThat(UploadedPaymentFile.read(toInputStream("  a "), -1).isBlank()).isFalse();
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
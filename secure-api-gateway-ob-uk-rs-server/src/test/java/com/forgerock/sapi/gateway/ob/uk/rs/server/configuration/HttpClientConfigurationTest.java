@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HttpClientConfigurationTest {
+
+    private final HttpClientConfiguration httpClientConfiguration = new HttpClientConfiguration();
+
+    @Test
+    void testConnectionManagerPoolLimits() throws Exception {
+        final HttpClientConfigurationProperties properties = new HttpClientConfigurationProperties();
+        properties.setMaxConnectionsTotal(120);
+        properties.setMaxConnectionsPerRoute(20);
+        properties.setRouteMaxConnections(Map.of("http://consent-store:8080", 80));
+
+        try (PoolingHttpClientConnectionManager connectionManager = httpClientConfiguration.restTemplateConnectionManager(properties)) {
+            assertThat(connectionManager.getMaxTotal()).isEqualTo(120);
+            assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(20);
+            assertThat(connectionManager.getMaxPerRoute(new HttpRoute(HttpHost.create("http://consent-store:8080")))).isEqualTo(80);
+            assertThat(connectionManager.getMaxPerRoute(new HttpRoute(HttpHost.create("http://ig:80")))).isEqualTo(20);
+        }
+    }
+
+    @Test
+    void testConnectionPoolMetricsAreBound() {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (PoolingHttpClientConnectionManager connectionManager = httpClientConfiguration.restTemplateConnectionManager(new HttpClientConfigurationProperties())) {
+            httpClientConfiguration.restTemplateConnectionPoolMetrics(connectionManager).bindTo(meterRegistry);
+
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", HttpClientConfiguration.POOL_NAME)
+                                    .gauge().value()).isEqualTo(200);
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.pending").gauge().value()).isZero();
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased")
+                                    .gauge().value()).isZero();
+        }
+    }
+
+    @Test
+    void testKeepAliveIsCapped() {
+        final ConnectionKeepAliveStrategy keepAliveStrategy = HttpClientConfiguration.cappedKeepAliveStrategy(Duration.ofSeconds(60));
+
+        final BasicClassicHttpResponse shortKeepAliveResponse = new BasicClassicHttpResponse(200);
+        shortKeepAliveResponse.addHeader("Keep-Alive", "timeout=5");
+        assertThat(keepAliveStrategy.getKeepAliveDuration(shortKeepAliveResponse, HttpClientContext.create()))
+                .isEqualTo(TimeValue.ofSeconds(5));
+
+        final BasicClassicHttpResponse longKeepAliveResponse = new BasicClassicHttpResponse(200);
+        longKeepAliveResponse.addHeader("Keep-Alive", "timeout=600");
+        assertThat(keepAliveStrategy.getKeepAliveDuration(longKeepAliveResponse, HttpClientContext.create()))
+                .isEqualTo(TimeValue.ofSeconds(60));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.account.consent.v4_0_0;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.rcs.consent.store.client.account.AccountAccessConsentStoreClient;
+import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.account.v3_1_10.AccountAccessConsent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AccountAccessConsentCacheTest {
+
+    private static final String CONSENT_ID = "consent-3456546546";
+    private static final String API_CLIENT_ID = "client-24234243";
+
+    private AccountAccessConsentStoreClient consentStoreClient;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AccountAccessConsentCache consentCache;
+
+    private DefaultAccountResourceAccessService accountResourceAccessService;
+
+    @BeforeEach
+    void beforeEach() {
+        consentStoreClient = mock(AccountAccessConsentStoreClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        consentCache = new AccountAccessConsentCache(Duration.ofMinutes(1), 100, meterRegistry);
+        accountResourceAccessService = new DefaultAccountResourceAccessService(consentStoreClient, consentCache);
+    }
+
+    private AccountAccessConsent mockConsentStoreResponse(String status) {
+        final AccountAccessConsent consent = new AccountAccessConsent();
+        consent.setId(CONSENT_ID);
+        consent.setStatus(status);
+        consent.setAuthorisedAccountIds(List.of("acc-1", "acc-2"));
+        given(consentStoreClient.getConsent(eq(CONSENT_ID), eq(API_CLIENT_ID))).willReturn(consent);
+        return consent;
+    }
+
+    @Test
+    void testAuthorisedConsentIsServedFromCache() throws OBErrorException {
+        final AccountAccessConsent consent = mockConsentStoreResponse("Authorised");
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(accountResourceAccessService.getConsentForResourceAccess(CONSENT_ID, API_CLIENT_ID, "acc-2")).isEqualTo(consent);
+        }
+        verify(consentStoreClient, times(1)).getConsent(eq(CONSENT_ID), eq(API_CLIENT_ID));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", AccountAccessConsentCache.CACHE_NAME)
+                                .tag("result", "hit").functionCounter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void testUnauthorisedAccountIsRejectedForCachedConsent() throws OBErrorException {
+        mockConsentStoreResponse("Authorised");
+        accountResourceAccessService.getConsentForResourceAccess(CONSENT_ID, API_CLIENT_ID);
+
+        final OBErrorException exception = assertThrows(OBErrorException.class,
+                () -> accountResourceAccessService.getConsentForResourceAccess(CONSENT_ID, API_CLIENT_ID, "acc-not-authorised"));
+        assertThat(exception.getObriErrorType()).isEqualTo(OBRIErrorType.UNAUTHORISED_ACCOUNT);
+    }
+
+    @Test
+    void testConsentNotAuthorisedIsNotCached() {
+        mockConsentStoreResponse("AwaitingAuthorisation");
+
+        for (int i = 0; i < 2; i++) {
+            final OBErrorException exception = assertThrows(OBErrorException.class,
+                    () -> accountResourceAccessService.getConsentForResourceAccess(CONSENT_ID, API_CLIENT_ID));
+            assertThat(exception.getObriErrorType()).isEqualTo(OBRIErrorType.CONSENT_STATUS_NOT_AUTHORISED);
+        }
+        verify(consentStoreClient, times(2)).getConsent(eq(CONSENT_ID), eq(API_CLIENT_ID));
+        assertThat(consentCache.get(CONSENT_ID, API_CLIENT_ID)).isNull();
+    }
+
+    @Test
+    void testInvalidateForcesConsentStoreLookup() throws OBErrorException {
+        mockConsentStoreResponse("Authorised");
+        accountResourceAccessService.getConsentForResourceAccess(CONSENT_ID, API_CLIENT_ID);
+
+        consentCache.invalidate(CONSENT_ID, API_CLIENT_ID);
+        mockConsentStoreResponse("Revoked");
+
+        final OBErrorException exception = assertThrows(OBErrorException.class,
+                () -> accountResourceAccessService.getConsentForResourceAccess(CONSENT_ID, API_CLIENT_ID));
+        assertThat(exception.getObriErrorType()).isEqualTo(OBRIErrorType.CONSENT_STATUS_NOT_AUTHORISED);
+        verify(consentStoreClient, times(2)).getConsent(eq(CONSENT_ID), eq(API_CLIENT_ID));
+    }
+
+    @Test
+    void testCacheIsKeyedByApiClientId() throws OBErrorException {
+        mockConsentStoreResponse("Authorised");
+        accountResourceAccessService.getConsentForResourceAccess(CONSENT_ID, API_CLIENT_ID);
+
+        assertThat(consentCache.get(CONSENT_ID, API_CLIENT_ID)).isNotNull();
+        assertThat(consentCache.get(CONSENT_ID, "another-client")).isNull();
+    }
+}
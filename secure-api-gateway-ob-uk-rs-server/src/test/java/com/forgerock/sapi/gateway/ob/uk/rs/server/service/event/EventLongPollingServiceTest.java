@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.event.FREventPolling;
+
+/**
+ * Unit test for {@link EventLongPollingService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class EventLongPollingServiceTest {
+
+    private static final String API_CLIENT_ID = "abc123";
+    private static final int MAX_WAITERS = 2;
+    private static final PolledEvents EVENTS = new PolledEvents(Map.of("jti-01", "{}"), false);
+
+    @Mock
+    private EventPollingService eventPollingService;
+
+    private EventLongPollingService eventLongPollingService;
+
+    @BeforeEach
+    void setUp() {
+        eventLongPollingService = new EventLongPollingService(eventPollingService, Duration.ofSeconds(30), MAX_WAITERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventLongPollingService.shutdown();
+    }
+
+    @Test
+    void shouldRespondImmediatelyWhenReturnImmediatelyRequested() throws Exception {
+        // Given
+        final FREventPolling pollingRequest = FREventPolling.builder().maxEvents(10).returnImmediately(true).build();
+        when(eventPollingService.fetchPendingEvents(pollingRequest, API_CLIENT_ID)).thenReturn(PolledEvents.none());
+
+        // When
+        final DeferredResult<PolledEvents> result = eventLongPollingService.pollEvents(pollingRequest, API_CLIENT_ID, polledEvents -> polledEvents);
+
+        // Then
+        assertThat(result.getResult()).isSameAs(PolledEvents.none());
+        assertThat(eventLongPollingService.getWaiterCount(API_CLIENT_ID)).isZero();
+    }
+
+    @Test
+    void shouldRespondImmediatelyToLongPollWhenEventsArePending() throws Exception {
+        // Given
+        final FREventPolling pollingRequest = longPollingRequest();
+        when(eventPollingService.fetchPendingEvents(pollingRequest, API_CLIENT_ID)).thenReturn(EVENTS);
+
+        // When
+        final DeferredResult<PolledEvents> result = eventLongPollingService.pollEvents(pollingRequest, API_CLIENT_ID, polledEvents -> polledEvents);
+
+        // Then
+        assertThat(result.getResult()).isSameAs(EVENTS);
+        assertThat(eventLongPollingService.getWaiterCount(API_CLIENT_ID)).isZero();
+    }
+
+    @Test
+    void shouldRespondImmediatelyToLongPollWhenNoEventsRequested() throws Exception {
+        // Given
+        final FREventPolling pollingRequest = FREventPolling.builder().maxEvents(0).returnImmediately(false).build();
+        when(eventPollingService.fetchPendingEvents(pollingRequest, API_CLIENT_ID)).thenReturn(PolledEvents.none());
+
+        // When
+        final DeferredResult<PolledEvents> result = eventLongPollingService.pollEvents(pollingRequest, API_CLIENT_ID, polledEvents -> polledEvents);
+
+        // Then
+        assertThat(result.getResult()).isSameAs(PolledEvents.none());
+        assertThat(eventLongPollingService.getWaiterCount(API_CLIENT_ID)).isZero();
+    }
+
+    @Test
+    void shouldWaitForEventsAndRespondWhenNotified() throws Exception {
+        // Given
+        final FREventPolling pollingRequest = longPollingRequest();
+        when(eventPollingService.fetchPendingEvents(pollingRequest, API_CLIENT_ID)).thenReturn(PolledEvents.none(), EVENTS);
+        final DeferredResult<PolledEvents> result = eventLongPollingService.pollEvents(pollingRequest, API_CLIENT_ID, polledEvents -> polledEvents);
+        assertThat(result.hasResult()).isFalse();
+        assertThat(eventLongPollingService.getWaiterCount(API_CLIENT_ID)).isEqualTo(1);
+        final CompletableFuture<Object> response = new CompletableFuture<>();
+        result.setResultHandler(response::complete);
+
+        // When
+        eventLongPollingService.notifyEventsAvailable(API_CLIENT_ID);
+
+        // Then
+        assertThat(response.get(5, TimeUnit.SECONDS)).isSameAs(EVENTS);
+        assertThat(eventLongPollingService.getWaiterCount(API_CLIENT_ID)).isZero();
+    }
+
+    @Test
+    void shouldKeepWaitingWhenNotifiedWithoutDeliverableEvents() throws Exception {
+        // Given
+        final FREventPolling pollingRequest = longPollingRequest();
+        when(eventPollingService.fetchPendingEvents(pollingRequest, API_CLIENT_ID)).thenReturn(PolledEvents.none());
+        final DeferredResult<PolledEvents> result = eventLongPollingService.pollEvents(pollingRequest, API_CLIENT_ID, polledEvents -> polledEvents);
+
+        // When
+        eventLongPollingService.notifyEventsAvailable(API_CLIENT_ID);
+
+        // Then
+        verify(eventPollingService, timeout(5000).times(2)).fetchPendingEvents(pollingRequest, API_CLIENT_ID);
+        assertThat(result.hasResult()).isFalse();
+        assertThat(eventLongPollingService.getWaiterCount(API_CLIENT_ID)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotWakeLongPollsForOtherApiClients() throws Exception {
+        // Given
+        final FREventPolling pollingRequest = longPollingRequest();
+        when(eventPollingService.fetchPendingEvents(pollingRequest, API_CLIENT_ID)).thenReturn(PolledEvents.none());
+        final DeferredResult<PolledEvents> result = eventLongPollingService.pollEvents(pollingRequest, API_CLIENT_ID, polledEvents -> polledEvents);
+
+        // When
+        eventLongPollingService.notifyEventsAvailable("another-client");
+
+        // Then
+        verify(eventPollingService, times(1)).fetchPendingEvents(any(), eq(API_CLIENT_ID));
+        verifyNoMoreInteractions(eventPollingService);
+        assertThat(result.hasResult()).isFalse();
+    }
+
+    @Test
+    void shouldRespondImmediatelyToLongPollWhenApiClientHasMaxWaiters() throws Exception {
+        // Given
+        final FREventPolling pollingRequest = longPollingRequest();
+        when(eventPollingService.fetchPendingEvents(pollingRequest, API_CLIENT_ID)).thenReturn(PolledEvents.none());
+        for (int i = 0; i < MAX_WAITERS; i++) {
+            assertThat(eventLongPollingService.pollEvents(pollingRequest, API_CLIENT_ID, polledEvents -> polledEvents).hasResult()).isFalse();
+        }
+
+        // When
+        final DeferredResult<PolledEvents> result = eventLongPollingService.pollEvents(pollingRequest, API_CLIENT_ID, polledEvents -> polledEvents);
+
+        // Then
+        assertThat(result.getResult()).isSameAs(PolledEvents.none());
+        assertThat(eventLongPollingService.getWaiterCount(API_CLIENT_ID)).isEqualTo(MAX_WAITERS);
+        // Other TPPs are not limited by this TPP's polls
+        when(eventPollingService.fetchPendingEvents(pollingRequest, "another-client")).thenReturn(PolledEvents.none());
+        assertThat(eventLongPollingService.pollEvents(pollingRequest, "another-client", polledEvents -> polledEvents).hasResult()).isFalse();
+        assertThat(eventLongPollingService.getWaiterCount("another-client")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotWaitWhenFirstFetchFails() throws Exception {
+        // Given
+        final FREventPolling pollingRequest = longPollingRequest();
+        when(eventPollingService.fetchPendingEvents(pollingRequest, API_CLIENT_ID)).thenThrow(new IllegalStateException("Mongo unavailable"));
+
+        // When
+        assertThatThrownBy(() -> eventLongPollingService.pollEvents(pollingRequest, API_CLIENT_ID, polledEvents -> polledEvents))
+                // Then
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(eventLongPollingService.getWaiterCount(API_CLIENT_ID)).isZero();
+    }
+
+    private static FREventPolling longPollingRequest() {
+        return FREventPolling.builder().maxEvents(10).returnImmediately(false).build();
+    }
+}
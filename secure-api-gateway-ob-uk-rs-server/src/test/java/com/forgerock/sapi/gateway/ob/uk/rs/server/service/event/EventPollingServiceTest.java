@@ -38,6 +38,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.event.FREventPolling;
@@ -46,7 +48,6 @@ import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorResponseException;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.event.FREventMessageEntity;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.events.FREventMessageRepository;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 
 import uk.org.openbanking.datamodel.v3.event.OBEvent1;
 import uk.org.openbanking.datamodel.v3.event.OBEventLink1;
@@ -87,8 +88,8 @@ public class EventPollingServiceTest {
         eventPollingService.acknowledgeEvents(pollingRequest, API_CLIENT_ID);
 
         // Then
-        verify(mockRepo).deleteByApiClientIdAndJti(eq(API_CLIENT_ID), eq(JWT_ID_LIST.get(0)));
-        verify(mockRepo).deleteByApiClientIdAndJti(eq(API_CLIENT_ID), eq(JWT_ID_LIST.get(1)));
+        verify(mockRepo).deleteByApiClientIdAndJtiIn(eq(API_CLIENT_ID), eq(ImmutableList.of(JWT_ID_LIST.get(0), JWT_ID_LIST.get(1), "NotFound")));
+        verifyNoMoreInteractions(mockRepo);
     }
 
     @Test
@@ -177,7 +178,7 @@ public class EventPollingServiceTest {
         // Given
         FREventMessageEntity existingNotification1 = aValidFREventMessageEntity(JWT_ID_LIST.get(0));
         FREventMessageEntity existingNotification2 = aValidFREventMessageEntity(JWT_ID_LIST.get(1));
-        when(mockRepo.findByApiClientId(eq(API_CLIENT_ID))).thenReturn(
+        when(mockRepo.findByApiClientIdAndErrorsIsNull(eq(API_CLIENT_ID), any())).thenReturn(
                 ImmutableList.of(existingNotification1, existingNotification2)
         );
 
@@ -186,10 +187,14 @@ public class EventPollingServiceTest {
                 .maxEvents(100)
                 .returnImmediately(true)
                 .build();
-        Map<String, String> eventNotifications = eventPollingService.fetchNewEvents(pollingRequest, API_CLIENT_ID);
+        PolledEvents polledEvents = eventPollingService.fetchNewEvents(pollingRequest, API_CLIENT_ID);
 
         // Then
-        assertThat(eventNotifications.size()).isEqualTo(2);
+        verify(mockRepo).findByApiClientIdAndErrorsIsNull(eq(API_CLIENT_ID),
+                eq(PageRequest.of(0, EVENTS_LIMIT + 1, Sort.by(Sort.Direction.ASC, "created", "jti"))));
+        Map<String, String> eventNotifications = polledEvents.getEvents();
+        assertThat(polledEvents.isMoreAvailable()).isFalse();
+        assertThat(eventNotifications.keySet()).containsExactly(JWT_ID_LIST.get(0), JWT_ID_LIST.get(1));
         assertThat(eventNotifications.get(JWT_ID_LIST.get(0))).isEqualTo(
                 objectMapper.writeValueAsString(toOBEventNotification1(existingNotification1))
         );
@@ -199,30 +204,46 @@ public class EventPollingServiceTest {
     }
 
     @Test
-    public void fetchNewEvents_excludeEventsWithErrorsFromResults() throws Exception {
+    public void fetchNewEvents_maxEventsRequested_limitResults() throws Exception {
         // Given
-        FREventMessageEntity existingNotificationWithoutError = aValidFREventMessageEntity(JWT_ID_LIST.get(0));
-        FREventMessageEntity existingNotificationWithError = aValidFREventMessageEntity(
-                JWT_ID_LIST.get(1),
-                FREventPollingError.builder().error("err1").description("error").build()
+        FREventMessageEntity existingNotification1 = aValidFREventMessageEntity(JWT_ID_LIST.get(0));
+        FREventMessageEntity existingNotification2 = aValidFREventMessageEntity(JWT_ID_LIST.get(1));
+        FREventMessageEntity existingNotification3 = aValidFREventMessageEntity();
+        when(mockRepo.findByApiClientIdAndErrorsIsNull(eq(API_CLIENT_ID), any())).thenReturn(
+                ImmutableList.of(existingNotification1, existingNotification2, existingNotification3)
         );
 
-        when(mockRepo.findByApiClientId(eq(API_CLIENT_ID))).thenReturn(
-                ImmutableList.of(existingNotificationWithoutError, existingNotificationWithError)
-        );
+        // When
+        FREventPolling pollingRequest = FREventPolling.builder()
+                .maxEvents(2)
+                .returnImmediately(true)
+                .build();
+        PolledEvents polledEvents = eventPollingService.fetchNewEvents(pollingRequest, API_CLIENT_ID);
+
+        // Then
+        verify(mockRepo).findByApiClientIdAndErrorsIsNull(eq(API_CLIENT_ID),
+                eq(PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "created", "jti"))));
+        assertThat(polledEvents.isMoreAvailable()).isTrue();
+        assertThat(polledEvents.getEvents().keySet()).containsExactly(JWT_ID_LIST.get(0), JWT_ID_LIST.get(1));
+    }
+
+    @Test
+    public void fetchNewEvents_noMaxEventsRequested_limitToEventsLimit() throws Exception {
+        // Given
+        when(mockRepo.findByApiClientIdAndErrorsIsNull(eq(API_CLIENT_ID), any())).thenReturn(Collections.emptyList());
 
         // When
         FREventPolling pollingRequest = FREventPolling.builder()
                 .maxEvents(null) // Do not restrict
                 .returnImmediately(true)
                 .build();
-        Map<String, String> eventNotifications = eventPollingService.fetchNewEvents(pollingRequest, API_CLIENT_ID);
+        PolledEvents polledEvents = eventPollingService.fetchNewEvents(pollingRequest, API_CLIENT_ID);
 
         // Then
-        assertThat(eventNotifications.size()).isEqualTo(1);
-        assertThat(eventNotifications.get(JWT_ID_LIST.get(0))).isEqualTo(
-                objectMapper.writeValueAsString(toOBEventNotification1(existingNotificationWithoutError))
-        );
+        verify(mockRepo).findByApiClientIdAndErrorsIsNull(eq(API_CLIENT_ID),
+                eq(PageRequest.of(0, EVENTS_LIMIT + 1, Sort.by(Sort.Direction.ASC, "created", "jti"))));
+        assertThat(polledEvents.getEvents()).isEmpty();
+        assertThat(polledEvents.isMoreAvailable()).isFalse();
     }
 
     @Test
@@ -232,10 +253,11 @@ public class EventPollingServiceTest {
                 .maxEvents(0)
                 .returnImmediately(true)
                 .build();
-        Map<String, String> eventNotifications = eventPollingService.fetchNewEvents(pollingRequest, API_CLIENT_ID);
+        PolledEvents polledEvents = eventPollingService.fetchNewEvents(pollingRequest, API_CLIENT_ID);
 
         // Then
-        assertThat(eventNotifications.size()).isEqualTo(0);
+        assertThat(polledEvents.getEvents()).isEmpty();
+        assertThat(polledEvents.isMoreAvailable()).isFalse();
         verifyNoMoreInteractions(mockRepo);
     }
 
@@ -256,25 +278,21 @@ public class EventPollingServiceTest {
     }
 
     @Test
-    public void truncateEvents_threeEventsExist_maxOfTwo_truncateEventsToTwo() {
+    public void fetchPendingEvents_longPollingRequest_fetchEvents() throws Exception {
         // Given
-        int maxEventsParam = 2;
-        ImmutableMap<String, String> allEventsMap = ImmutableMap.of("11111", "jwt1", "22222", "jwt2", "33333", "jwt3");
-
-        // When
-        Map<String, String> truncatedEvents = eventPollingService.truncateEvents(maxEventsParam, allEventsMap, API_CLIENT_ID);
-
-        // Then
-        assertThat(truncatedEvents.size()).isEqualTo(2);
-    }
+        FREventMessageEntity existingNotification = aValidFREventMessageEntity(JWT_ID_LIST.get(0));
+        when(mockRepo.findByApiClientIdAndErrorsIsNull(eq(API_CLIENT_ID), any())).thenReturn(List.of(existingNotification));
 
-    @Test
-    public void truncateEvents_noEvents_doNothing() {
         // When
-        Map<String, String> truncatedEvents = eventPollingService.truncateEvents(2, Collections.emptyMap(), API_CLIENT_ID);
+        FREventPolling pollingRequest = FREventPolling.builder()
+                .maxEvents(10)
+                .returnImmediately(false)
+                .build();
+        PolledEvents polledEvents = eventPollingService.fetchPendingEvents(pollingRequest, API_CLIENT_ID);
 
         // Then
-        assertThat(truncatedEvents.size()).isEqualTo(0);
+        assertThat(polledEvents.getEvents().keySet()).containsExactly(JWT_ID_LIST.get(0));
+        assertThat(polledEvents.isMoreAvailable()).isFalse();
     }
 
     private FREventMessageEntity aValidFREventMessageEntity() {
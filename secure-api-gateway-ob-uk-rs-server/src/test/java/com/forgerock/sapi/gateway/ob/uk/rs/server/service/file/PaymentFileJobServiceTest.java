@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.UploadedPaymentFile;
+import com.forgerock.sapi.gateway.rcs.consent.store.client.payment.file.FilePaymentConsentStoreClient;
+import com.forgerock.sapi.gateway.rcs.consent.store.datamodel.payment.file.v3_1_10.FilePaymentConsent;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.ProcessingError;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentFileProcessingJob.Status;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.PaymentFileProcessingJobRepository;
+
+import uk.org.openbanking.datamodel.v3.error.OBError1;
+
+/**
+ * Unit test for {@link PaymentFileJobService}
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentFileJobServiceTest {
+
+    private static final String CONSENT_ID = "PFC_consent-1";
+    private static final String API_CLIENT_ID = "client-123";
+    private static final String IDEMPOTENCY_KEY = "idempotency-key-1";
+    private static final byte[] FILE_CONTENTS = "<xml>file</xml>".getBytes(StandardCharsets.UTF_8);
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private PaymentFileProcessingJobRepository jobRepository;
+
+    @Mock
+    private PaymentFileUploadService paymentFileUploadService;
+
+    @Mock
+    private FilePaymentConsentStoreClient consentStoreClient;
+
+    private PaymentFileJobService paymentFileJobService;
+
+    @BeforeEach
+    void setUp() {
+        // Workers are not started, the tests process the queue on the test thread
+        paymentFileJobService = new PaymentFileJobService(jobRepository, paymentFileUploadService, consentStoreClient,
+                false, 2, Duration.ofMinutes(5), MAX_ATTEMPTS);
+    }
+
+    @Test
+    void shouldQueueFile() throws Exception {
+        // Given
+        when(jobRepository.enqueue(any())).thenReturn(true);
+
+        // When
+        paymentFileJobService.enqueue(CONSENT_ID, API_CLIENT_ID, IDEMPOTENCY_KEY, uploadedFile());
+
+        // Then
+        final ArgumentCaptor<FRPaymentFileProcessingJob> jobCaptor = ArgumentCaptor.forClass(FRPaymentFileProcessingJob.class);
+        verify(jobRepository).enqueue(jobCaptor.capture());
+        final FRPaymentFileProcessingJob job = jobCaptor.getValue();
+        assertThat(job.getId()).isEqualTo(CONSENT_ID);
+        assertThat(job.getApiClientId()).isEqualTo(API_CLIENT_ID);
+        assertThat(job.getFileUploadIdempotencyKey()).isEqualTo(IDEMPOTENCY_KEY);
+        assertThat(job.getFileContents()).isEqualTo(FILE_CONTENTS);
+        assertThat(job.getStatus()).isEqualTo(Status.QUEUED);
+    }
+
+    @Test
+    void shouldAcceptReplayOfUploadWhichQueuedFile() throws Exception {
+        // Given
+        when(jobRepository.enqueue(any())).thenReturn(false);
+        when(jobRepository.findById(CONSENT_ID)).thenReturn(Optional.of(claimedJob(1)));
+
+        // When
+        paymentFileJobService.enqueue(CONSENT_ID, API_CLIENT_ID, IDEMPOTENCY_KEY, uploadedFile());
+
+        // Then
+        verify(jobRepository).findById(CONSENT_ID);
+    }
+
+    @Test
+    void shouldRejectFileGivenConsentAlreadyHasFile() throws Exception {
+        // Given
+        when(jobRepository.enqueue(any())).thenReturn(false);
+        when(jobRepository.findById(CONSENT_ID)).thenReturn(Optional.of(claimedJob(1)));
+        final UploadedPaymentFile uploadedFile = uploadedFile();
+
+        // When / Then
+        assertThatThrownBy(() -> paymentFileJobService.enqueue(CONSENT_ID, API_CLIENT_ID, "another-key", uploadedFile))
+                .isInstanceOf(OBErrorException.class)
+                .satisfies(ex -> assertThat(((OBErrorException) ex).getObriErrorType()).isEqualTo(OBRIErrorType.REQUEST_FILE_INVALID));
+    }
+
+    @Test
+    void shouldProcessQueuedJobs() throws Exception {
+        // Given
+        final FRPaymentFileProcessingJob job = claimedJob(1);
+        final FilePaymentConsent consent = new FilePaymentConsent();
+        when(jobRepository.claimNext(any(), eq(Duration.ofMinutes(5)))).thenReturn(job, (FRPaymentFileProcessingJob) null);
+        when(consentStoreClient.getConsent(CONSENT_ID, API_CLIENT_ID)).thenReturn(consent);
+        when(jobRepository.complete(job)).thenReturn(true);
+
+        // When
+        paymentFileJobService.processQueuedJobs();
+
+        // Then
+        final ArgumentCaptor<UploadedPaymentFile> fileCaptor = ArgumentCaptor.forClass(UploadedPaymentFile.class);
+        verify(paymentFileUploadService).processFile(eq(CONSENT_ID), eq(consent), eq(API_CLIENT_ID), eq(IDEMPOTENCY_KEY),
+                fileCaptor.capture());
+        assertThat(fileCaptor.getValue().getContents()).isEqualTo(FILE_CONTENTS);
+        assertThat(fileCaptor.getValue().getFileHash()).isEqualTo(uploadedFile().getFileHash());
+        verify(jobRepository).complete(job);
+        verify(jobRepository, never()).fail(any(), any());
+    }
+
+    @Test
+    void shouldCompleteJobGivenFileWasUploadedByEarlierAttempt() throws Exception {
+        // Given
+        final FRPaymentFileProcessingJob job = claimedJob(2);
+        final FilePaymentConsent consent = new FilePaymentConsent();
+        consent.setFileContent(new String(FILE_CONTENTS, StandardCharsets.UTF_8));
+        when(jobRepository.claimNext(any(), any())).thenReturn(job, (FRPaymentFileProcessingJob) null);
+        when(consentStoreClient.getConsent(CONSENT_ID, API_CLIENT_ID)).thenReturn(consent);
+
+        // When
+        paymentFileJobService.processQueuedJobs();
+
+        // Then
+        verify(paymentFileUploadService, never()).processFile(any(), any(), any(), any(), any());
+        verify(jobRepository).complete(job);
+        verify(jobRepository, never()).fail(any(), any());
+    }
+
+    @Test
+    void shouldFailJobGivenFileIsRejected() throws Exception {
+        // Given
+        final FRPaymentFileProcessingJob job = claimedJob(1);
+        when(jobRepository.claimNext(any(), any())).thenReturn(job, (FRPaymentFileProcessingJob) null);
+        when(consentStoreClient.getConsent(CONSENT_ID, API_CLIENT_ID)).thenReturn(new FilePaymentConsent());
+        doThrow(new OBErrorException(OBRIErrorType.REQUEST_FILE_INVALID, "unexpected element"))
+                .when(paymentFileUploadService).processFile(any(), any(), any(), any(), any());
+
+        // When
+        paymentFileJobService.processQueuedJobs();
+
+        // Then
+        final List<ProcessingError> errors = captureFailure(job);
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).getErrorCode())
+                .isEqualTo(OBRIErrorType.REQUEST_FILE_INVALID.toOBError1("unexpected element").getErrorCode());
+        verify(jobRepository, never()).complete(any());
+    }
+
+    @Test
+    void shouldLeaveJobToBeRetriedGivenUnexpectedFailure() throws Exception {
+        // Given
+        final FRPaymentFileProcessingJob job = claimedJob(MAX_ATTEMPTS - 1);
+        when(jobRepository.claimNext(any(), any())).thenReturn(job, (FRPaymentFileProcessingJob) null);
+        when(consentStoreClient.getConsent(CONSENT_ID, API_CLIENT_ID)).thenThrow(new IllegalStateException("boom"));
+
+        // When
+        paymentFileJobService.processQueuedJobs();
+
+        // Then
+        verify(jobRepository, never()).complete(any());
+        verify(jobRepository, never()).fail(any(), any());
+    }
+
+    @Test
+    void shouldFailJobGivenUnexpectedFailureOnLastAttempt() {
+        // Given
+        final FRPaymentFileProcessingJob job = claimedJob(MAX_ATTEMPTS);
+        when(jobRepository.claimNext(any(), any())).thenReturn(job, (FRPaymentFileProcessingJob) null);
+        when(consentStoreClient.getConsent(CONSENT_ID, API_CLIENT_ID)).thenThrow(new IllegalStateException("boom"));
+
+        // When
+        paymentFileJobService.processQueuedJobs();
+
+        // Then
+        final List<ProcessingError> errors = captureFailure(job);
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).getErrorCode()).isEqualTo(OBRIErrorType.SERVER_ERROR.toOBError1().getErrorCode());
+    }
+
+    @Test
+    void shouldGetErrorsOfFailedJob() {
+        // Given
+        final FRPaymentFileProcessingJob job = claimedJob(1);
+        job.setStatus(Status.FAILED);
+        job.setErrors(List.of(new ProcessingError("UK.OBIE.Field.Invalid", "The file is invalid", "Data.Initiation")));
+
+        // When
+        final List<OBError1> errors = PaymentFileJobService.getErrors(job);
+
+        // Then
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).getErrorCode()).isEqualTo("UK.OBIE.Field.Invalid");
+        assertThat(errors.get(0).getMessage()).isEqualTo("The file is invalid");
+        assertThat(errors.get(0).getPath()).isEqualTo("Data.Initiation");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProcessingError> captureFailure(FRPaymentFileProcessingJob job) {
+        final ArgumentCaptor<List<ProcessingError>> errorsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jobRepository).fail(eq(job), errorsCaptor.capture());
+        return errorsCaptor.getValue();
+    }
+
+    private static FRPaymentFileProcessingJob claimedJob(int attempts) {
+        return FRPaymentFileProcessingJob.builder()
+                .id(CONSENT_ID)
+                .apiClientId(API_CLIENT_ID)
+                .fileUploadIdempotencyKey(IDEMPOTENCY_KEY)
+                .fileContents(FILE_CONTENTS)
+                .status(Status.IN_PROCESS)
+                .leaseExpiresAt(new Date())
+                .attempts(attempts)
+                .build();
+    }
+
+    private static UploadedPaymentFile uploadedFile() throws Exception {
+        return UploadedPaymentFile.read(new ByteArrayInputStream(FILE_CONTENTS), FILE_CONTENTS.length);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.frequency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.forgerock.sapi.gateway.uk.common.shared.api.meta.forgerock.FRQuarterType;
+
+/**
+ * Unit test for {@link FrequencySchedule}.
+ */
+class FrequencyScheduleTest {
+
+    @Test
+    void shouldShareScheduleOfSameExpression() {
+        assertThat(FrequencySchedule.of("IntrvlMnthDay:01:15")).isSameAs(FrequencySchedule.of("IntrvlMnthDay:01:15"));
+    }
+
+    @Test
+    void shouldNotCacheInvalidExpression() {
+        assertThatThrownBy(() -> FrequencySchedule.of("QtrDay:SENT")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FrequencySchedule.of("QtrDay:SENT")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldCalculateNextOccurrences() {
+        final List<DateTime> occurrences = FrequencySchedule.of("IntrvlMnthDay:01:15")
+                                                            .nextOccurrences(new DateTime(2024, 1, 15, 9, 0), 3);
+
+        assertThat(occurrences).containsExactly(new DateTime(2024, 2, 15, 9, 0),
+                                                new DateTime(2024, 3, 15, 9, 0),
+                                                new DateTime(2024, 4, 15, 9, 0));
+    }
+
+    @Test
+    void shouldCalculateNextOccurrencesFromEndOfMonth() {
+        final List<DateTime> occurrences = FrequencySchedule.of("IntrvlMnthDay:01:-01")
+                                                            .nextOccurrences(new DateTime(2024, 1, 31, 9, 0), 2);
+
+        assertThat(occurrences).containsExactly(new DateTime(2024, 2, 29, 9, 0),
+                                                new DateTime(2024, 3, 31, 9, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ENGLISH", "SCOTTISH", "RECEIVED"})
+    void shouldCalculateSameQuarterDaysAsDayByDaySearch(String quarterType) {
+        final FrequencySchedule schedule = FrequencySchedule.of("QtrDay:" + quarterType);
+        final FRQuarterType type = FRQuarterType.fromQuarterTypeString(quarterType);
+
+        for (DateTime previous = new DateTime(2023, 1, 1, 9, 30); previous.getYear() < 2026; previous = previous.plusDays(1)) {
+            assertThat(schedule.next(previous)).as("next quarter day after %s", previous)
+                                               .isEqualTo(nextQuarterDayByDay(type, previous));
+        }
+    }
+
+    @Test
+    void shouldCalculateYearsOfQuarterDays() {
+        final List<DateTime> occurrences = FrequencySchedule.of("QtrDay:ENGLISH")
+                                                            .nextOccurrences(new DateTime(2024, 1, 1, 9, 0), 40);
+
+        assertThat(occurrences).hasSize(40);
+        assertThat(occurrences).isSorted();
+        assertThat(occurrences.get(39).getYear()).isEqualTo(2033);
+    }
+
+    private static DateTime nextQuarterDayByDay(FRQuarterType quarterType, DateTime previous) {
+        DateTime candidate = previous.plusDays(1);
+        while (!quarterType.matchOneQuarter(candidate)) {
+            candidate = candidate.plusDays(1);
+        }
+        return candidate;
+    }
+}
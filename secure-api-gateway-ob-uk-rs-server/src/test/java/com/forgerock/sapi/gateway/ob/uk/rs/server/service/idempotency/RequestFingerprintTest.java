@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.vrp.FRDomesticVrpConverters;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRDomesticVrpRequest;
+
+import uk.org.openbanking.datamodel.v3.vrp.OBDomesticVRPRequest;
+import uk.org.openbanking.testsupport.v3.vrp.OBDomesticVrpRequestTestDataFactory;
+
+class RequestFingerprintTest {
+
+    @Test
+    void shouldReturnSameFingerprintForEqualRequests() {
+        final OBDomesticVRPRequest obRequest = OBDomesticVrpRequestTestDataFactory.aValidOBDomesticVRPRequest();
+        final FRDomesticVrpRequest request = FRDomesticVrpConverters.toFRDomesticVRPRequest(obRequest);
+        final FRDomesticVrpRequest copy = FRDomesticVrpConverters.toFRDomesticVRPRequest(obRequest);
+
+        assertThat(copy).isEqualTo(request);
+        assertThat(RequestFingerprint.of(copy)).isEqualTo(RequestFingerprint.of(request));
+    }
+
+    @Test
+    void shouldReturnDifferentFingerprintWhenRequestChanges() {
+        final FRDomesticVrpRequest request = FRDomesticVrpConverters.toFRDomesticVRPRequest(OBDomesticVrpRequestTestDataFactory.aValidOBDomesticVRPRequest());
+        final String fingerprint = RequestFingerprint.of(request);
+
+        request.getData().getInstruction().getInstructedAmount().setAmount("232323");
+
+        assertThat(RequestFingerprint.of(request)).isNotEqualTo(fingerprint);
+    }
+}
@@ -20,9 +20,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -37,7 +46,9 @@ import com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.vrp.FRDome
 import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRDomesticVrpRequest;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
 import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.idempotency.FRIdempotencyRecord;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticVrpPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.idempotency.IdempotencyRecordRepository;
 import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.DomesticVrpPaymentSubmissionRepository;
 import com.forgerock.sapi.gateway.uk.common.shared.api.meta.obie.OBVersion;
 
@@ -52,13 +63,17 @@ class VRPIdempotentPaymentServiceTest {
     @Autowired
     private DomesticVrpPaymentSubmissionRepository vrpPaymentSubmissionRepository;
 
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
     private VRPIdempotentPaymentService idempotentPaymentService;
 
     @BeforeEach
     void setup() {
         // Clear payment repo state
         vrpPaymentSubmissionRepository.deleteAll();
-        idempotentPaymentService = new VRPIdempotentPaymentService(vrpPaymentSubmissionRepository);
+        idempotencyRecordRepository.deleteAll();
+        idempotentPaymentService = new VRPIdempotentPaymentService(vrpPaymentSubmissionRepository, idempotencyRecordRepository);
     }
 
     private FRDomesticVrpPaymentSubmission createVRPSubmission(FRDomesticVrpRequest obPayment, String idempotencyKey) {
@@ -99,7 +114,7 @@ class VRPIdempotentPaymentServiceTest {
     }
 
     @Test
-    void shouldFailToFindPaymentIfIdempotencyKeyMatchesButRequestBodyHasBeenChanged() {
+    void shouldFailToFindPaymentIfIdempotencyKeyMatchesButRequestBodyHasBeenChanged() throws Exception {
         final FRDomesticVrpRequest obPayment = FRDomesticVrpConverters.toFRDomesticVRPRequest(OBDomesticVrpRequestTestDataFactory.aValidOBDomesticVRPRequest());
         final String idempotencyKey = UUID.randomUUID().toString();
         final FRDomesticVrpPaymentSubmission paymentSubmission = createVRPSubmission(obPayment, idempotencyKey);
@@ -112,4 +127,143 @@ class VRPIdempotentPaymentServiceTest {
         assertThat(obErrorException.getObriErrorType()).isEqualTo(OBRIErrorType.IDEMPOTENCY_KEY_REQUEST_BODY_CHANGED);
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldFailToSavePaymentIfIdempotencyKeyMatchesButRequestBodyHasBeenChanged() throws Exception {
+        final FRDomesticVrpRequest obPayment = FRDomesticVrpConverters.toFRDomesticVRPRequest(OBDomesticVrpRequestTestDataFactory.aValidOBDomesticVRPRequest());
+        final String idempotencyKey = UUID.randomUUID().toString();
+        idempotentPaymentService.savePayment(createVRPSubmission(obPayment, idempotencyKey));
+
+        final FRDomesticVrpRequest changedPayment = FRDomesticVrpConverters.toFRDomesticVRPRequest(OBDomesticVrpRequestTestDataFactory.aValidOBDomesticVRPRequest());
+        changedPayment.getData().getInstruction().getInstructedAmount().setAmount("232323");
+        final OBErrorException obErrorException = assertThrows(OBErrorException.class,
+                () -> idempotentPaymentService.savePayment(createVRPSubmission(changedPayment, idempotencyKey)));
+        assertThat(obErrorException.getObriErrorType()).isEqualTo(OBRIErrorType.IDEMPOTENCY_KEY_REQUEST_BODY_CHANGED);
+        assertThat(vrpPaymentSubmissionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCreateSinglePaymentWhenRequestsAreSubmittedConcurrently() throws Exception {
+        final FRDomesticVrpRequest obPayment = FRDomesticVrpConverters.toFRDomesticVRPRequest(OBDomesticVrpRequestTestDataFactory.aValidOBDomesticVRPRequest());
+        final String idempotencyKey = UUID.randomUUID().toString();
+
+        final int numRequests = 8;
+        final ExecutorService executorService = Executors.newFixedThreadPool(numRequests);
+        try {
+            final List<Callable<FRDomesticVrpPaymentSubmission>> requests = new ArrayList<>();
+            for (int i = 0; i < numRequests; i++) {
+                // Each request generates its own payment id, as the controller does
+                requests.add(() -> idempotentPaymentService.savePayment(createVRPSubmission(obPayment, idempotencyKey)));
+            }
+            final List<String> paymentIds = new ArrayList<>();
+            for (Future<FRDomesticVrpPaymentSubmission> result : executorService.invokeAll(requests)) {
+                paymentIds.add(result.get().getId());
+            }
+            assertThat(paymentIds).containsOnly(paymentIds.get(0));
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertThat(vrpPaymentSubmissionRepository.count()).isEqualTo(1);
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAllowIdempotencyKeyToBeReusedOnceExpired() throws Exception {
+        final FRDomesticVrpRequest obPayment = FRDomesticVrpConverters.toFRDomesticVRPRequest(OBDomesticVrpRequestTestDataFactory.aValidOBDomesticVRPRequest());
+        final String idempotencyKey = UUID.randomUUID().toString();
+        // Expired record which has not yet been removed by the TTL monitor
+        idempotencyRecordRepository.insert(FRIdempotencyRecord.builder()
+                .apiClientId(apiClientId)
+                .idempotencyKey(idempotencyKey)
+                .requestFingerprint("expired-request")
+                .resourceId(UUID.randomUUID().toString())
+                .expiresAt(DateTime.now().minusMinutes(1).toDate())
+                .build());
+
+        assertThat(idempotentPaymentService.findExistingPayment(obPayment, obPayment.getData().getConsentId(), apiClientId, idempotencyKey)).isEmpty();
+
+        final FRDomesticVrpPaymentSubmission paymentSubmission = createVRPSubmission(obPayment, idempotencyKey);
+        final FRDomesticVrpPaymentSubmission persistedPaymentSubmission = idempotentPaymentService.savePayment(paymentSubmission);
+        assertThat(persistedPaymentSubmission.getId()).isEqualTo(paymentSubmission.getId());
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldWaitForClaimingRequestToSavePayment() throws Exception {
+        final FRDomesticVrpRequest obPayment = FRDomesticVrpConverters.toFRDomesticVRPRequest(OBDomesticVrpRequestTestDataFactory.aValidOBDomesticVRPRequest());
+        final String idempotencyKey = UUID.randomUUID().toString();
+        // Another request has claimed the key but not yet saved its payment
+        final FRDomesticVrpPaymentSubmission claimingPayment = createVRPSubmission(obPayment, idempotencyKey);
+        idempotencyRecordRepository.insert(claimRecord(obPayment, idempotencyKey, claimingPayment.getId(), new Date()));
+
+        final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+        try {
+            executorService.schedule(() -> vrpPaymentSubmissionRepository.insert(claimingPayment), 200, TimeUnit.MILLISECONDS);
+
+            assertThat(idempotentPaymentService.findExistingPayment(obPayment, obPayment.getData().getConsentId(), apiClientId, idempotencyKey))
+                    .hasValueSatisfying(payment -> assertThat(payment.getId()).isEqualTo(claimingPayment.getId()));
+            assertThat(idempotentPaymentService.savePayment(createVRPSubmission(obPayment, idempotencyKey)).getId())
+                    .isEqualTo(claimingPayment.getId());
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertThat(vrpPaymentSubmissionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFailWhenClaimingRequestDoesNotSavePaymentWithinClaimTimeout() throws Exception {
+        final FRDomesticVrpRequest obPayment = FRDomesticVrpConverters.toFRDomesticVRPRequest(OBDomesticVrpRequestTestDataFactory.aValidOBDomesticVRPRequest());
+        final String idempotencyKey = UUID.randomUUID().toString();
+        idempotentPaymentService = new VRPIdempotentPaymentService(vrpPaymentSubmissionRepository, idempotencyRecordRepository,
+                Duration.ofMillis(200), Duration.ofMillis(10));
+        // Claim made by a request which is slow to save its payment
+        final FRDomesticVrpPaymentSubmission claimingPayment = createVRPSubmission(obPayment, idempotencyKey);
+        idempotencyRecordRepository.insert(claimRecord(obPayment, idempotencyKey, claimingPayment.getId(),
+                DateTime.now().minusMinutes(1).toDate()));
+
+        final OBErrorException obErrorException = assertThrows(OBErrorException.class,
+                () -> idempotentPaymentService.savePayment(createVRPSubmission(obPayment, idempotencyKey)));
+        assertThat(obErrorException.getObriErrorType()).isEqualTo(OBRIErrorType.SERVER_ERROR);
+        assertThat(vrpPaymentSubmissionRepository.count()).isZero();
+
+        // The claim is kept, so the payment saved by the slow request is the only payment for the idempotencyKey
+        vrpPaymentSubmissionRepository.insert(claimingPayment);
+        assertThat(idempotentPaymentService.savePayment(createVRPSubmission(obPayment, idempotencyKey)).getId())
+                .isEqualTo(claimingPayment.getId());
+        assertThat(idempotencyRecordRepository.findAll()).singleElement()
+                .satisfies(idempotencyRecord -> assertThat(idempotencyRecord.getResourceId()).isEqualTo(claimingPayment.getId()));
+        assertThat(vrpPaymentSubmissionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReclaimIdempotencyKeyWhenClaimingRequestReleasesClaim() throws Exception {
+        final FRDomesticVrpRequest obPayment = FRDomesticVrpConverters.toFRDomesticVRPRequest(OBDomesticVrpRequestTestDataFactory.aValidOBDomesticVRPRequest());
+        final String idempotencyKey = UUID.randomUUID().toString();
+        // Claim made by a request which then fails to save its payment and releases the claim
+        final FRIdempotencyRecord failedClaim = idempotencyRecordRepository.insert(
+                claimRecord(obPayment, idempotencyKey, UUID.randomUUID().toString(), new Date()));
+
+        final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+        try {
+            executorService.schedule(() -> idempotencyRecordRepository.delete(failedClaim), 200, TimeUnit.MILLISECONDS);
+
+            final FRDomesticVrpPaymentSubmission paymentSubmission = createVRPSubmission(obPayment, idempotencyKey);
+            assertThat(idempotentPaymentService.savePayment(paymentSubmission).getId()).isEqualTo(paymentSubmission.getId());
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(1);
+        assertThat(vrpPaymentSubmissionRepository.count()).isEqualTo(1);
+    }
+
+    private FRIdempotencyRecord claimRecord(FRDomesticVrpRequest obPayment, String idempotencyKey, String resourceId, Date created) {
+        return FRIdempotencyRecord.builder()
+                .apiClientId(apiClientId)
+                .idempotencyKey(idempotencyKey)
+                .requestFingerprint(RequestFingerprint.of(obPayment))
+                .resourceId(resourceId)
+                .created(created)
+                .expiresAt(DateTime.now().plusMinutes(1).toDate())
+                .build();
+    }
+
+}
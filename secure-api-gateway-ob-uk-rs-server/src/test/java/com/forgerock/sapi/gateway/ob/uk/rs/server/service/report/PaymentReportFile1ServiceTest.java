@@ -0,0 +1,242 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.report;
+
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.converter.v3.payment.FRWriteFileConverter.toFRWriteFile;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRSubmissionStatus;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRFilePayment;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.common.payment.file.DefaultPaymentFileType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultRepository;
+
+import uk.org.openbanking.datamodel.v3.payment.OBWriteFile2;
+import uk.org.openbanking.datamodel.v3.payment.OBWriteFile2Data;
+import uk.org.openbanking.datamodel.v3.payment.OBWriteFileConsent3;
+import uk.org.openbanking.testsupport.v3.payment.OBWriteFileConsentTestDataFactory;
+
+/**
+ * Unit test for {@link PaymentReportFile1Service}
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentReportFile1ServiceTest {
+
+    private static final String FILE_PAYMENT_ID = "PFC_file-payment-1";
+
+    @Mock
+    private FilePaymentResultRepository filePaymentResultRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PaymentReportFile1Service paymentReportFileService;
+
+    @BeforeEach
+    void setUp() {
+        paymentReportFileService = new PaymentReportFile1Service(filePaymentResultRepository, objectMapper, 2);
+    }
+
+    @Test
+    void shouldRecordResultsInBatches() throws Exception {
+        final FilePaymentResultRecorder recorder = paymentReportFileService.startRecording(FILE_PAYMENT_ID);
+
+        recorder.accept(payment("INSTR-1", "10.00"));
+        recorder.accept(payment("INSTR-2", "20.50"));
+        recorder.accept(payment("INSTR-3", "5"));
+        assertThat(recorder.finish()).isEqualTo(3);
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<FRFilePaymentResult>> batches = ArgumentCaptor.forClass(List.class);
+        verify(filePaymentResultRepository, times(2)).insertBatch(batches.capture());
+        assertThat(batches.getAllValues().get(0)).extracting(FRFilePaymentResult::getIndex).containsExactly(0, 1);
+        assertThat(batches.getAllValues().get(1)).extracting(FRFilePaymentResult::getIndex).containsExactly(2);
+
+        final FRFilePaymentResult result = batches.getAllValues().get(0).get(1);
+        // Results are recorded under the upload, they belong to the file payment once the upload is accepted
+        assertThat(result.getUploadId()).isNotNull();
+        assertThat(result.getId()).isEqualTo(FRFilePaymentResult.id(result.getUploadId(), 1));
+        assertThat(result.getFilePaymentId()).isNull();
+        assertThat(result.getInstructionIdentification()).isEqualTo("INSTR-2");
+        assertThat(result.getEndToEndIdentification()).isEqualTo("E2E-INSTR-2");
+        assertThat(result.getAmount()).isEqualTo(new BigDecimal("20.50"));
+        assertThat(result.getCurrency()).isEqualTo("GBP");
+        assertThat(result.getStatus()).isEqualTo(FRFilePaymentResult.Status.PENDING);
+    }
+
+    @Test
+    void shouldNotWriteEmptyBatchWhenFinished() throws Exception {
+        final FilePaymentResultRecorder recorder = paymentReportFileService.startRecording(FILE_PAYMENT_ID);
+        recorder.accept(payment("INSTR-1", "10.00"));
+        recorder.accept(payment("INSTR-2", "20.00"));
+
+        recorder.finish();
+
+        verify(filePaymentResultRepository, times(1)).insertBatch(any());
+    }
+
+    @Test
+    void shouldAcceptResultsWhenCompleted() throws Exception {
+        final FilePaymentResultRecorder recorder = paymentReportFileService.startRecording(FILE_PAYMENT_ID);
+        recorder.accept(payment("INSTR-1", "10.00"));
+        recorder.finish();
+
+        recorder.complete();
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<FRFilePaymentResult>> batch = ArgumentCaptor.forClass(List.class);
+        verify(filePaymentResultRepository).insertBatch(batch.capture());
+        verify(filePaymentResultRepository).acceptUpload(batch.getValue().get(0).getUploadId(), FILE_PAYMENT_ID);
+        verify(filePaymentResultRepository, never()).deleteUpload(any());
+    }
+
+    @Test
+    void shouldRemoveResultsWhenDiscarded() throws Exception {
+        final FilePaymentResultRecorder recorder = paymentReportFileService.startRecording(FILE_PAYMENT_ID);
+        recorder.accept(payment("INSTR-1", "10.00"));
+
+        recorder.discard();
+
+        verify(filePaymentResultRepository, never()).insertBatch(any());
+        verify(filePaymentResultRepository).deleteUpload(any());
+        verify(filePaymentResultRepository, never()).acceptUpload(any(), any());
+    }
+
+    @Test
+    void shouldRejectRecordingGivenFileAlreadyAccepted() {
+        when(filePaymentResultRepository.existsByFilePaymentId(FILE_PAYMENT_ID)).thenReturn(true);
+
+        assertThatThrownBy(() -> paymentReportFileService.startRecording(FILE_PAYMENT_ID))
+                .isInstanceOfSatisfying(OBErrorException.class, ex -> {
+                    assertThat(ex.getOBError().getErrorCode()).isEqualTo("OBRI.Request.Object.file.invalid");
+                    assertThat(ex.getOBError().getMessage())
+                            .contains("A file has already been uploaded for consent " + FILE_PAYMENT_ID);
+                });
+
+        verify(filePaymentResultRepository, never()).insertBatch(any());
+        verify(filePaymentResultRepository, never()).deleteUpload(any());
+    }
+
+    @Test
+    void shouldRejectInvalidBatchSize() {
+        assertThatThrownBy(() -> new PaymentReportFile1Service(filePaymentResultRepository, objectMapper, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldStreamReportFromResults() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+        when(filePaymentResultRepository.streamByFilePaymentIdOrderByIndexAsc(FILE_PAYMENT_ID)).thenReturn(
+                Stream.of(result(0, "INSTR-1", "0.60", FRFilePaymentResult.Status.COMPLETED),
+                          result(1, "INSTR-2", "0.40", FRFilePaymentResult.Status.COMPLETED))
+                      .onClose(() -> closed.set(true)));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        paymentReportFileService.writePaymentReport(filePaymentSubmission(), out);
+
+        assertThat(closed).isTrue();
+        final JsonNode data = objectMapper.readTree(out.toByteArray()).get("Data");
+        assertThat(data.get("FilePaymentId").asText()).isEqualTo(FILE_PAYMENT_ID);
+        assertThat(data.get("ConsentId").asText()).isEqualTo(FILE_PAYMENT_ID);
+        assertThat(data.get("Status").asText()).isEqualTo("InitiationCompleted");
+        assertThat(data.get("FileType").asText()).isEqualTo(DefaultPaymentFileType.UK_OBIE_PAIN_001.getPaymentFileType().getFileType());
+        assertThat(data.get("NumberOfTransactions").asText()).isEqualTo("2");
+        assertThat(data.get("ControlSum").decimalValue()).isEqualByComparingTo(BigDecimal.ONE);
+
+        final JsonNode payments = data.get("Payments");
+        assertThat(payments).hasSize(2);
+        assertThat(payments.get(0).get("Index").asInt()).isEqualTo(0);
+        assertThat(payments.get(0).get("InstructionIdentification").asText()).isEqualTo("INSTR-1");
+        assertThat(payments.get(0).get("EndToEndIdentification").asText()).isEqualTo("E2E-INSTR-1");
+        assertThat(payments.get(0).get("InstructedAmount").get("Amount").asText()).isEqualTo("0.60");
+        assertThat(payments.get(0).get("InstructedAmount").get("Currency").asText()).isEqualTo("GBP");
+        assertThat(payments.get(0).get("Status").asText()).isEqualTo("Completed");
+        assertThat(payments.get(0).has("StatusUpdateDateTime")).isTrue();
+        assertThat(payments.get(1).get("InstructionIdentification").asText()).isEqualTo("INSTR-2");
+    }
+
+    @Test
+    void shouldWriteReportWithNoPaymentsWhenNoResultsWereRecorded() throws Exception {
+        when(filePaymentResultRepository.streamByFilePaymentIdOrderByIndexAsc(FILE_PAYMENT_ID)).thenReturn(Stream.empty());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        paymentReportFileService.writePaymentReport(filePaymentSubmission(), out);
+
+        assertThat(objectMapper.readTree(out.toByteArray()).get("Data").get("Payments")).isEmpty();
+    }
+
+    private static FRFilePayment payment(String instructionIdentification, String amount) {
+        return FRFilePayment.builder()
+                .instructionIdentification(instructionIdentification)
+                .endToEndIdentification("E2E-" + instructionIdentification)
+                .instructedAmount(new FRAmount(amount, "GBP"))
+                .status(FRFilePayment.PaymentStatus.PENDING)
+                .build();
+    }
+
+    private static FRFilePaymentResult result(int index, String instructionIdentification, String amount,
+                                              FRFilePaymentResult.Status status) {
+        return FRFilePaymentResult.builder()
+                .id(FRFilePaymentResult.id(FILE_PAYMENT_ID, index))
+                .filePaymentId(FILE_PAYMENT_ID)
+                .index(index)
+                .instructionIdentification(instructionIdentification)
+                .endToEndIdentification("E2E-" + instructionIdentification)
+                .amount(new BigDecimal(amount))
+                .currency("GBP")
+                .status(status)
+                .statusUpdateDateTime(new Date())
+                .build();
+    }
+
+    private static FRFilePaymentSubmission filePaymentSubmission() {
+        final OBWriteFileConsent3 consent = OBWriteFileConsentTestDataFactory.aValidOBWriteFileConsent3(
+                DefaultPaymentFileType.UK_OBIE_PAIN_001.getPaymentFileType().getFileType(),
+                "hash123", "2", BigDecimal.ONE);
+        final OBWriteFile2 filePayment = new OBWriteFile2().data(new OBWriteFile2Data()
+                .consentId(FILE_PAYMENT_ID)
+                .initiation(consent.getData().getInitiation()));
+        return FRFilePaymentSubmission.builder()
+                .id(FILE_PAYMENT_ID)
+                .filePayment(toFRWriteFile(filePayment))
+                .status(FRSubmissionStatus.INITIATIONCOMPLETED)
+                .build();
+    }
+}
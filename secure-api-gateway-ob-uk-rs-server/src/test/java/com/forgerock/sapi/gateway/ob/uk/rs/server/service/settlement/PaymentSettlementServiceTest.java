@@ -0,0 +1,436 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement;
+
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType.INTERIMAVAILABLE;
+import static com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType.INTERIMBOOKED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRBalanceType;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRCashBalance;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.account.FRCreditDebitIndicator;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAccountIdentifier;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRRemittanceInformation;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRSubmissionStatus;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteDataDomestic;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteDomestic;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteDomesticDataInitiation;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.currency.DefaultExchangeRateService;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.vrp.PeriodicLimitService;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRBalance;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.account.FRTransaction;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRFilePaymentResult;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.PaymentType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.Status;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRStandingOrderSchedule;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.balances.FRBalanceRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.accounts.transactions.FRTransactionRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.FilePaymentResultRepository;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.PaymentSettlementRepository;
+
+/**
+ * Unit test for {@link PaymentSettlementService}
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentSettlementServiceTest {
+
+    private static final String PAYMENT_ID = "PDC_payment-1";
+    private static final String STANDING_ORDER_ID = "PDSOC_standing-order-1";
+    private static final String FILE_PAYMENT_ID = "PFC_file-payment-1";
+    private static final String VRP_PAYMENT_ID = "vrp-payment-1";
+    private static final String ACCOUNT_ID = "account-1";
+
+    @Mock
+    private PaymentSettlementRepository settlementRepository;
+    @Mock
+    private FRBalanceRepository balanceRepository;
+    @Mock
+    private FRTransactionRepository transactionRepository;
+    @Mock
+    private FilePaymentResultRepository filePaymentResultRepository;
+    @Mock
+    private PeriodicLimitService periodicLimitService;
+
+    private PaymentSettlementService settlementService;
+
+    @BeforeEach
+    void setUp() {
+        settlementService = new PaymentSettlementService(settlementRepository, balanceRepository, transactionRepository,
+                new DefaultExchangeRateService(Map.of("EURGBP", new BigDecimal("0.85")), BigDecimal.ONE),
+                filePaymentResultRepository, periodicLimitService);
+    }
+
+    @Test
+    void shouldQueueDomesticPaymentForSettlement() {
+        final FRDomesticPaymentSubmission submission = FRDomesticPaymentSubmission.builder()
+                .id(PAYMENT_ID)
+                .payment(FRWriteDomestic.builder()
+                        .data(FRWriteDataDomestic.builder()
+                                .initiation(FRWriteDomesticDataInitiation.builder()
+                                        .instructedAmount(new FRAmount("12.34", "GBP"))
+                                        .creditorAccount(FRAccountIdentifier.builder().name("ACME Ltd").build())
+                                        .remittanceInformation(FRRemittanceInformation.builder().reference("INV-1").build())
+                                        .build())
+                                .build())
+                        .build())
+                .status(FRSubmissionStatus.PENDING)
+                .build();
+        when(settlementRepository.enqueue(any())).thenReturn(true);
+
+        settlementService.submitForSettlement(submission, ACCOUNT_ID);
+
+        final ArgumentCaptor<FRPaymentSettlement> queued = ArgumentCaptor.forClass(FRPaymentSettlement.class);
+        verify(settlementRepository).enqueue(queued.capture());
+        assertThat(queued.getValue().getId()).isEqualTo(PAYMENT_ID);
+        assertThat(queued.getValue().getPaymentId()).isEqualTo(PAYMENT_ID);
+        assertThat(queued.getValue().getPaymentType()).isEqualTo(PaymentType.DOMESTIC);
+        assertThat(queued.getValue().getDebtorAccountId()).isEqualTo(ACCOUNT_ID);
+        assertThat(queued.getValue().getAmount()).isEqualTo(new BigDecimal("12.34"));
+        assertThat(queued.getValue().getCurrency()).isEqualTo("GBP");
+        assertThat(queued.getValue().getCreditorName()).isEqualTo("ACME Ltd");
+        assertThat(queued.getValue().getReference()).isEqualTo("INV-1");
+        assertThat(queued.getValue().getStatus()).isEqualTo(Status.QUEUED);
+        assertThat(queued.getValue().getDueAt()).isBeforeOrEqualTo(new Date());
+    }
+
+    @Test
+    void shouldDebitBalancesPostTransactionAndCompletePayment() {
+        final FRPaymentSettlement settlement = settlement("25.00", "GBP");
+        when(settlementRepository.submissionExists(PaymentType.DOMESTIC, PAYMENT_ID)).thenReturn(true);
+        when(transactionRepository.existsById(PAYMENT_ID)).thenReturn(false);
+        when(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, INTERIMAVAILABLE))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "100.00")));
+        when(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("25.00"), false, PAYMENT_ID))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "75.00")));
+        when(balanceRepository.debit(ACCOUNT_ID, INTERIMBOOKED, new BigDecimal("25.00"), true, PAYMENT_ID))
+                .thenReturn(Optional.of(balance(INTERIMBOOKED, "175.00")));
+        when(settlementRepository.complete(settlement)).thenReturn(true);
+
+        settlementService.settle(settlement);
+
+        verify(settlementRepository).updateSubmissionStatus(PaymentType.DOMESTIC, PAYMENT_ID, FRSubmissionStatus.ACCEPTEDSETTLEMENTINPROCESS);
+        final ArgumentCaptor<FRTransaction> posted = ArgumentCaptor.forClass(FRTransaction.class);
+        verify(transactionRepository).save(posted.capture());
+        final FRTransaction transaction = posted.getValue();
+        assertThat(transaction.getId()).isEqualTo(PAYMENT_ID);
+        assertThat(transaction.getAccountId()).isEqualTo(ACCOUNT_ID);
+        assertThat(transaction.getTransaction().getAmount()).isEqualTo(new FRAmount("25.00", "GBP"));
+        assertThat(transaction.getTransaction().getCreditDebitIndicator()).isEqualTo(FRCreditDebitIndicator.DEBIT);
+        assertThat(transaction.getTransaction().getBalance().getType()).isEqualTo(INTERIMBOOKED);
+        assertThat(transaction.getTransaction().getBalance().getAmount().getAmount()).isEqualTo("175.00");
+        verify(settlementRepository).updateSubmissionStatus(PaymentType.DOMESTIC, PAYMENT_ID, FRSubmissionStatus.ACCEPTEDSETTLEMENTCOMPLETED);
+        verify(settlementRepository).complete(settlement);
+    }
+
+    @Test
+    void shouldRejectPaymentWhenFundsAreInsufficient() {
+        final FRPaymentSettlement settlement = settlement("250.00", "GBP");
+        when(settlementRepository.submissionExists(PaymentType.DOMESTIC, PAYMENT_ID)).thenReturn(true);
+        when(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, INTERIMAVAILABLE))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "100.00")));
+        when(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("250.00"), false, PAYMENT_ID))
+                .thenReturn(Optional.empty());
+
+        settlementService.settle(settlement);
+
+        verify(balanceRepository, never()).debit(eq(ACCOUNT_ID), eq(INTERIMBOOKED), any(), anyBoolean(), any());
+        verify(transactionRepository, never()).save(any());
+        verify(settlementRepository).updateSubmissionStatus(PaymentType.DOMESTIC, PAYMENT_ID, FRSubmissionStatus.REJECTED);
+        verify(settlementRepository, never()).updateSubmissionStatus(PaymentType.DOMESTIC, PAYMENT_ID, FRSubmissionStatus.ACCEPTEDSETTLEMENTCOMPLETED);
+        verify(settlementRepository).complete(settlement);
+        verify(periodicLimitService, never()).release(any(), any());
+    }
+
+    @Test
+    void shouldReleasePeriodicLimitsWhenVrpPaymentIsRejected() {
+        final FRPaymentSettlement settlement = vrpSettlement();
+        when(settlementRepository.submissionExists(PaymentType.DOMESTIC_VRP, VRP_PAYMENT_ID)).thenReturn(true);
+        when(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, INTERIMAVAILABLE))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "10.00")));
+        when(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("40.00"), false, VRP_PAYMENT_ID))
+                .thenReturn(Optional.empty());
+
+        settlementService.settle(settlement);
+
+        verify(settlementRepository).updateSubmissionStatus(PaymentType.DOMESTIC_VRP, VRP_PAYMENT_ID, FRSubmissionStatus.REJECTED);
+        verify(periodicLimitService).release(VRP_PAYMENT_ID, new BigDecimal("40.00"));
+        verify(settlementRepository).complete(settlement);
+    }
+
+    @Test
+    void shouldNotReleasePeriodicLimitsWhenVrpPaymentIsSettled() {
+        final FRPaymentSettlement settlement = vrpSettlement();
+        when(settlementRepository.submissionExists(PaymentType.DOMESTIC_VRP, VRP_PAYMENT_ID)).thenReturn(true);
+        when(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, INTERIMAVAILABLE))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "100.00")));
+        when(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("40.00"), false, VRP_PAYMENT_ID))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "60.00")));
+
+        settlementService.settle(settlement);
+
+        verify(settlementRepository).updateSubmissionStatus(PaymentType.DOMESTIC_VRP, VRP_PAYMENT_ID, FRSubmissionStatus.ACCEPTEDSETTLEMENTCOMPLETED);
+        verify(periodicLimitService, never()).release(any(), any());
+    }
+
+    @Test
+    void shouldFailSettlementWithoutRejectingPaymentWhenAccountHasNoAvailableBalance() {
+        final FRPaymentSettlement settlement = settlement("25.00", "GBP");
+        when(settlementRepository.submissionExists(PaymentType.DOMESTIC, PAYMENT_ID)).thenReturn(true);
+        when(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, INTERIMAVAILABLE)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> settlementService.settle(settlement)).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(ACCOUNT_ID);
+
+        verify(settlementRepository, never()).updateSubmissionStatus(PaymentType.DOMESTIC, PAYMENT_ID, FRSubmissionStatus.REJECTED);
+        // Left on the queue to be retried once its lease expires
+        verify(settlementRepository, never()).complete(settlement);
+    }
+
+    @Test
+    void shouldDebitAmountConvertedToAccountCurrency() {
+        final FRPaymentSettlement settlement = settlement("100.00", "EUR");
+        when(settlementRepository.submissionExists(PaymentType.DOMESTIC, PAYMENT_ID)).thenReturn(true);
+        when(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, INTERIMAVAILABLE))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "100.00")));
+        when(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("85.00"), false, PAYMENT_ID))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "15.00")));
+
+        settlementService.settle(settlement);
+
+        final ArgumentCaptor<FRTransaction> posted = ArgumentCaptor.forClass(FRTransaction.class);
+        verify(transactionRepository).save(posted.capture());
+        assertThat(posted.getValue().getTransaction().getAmount()).isEqualTo(new FRAmount("85.00", "GBP"));
+        // No booked balance, the transaction reports the available balance
+        assertThat(posted.getValue().getTransaction().getBalance().getType()).isEqualTo(INTERIMAVAILABLE);
+    }
+
+    @Test
+    void shouldNotDebitAgainWhenTransactionWasAlreadyPosted() {
+        final FRPaymentSettlement settlement = settlement("25.00", "GBP");
+        when(settlementRepository.submissionExists(PaymentType.DOMESTIC, PAYMENT_ID)).thenReturn(true);
+        when(transactionRepository.existsById(PAYMENT_ID)).thenReturn(true);
+
+        settlementService.settle(settlement);
+
+        verify(balanceRepository, never()).debit(any(), any(), any(), anyBoolean(), any());
+        verify(transactionRepository, never()).save(any());
+        verify(settlementRepository).updateSubmissionStatus(PaymentType.DOMESTIC, PAYMENT_ID, FRSubmissionStatus.ACCEPTEDSETTLEMENTCOMPLETED);
+        verify(settlementRepository).complete(settlement);
+    }
+
+    @Test
+    void shouldRemovePaymentFromQueueWhenSubmissionNoLongerExists() {
+        final FRPaymentSettlement settlement = settlement("25.00", "GBP");
+        when(settlementRepository.submissionExists(PaymentType.DOMESTIC, PAYMENT_ID)).thenReturn(false);
+
+        settlementService.settle(settlement);
+
+        verify(settlementRepository).complete(settlement);
+        verify(settlementRepository, never()).updateSubmissionStatus(any(), any(), any());
+        verify(balanceRepository, never()).debit(any(), any(), any(), anyBoolean(), any());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldQueueEachStandingOrderPaymentSeparately() {
+        final FRStandingOrderSchedule schedule = FRStandingOrderSchedule.builder()
+                .id(STANDING_ORDER_ID)
+                .paymentType(PaymentType.DOMESTIC_STANDING_ORDER)
+                .debtorAccountId(ACCOUNT_ID)
+                .reference("Rent")
+                .build();
+        final Date dueAt = new Date();
+        when(settlementRepository.enqueue(any())).thenReturn(true);
+
+        settlementService.submitForSettlement(schedule, 3, new FRAmount("500.00", "GBP"), dueAt);
+
+        final ArgumentCaptor<FRPaymentSettlement> queued = ArgumentCaptor.forClass(FRPaymentSettlement.class);
+        verify(settlementRepository).enqueue(queued.capture());
+        assertThat(queued.getValue().getId()).isEqualTo(STANDING_ORDER_ID + ":3");
+        assertThat(queued.getValue().getPaymentId()).isEqualTo(STANDING_ORDER_ID);
+        assertThat(queued.getValue().getPaymentType()).isEqualTo(PaymentType.DOMESTIC_STANDING_ORDER);
+        assertThat(queued.getValue().getAmount()).isEqualTo(new BigDecimal("500.00"));
+        assertThat(queued.getValue().getReference()).isEqualTo("Rent");
+        assertThat(queued.getValue().getDueAt()).isEqualTo(dueAt);
+    }
+
+    @Test
+    void shouldCompleteInitiationOfStandingOrderPayment() {
+        final FRPaymentSettlement settlement = standingOrderSettlement();
+        when(settlementRepository.submissionExists(PaymentType.DOMESTIC_STANDING_ORDER, STANDING_ORDER_ID)).thenReturn(true);
+        when(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, INTERIMAVAILABLE))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "100.00")));
+        when(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("25.00"), false, STANDING_ORDER_ID + ":2"))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "75.00")));
+
+        settlementService.settle(settlement);
+
+        final ArgumentCaptor<FRTransaction> posted = ArgumentCaptor.forClass(FRTransaction.class);
+        verify(transactionRepository).save(posted.capture());
+        assertThat(posted.getValue().getId()).isEqualTo(STANDING_ORDER_ID + ":2");
+        verify(settlementRepository).updateSubmissionStatus(PaymentType.DOMESTIC_STANDING_ORDER, STANDING_ORDER_ID,
+                FRSubmissionStatus.INITIATIONCOMPLETED);
+        verify(settlementRepository, never()).updateSubmissionStatus(PaymentType.DOMESTIC_STANDING_ORDER, STANDING_ORDER_ID,
+                FRSubmissionStatus.ACCEPTEDSETTLEMENTINPROCESS);
+    }
+
+    @Test
+    void shouldNotFailStandingOrderWhenOneOfItsPaymentsIsRejected() {
+        final FRPaymentSettlement settlement = standingOrderSettlement();
+        when(settlementRepository.submissionExists(PaymentType.DOMESTIC_STANDING_ORDER, STANDING_ORDER_ID)).thenReturn(true);
+        when(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, INTERIMAVAILABLE))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "10.00")));
+        when(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("25.00"), false, STANDING_ORDER_ID + ":2"))
+                .thenReturn(Optional.empty());
+
+        settlementService.settle(settlement);
+
+        verify(transactionRepository, never()).save(any());
+        verify(settlementRepository, never()).updateSubmissionStatus(any(), any(), any());
+        verify(settlementRepository).complete(settlement);
+    }
+
+    @Test
+    void shouldCompleteResultsOfFilePayment() {
+        final FRPaymentSettlement settlement = fileSettlement();
+        when(settlementRepository.submissionExists(PaymentType.FILE, FILE_PAYMENT_ID)).thenReturn(true);
+        when(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, INTERIMAVAILABLE))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "100.00")));
+        when(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("60.00"), false, FILE_PAYMENT_ID))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "40.00")));
+
+        settlementService.settle(settlement);
+
+        verify(settlementRepository).updateSubmissionStatus(PaymentType.FILE, FILE_PAYMENT_ID,
+                FRSubmissionStatus.INITIATIONCOMPLETED);
+        verify(filePaymentResultRepository).updateStatus(eq(FILE_PAYMENT_ID), eq(FRFilePaymentResult.Status.COMPLETED),
+                any(Date.class));
+    }
+
+    @Test
+    void shouldRejectResultsOfFilePaymentWhenFundsAreInsufficient() {
+        final FRPaymentSettlement settlement = fileSettlement();
+        when(settlementRepository.submissionExists(PaymentType.FILE, FILE_PAYMENT_ID)).thenReturn(true);
+        when(balanceRepository.findByAccountIdAndBalanceType(ACCOUNT_ID, INTERIMAVAILABLE))
+                .thenReturn(Optional.of(balance(INTERIMAVAILABLE, "10.00")));
+        when(balanceRepository.debit(ACCOUNT_ID, INTERIMAVAILABLE, new BigDecimal("60.00"), false, FILE_PAYMENT_ID))
+                .thenReturn(Optional.empty());
+
+        settlementService.settle(settlement);
+
+        verify(settlementRepository).updateSubmissionStatus(PaymentType.FILE, FILE_PAYMENT_ID,
+                FRSubmissionStatus.INITIATIONFAILED);
+        verify(filePaymentResultRepository).updateStatus(eq(FILE_PAYMENT_ID), eq(FRFilePaymentResult.Status.REJECTED),
+                any(Date.class));
+        verify(filePaymentResultRepository, never()).updateStatus(any(), eq(FRFilePaymentResult.Status.COMPLETED), any());
+    }
+
+    private static FRPaymentSettlement fileSettlement() {
+        return FRPaymentSettlement.builder()
+                .id(FILE_PAYMENT_ID)
+                .paymentId(FILE_PAYMENT_ID)
+                .paymentType(PaymentType.FILE)
+                .debtorAccountId(ACCOUNT_ID)
+                .amount(new BigDecimal("60.00"))
+                .reference("File-1")
+                .status(Status.IN_PROCESS)
+                .dueAt(new Date())
+                .leaseExpiresAt(new Date())
+                .attempts(1)
+                .build();
+    }
+
+    private static FRPaymentSettlement vrpSettlement() {
+        return FRPaymentSettlement.builder()
+                .id(VRP_PAYMENT_ID)
+                .paymentId(VRP_PAYMENT_ID)
+                .paymentType(PaymentType.DOMESTIC_VRP)
+                .debtorAccountId(ACCOUNT_ID)
+                .amount(new BigDecimal("40.00"))
+                .currency("GBP")
+                .status(Status.IN_PROCESS)
+                .dueAt(new Date())
+                .leaseExpiresAt(new Date())
+                .attempts(1)
+                .build();
+    }
+
+    private static FRPaymentSettlement standingOrderSettlement() {
+        return FRPaymentSettlement.builder()
+                .id(STANDING_ORDER_ID + ":2")
+                .paymentId(STANDING_ORDER_ID)
+                .paymentType(PaymentType.DOMESTIC_STANDING_ORDER)
+                .debtorAccountId(ACCOUNT_ID)
+                .amount(new BigDecimal("25.00"))
+                .currency("GBP")
+                .status(Status.IN_PROCESS)
+                .dueAt(new Date())
+                .leaseExpiresAt(new Date())
+                .attempts(1)
+                .build();
+    }
+
+    private static FRPaymentSettlement settlement(String amount, String currency) {
+        return FRPaymentSettlement.builder()
+                .id(PAYMENT_ID)
+                .paymentId(PAYMENT_ID)
+                .paymentType(PaymentType.DOMESTIC)
+                .debtorAccountId(ACCOUNT_ID)
+                .amount(new BigDecimal(amount))
+                .currency(currency)
+                .creditorName("ACME Ltd")
+                .status(Status.IN_PROCESS)
+                .dueAt(new Date())
+                .leaseExpiresAt(new Date())
+                .attempts(1)
+                .build();
+    }
+
+    private static FRBalance balance(FRBalanceType type, String amount) {
+        return FRBalance.builder()
+                .id(type + "-" + ACCOUNT_ID)
+                .accountId(ACCOUNT_ID)
+                .balance(FRCashBalance.builder()
+                        .accountId(ACCOUNT_ID)
+                        .type(type)
+                        .creditDebitIndicator(FRCreditDebitIndicator.CREDIT)
+                        .amount(FRAmount.builder().amount(amount).currency("GBP").build())
+                        .build())
+                .build();
+    }
+}
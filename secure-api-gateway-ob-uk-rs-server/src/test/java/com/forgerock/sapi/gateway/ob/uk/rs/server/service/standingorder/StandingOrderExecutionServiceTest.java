@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.standingorder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAccountIdentifier;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRAmount;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.common.FRSubmissionStatus;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteDataDomesticStandingOrder;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteDomesticStandingOrder;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.payment.FRWriteDomesticStandingOrderDataInitiation;
+import com.forgerock.sapi.gateway.ob.uk.rs.server.service.settlement.PaymentSettlementService;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRDomesticStandingOrderPaymentSubmission;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRPaymentSettlement.PaymentType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.entity.payment.FRStandingOrderSchedule;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.StandingOrderScheduleRepository;
+
+/**
+ * Unit test for {@link StandingOrderExecutionService}
+ */
+@ExtendWith(MockitoExtension.class)
+class StandingOrderExecutionServiceTest {
+
+    private static final String STANDING_ORDER_ID = "PDSOC_standing-order-1";
+    private static final String ACCOUNT_ID = "account-1";
+    private static final DateTime FIRST_PAYMENT = new DateTime(2024, 1, 15, 9, 0, DateTimeZone.UTC);
+    private static final FRAmount FIRST_AMOUNT = new FRAmount("100.00", "GBP");
+    private static final FRAmount RECURRING_AMOUNT = new FRAmount("50.00", "GBP");
+    private static final FRAmount FINAL_AMOUNT = new FRAmount("25.00", "GBP");
+
+    @Mock
+    private StandingOrderScheduleRepository scheduleRepository;
+    @Mock
+    private PaymentSettlementService settlementService;
+
+    private StandingOrderExecutionService executionService;
+
+    @BeforeEach
+    void setUp() {
+        executionService = new StandingOrderExecutionService(scheduleRepository, settlementService);
+    }
+
+    @Test
+    void shouldScheduleFirstPaymentOfDomesticStandingOrder() {
+        final FRDomesticStandingOrderPaymentSubmission submission = FRDomesticStandingOrderPaymentSubmission.builder()
+                .id(STANDING_ORDER_ID)
+                .standingOrder(FRWriteDomesticStandingOrder.builder()
+                        .data(FRWriteDataDomesticStandingOrder.builder()
+                                .initiation(FRWriteDomesticStandingOrderDataInitiation.builder()
+                                        .frequency("IntrvlMnthDay:01:15")
+                                        .reference("Rent")
+                                        .numberOfPayments("3")
+                                        .firstPaymentDateTime(FIRST_PAYMENT)
+                                        .firstPaymentAmount(FIRST_AMOUNT)
+                                        .recurringPaymentAmount(RECURRING_AMOUNT)
+                                        .finalPaymentAmount(FINAL_AMOUNT)
+                                        .creditorAccount(FRAccountIdentifier.builder().name("Landlord").build())
+                                        .build())
+                                .build())
+                        .build())
+                .status(FRSubmissionStatus.INITIATIONPENDING)
+                .build();
+        when(scheduleRepository.schedule(any())).thenReturn(true);
+
+        executionService.schedule(submission, ACCOUNT_ID);
+
+        final ArgumentCaptor<FRStandingOrderSchedule> scheduled = ArgumentCaptor.forClass(FRStandingOrderSchedule.class);
+        verify(scheduleRepository).schedule(scheduled.capture());
+        assertThat(scheduled.getValue().getId()).isEqualTo(STANDING_ORDER_ID);
+        assertThat(scheduled.getValue().getPaymentType()).isEqualTo(PaymentType.DOMESTIC_STANDING_ORDER);
+        assertThat(scheduled.getValue().getDebtorAccountId()).isEqualTo(ACCOUNT_ID);
+        assertThat(scheduled.getValue().getNumberOfPayments()).isEqualTo(3);
+        assertThat(scheduled.getValue().getPaymentsMade()).isZero();
+        assertThat(scheduled.getValue().getCreditorName()).isEqualTo("Landlord");
+        assertThat(scheduled.getValue().getNextExecutionDateTime()).isEqualTo(FIRST_PAYMENT.toDate());
+    }
+
+    @Test
+    void shouldExecuteFirstPaymentAndAdvanceToNextPayment() {
+        final FRStandingOrderSchedule schedule = schedule(0, FIRST_PAYMENT);
+        when(scheduleRepository.advance(any(), any())).thenReturn(true);
+
+        executionService.execute(schedule);
+
+        verify(settlementService).submitForSettlement(schedule, 1, FIRST_AMOUNT, FIRST_PAYMENT.toDate());
+        verify(scheduleRepository).advance(schedule, new DateTime(2024, 2, 15, 9, 0, DateTimeZone.UTC).toDate());
+    }
+
+    @Test
+    void shouldExecuteRecurringPayment() {
+        final DateTime due = new DateTime(2024, 2, 15, 9, 0, DateTimeZone.UTC);
+        final FRStandingOrderSchedule schedule = schedule(1, due);
+        when(scheduleRepository.advance(any(), any())).thenReturn(true);
+
+        executionService.execute(schedule);
+
+        verify(settlementService).submitForSettlement(schedule, 2, RECURRING_AMOUNT, due.toDate());
+        verify(scheduleRepository).advance(schedule, new DateTime(2024, 3, 15, 9, 0, DateTimeZone.UTC).toDate());
+    }
+
+    @Test
+    void shouldExecuteFinalPaymentWhenNumberOfPaymentsReached() {
+        final DateTime due = new DateTime(2024, 3, 15, 9, 0, DateTimeZone.UTC);
+        final FRStandingOrderSchedule schedule = schedule(2, due);
+        when(scheduleRepository.advance(any(), any())).thenReturn(true);
+
+        executionService.execute(schedule);
+
+        verify(settlementService).submitForSettlement(schedule, 3, FINAL_AMOUNT, due.toDate());
+        verify(scheduleRepository).advance(eq(schedule), isNull());
+    }
+
+    @Test
+    void shouldExecuteFinalPaymentWhenNextPaymentIsAfterFinalPaymentDate() {
+        final DateTime due = new DateTime(2024, 2, 15, 9, 0, DateTimeZone.UTC);
+        final FRStandingOrderSchedule schedule = schedule(1, due);
+        schedule.setNumberOfPayments(null);
+        schedule.setFinalPaymentDateTime(new DateTime(2024, 3, 1, 0, 0, DateTimeZone.UTC).toDate());
+        when(scheduleRepository.advance(any(), any())).thenReturn(true);
+
+        executionService.execute(schedule);
+
+        verify(settlementService).submitForSettlement(schedule, 2, FINAL_AMOUNT, due.toDate());
+        verify(scheduleRepository).advance(eq(schedule), isNull());
+    }
+
+    private static FRStandingOrderSchedule schedule(int paymentsMade, DateTime nextExecution) {
+        return FRStandingOrderSchedule.builder()
+                .id(STANDING_ORDER_ID)
+                .paymentType(PaymentType.DOMESTIC_STANDING_ORDER)
+                .debtorAccountId(ACCOUNT_ID)
+                .frequency("IntrvlMnthDay:01:15")
+                .firstPaymentAmount(FIRST_AMOUNT)
+                .recurringPaymentAmount(RECURRING_AMOUNT)
+                .finalPaymentAmount(FINAL_AMOUNT)
+                .numberOfPayments(3)
+                .paymentsMade(paymentsMade)
+                .nextExecutionDateTime(nextExecution.toDate())
+                .leaseExpiresAt(new Date())
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.vrp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.Test;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRPeriodicLimits.PeriodAlignmentEnum;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRPeriodicLimits.PeriodTypeEnum;
+
+/**
+ * Unit test for {@link PeriodicLimitPeriod}
+ */
+class PeriodicLimitPeriodTest {
+
+    private static final DateTime CONSENT_START = utc(2024, 1, 31, 10, 30);
+
+    @Test
+    void shouldCalculateCalendarAlignedPeriods() {
+        final DateTime paymentTime = utc(2024, 8, 14, 16, 45); // Wednesday
+
+        assertPeriod(calendarPeriod(PeriodTypeEnum.DAY, paymentTime), utc(2024, 8, 14), utc(2024, 8, 15));
+        assertPeriod(calendarPeriod(PeriodTypeEnum.WEEK, paymentTime), utc(2024, 8, 12), utc(2024, 8, 19));
+        assertPeriod(calendarPeriod(PeriodTypeEnum.MONTH, paymentTime), utc(2024, 8, 1), utc(2024, 9, 1));
+        assertPeriod(calendarPeriod(PeriodTypeEnum.YEAR, paymentTime), utc(2024, 1, 1), utc(2025, 1, 1));
+    }
+
+    @Test
+    void shouldCalculateConsentAlignedPeriods() {
+        final DateTime paymentTime = utc(2024, 8, 14, 16, 45);
+
+        assertPeriod(consentPeriod(PeriodTypeEnum.DAY, paymentTime), utc(2024, 8, 14, 10, 30), utc(2024, 8, 15, 10, 30));
+        assertPeriod(consentPeriod(PeriodTypeEnum.WEEK, paymentTime), utc(2024, 8, 14, 10, 30), utc(2024, 8, 21, 10, 30));
+        assertPeriod(consentPeriod(PeriodTypeEnum.YEAR, paymentTime), CONSENT_START, utc(2025, 1, 31, 10, 30));
+    }
+
+    @Test
+    void shouldCalculateConsentAlignedMonthsFromConsentStart() {
+        // Feb has fewer days than the consent start day, the period is clamped to the end of the month
+        assertPeriod(consentPeriod(PeriodTypeEnum.MONTH, utc(2024, 3, 1)), utc(2024, 2, 29, 10, 30), utc(2024, 3, 31, 10, 30));
+        // Clamping does not accumulate over subsequent periods
+        assertPeriod(consentPeriod(PeriodTypeEnum.MONTH, utc(2024, 4, 15)), utc(2024, 3, 31, 10, 30), utc(2024, 4, 30, 10, 30));
+    }
+
+    @Test
+    void shouldCalculateHalfYearBoundaries() {
+        assertPeriod(calendarPeriod(PeriodTypeEnum.HALF_YEAR, utc(2024, 6, 30, 23, 59)), utc(2024, 1, 1), utc(2024, 7, 1));
+        assertPeriod(calendarPeriod(PeriodTypeEnum.HALF_YEAR, utc(2024, 7, 1)), utc(2024, 7, 1), utc(2025, 1, 1));
+        assertPeriod(calendarPeriod(PeriodTypeEnum.HALF_YEAR, utc(2024, 12, 31, 23, 59)), utc(2024, 7, 1), utc(2025, 1, 1));
+
+        assertPeriod(consentPeriod(PeriodTypeEnum.HALF_YEAR, utc(2024, 7, 31, 10, 29)), CONSENT_START, utc(2024, 7, 31, 10, 30));
+        assertPeriod(consentPeriod(PeriodTypeEnum.HALF_YEAR, utc(2024, 7, 31, 10, 30)), utc(2024, 7, 31, 10, 30), utc(2025, 1, 31, 10, 30));
+    }
+
+    @Test
+    void shouldCalculateFortnightBoundariesFromConsentStart() {
+        assertPeriod(consentPeriod(PeriodTypeEnum.FORTNIGHT, utc(2024, 2, 14, 10, 29)), CONSENT_START, utc(2024, 2, 14, 10, 30));
+        assertPeriod(consentPeriod(PeriodTypeEnum.FORTNIGHT, utc(2024, 2, 14, 10, 30)), utc(2024, 2, 14, 10, 30), utc(2024, 2, 28, 10, 30));
+    }
+
+    @Test
+    void shouldAlignFortnightToConsentStartWhenCalendarAlignmentRequested() {
+        final DateTime paymentTime = utc(2024, 8, 14, 16, 45);
+
+        assertThat(calendarPeriod(PeriodTypeEnum.FORTNIGHT, paymentTime)).isEqualTo(consentPeriod(PeriodTypeEnum.FORTNIGHT, paymentTime));
+        assertPeriod(calendarPeriod(PeriodTypeEnum.FORTNIGHT, paymentTime), utc(2024, 8, 14, 10, 30), utc(2024, 8, 28, 10, 30));
+    }
+
+    @Test
+    void shouldCalculateConsecutiveFortnightsAcrossYearWithFiftyThreeIsoWeeks() {
+        // 2026 has 53 ISO weeks, the fortnights continue from the consent start regardless
+        final DateTime consentStart = utc(2026, 12, 14);
+
+        assertPeriod(PeriodicLimitPeriod.of(PeriodTypeEnum.FORTNIGHT, PeriodAlignmentEnum.CONSENT, consentStart, utc(2027, 1, 3, 23, 59)),
+                utc(2026, 12, 28), utc(2027, 1, 11));
+        assertPeriod(PeriodicLimitPeriod.of(PeriodTypeEnum.FORTNIGHT, PeriodAlignmentEnum.CONSENT, consentStart, utc(2027, 1, 11)),
+                utc(2027, 1, 11), utc(2027, 1, 25));
+    }
+
+    @Test
+    void shouldUseFirstPeriodForPaymentsBeforeConsentStart() {
+        assertPeriod(consentPeriod(PeriodTypeEnum.WEEK, CONSENT_START.minusHours(1)), CONSENT_START, CONSENT_START.plusWeeks(1));
+    }
+
+    @Test
+    void shouldCalculatePeriodsInUtc() {
+        final DateTime paymentTime = new DateTime(2024, 8, 15, 0, 30, DateTimeZone.forOffsetHours(2));
+
+        assertPeriod(calendarPeriod(PeriodTypeEnum.DAY, paymentTime), utc(2024, 8, 14), utc(2024, 8, 15));
+    }
+
+    private static PeriodicLimitPeriod calendarPeriod(PeriodTypeEnum periodType, DateTime dateTime) {
+        return PeriodicLimitPeriod.of(periodType, PeriodAlignmentEnum.CALENDAR, CONSENT_START, dateTime);
+    }
+
+    private static PeriodicLimitPeriod consentPeriod(PeriodTypeEnum periodType, DateTime dateTime) {
+        return PeriodicLimitPeriod.of(periodType, PeriodAlignmentEnum.CONSENT, CONSENT_START, dateTime);
+    }
+
+    private static void assertPeriod(PeriodicLimitPeriod period, DateTime expectedStart, DateTime expectedEnd) {
+        assertThat(period.getStart()).isEqualTo(expectedStart);
+        assertThat(period.getEnd()).isEqualTo(expectedEnd);
+    }
+
+    private static DateTime utc(int year, int month, int day) {
+        return utc(year, month, day, 0, 0);
+    }
+
+    private static DateTime utc(int year, int month, int day, int hour, int minute) {
+        return new DateTime(year, month, day, hour, minute, DateTimeZone.UTC);
+    }
+}
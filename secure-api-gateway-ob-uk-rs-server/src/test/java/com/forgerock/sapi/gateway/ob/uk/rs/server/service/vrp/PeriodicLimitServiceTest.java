@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2020-2026 Ping Identity Corporation (obst@forgerock.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.forgerock.sapi.gateway.ob.uk.rs.server.service.vrp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRDomesticVRPConsent;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRDomesticVRPConsentData;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRDomesticVRPControlParameters;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRPeriodicLimits;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRPeriodicLimits.PeriodAlignmentEnum;
+import com.forgerock.sapi.gateway.ob.uk.common.datamodel.vrp.FRPeriodicLimits.PeriodTypeEnum;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBErrorException;
+import com.forgerock.sapi.gateway.ob.uk.common.error.OBRIErrorType;
+import com.forgerock.sapi.gateway.rs.resource.store.repo.mongo.payments.VrpPeriodicLimitSpendRepository;
+
+/**
+ * Unit test for {@link PeriodicLimitService}
+ */
+@ExtendWith(MockitoExtension.class)
+class PeriodicLimitServiceTest {
+
+    private static final String CONSENT_ID = "consent-1";
+    private static final String PAYMENT_ID = "payment-1";
+    private static final DateTime CONSENT_START = new DateTime(2024, 1, 10, 9, 0, DateTimeZone.UTC);
+    private static final DateTime PAYMENT_TIME = new DateTime(2024, 3, 20, 12, 0, DateTimeZone.UTC);
+
+    @Mock
+    private VrpPeriodicLimitSpendRepository spendRepository;
+
+    @Test
+    void shouldReserveAmountInEachLimitInPaymentCurrency() throws OBErrorException {
+        final FRDomesticVRPConsent consent = createConsent(
+                createPeriodicLimit("GBP", "100.00", PeriodTypeEnum.MONTH, PeriodAlignmentEnum.CALENDAR),
+                createPeriodicLimit("GBP", "500.00", PeriodTypeEnum.YEAR, PeriodAlignmentEnum.CONSENT),
+                createPeriodicLimit("EUR", "50.00", PeriodTypeEnum.DAY, PeriodAlignmentEnum.CALENDAR));
+        when(spendRepository.incrementSpendWithinLimit(any(), any(), any(), any())).thenReturn(true);
+
+        final PeriodicLimitReservation reservation = createService().reserve(CONSENT_ID, PAYMENT_ID, consent, CONSENT_START,
+                new BigDecimal("20.50"), "GBP", PAYMENT_TIME);
+
+        assertThat(reservation.getBuckets()).hasSize(2);
+        verify(spendRepository).incrementSpendWithinLimit(argThat(bucket -> bucket.getPeriodType().equals("Month")
+                && bucket.getPeriodStart().equals(new DateTime(2024, 3, 1, 0, 0, DateTimeZone.UTC).toDate())
+                && bucket.getExpiresAt().equals(new DateTime(2024, 4, 1, 0, 0, DateTimeZone.UTC).toDate())),
+                eq(PAYMENT_ID), eq(new BigDecimal("20.50")), eq(new BigDecimal("100.00")));
+        verify(spendRepository).incrementSpendWithinLimit(argThat(bucket -> bucket.getPeriodType().equals("Year")
+                && bucket.getPeriodAlignment().equals("Consent")
+                && bucket.getConsentId().equals(CONSENT_ID)
+                && bucket.getCurrency().equals("GBP")
+                && bucket.getPeriodStart().equals(CONSENT_START.toDate())),
+                eq(PAYMENT_ID), eq(new BigDecimal("20.50")), eq(new BigDecimal("500.00")));
+        verifyNoMoreInteractions(spendRepository);
+    }
+
+    @Test
+    void shouldReleaseReservedLimitsWhenLimitIsBreached() {
+        final FRPeriodicLimits breachedLimit = createPeriodicLimit("GBP", "50.00", PeriodTypeEnum.WEEK, PeriodAlignmentEnum.CALENDAR);
+        final FRDomesticVRPConsent consent = createConsent(
+                createPeriodicLimit("GBP", "100.00", PeriodTypeEnum.DAY, PeriodAlignmentEnum.CALENDAR), breachedLimit);
+        doReturn(true).when(spendRepository).incrementSpendWithinLimit(argThat(bucket -> bucket.getPeriodType().equals("Day")), any(), any(), any());
+        doReturn(false).when(spendRepository).incrementSpendWithinLimit(argThat(bucket -> bucket.getPeriodType().equals("Week")), any(), any(), any());
+
+        assertThatThrownBy(() -> createService().reserve(CONSENT_ID, PAYMENT_ID, consent, CONSENT_START, new BigDecimal("30"), "GBP", PAYMENT_TIME))
+                .isInstanceOfSatisfying(OBErrorException.class, ex -> {
+                    assertThat(ex.getObriErrorType()).isEqualTo(OBRIErrorType.REQUEST_VRP_CONTROL_PARAMETERS_PAYMENT_PERIODIC_LIMIT_BREACH);
+                    assertThat(ex.getMessage()).isEqualTo("Unable to complete payment due to payment limit breach, periodic limit of '50.00' 'GBP' for period 'Week' 'Calendar' has been breached");
+                });
+
+        verify(spendRepository).releasePayment(PAYMENT_ID, new BigDecimal("30"));
+    }
+
+    @Test
+    void shouldReleaseReservation() throws OBErrorException {
+        final FRDomesticVRPConsent consent = createConsent(createPeriodicLimit("GBP", "100.00", PeriodTypeEnum.DAY, PeriodAlignmentEnum.CONSENT));
+        when(spendRepository.incrementSpendWithinLimit(any(), any(), any(), any())).thenReturn(true);
+        final PeriodicLimitService periodicLimitService = createService();
+
+        final PeriodicLimitReservation reservation = periodicLimitService.reserve(CONSENT_ID, PAYMENT_ID, consent, CONSENT_START,
+                BigDecimal.TEN, "GBP", PAYMENT_TIME);
+        periodicLimitService.release(reservation);
+
+        verify(spendRepository).releasePayment(PAYMENT_ID, BigDecimal.TEN);
+    }
+
+    @Test
+    void shouldNotReleaseWhenNothingWasReserved() throws OBErrorException {
+        final FRDomesticVRPConsent consent = createConsent(createPeriodicLimit("EUR", "100.00", PeriodTypeEnum.DAY, PeriodAlignmentEnum.CONSENT));
+        final PeriodicLimitService periodicLimitService = createService();
+
+        periodicLimitService.release(periodicLimitService.reserve(CONSENT_ID, PAYMENT_ID, consent, CONSENT_START,
+                BigDecimal.TEN, "GBP", PAYMENT_TIME));
+
+        verifyNoInteractions(spendRepository);
+    }
+
+    @Test
+    void shouldNotReserveWhenConsentHasNoLimits() throws OBErrorException {
+        final PeriodicLimitReservation reservation = createService().reserve(CONSENT_ID, PAYMENT_ID, createConsent(), CONSENT_START,
+                BigDecimal.TEN, "GBP", PAYMENT_TIME);
+
+        assertThat(reservation.getBuckets()).isEmpty();
+        verifyNoInteractions(spendRepository);
+    }
+
+    private PeriodicLimitService createService() {
+        return new PeriodicLimitService(spendRepository);
+    }
+
+    private static FRDomesticVRPConsent createConsent(FRPeriodicLimits... periodicLimits) {
+        return FRDomesticVRPConsent.builder().data(
+                        FRDomesticVRPConsentData.builder().controlParameters(
+                                        FRDomesticVRPControlParameters.builder().periodicLimits(Arrays.asList(periodicLimits))
+                                                .build())
+                                .build())
+                .build();
+    }
+
+    private static FRPeriodicLimits createPeriodicLimit(String currency, String amount, PeriodTypeEnum periodType,
+                                                        PeriodAlignmentEnum periodAlignment) {
+        final FRPeriodicLimits limit = new FRPeriodicLimits();
+        limit.setPeriodAlignment(periodAlignment);
+        limit.setPeriodType(periodType);
+        limit.setCurrency(currency);
+        limit.setAmount(amount);
+        return limit;
+    }
+}